@@ -0,0 +1,60 @@
+package co.com.nequi.config;
+
+import co.com.nequi.usecase.deletion.CascadeDeleteUseCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically resumes cascade deletions whose instance died mid-run, starting right after
+ * startup. A job is stale once it has not heartbeated for {@code app.cascade-delete.stale-after-seconds},
+ * which must comfortably exceed {@link CascadeDeleteUseCase#HEARTBEAT_EVERY}.
+ */
+@Component
+public class CascadeDeleteRecovery implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CascadeDeleteRecovery.class);
+
+    private final CascadeDeleteUseCase cascadeDeleteUseCase;
+    private final Duration staleAfter;
+    private final int maxAttempts;
+    private final ScheduledExecutorService scheduler;
+
+    public CascadeDeleteRecovery(CascadeDeleteUseCase cascadeDeleteUseCase,
+                                 @Value("${app.cascade-delete.stale-after-seconds:120}") long staleAfterSeconds,
+                                 @Value("${app.cascade-delete.max-attempts:3}") int maxAttempts,
+                                 @Value("${app.cascade-delete.recovery-interval-seconds:60}") long intervalSeconds) {
+        this.cascadeDeleteUseCase = cascadeDeleteUseCase;
+        this.staleAfter = Duration.ofSeconds(Math.max(staleAfterSeconds, 2 * CascadeDeleteUseCase.HEARTBEAT_EVERY.toSeconds()));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cascade-delete-recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::recover, 0, Math.max(1, intervalSeconds), TimeUnit.SECONDS);
+    }
+
+    private void recover() {
+        try {
+            cascadeDeleteUseCase.resumeStale(staleAfter, maxAttempts)
+                    .doOnNext(job -> log.info("Took over stale cascade deletion job {} (attempt {})",
+                            job.getId(), job.getAttempts()))
+                    .then()
+                    .block(staleAfter);
+        } catch (RuntimeException e) {
+            log.warn("Unable to resume stale cascade deletion jobs", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -5,19 +5,25 @@ import co.com.nequi.model.pagination.PageResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface BranchRepository {
 
     Mono<Branch> save(Branch branch);
 
     Mono<Branch> findById(String id);
 
+    Flux<Branch> findAllById(Collection<String> ids);
+
     Mono<Branch> findByIdAndFranchiseId(String id, String franchiseId);
 
     Mono<PageResult<Branch>> findByFranchiseId(String franchiseId, int limit, String exclusiveStartKey);
 
     Flux<Branch> streamByFranchiseId(String franchiseId);
 
-    Mono<Branch> update(Branch branch);
+    Mono<Long> countByFranchiseId(String franchiseId);
+
+    Mono<Branch> updateName(String id, String name, Long updatedAt);
 
     Mono<Void> deleteById(String id);
 
@@ -0,0 +1,23 @@
+package co.com.nequi.model.deletion;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class DeletionJob {
+
+    private final String id;
+    private final DeletionTarget targetType;
+    private final String targetId;
+    private final DeletionJobStatus status;
+    private final long branchesDeleted;
+    private final long productsDeleted;
+    private final String errorCode;
+    private final int attempts;
+    private final Long createdAt;
+    private final Long updatedAt;
+
+}
@@ -0,0 +1,9 @@
+package co.com.nequi.model.deletion;
+
+public enum DeletionJobStatus {
+
+    RUNNING,
+    COMPLETED,
+    FAILED
+
+}
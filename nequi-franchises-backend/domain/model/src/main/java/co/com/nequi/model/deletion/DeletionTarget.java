@@ -0,0 +1,8 @@
+package co.com.nequi.model.deletion;
+
+public enum DeletionTarget {
+
+    BRANCH,
+    FRANCHISE
+
+}
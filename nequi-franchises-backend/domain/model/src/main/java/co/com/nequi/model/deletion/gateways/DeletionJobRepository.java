@@ -0,0 +1,26 @@
+package co.com.nequi.model.deletion.gateways;
+
+import co.com.nequi.model.deletion.DeletionJob;
+import co.com.nequi.model.deletion.DeletionJobStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface DeletionJobRepository {
+
+    Mono<DeletionJob> save(DeletionJob job);
+
+    Mono<DeletionJob> findById(String id);
+
+    Mono<Void> addProgress(String id, long branchesDeleted, long productsDeleted, Long updatedAt);
+
+    Mono<Void> finish(String id, DeletionJobStatus status, String errorCode, Long updatedAt);
+
+    Flux<DeletionJob> findRunning();
+
+    /**
+     * Takes over a RUNNING job if it was last updated at {@code seenUpdatedAt}, counting the attempt.
+     * Emits the job as taken over, or completes empty when another instance got there first.
+     */
+    Mono<DeletionJob> claim(String id, Long seenUpdatedAt, Long updatedAt);
+
+}
@@ -5,17 +5,21 @@ import co.com.nequi.model.pagination.PageResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface FranchiseRepository {
 
     Mono<Franchise> save(Franchise franchise);
 
     Mono<Franchise> findById(String id);
 
+    Flux<Franchise> findAllById(Collection<String> ids);
+
     Mono<PageResult<Franchise>> findAll(int limit, String exclusiveStartKey);
 
     Flux<Franchise> streamAll();
 
-    Mono<Franchise> update(Franchise franchise);
+    Mono<Franchise> updateName(String id, String name, Long updatedAt);
 
     Mono<Void> deleteById(String id);
 
@@ -7,15 +7,27 @@ public final class PageResult<T> {
 
     private final List<T> items;
     private final String lastEvaluatedKey;
+    private final Long totalCount;
+    private final Integer pageSize;
 
-    private PageResult(List<T> items, String lastEvaluatedKey) {
+    private PageResult(List<T> items, String lastEvaluatedKey, Long totalCount, Integer pageSize) {
         this.items = List.copyOf(items);
         this.lastEvaluatedKey = lastEvaluatedKey;
+        this.totalCount = totalCount;
+        this.pageSize = pageSize;
     }
 
     public static <T> PageResult<T> of(List<T> items, String lastEvaluatedKey) {
         Objects.requireNonNull(items, "items");
-        return new PageResult<>(items, lastEvaluatedKey);
+        return new PageResult<>(items, lastEvaluatedKey, null, null);
+    }
+
+    public PageResult<T> withTotalCount(Long totalCount) {
+        return new PageResult<>(items, lastEvaluatedKey, totalCount, pageSize);
+    }
+
+    public PageResult<T> withPageSize(int pageSize) {
+        return new PageResult<>(items, lastEvaluatedKey, totalCount, pageSize);
     }
 
     public List<T> getItems() {
@@ -25,4 +37,25 @@ public final class PageResult<T> {
     public String getLastEvaluatedKey() {
         return lastEvaluatedKey;
     }
+
+    /**
+     * Items in the whole listing as tracked by its counter, or {@code null} when it is not counted.
+     */
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    public boolean hasMore() {
+        return lastEvaluatedKey != null;
+    }
+
+    /**
+     * Pages of the requested size the whole listing spans, or {@code null} when it is not counted.
+     */
+    public Long getPageCount() {
+        if (totalCount == null || pageSize == null || pageSize <= 0) {
+            return null;
+        }
+        return (totalCount + pageSize - 1) / pageSize;
+    }
 }
@@ -0,0 +1,16 @@
+package co.com.nequi.model.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class BranchTopProduct {
+
+    private final String branchId;
+    private final String branchName;
+    private final Product product;
+
+}
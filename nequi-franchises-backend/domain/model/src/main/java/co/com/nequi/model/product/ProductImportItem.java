@@ -0,0 +1,17 @@
+package co.com.nequi.model.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ProductImportItem {
+
+    private final long line;
+    private final String name;
+    private final Integer stock;
+    private final String errorCode;
+
+}
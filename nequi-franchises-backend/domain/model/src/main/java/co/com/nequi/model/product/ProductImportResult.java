@@ -0,0 +1,26 @@
+package co.com.nequi.model.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ProductImportResult {
+
+    private final long line;
+    private final String productId;
+    private final String name;
+    private final ProductImportStatus status;
+    private final String errorCode;
+
+    public static ProductImportResult created(long line, Product product) {
+        return new ProductImportResult(line, product.getId(), product.getName(), ProductImportStatus.CREATED, null);
+    }
+
+    public static ProductImportResult rejected(ProductImportItem item, String errorCode) {
+        return new ProductImportResult(item.getLine(), null, item.getName(), ProductImportStatus.REJECTED, errorCode);
+    }
+
+}
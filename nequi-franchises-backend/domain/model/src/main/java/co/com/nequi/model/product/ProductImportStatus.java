@@ -0,0 +1,8 @@
+package co.com.nequi.model.product;
+
+public enum ProductImportStatus {
+
+    CREATED,
+    REJECTED
+
+}
@@ -0,0 +1,16 @@
+package co.com.nequi.model.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class StockAdjustment {
+
+    private final String productId;
+    private final Integer delta;
+    private final String idempotencyKey;
+
+}
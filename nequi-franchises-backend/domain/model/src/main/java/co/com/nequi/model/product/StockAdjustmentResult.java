@@ -0,0 +1,21 @@
+package co.com.nequi.model.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class StockAdjustmentResult {
+
+    private final String productId;
+    private final String idempotencyKey;
+    private final StockAdjustmentStatus status;
+    private final String errorCode;
+
+    public static StockAdjustmentResult of(StockAdjustment adjustment, StockAdjustmentStatus status, String errorCode) {
+        return new StockAdjustmentResult(adjustment.getProductId(), adjustment.getIdempotencyKey(), status, errorCode);
+    }
+
+}
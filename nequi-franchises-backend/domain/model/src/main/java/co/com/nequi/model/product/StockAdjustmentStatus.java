@@ -0,0 +1,9 @@
+package co.com.nequi.model.product;
+
+public enum StockAdjustmentStatus {
+
+    APPLIED,
+    REPLAYED,
+    REJECTED
+
+}
@@ -1,16 +1,26 @@
 package co.com.nequi.model.product.gateways;
 
 import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.model.product.BranchTopProduct;
 import co.com.nequi.model.product.Product;
+import co.com.nequi.model.product.StockAdjustment;
+import co.com.nequi.model.product.StockAdjustmentResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface ProductRepository {
 
     Mono<Product> save(Product product);
 
+    Flux<Product> saveAll(List<Product> products);
+
     Mono<Product> findById(String id);
 
+    Flux<Product> findAllById(Collection<String> ids);
+
     Mono<Product> findByIdAndBranchId(String id, String branchId);
 
     Mono<PageResult<Product>> findByBranchId(String branchId, int limit, String exclusiveStartKey);
@@ -21,14 +31,26 @@ public interface ProductRepository {
 
     Flux<Product> streamByBranch(String branchId);
 
+    Mono<Long> countByBranchId(String branchId);
+
+    Mono<Long> countByFranchiseId(String franchiseId);
+
     Mono<Product> changeStockAtomic(String productId, int delta, String idempotencyKey);
 
-    Mono<Product> update(Product product);
+    Flux<StockAdjustmentResult> changeStockBatch(String branchId, List<StockAdjustment> adjustments);
+
+    Mono<Product> updateName(String id, String name, Long updatedAt);
 
     Mono<Void> deleteById(String id);
 
     Mono<Void> deleteByBranchAndId(String branchId, String productId);
 
+    Flux<String> deleteAllByBranchId(String branchId);
+
     Mono<Product> findTopByBranchId(String branchId);
 
+    Mono<PageResult<BranchTopProduct>> findTopByFranchiseId(String franchiseId, int limit, String exclusiveStartKey);
+
+    Flux<BranchTopProduct> streamTopByFranchiseId(String franchiseId);
+
 }
@@ -5,6 +5,7 @@ import co.com.nequi.model.branch.gateways.BranchRepository;
 import co.com.nequi.model.franchise.gateways.FranchiseRepository;
 import co.com.nequi.model.pagination.PageResult;
 import co.com.nequi.usecase.util.FunctionUtils;
+import co.com.nequi.usecase.util.PageTotals;
 import co.com.nequi.usecase.util.ReactorChecks;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
@@ -37,7 +38,9 @@ public class BranchUseCase {
     }
 
     public Mono<PageResult<Branch>> getByFranchiseId(String franchiseId, Integer limit, String cursor) {
-        return branchRepository.findByFranchiseId(franchiseId, resolveLimit(limit), cursor);
+        int pageSize = resolveLimit(limit);
+        return PageTotals.withTotal(branchRepository.findByFranchiseId(franchiseId, pageSize, cursor),
+                branchRepository.countByFranchiseId(franchiseId), pageSize);
     }
 
     public Flux<Branch> streamByFranchiseId(String franchiseId) {
@@ -45,13 +48,8 @@ public class BranchUseCase {
     }
 
     public Mono<Branch> updateName(String branchId, String newName) {
-        return getById(branchId)
-                .flatMap(branch ->
-                        branchRepository.update(
-                                branch.toBuilder()
-                                        .name(newName)
-                                        .updatedAt(FunctionUtils.now())
-                                        .build()));
+        return ReactorChecks.validateNotEmptyValue(newName, BRANCH_NAME_REQUIRED)
+                .then(Mono.defer(() -> branchRepository.updateName(branchId, newName, FunctionUtils.now())));
     }
 
     public Mono<Void> delete(String branchId) {
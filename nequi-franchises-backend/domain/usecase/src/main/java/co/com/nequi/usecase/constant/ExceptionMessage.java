@@ -17,6 +17,16 @@ public enum ExceptionMessage {
     PRODUCT_NOT_FOUND("Product not found"),
     NO_PRODUCTS_IN_BRANCH("No products found in branch"),
     IDEMPOTENCY_KEY_REQUIRED("idempotency key is required"),
+    STOCK_BATCH_SIZE_INVALID("Stock batch must contain between 1 and 500 adjustments"),
+    STOCK_ADJUSTMENT_CONFLICT("Stock adjustment could not be applied, retry later"),
+    STOCK_ADJUSTMENT_FAILED("Stock adjustment could not be confirmed, retry it with the same idempotency key"),
+    PRODUCT_IDS_INVALID("Between 1 and 200 product ids are required"),
+    BATCH_READ_INCOMPLETE("Some items could not be read, retry later"),
+    IMPORT_ROW_INVALID("Import row could not be parsed"),
+    IMPORT_WRITE_FAILED("Product could not be written, retry the row"),
+    CAPACITY_EXCEEDED("Too many requests, retry later"),
+    DELETION_JOB_NOT_FOUND("Deletion job not found"),
+    DELETION_FAILED("Cascade delete did not finish, retry the deletion"),
     INVALID_PAGINATION_LIMIT("Pagination limit must be between 1 and 100"),
     INVALID_PAGINATION_CURSOR("Invalid pagination cursor");
 
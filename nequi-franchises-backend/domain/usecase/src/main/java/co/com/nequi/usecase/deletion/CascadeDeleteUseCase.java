@@ -0,0 +1,131 @@
+package co.com.nequi.usecase.deletion;
+
+import co.com.nequi.model.branch.gateways.BranchRepository;
+import co.com.nequi.model.deletion.DeletionJob;
+import co.com.nequi.model.deletion.DeletionJobStatus;
+import co.com.nequi.model.deletion.DeletionTarget;
+import co.com.nequi.model.deletion.gateways.DeletionJobRepository;
+import co.com.nequi.model.franchise.gateways.FranchiseRepository;
+import co.com.nequi.model.product.gateways.ProductRepository;
+import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import co.com.nequi.usecase.util.FunctionUtils;
+import co.com.nequi.usecase.util.ReactorChecks;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import static co.com.nequi.usecase.constant.ExceptionMessage.BRANCH_NOT_FOUND;
+import static co.com.nequi.usecase.constant.ExceptionMessage.DELETION_FAILED;
+import static co.com.nequi.usecase.constant.ExceptionMessage.DELETION_JOB_NOT_FOUND;
+import static co.com.nequi.usecase.constant.ExceptionMessage.FRANCHISE_NOT_FOUND;
+
+/**
+ * Deletes a branch or a franchise together with everything under it. The caller gets a job back
+ * immediately; children are removed in the background and the job item records the progress.
+ * Every step is idempotent, so a failed job is recovered by requesting the deletion again.
+ * <p>
+ * The background run heartbeats the job every {@link #HEARTBEAT_EVERY}. A RUNNING job that stops
+ * heartbeating lost its instance; {@link #resumeStale(Duration, int)} takes it over and runs it
+ * again, or marks it FAILED once it has been taken over too many times.
+ */
+@RequiredArgsConstructor
+public class CascadeDeleteUseCase {
+
+    public static final Duration HEARTBEAT_EVERY = Duration.ofSeconds(30);
+    private static final int PROGRESS_EVERY = 500;
+
+    private final FranchiseRepository franchiseRepository;
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+    private final DeletionJobRepository deletionJobRepository;
+
+    public Mono<DeletionJob> deleteBranch(String branchId) {
+        return ReactorChecks.notFoundIfEmpty(branchRepository.findById(branchId), BRANCH_NOT_FOUND)
+                .flatMap(branch -> start(DeletionTarget.BRANCH, branchId,
+                        jobId -> deleteBranchTree(jobId, branchId)));
+    }
+
+    public Mono<DeletionJob> deleteFranchise(String franchiseId) {
+        return ReactorChecks.notFoundIfEmpty(franchiseRepository.findById(franchiseId), FRANCHISE_NOT_FOUND)
+                .flatMap(franchise -> start(DeletionTarget.FRANCHISE, franchiseId,
+                        jobId -> deleteFranchiseTree(jobId, franchiseId)));
+    }
+
+    /**
+     * Takes over the RUNNING jobs that have not heartbeated for {@code staleAfter} and runs them
+     * again in the background. The takeover is conditional, so concurrent instances never resume
+     * the same job twice; a job taken over more than {@code maxAttempts} times is marked FAILED
+     * instead. Emits the jobs taken over.
+     */
+    public Flux<DeletionJob> resumeStale(Duration staleAfter, int maxAttempts) {
+        return Flux.defer(() -> {
+            long staleBefore = FunctionUtils.now() - staleAfter.toSeconds();
+            return deletionJobRepository.findRunning()
+                    .filter(job -> job.getUpdatedAt() == null || job.getUpdatedAt() < staleBefore)
+                    .concatMap(job -> deletionJobRepository.claim(job.getId(), job.getUpdatedAt(), FunctionUtils.now()))
+                    .concatMap(job -> job.getAttempts() > maxAttempts
+                            ? deletionJobRepository.finish(job.getId(), DeletionJobStatus.FAILED,
+                                    DELETION_FAILED.name(), FunctionUtils.now()).thenReturn(job)
+                            : Mono.fromRunnable(() -> run(job.getId(), workOf(job)).subscribe()).thenReturn(job));
+        });
+    }
+
+    public Mono<DeletionJob> getJob(String jobId) {
+        return ReactorChecks.notFoundIfEmpty(deletionJobRepository.findById(jobId), DELETION_JOB_NOT_FOUND);
+    }
+
+    private Mono<DeletionJob> start(DeletionTarget target, String targetId, Function<String, Mono<Void>> work) {
+        Long now = FunctionUtils.now();
+        DeletionJob job = DeletionJob.builder()
+                .id(FunctionUtils.newId())
+                .targetType(target)
+                .targetId(targetId)
+                .status(DeletionJobStatus.RUNNING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        return deletionJobRepository.save(job)
+                .doOnNext(saved -> run(saved.getId(), work).subscribe());
+    }
+
+    private Function<String, Mono<Void>> workOf(DeletionJob job) {
+        return job.getTargetType() == DeletionTarget.FRANCHISE
+                ? jobId -> deleteFranchiseTree(jobId, job.getTargetId())
+                : jobId -> deleteBranchTree(jobId, job.getTargetId());
+    }
+
+    /**
+     * Runs the work while heartbeating the job; the heartbeat is cancelled as soon as the work ends.
+     */
+    private Mono<Void> run(String jobId, Function<String, Mono<Void>> work) {
+        Mono<Void> heartbeat = Flux.interval(HEARTBEAT_EVERY)
+                .concatMap(tick -> deletionJobRepository.addProgress(jobId, 0, 0, FunctionUtils.now())
+                        .onErrorResume(ex -> Mono.empty()))
+                .then();
+        return Mono.firstWithSignal(Mono.defer(() -> work.apply(jobId)), heartbeat)
+                .then(Mono.defer(() -> deletionJobRepository.finish(jobId, DeletionJobStatus.COMPLETED, null, FunctionUtils.now())))
+                .onErrorResume(ex -> deletionJobRepository.finish(jobId, DeletionJobStatus.FAILED, DELETION_FAILED.name(), FunctionUtils.now()))
+                .onErrorResume(ex -> Mono.empty());
+    }
+
+    private Mono<Void> deleteFranchiseTree(String jobId, String franchiseId) {
+        return branchRepository.streamByFranchiseId(franchiseId)
+                .concatMap(branch -> deleteBranchTree(jobId, branch.getId()))
+                .then(Mono.defer(() -> ignoreMissing(franchiseRepository.deleteById(franchiseId))));
+    }
+
+    private Mono<Void> deleteBranchTree(String jobId, String branchId) {
+        return productRepository.deleteAllByBranchId(branchId)
+                .buffer(PROGRESS_EVERY)
+                .concatMap(ids -> deletionJobRepository.addProgress(jobId, 0, ids.size(), FunctionUtils.now()))
+                .then(Mono.defer(() -> ignoreMissing(branchRepository.deleteById(branchId))))
+                .then(Mono.defer(() -> deletionJobRepository.addProgress(jobId, 1, 0, FunctionUtils.now())));
+    }
+
+    private Mono<Void> ignoreMissing(Mono<Void> delete) {
+        return delete.onErrorResume(ResourceNotFoundException.class, ex -> Mono.empty());
+    }
+}
@@ -3,13 +3,22 @@ package co.com.nequi.usecase.exception;
 import co.com.nequi.usecase.constant.ExceptionMessage;
 import lombok.Getter;
 
+/**
+ * Expected domain outcome (validation, not found, business rule) rather than a fault, so it carries
+ * no stack trace or suppressed exceptions: filling the stack dominates the cost of the not-found
+ * path and the trace only ever points at the reactive pipeline.
+ */
 @Getter
 public class BusinessException extends RuntimeException {
 
     private final String code;
 
     public BusinessException(ExceptionMessage exceptionMessage) {
-        super(exceptionMessage.getMessage());
+        this(exceptionMessage, null);
+    }
+
+    protected BusinessException(ExceptionMessage exceptionMessage, Throwable cause) {
+        super(exceptionMessage.getMessage(), cause, false, false);
         this.code = exceptionMessage.name();
     }
 
@@ -0,0 +1,27 @@
+package co.com.nequi.usecase.exception;
+
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import lombok.Getter;
+
+/**
+ * The request was refused for capacity or contention and may be retried after
+ * {@code retryAfterSeconds}. Deliberately not a {@link BusinessException}: it is not a rejection
+ * of the request itself, so handlers that turn business errors into a rejected outcome must not
+ * catch it. Stackless for the same reason as business errors.
+ */
+@Getter
+public class ThrottledException extends RuntimeException {
+
+    private final String code;
+    private final long retryAfterSeconds;
+
+    public ThrottledException(ExceptionMessage exceptionMessage, long retryAfterSeconds) {
+        this(exceptionMessage, retryAfterSeconds, null);
+    }
+
+    public ThrottledException(ExceptionMessage exceptionMessage, long retryAfterSeconds, Throwable cause) {
+        super(exceptionMessage.getMessage(), cause, false, false);
+        this.code = exceptionMessage.name();
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+}
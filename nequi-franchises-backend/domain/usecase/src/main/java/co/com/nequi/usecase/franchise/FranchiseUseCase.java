@@ -39,11 +39,8 @@ public class FranchiseUseCase {
     }
 
     public Mono<Franchise> updateName(String franchiseId, String newName) {
-        return getById(franchiseId)
-                .flatMap(franchise -> franchiseRepository.update(franchise.toBuilder()
-                        .name(newName)
-                        .updatedAt(FunctionUtils.now())
-                        .build()));
+        return ReactorChecks.validateNotEmptyValue(newName, FRANCHISE_NAME_REQUIRED)
+                .then(Mono.defer(() -> franchiseRepository.updateName(franchiseId, newName, FunctionUtils.now())));
     }
 
     public Mono<Void> delete(String franchiseId) {
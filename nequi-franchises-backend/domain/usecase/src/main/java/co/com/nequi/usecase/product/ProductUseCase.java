@@ -1,26 +1,58 @@
 package co.com.nequi.usecase.product;
 
+import co.com.nequi.model.branch.Branch;
 import co.com.nequi.model.branch.gateways.BranchRepository;
 import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.model.product.BranchTopProduct;
 import co.com.nequi.model.product.Product;
+import co.com.nequi.model.product.ProductImportItem;
+import co.com.nequi.model.product.ProductImportResult;
+import co.com.nequi.model.product.StockAdjustment;
+import co.com.nequi.model.product.StockAdjustmentResult;
+import co.com.nequi.model.product.StockAdjustmentStatus;
 import co.com.nequi.model.product.gateways.ProductRepository;
 import co.com.nequi.usecase.exception.ValidationException;
 import co.com.nequi.usecase.util.FunctionUtils;
+import co.com.nequi.usecase.util.PageTotals;
 import co.com.nequi.usecase.util.ReactorChecks;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static co.com.nequi.usecase.constant.ExceptionMessage.BRANCH_NOT_FOUND;
 import static co.com.nequi.usecase.constant.ExceptionMessage.IDEMPOTENCY_KEY_REQUIRED;
+import static co.com.nequi.usecase.constant.ExceptionMessage.IMPORT_WRITE_FAILED;
 import static co.com.nequi.usecase.constant.ExceptionMessage.NO_PRODUCTS_IN_BRANCH;
+import static co.com.nequi.usecase.constant.ExceptionMessage.PRODUCT_IDS_INVALID;
 import static co.com.nequi.usecase.constant.ExceptionMessage.PRODUCT_NAME_REQUIRED;
 import static co.com.nequi.usecase.constant.ExceptionMessage.PRODUCT_NOT_FOUND;
 import static co.com.nequi.usecase.constant.ExceptionMessage.PRODUCT_STOCK_INVALID;
+import static co.com.nequi.usecase.constant.ExceptionMessage.STOCK_BATCH_SIZE_INVALID;
 
 @RequiredArgsConstructor
 public class ProductUseCase {
 
+    private static final int MAX_STOCK_BATCH_SIZE = 500;
+    private static final int MAX_IDS_PER_LOOKUP = 200;
+    private static final int IMPORT_CHUNK_SIZE = 100;
+    private static final int IMPORT_CONCURRENCY = 2;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_PAGE_SIZE = 1000;
+
     private final ProductRepository productRepository;
     private final BranchRepository branchRepository;
 
@@ -37,16 +69,50 @@ public class ProductUseCase {
                         ).flatMap(productRepository::save));
     }
 
+    /**
+     * Imports rows into an already resolved branch, chunk by chunk, emitting one result per row in
+     * input order as soon as its chunk has been written.
+     */
+    public Flux<ProductImportResult> importProducts(Branch branch, Flux<ProductImportItem> items) {
+        return items.buffer(IMPORT_CHUNK_SIZE)
+                .flatMapSequential(chunk -> importChunk(branch, chunk), IMPORT_CONCURRENCY);
+    }
+
     public Mono<Product> getById(String productId) {
         return ReactorChecks.notFoundIfEmpty(productRepository.findById(productId), PRODUCT_NOT_FOUND);
     }
 
+    public Flux<Product> getAllByIds(Collection<String> productIds) {
+        return Mono.fromSupplier(() -> productIds == null ? List.<String>of() : productIds.stream()
+                        .filter(Objects::nonNull)
+                        .map(String::trim)
+                        .filter(id -> !id.isEmpty())
+                        .distinct()
+                        .toList())
+                .filter(ids -> !ids.isEmpty() && ids.size() <= MAX_IDS_PER_LOOKUP)
+                .switchIfEmpty(Mono.error(() -> new ValidationException(PRODUCT_IDS_INVALID)))
+                .flatMapMany(productRepository::findAllById);
+    }
+
     public Mono<PageResult<Product>> getByBranchId(String branchId, Integer limit, String cursor) {
-        return productRepository.findByBranchId(branchId, resolveLimit(limit), cursor);
+        int pageSize = resolveLimit(limit);
+        return PageTotals.withTotal(productRepository.findByBranchId(branchId, pageSize, cursor),
+                productRepository.countByBranchId(branchId), pageSize);
+    }
+
+    /**
+     * Same listing for bulk clients, whose pages may hold up to 1000 items.
+     */
+    public Mono<PageResult<Product>> getBulkByBranchId(String branchId, Integer limit, String cursor) {
+        int pageSize = resolveLimit(limit, MAX_BULK_PAGE_SIZE);
+        return PageTotals.withTotal(productRepository.findByBranchId(branchId, pageSize, cursor),
+                productRepository.countByBranchId(branchId), pageSize);
     }
 
     public Mono<PageResult<Product>> getByFranchiseId(String franchiseId, Integer limit, String cursor) {
-        return productRepository.findByFranchiseId(franchiseId, resolveLimit(limit), cursor);
+        int pageSize = resolveLimit(limit);
+        return PageTotals.withTotal(productRepository.findByFranchiseId(franchiseId, pageSize, cursor),
+                productRepository.countByFranchiseId(franchiseId), pageSize);
     }
 
     public Mono<PageResult<Product>> searchByName(String branchId, String prefix, Integer limit, String cursor) {
@@ -59,13 +125,8 @@ public class ProductUseCase {
     }
 
     public Mono<Product> updateName(String productId, String newName) {
-        return getById(productId)
-                .flatMap(p -> productRepository.update(
-                        p.toBuilder()
-                                .name(newName)
-                                .updatedAt(FunctionUtils.now())
-                                .build()
-                ));
+        return ReactorChecks.validateNotEmptyValue(newName, PRODUCT_NAME_REQUIRED)
+                .then(Mono.defer(() -> productRepository.updateName(productId, newName, FunctionUtils.now())));
     }
 
     public Mono<Product> getMaxStockByBranch(String branchId) {
@@ -73,14 +134,64 @@ public class ProductUseCase {
                 .findTopByBranchId(branchId), NO_PRODUCTS_IN_BRANCH);
     }
 
+    public Mono<PageResult<BranchTopProduct>> getTopByFranchiseId(String franchiseId, Integer limit, String cursor) {
+        return productRepository.findTopByFranchiseId(franchiseId, resolveLimit(limit), cursor);
+    }
+
+    public Flux<BranchTopProduct> streamTopByFranchiseId(String franchiseId) {
+        return productRepository.streamTopByFranchiseId(franchiseId);
+    }
+
     public Mono<Product> changeStock(String productId, int delta, String idempotencyKey) {
         return ReactorChecks.validateNotEmptyValue(idempotencyKey, IDEMPOTENCY_KEY_REQUIRED)
-                .then(
-                        (delta == 0)
-                                ? getById(productId)
-                                : getById(productId)
-                                .flatMap(p -> productRepository.changeStockAtomic(p.getId(), delta, idempotencyKey))
-                );
+                .then(Mono.defer(() -> (delta == 0)
+                        ? getById(productId)
+                        : productRepository.changeStockAtomic(productId, delta, idempotencyKey)));
+    }
+
+    public Flux<StockAdjustmentResult> changeStockBatch(String branchId, List<StockAdjustment> adjustments) {
+        return validateStockBatch(adjustments)
+                .then(Mono.defer(() -> ReactorChecks.notFoundIfEmpty(branchRepository.findById(branchId), BRANCH_NOT_FOUND)))
+                .thenMany(Flux.defer(() -> {
+                    List<StockAdjustment> pending = new ArrayList<>();
+                    List<StockAdjustmentResult> resolved = new ArrayList<>();
+                    adjustments.forEach(adjustment -> {
+                        StockAdjustmentResult precheck = precheckAdjustment(adjustment);
+                        if (precheck == null) {
+                            pending.add(adjustment);
+                        } else {
+                            resolved.add(precheck);
+                        }
+                    });
+                    Flux<StockAdjustmentResult> applied = pending.isEmpty()
+                            ? Flux.empty()
+                            : productRepository.changeStockBatch(branchId, pending);
+                    return Flux.fromIterable(resolved).concatWith(applied)
+                            .collectList()
+                            .flatMapIterable(results -> inRequestOrder(adjustments, results));
+                }));
+    }
+
+    /**
+     * Results arrive grouped by how they were resolved; callers get them in request order. Each
+     * result is matched to its adjustment by product and idempotency key, in order of occurrence.
+     */
+    private static List<StockAdjustmentResult> inRequestOrder(List<StockAdjustment> adjustments,
+                                                              List<StockAdjustmentResult> results) {
+        Map<List<String>, Deque<StockAdjustmentResult>> byAdjustment = new LinkedHashMap<>();
+        results.forEach(result -> byAdjustment
+                .computeIfAbsent(Arrays.asList(result.getProductId(), result.getIdempotencyKey()), key -> new ArrayDeque<>())
+                .add(result));
+        List<StockAdjustmentResult> ordered = new ArrayList<>(results.size());
+        for (StockAdjustment adjustment : adjustments) {
+            Deque<StockAdjustmentResult> matching = byAdjustment.get(
+                    Arrays.asList(adjustment.getProductId(), adjustment.getIdempotencyKey()));
+            if (matching != null && !matching.isEmpty()) {
+                ordered.add(matching.poll());
+            }
+        }
+        byAdjustment.values().forEach(ordered::addAll);
+        return ordered;
     }
 
     public Mono<Void> deleteByBranch(String branchId, String productId) {
@@ -97,16 +208,94 @@ public class ProductUseCase {
         return ReactorChecks.validateNotEmptyValue(name, PRODUCT_NAME_REQUIRED)
                 .then(Mono.defer(() -> {
                     if (stock == null || stock < 0) {
-                        return Mono.error(new ValidationException(PRODUCT_STOCK_INVALID));
+                        return Mono.error(() -> new ValidationException(PRODUCT_STOCK_INVALID));
                     }
                     return Mono.empty();
                 }));
     }
 
+    private Flux<ProductImportResult> importChunk(Branch branch, List<ProductImportItem> chunk) {
+        return Flux.defer(() -> {
+            Long now = FunctionUtils.now();
+            List<Product> drafts = chunk.stream()
+                    .map(item -> precheckImport(item) == null ? toImportDraft(branch, item, now) : null)
+                    .toList();
+            List<Product> valid = drafts.stream().filter(Objects::nonNull).toList();
+            Mono<Set<String>> written = valid.isEmpty()
+                    ? Mono.just(Set.of())
+                    : productRepository.saveAll(valid).map(Product::getId).collect(Collectors.toSet());
+            return written.flatMapIterable(savedIds -> IntStream.range(0, chunk.size())
+                    .mapToObj(i -> resolveImport(chunk.get(i), drafts.get(i), savedIds))
+                    .toList());
+        });
+    }
+
+    private Product toImportDraft(Branch branch, ProductImportItem item, Long now) {
+        return Product.builder()
+                .id(FunctionUtils.newId())
+                .franchiseId(branch.getFranchiseId())
+                .branchId(branch.getId())
+                .name(item.getName())
+                .stock(item.getStock())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private ProductImportResult resolveImport(ProductImportItem item, Product draft, Set<String> savedIds) {
+        if (draft == null) {
+            return ProductImportResult.rejected(item, precheckImport(item));
+        }
+        return savedIds.contains(draft.getId())
+                ? ProductImportResult.created(item.getLine(), draft)
+                : ProductImportResult.rejected(item, IMPORT_WRITE_FAILED.name());
+    }
+
+    private String precheckImport(ProductImportItem item) {
+        if (item.getErrorCode() != null) {
+            return item.getErrorCode();
+        }
+        if (isBlank(item.getName())) {
+            return PRODUCT_NAME_REQUIRED.name();
+        }
+        if (item.getStock() == null || item.getStock() < 0) {
+            return PRODUCT_STOCK_INVALID.name();
+        }
+        return null;
+    }
+
+    private Mono<Void> validateStockBatch(List<StockAdjustment> adjustments) {
+        return Mono.defer(() -> (adjustments == null || adjustments.isEmpty() || adjustments.size() > MAX_STOCK_BATCH_SIZE)
+                ? Mono.error(() -> new ValidationException(STOCK_BATCH_SIZE_INVALID))
+                : Mono.empty());
+    }
+
+    private StockAdjustmentResult precheckAdjustment(StockAdjustment adjustment) {
+        if (isBlank(adjustment.getIdempotencyKey())) {
+            return StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.REJECTED, IDEMPOTENCY_KEY_REQUIRED.name());
+        }
+        if (isBlank(adjustment.getProductId())) {
+            return StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.REJECTED, PRODUCT_NOT_FOUND.name());
+        }
+        // A zero delta changes nothing, so it could only report APPLIED without checking the product.
+        if (adjustment.getDelta() == null || adjustment.getDelta() == 0) {
+            return StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.REJECTED, PRODUCT_STOCK_INVALID.name());
+        }
+        return null;
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
     private int resolveLimit(Integer requested) {
+        return resolveLimit(requested, MAX_PAGE_SIZE);
+    }
+
+    private int resolveLimit(Integer requested, int max) {
         if (requested == null || requested <= 0) {
-            return 20;
+            return DEFAULT_PAGE_SIZE;
         }
-        return Math.min(requested, 100);
+        return Math.min(requested, max);
     }
 }
@@ -0,0 +1,29 @@
+package co.com.nequi.usecase.util;
+
+import co.com.nequi.model.pagination.PageResult;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+public final class PageTotals {
+
+    private PageTotals() {
+    }
+
+    /**
+     * Reads the page and its counter concurrently. The total is only informative, so a missing or
+     * failing counter leaves the page without one instead of failing the listing. {@code pageSize}
+     * is the size requested, from which the page count is derived.
+     */
+    public static <T> Mono<PageResult<T>> withTotal(Mono<PageResult<T>> page, Mono<Long> total, int pageSize) {
+        Mono<Optional<Long>> safeTotal = total
+                .map(Optional::of)
+                .onErrorReturn(Optional.empty())
+                .defaultIfEmpty(Optional.empty());
+        return Mono.zip(page, safeTotal)
+                .map(tuple -> tuple.getT2()
+                        .map(tuple.getT1()::withTotalCount)
+                        .orElse(tuple.getT1())
+                        .withPageSize(pageSize));
+    }
+}
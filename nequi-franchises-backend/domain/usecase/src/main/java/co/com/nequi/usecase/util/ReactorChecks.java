@@ -14,13 +14,13 @@ public final class ReactorChecks {
                                                    ExceptionMessage exceptionMessage) {
         return Mono.defer(() ->
                 (value == null || value.trim().isEmpty())
-                        ? Mono.error(new ValidationException(exceptionMessage))
+                        ? Mono.error(() -> new ValidationException(exceptionMessage))
                         : Mono.empty()
         );
     }
 
     public static <T> Mono<T> notFoundIfEmpty(Mono<T> mono, ExceptionMessage message) {
-        return mono.switchIfEmpty(Mono.error(new ResourceNotFoundException(message)));
+        return mono.switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(message)));
     }
 
 }
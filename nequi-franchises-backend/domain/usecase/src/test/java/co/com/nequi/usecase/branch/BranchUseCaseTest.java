@@ -5,6 +5,7 @@ import co.com.nequi.model.branch.gateways.BranchRepository;
 import co.com.nequi.model.franchise.Franchise;
 import co.com.nequi.model.franchise.gateways.FranchiseRepository;
 import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.usecase.exception.ResourceNotFoundException;
 import co.com.nequi.usecase.exception.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,8 +17,11 @@ import reactor.test.StepVerifier;
 
 import java.util.List;
 
+import static co.com.nequi.usecase.constant.ExceptionMessage.BRANCH_NOT_FOUND;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -77,20 +81,36 @@ class BranchUseCaseTest {
         ), "cursor-1");
 
         when(branchRepository.findByFranchiseId(eq("F1"), eq(20), eq(null))).thenReturn(Mono.just(page));
+        when(branchRepository.countByFranchiseId("F1")).thenReturn(Mono.just(2L));
 
         StepVerifier.create(useCase.getByFranchiseId("F1", null, null))
                 .assertNext(result -> {
                     assert result.getItems().size() == 2;
                     assert "cursor-1".equals(result.getLastEvaluatedKey());
+                    assert Long.valueOf(2L).equals(result.getTotalCount());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getByFranchiseId_counterUnavailable_pageWithoutTotal() {
+        PageResult<Branch> page = PageResult.of(List.of(Branch.builder().id("B1").franchiseId("F1").build()), null);
+
+        when(branchRepository.findByFranchiseId(eq("F1"), eq(20), eq(null))).thenReturn(Mono.just(page));
+        when(branchRepository.countByFranchiseId("F1")).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(useCase.getByFranchiseId("F1", null, null))
+                .assertNext(result -> {
+                    assert result.getItems().size() == 1;
+                    assert result.getTotalCount() == null;
                 })
                 .verifyComplete();
     }
 
     @Test
     void updateName_ok() {
-        Branch existing = Branch.builder().id("B1").franchiseId("F1").name("Old").updatedAt(1L).build();
-        when(branchRepository.findById("B1")).thenReturn(Mono.just(existing));
-        when(branchRepository.update(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+        when(branchRepository.updateName(eq("B1"), eq("New"), anyLong())).thenAnswer(inv -> Mono.just(Branch.builder()
+                .id("B1").franchiseId("F1").name(inv.getArgument(1)).updatedAt(inv.getArgument(2)).build()));
 
         StepVerifier.create(useCase.updateName("B1", "New"))
                 .assertNext(b -> {
@@ -99,8 +119,18 @@ class BranchUseCaseTest {
                 })
                 .verifyComplete();
 
-        verify(branchRepository).findById("B1");
-        verify(branchRepository).update(any(Branch.class));
+        verify(branchRepository, never()).findById("B1");
+        verify(branchRepository).updateName(eq("B1"), eq("New"), anyLong());
+    }
+
+    @Test
+    void updateName_notFound_error() {
+        when(branchRepository.updateName(eq("B404"), eq("New"), anyLong()))
+                .thenReturn(Mono.error(new ResourceNotFoundException(BRANCH_NOT_FOUND)));
+
+        StepVerifier.create(useCase.updateName("B404", "New"))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
     }
 
     @Test
@@ -0,0 +1,169 @@
+package co.com.nequi.usecase.deletion;
+
+import co.com.nequi.model.branch.Branch;
+import co.com.nequi.model.branch.gateways.BranchRepository;
+import co.com.nequi.model.deletion.DeletionJob;
+import co.com.nequi.model.deletion.DeletionJobStatus;
+import co.com.nequi.model.deletion.DeletionTarget;
+import co.com.nequi.model.deletion.gateways.DeletionJobRepository;
+import co.com.nequi.model.franchise.Franchise;
+import co.com.nequi.model.franchise.gateways.FranchiseRepository;
+import co.com.nequi.model.product.gateways.ProductRepository;
+import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static co.com.nequi.usecase.constant.ExceptionMessage.BRANCH_NOT_FOUND;
+import static co.com.nequi.usecase.constant.ExceptionMessage.DELETION_JOB_NOT_FOUND;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CascadeDeleteUseCaseTest {
+
+    @Mock
+    FranchiseRepository franchiseRepository;
+    @Mock
+    BranchRepository branchRepository;
+    @Mock
+    ProductRepository productRepository;
+    @Mock
+    DeletionJobRepository deletionJobRepository;
+
+    CascadeDeleteUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new CascadeDeleteUseCase(franchiseRepository, branchRepository, productRepository, deletionJobRepository);
+        when(deletionJobRepository.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+        when(deletionJobRepository.addProgress(anyString(), anyLong(), anyLong(), anyLong())).thenReturn(Mono.empty());
+        when(deletionJobRepository.finish(anyString(), any(), any(), anyLong())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void deleteBranch_removesProductsThenBranch() {
+        when(branchRepository.findById("B1")).thenReturn(Mono.just(Branch.builder().id("B1").build()));
+        when(productRepository.deleteAllByBranchId("B1")).thenReturn(Flux.just("P1", "P2"));
+        when(branchRepository.deleteById("B1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.deleteBranch("B1"))
+                .assertNext(job -> {
+                    Assertions.assertEquals(DeletionTarget.BRANCH, job.getTargetType());
+                    Assertions.assertEquals(DeletionJobStatus.RUNNING, job.getStatus());
+                })
+                .verifyComplete();
+
+        verify(deletionJobRepository).addProgress(anyString(), eq(0L), eq(2L), anyLong());
+        verify(branchRepository).deleteById("B1");
+        verify(deletionJobRepository).finish(anyString(), eq(DeletionJobStatus.COMPLETED), isNull(), anyLong());
+    }
+
+    @Test
+    void deleteBranch_notFound_error() {
+        when(branchRepository.findById("B1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.deleteBranch("B1"))
+                .expectErrorSatisfies(ex -> {
+                    Assertions.assertInstanceOf(ResourceNotFoundException.class, ex);
+                    Assertions.assertEquals(BRANCH_NOT_FOUND.getMessage(), ex.getMessage());
+                })
+                .verify();
+
+        verify(deletionJobRepository, never()).save(any());
+    }
+
+    @Test
+    void deleteFranchise_cascadesThroughBranches() {
+        when(franchiseRepository.findById("F1")).thenReturn(Mono.just(Franchise.builder().id("F1").build()));
+        when(branchRepository.streamByFranchiseId("F1")).thenReturn(Flux.just(
+                Branch.builder().id("B1").build(), Branch.builder().id("B2").build()));
+        when(productRepository.deleteAllByBranchId(anyString())).thenReturn(Flux.just("P1"));
+        when(branchRepository.deleteById(anyString())).thenReturn(Mono.empty());
+        when(franchiseRepository.deleteById("F1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.deleteFranchise("F1"))
+                .assertNext(job -> Assertions.assertEquals(DeletionTarget.FRANCHISE, job.getTargetType()))
+                .verifyComplete();
+
+        verify(branchRepository).deleteById("B1");
+        verify(branchRepository).deleteById("B2");
+        verify(franchiseRepository).deleteById("F1");
+        verify(deletionJobRepository).finish(anyString(), eq(DeletionJobStatus.COMPLETED), isNull(), anyLong());
+    }
+
+    @Test
+    void deleteFranchise_failure_marksJobFailed() {
+        when(franchiseRepository.findById("F1")).thenReturn(Mono.just(Franchise.builder().id("F1").build()));
+        when(branchRepository.streamByFranchiseId("F1")).thenReturn(Flux.just(Branch.builder().id("B1").build()));
+        when(productRepository.deleteAllByBranchId("B1")).thenReturn(Flux.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(useCase.deleteFranchise("F1"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(franchiseRepository, never()).deleteById(anyString());
+        verify(deletionJobRepository).finish(anyString(), eq(DeletionJobStatus.FAILED), eq("DELETION_FAILED"), anyLong());
+    }
+
+    @Test
+    void resumeStale_takesOverStaleJobsAndFailsExhaustedOnes() {
+        DeletionJob stale = DeletionJob.builder().id("J1").status(DeletionJobStatus.RUNNING).updatedAt(1L).build();
+        DeletionJob exhausted = DeletionJob.builder().id("J2").status(DeletionJobStatus.RUNNING).updatedAt(2L).build();
+        DeletionJob alive = DeletionJob.builder().id("J3").status(DeletionJobStatus.RUNNING)
+                .updatedAt(Long.MAX_VALUE).build();
+        when(deletionJobRepository.findRunning()).thenReturn(Flux.just(stale, exhausted, alive));
+        when(deletionJobRepository.claim(eq("J1"), eq(1L), anyLong())).thenReturn(Mono.just(stale.toBuilder()
+                .targetType(DeletionTarget.BRANCH).targetId("B1").attempts(1).build()));
+        when(deletionJobRepository.claim(eq("J2"), eq(2L), anyLong())).thenReturn(Mono.just(exhausted.toBuilder()
+                .targetType(DeletionTarget.BRANCH).targetId("B2").attempts(4).build()));
+        when(productRepository.deleteAllByBranchId("B1")).thenReturn(Flux.empty());
+        when(branchRepository.deleteById("B1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.resumeStale(Duration.ofMinutes(2), 3))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        verify(deletionJobRepository, never()).claim(eq("J3"), any(), anyLong());
+        verify(branchRepository).deleteById("B1");
+        verify(deletionJobRepository).finish(eq("J1"), eq(DeletionJobStatus.COMPLETED), isNull(), anyLong());
+        verify(productRepository, never()).deleteAllByBranchId("B2");
+        verify(deletionJobRepository).finish(eq("J2"), eq(DeletionJobStatus.FAILED), eq("DELETION_FAILED"), anyLong());
+    }
+
+    @Test
+    void getJob_notFound_error() {
+        when(deletionJobRepository.findById("J1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.getJob("J1"))
+                .expectErrorSatisfies(ex -> Assertions.assertEquals(DELETION_JOB_NOT_FOUND.getMessage(), ex.getMessage()))
+                .verify();
+    }
+
+    @Test
+    void getJob_ok() {
+        DeletionJob job = DeletionJob.builder().id("J1").status(DeletionJobStatus.COMPLETED).build();
+        when(deletionJobRepository.findById("J1")).thenReturn(Mono.just(job));
+
+        StepVerifier.create(useCase.getJob("J1"))
+                .assertNext(found -> Assertions.assertEquals(DeletionJobStatus.COMPLETED, found.getStatus()))
+                .verifyComplete();
+    }
+}
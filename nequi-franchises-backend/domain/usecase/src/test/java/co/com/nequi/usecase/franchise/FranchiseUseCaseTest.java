@@ -16,8 +16,12 @@ import reactor.test.StepVerifier;
 
 import java.util.List;
 
+import static co.com.nequi.usecase.constant.ExceptionMessage.FRANCHISE_NOT_FOUND;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -69,15 +73,34 @@ class FranchiseUseCaseTest {
 
     @Test
     void updateName_ok() {
-        when(franchiseRepository.findById("F1")).thenReturn(Mono.just(Franchise.builder().id("F1").name("Old").build()));
-        when(franchiseRepository.update(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+        when(franchiseRepository.updateName(eq("F1"), eq("New"), anyLong()))
+                .thenReturn(Mono.just(Franchise.builder().id("F1").name("New").build()));
 
         StepVerifier.create(useCase.updateName("F1", "New"))
                 .assertNext(f -> Assertions.assertEquals(f.getName(), "New"))
                 .verifyComplete();
 
-        verify(franchiseRepository).findById("F1");
-        verify(franchiseRepository).update(any(Franchise.class));
+        verify(franchiseRepository, never()).findById(anyString());
+        verify(franchiseRepository).updateName(eq("F1"), eq("New"), anyLong());
+    }
+
+    @Test
+    void updateName_notFound_error() {
+        when(franchiseRepository.updateName(eq("F404"), eq("New"), anyLong()))
+                .thenReturn(Mono.error(new ResourceNotFoundException(FRANCHISE_NOT_FOUND)));
+
+        StepVerifier.create(useCase.updateName("F404", "New"))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void updateName_blankName_error() {
+        StepVerifier.create(useCase.updateName("F1", " "))
+                .expectError(ValidationException.class)
+                .verify();
+
+        verify(franchiseRepository, never()).updateName(anyString(), anyString(), anyLong());
     }
 
     @Test
@@ -3,7 +3,13 @@ package co.com.nequi.usecase.product;
 import co.com.nequi.model.branch.Branch;
 import co.com.nequi.model.branch.gateways.BranchRepository;
 import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.model.product.BranchTopProduct;
 import co.com.nequi.model.product.Product;
+import co.com.nequi.model.product.ProductImportItem;
+import co.com.nequi.model.product.ProductImportStatus;
+import co.com.nequi.model.product.StockAdjustment;
+import co.com.nequi.model.product.StockAdjustmentResult;
+import co.com.nequi.model.product.StockAdjustmentStatus;
 import co.com.nequi.model.product.gateways.ProductRepository;
 import co.com.nequi.usecase.exception.ResourceNotFoundException;
 import co.com.nequi.usecase.exception.ValidationException;
@@ -15,13 +21,19 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
+import static co.com.nequi.usecase.constant.ExceptionMessage.PRODUCT_NOT_FOUND;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
@@ -78,6 +90,39 @@ class ProductUseCaseTest {
                 .verify();
     }
 
+    @Test
+    void getAllByIds_trimsAndDeduplicates() {
+        Product p1 = Product.builder().id("P1").build();
+        Product p2 = Product.builder().id("P2").build();
+        when(productRepository.findAllById(List.of("P1", "P2"))).thenReturn(Flux.just(p1, p2));
+
+        StepVerifier.create(useCase.getAllByIds(Arrays.asList(" P1", "P2", "P1", "", null)))
+                .expectNext(p1, p2)
+                .verifyComplete();
+
+        verify(productRepository).findAllById(List.of("P1", "P2"));
+    }
+
+    @Test
+    void getAllByIds_empty_error() {
+        StepVerifier.create(useCase.getAllByIds(List.of(" ")))
+                .expectError(ValidationException.class)
+                .verify();
+
+        verify(productRepository, never()).findAllById(anyList());
+    }
+
+    @Test
+    void getAllByIds_tooMany_error() {
+        List<String> ids = IntStream.rangeClosed(1, 201).mapToObj(i -> "P" + i).toList();
+
+        StepVerifier.create(useCase.getAllByIds(ids))
+                .expectError(ValidationException.class)
+                .verify();
+
+        verify(productRepository, never()).findAllById(anyList());
+    }
+
     @Test
     void getMaxStockByBranch_ok() {
         String bid = "B1";
@@ -99,6 +144,49 @@ class ProductUseCaseTest {
                 .verify();
     }
 
+    @Test
+    void getTopByFranchiseId_defaultLimit_ok() {
+        BranchTopProduct top = BranchTopProduct.builder()
+                .branchId("B1").branchName("Centro")
+                .product(Product.builder().id("P1").branchId("B1").stock(50).build())
+                .build();
+        when(productRepository.findTopByFranchiseId("F1", 20, null))
+                .thenReturn(Mono.just(PageResult.of(List.of(top), "next")));
+
+        StepVerifier.create(useCase.getTopByFranchiseId("F1", null, null))
+                .assertNext(page -> {
+                    Assertions.assertEquals(1, page.getItems().size());
+                    Assertions.assertEquals("P1", page.getItems().get(0).getProduct().getId());
+                    Assertions.assertEquals("next", page.getLastEvaluatedKey());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getTopByFranchiseId_limitCapped() {
+        when(productRepository.findTopByFranchiseId("F1", 100, "cursor"))
+                .thenReturn(Mono.just(PageResult.of(List.of(), null)));
+
+        StepVerifier.create(useCase.getTopByFranchiseId("F1", 500, "cursor"))
+                .assertNext(page -> Assertions.assertTrue(page.getItems().isEmpty()))
+                .verifyComplete();
+
+        verify(productRepository).findTopByFranchiseId("F1", 100, "cursor");
+    }
+
+    @Test
+    void streamTopByFranchiseId_ok() {
+        BranchTopProduct first = BranchTopProduct.builder().branchId("B1")
+                .product(Product.builder().id("P1").stock(50).build()).build();
+        BranchTopProduct second = BranchTopProduct.builder().branchId("B2")
+                .product(Product.builder().id("P2").stock(10).build()).build();
+        when(productRepository.streamTopByFranchiseId("F1")).thenReturn(Flux.just(first, second));
+
+        StepVerifier.create(useCase.streamTopByFranchiseId("F1"))
+                .expectNext(first, second)
+                .verifyComplete();
+    }
+
     @Test
     void changeStock_deltaZero_returnsExisting() {
         when(productRepository.findById("P1")).thenReturn(Mono.just(Product.builder().id("P1").stock(7).build()));
@@ -113,17 +201,47 @@ class ProductUseCaseTest {
 
     @Test
     void changeStock_withDelta_andIdempotency_ok() {
-        when(productRepository.findById("P1")).thenReturn(Mono.just(Product.builder().id("P1").stock(7).build()));
         when(productRepository.changeStockAtomic("P1", 3, "K")).thenReturn(Mono.just(Product.builder().id("P1").stock(10).build()));
 
         StepVerifier.create(useCase.changeStock("P1", 3, "K"))
                 .assertNext(p -> Assertions.assertEquals(p.getStock(), 10))
                 .verifyComplete();
 
-        verify(productRepository).findById("P1");
+        verify(productRepository, never()).findById("P1");
         verify(productRepository).changeStockAtomic("P1", 3, "K");
     }
 
+    @Test
+    void changeStock_productMissing_error() {
+        when(productRepository.changeStockAtomic("P404", 3, "K"))
+                .thenReturn(Mono.error(new ResourceNotFoundException(PRODUCT_NOT_FOUND)));
+
+        StepVerifier.create(useCase.changeStock("P404", 3, "K"))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void updateName_ok() {
+        when(productRepository.updateName(eq("P1"), eq("Pan"), anyLong()))
+                .thenReturn(Mono.just(Product.builder().id("P1").name("Pan").build()));
+
+        StepVerifier.create(useCase.updateName("P1", "Pan"))
+                .assertNext(p -> Assertions.assertEquals("Pan", p.getName()))
+                .verifyComplete();
+
+        verify(productRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void updateName_blankName_error() {
+        StepVerifier.create(useCase.updateName("P1", ""))
+                .expectError(ValidationException.class)
+                .verify();
+
+        verify(productRepository, never()).updateName(anyString(), anyString(), anyLong());
+    }
+
     @Test
     void changeStock_missingIdempotency_error() {
         when(productRepository.findById("P1")).thenReturn(Mono.just(Product.builder().id("P1").stock(7).build()));
@@ -133,6 +251,114 @@ class ProductUseCaseTest {
                 .verify();
     }
 
+    @Test
+    void changeStockBatch_ok() {
+        StockAdjustment first = StockAdjustment.builder().productId("P1").delta(3).idempotencyKey("K1").build();
+        StockAdjustment second = StockAdjustment.builder().productId("P2").delta(-1).idempotencyKey("K2").build();
+
+        when(branchRepository.findById("B1")).thenReturn(Mono.just(Branch.builder().id("B1").build()));
+        when(productRepository.changeStockBatch("B1", List.of(first, second))).thenReturn(Flux.just(
+                StockAdjustmentResult.of(first, StockAdjustmentStatus.APPLIED, null),
+                StockAdjustmentResult.of(second, StockAdjustmentStatus.REJECTED, "PRODUCT_STOCK_INVALID")));
+
+        StepVerifier.create(useCase.changeStockBatch("B1", List.of(first, second)))
+                .assertNext(r -> Assertions.assertEquals(StockAdjustmentStatus.APPLIED, r.getStatus()))
+                .assertNext(r -> Assertions.assertEquals("PRODUCT_STOCK_INVALID", r.getErrorCode()))
+                .verifyComplete();
+
+        verify(branchRepository).findById("B1");
+    }
+
+    @Test
+    void changeStockBatch_invalidItems_rejectedWithoutWrite() {
+        StockAdjustment missingKey = StockAdjustment.builder().productId("P1").delta(3).idempotencyKey(" ").build();
+        StockAdjustment noDelta = StockAdjustment.builder().productId("P2").idempotencyKey("K2").build();
+        StockAdjustment zeroDelta = StockAdjustment.builder().productId("P3").delta(0).idempotencyKey("K3").build();
+
+        when(branchRepository.findById("B1")).thenReturn(Mono.just(Branch.builder().id("B1").build()));
+
+        StepVerifier.create(useCase.changeStockBatch("B1", List.of(missingKey, noDelta, zeroDelta)))
+                .assertNext(r -> Assertions.assertEquals("IDEMPOTENCY_KEY_REQUIRED", r.getErrorCode()))
+                .assertNext(r -> Assertions.assertEquals("PRODUCT_STOCK_INVALID", r.getErrorCode()))
+                .assertNext(r -> {
+                    Assertions.assertEquals(StockAdjustmentStatus.REJECTED, r.getStatus());
+                    Assertions.assertEquals("PRODUCT_STOCK_INVALID", r.getErrorCode());
+                })
+                .verifyComplete();
+
+        verify(productRepository, never()).changeStockBatch(anyString(), anyList());
+    }
+
+    @Test
+    void changeStockBatch_resultsInRequestOrder() {
+        StockAdjustment first = StockAdjustment.builder().productId("P1").delta(3).idempotencyKey("K1").build();
+        StockAdjustment invalid = StockAdjustment.builder().productId("P2").idempotencyKey("K2").build();
+        StockAdjustment third = StockAdjustment.builder().productId("P3").delta(1).idempotencyKey("K3").build();
+
+        when(branchRepository.findById("B1")).thenReturn(Mono.just(Branch.builder().id("B1").build()));
+        when(productRepository.changeStockBatch("B1", List.of(first, third))).thenReturn(Flux.just(
+                StockAdjustmentResult.of(third, StockAdjustmentStatus.APPLIED, null),
+                StockAdjustmentResult.of(first, StockAdjustmentStatus.REPLAYED, null)));
+
+        StepVerifier.create(useCase.changeStockBatch("B1", List.of(first, invalid, third)))
+                .assertNext(r -> Assertions.assertEquals("P1", r.getProductId()))
+                .assertNext(r -> Assertions.assertEquals("P2", r.getProductId()))
+                .assertNext(r -> Assertions.assertEquals("P3", r.getProductId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void changeStockBatch_empty_error() {
+        StepVerifier.create(useCase.changeStockBatch("B1", List.of()))
+                .expectError(ValidationException.class)
+                .verify();
+
+        verify(branchRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void importProducts_mixedRows() {
+        Branch branch = Branch.builder().id("B1").franchiseId("F1").name("Centro").build();
+        ProductImportItem ok = ProductImportItem.builder().line(2).name("Leche").stock(5).build();
+        ProductImportItem blankName = ProductImportItem.builder().line(3).name(" ").stock(1).build();
+        ProductImportItem negative = ProductImportItem.builder().line(4).name("Pan").stock(-2).build();
+        ProductImportItem unparsable = ProductImportItem.builder().line(5).errorCode("IMPORT_ROW_INVALID").build();
+        ProductImportItem unwritten = ProductImportItem.builder().line(6).name("Cafe").stock(0).build();
+
+        when(productRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Product> drafts = inv.getArgument(0);
+            return Flux.fromIterable(drafts).filter(p -> !"Cafe".equals(p.getName()));
+        });
+
+        StepVerifier.create(useCase.importProducts(branch, Flux.just(ok, blankName, negative, unparsable, unwritten)))
+                .assertNext(r -> {
+                    Assertions.assertEquals(ProductImportStatus.CREATED, r.getStatus());
+                    Assertions.assertNotNull(r.getProductId());
+                })
+                .assertNext(r -> Assertions.assertEquals("PRODUCT_NAME_REQUIRED", r.getErrorCode()))
+                .assertNext(r -> Assertions.assertEquals("PRODUCT_STOCK_INVALID", r.getErrorCode()))
+                .assertNext(r -> Assertions.assertEquals("IMPORT_ROW_INVALID", r.getErrorCode()))
+                .assertNext(r -> {
+                    Assertions.assertEquals(6, r.getLine());
+                    Assertions.assertEquals("IMPORT_WRITE_FAILED", r.getErrorCode());
+                })
+                .verifyComplete();
+
+        verify(productRepository).saveAll(anyList());
+    }
+
+    @Test
+    void importProducts_onlyInvalidRows_noWrite() {
+        Branch branch = Branch.builder().id("B1").franchiseId("F1").build();
+        ProductImportItem blankName = ProductImportItem.builder().line(1).stock(1).build();
+
+        StepVerifier.create(useCase.importProducts(branch, Flux.just(blankName)))
+                .assertNext(r -> Assertions.assertEquals(ProductImportStatus.REJECTED, r.getStatus()))
+                .verifyComplete();
+
+        verify(productRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void getByBranch_paginated_ok() {
         PageResult<Product> page = PageResult.of(List.of(
@@ -141,12 +367,39 @@ class ProductUseCaseTest {
         ), "cursor-branch");
 
         when(productRepository.findByBranchId(eq("B1"), eq(20), eq(null))).thenReturn(Mono.just(page));
+        when(productRepository.countByBranchId("B1")).thenReturn(Mono.just(42L));
 
         StepVerifier.create(useCase.getByBranchId("B1", null, null))
-                .assertNext(result -> Assertions.assertEquals("cursor-branch", result.getLastEvaluatedKey()))
+                .assertNext(result -> {
+                    Assertions.assertEquals("cursor-branch", result.getLastEvaluatedKey());
+                    Assertions.assertEquals(42L, result.getTotalCount());
+                    Assertions.assertTrue(result.hasMore());
+                    Assertions.assertEquals(3L, result.getPageCount());
+                })
                 .verifyComplete();
     }
 
+    @Test
+    void getByBranch_limitCappedUnlessBulk() {
+        PageResult<Product> page = PageResult.of(List.of(), null);
+        when(productRepository.findByBranchId(eq("B1"), anyInt(), eq(null))).thenReturn(Mono.just(page));
+        when(productRepository.countByBranchId("B1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.getByBranchId("B1", 5000, null))
+                .assertNext(result -> {
+                    Assertions.assertNull(result.getTotalCount());
+                    Assertions.assertNull(result.getPageCount());
+                    Assertions.assertFalse(result.hasMore());
+                })
+                .verifyComplete();
+        StepVerifier.create(useCase.getBulkByBranchId("B1", 5000, null))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(productRepository).findByBranchId("B1", 100, null);
+        verify(productRepository).findByBranchId("B1", 1000, null);
+    }
+
     @Test
     void searchByName_ok() {
         PageResult<Product> page = PageResult.of(List.of(
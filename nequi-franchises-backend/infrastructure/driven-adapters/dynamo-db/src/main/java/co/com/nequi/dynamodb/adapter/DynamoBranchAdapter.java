@@ -1,7 +1,11 @@
 package co.com.nequi.dynamodb.adapter;
 
 import co.com.nequi.dynamodb.entity.BranchEntity;
+import co.com.nequi.dynamodb.helper.DynamoBatchReader;
+import co.com.nequi.dynamodb.helper.DynamoErrors;
+import co.com.nequi.dynamodb.helper.DynamoPageStreamer;
 import co.com.nequi.dynamodb.helper.DynamoPaginationCodec;
+import co.com.nequi.dynamodb.helper.SingleFlight;
 import co.com.nequi.model.branch.Branch;
 import co.com.nequi.model.branch.gateways.BranchRepository;
 import co.com.nequi.model.pagination.PageResult;
@@ -9,6 +13,7 @@ import co.com.nequi.usecase.constant.ExceptionMessage;
 import co.com.nequi.usecase.exception.ResourceNotFoundException;
 import org.reactivecommons.utils.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -18,70 +23,104 @@ import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 @Repository
+@Profile("!in-memory")
 public class DynamoBranchAdapter implements BranchRepository {
 
     private static final String ENTITY_TYPE = "BRANCH";
-    private static final int STREAM_PAGE_SIZE = 100;
 
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
     private final DynamoDbAsyncTable<BranchEntity> branchTable;
     private final ObjectMapper mapper;
+    private final SingleFlight singleFlight;
+    private final DynamoTopProductProjection topProducts;
+    private final DynamoItemCounters counters;
+    private final DynamoPaginationCodec paginationCodec;
+    private final String tableName;
 
     public DynamoBranchAdapter(DynamoDbEnhancedAsyncClient enhanced,
+                               DynamoDbAsyncClient dynamoDbAsyncClient,
                                ObjectMapper mapper,
+                               SingleFlight singleFlight,
+                               DynamoTopProductProjection topProducts,
+                               DynamoItemCounters counters,
+                               DynamoPaginationCodec paginationCodec,
                                @Value("${app.dynamo.core-table}") String tableName) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
         this.mapper = mapper;
+        this.singleFlight = singleFlight;
+        this.topProducts = topProducts;
+        this.counters = counters;
+        this.paginationCodec = paginationCodec;
+        this.tableName = tableName;
         this.branchTable = enhanced.table(tableName, TableSchema.fromBean(BranchEntity.class));
     }
 
     @Override
     public Mono<Branch> save(Branch branch) {
-        return Mono.defer(() -> Mono.fromFuture(branchTable.putItem(mapToEntity(branch)))
+        return Mono.defer(() -> Mono.fromFuture(dynamoDbAsyncClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(
+                                TransactWriteItem.builder()
+                                        .put(Put.builder()
+                                                .tableName(tableName)
+                                                .item(branchTable.tableSchema().itemToMap(mapToEntity(branch), true))
+                                                .build())
+                                        .build(),
+                                counters.increment(DynamoItemCounters.franchise(branch.getFranchiseId()), DynamoItemCounters.BRANCHES, 1),
+                                counters.initialize(DynamoItemCounters.branch(branch.getId())))
+                        .build()))
                 .thenReturn(branch));
     }
 
     @Override
     public Mono<Branch> findById(String id) {
-        return Mono.defer(() -> Mono.fromFuture(branchTable.getItem(r -> r.key(Key.builder()
+        return singleFlight.execute("branch.findById", id, () -> Mono.defer(() -> Mono.fromFuture(branchTable.getItem(r -> r.key(Key.builder()
                                 .partitionValue(id)
                                 .build())))
                         .flatMap(entity -> entity == null || !ENTITY_TYPE.equals(entity.getEntityType())
                                 ? Mono.empty()
                                 : Mono.just(mapToDomain(entity))))
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException(ExceptionMessage.BRANCH_NOT_FOUND)));
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.BRANCH_NOT_FOUND))));
+    }
+
+    @Override
+    public Flux<Branch> findAllById(Collection<String> ids) {
+        return DynamoBatchReader.getAll(dynamoDbAsyncClient, tableName, ids)
+                .map(item -> branchTable.tableSchema().mapToItem(item))
+                .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
+                .map(this::mapToDomain);
     }
 
     @Override
     public Mono<Branch> findByIdAndFranchiseId(String id, String franchiseId) {
         return findById(id)
                 .filter(branch -> Objects.equals(branch.getFranchiseId(), franchiseId))
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException(ExceptionMessage.BRANCH_NOT_FOUND)));
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.BRANCH_NOT_FOUND)));
     }
 
     @Override
     public Mono<PageResult<Branch>> findByFranchiseId(String franchiseId, int limit, String exclusiveStartKey) {
         final int pageSize = Math.max(1, limit);
         return Mono.defer(() -> {
-            QueryEnhancedRequest.Builder builder = QueryEnhancedRequest.builder()
-                    .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(franchiseId)))
-                    .limit(pageSize)
-                    .scanIndexForward(true)
-                    .addAttributeToProject("id")
-                    .addAttributeToProject("franchiseId")
-                    .addAttributeToProject("entityType")
-                    .addAttributeToProject("name")
-                    .addAttributeToProject("status")
-                    .addAttributeToProject("createdAt")
-                    .addAttributeToProject("updatedAt")
-                    .addAttributeToProject("version");
-
-            Map<String, AttributeValue> startKey = DynamoPaginationCodec.decode(exclusiveStartKey);
+            QueryEnhancedRequest.Builder builder = byFranchiseQuery(franchiseId, pageSize);
+            DynamoPaginationCodec.Scope scope = DynamoPaginationCodec.Scope.of("byFranchise", "franchiseId", franchiseId);
+
+            Map<String, AttributeValue> startKey = paginationCodec.decode(exclusiveStartKey, scope);
             if (startKey != null && !startKey.isEmpty()) {
                 builder.exclusiveStartKey(startKey);
             }
@@ -92,39 +131,90 @@ public class DynamoBranchAdapter implements BranchRepository {
                                 .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
                                 .map(this::mapToDomain)
                                 .toList();
-                        String nextCursor = DynamoPaginationCodec.encode(page.lastEvaluatedKey());
+                        String nextCursor = paginationCodec.encode(page.lastEvaluatedKey(), scope);
                         return PageResult.of(items, nextCursor);
                     });
         });
     }
 
+    @Override
+    public Mono<Long> countByFranchiseId(String franchiseId) {
+        return counters.read(DynamoItemCounters.franchise(franchiseId), DynamoItemCounters.BRANCHES);
+    }
+
     @Override
     public Flux<Branch> streamByFranchiseId(String franchiseId) {
-        return Flux.defer(() -> fetchBranchPages(franchiseId, null));
+        return DynamoPageStreamer.stream((startKey, pageSize) -> branchTable.index("byFranchise")
+                        .query(byFranchiseQuery(franchiseId, pageSize).exclusiveStartKey(startKey).build()))
+                .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
+                .map(this::mapToDomain));
     }
 
-    private Flux<Branch> fetchBranchPages(String franchiseId, String cursor) {
-        return findByFranchiseId(franchiseId, STREAM_PAGE_SIZE, cursor)
-                .flatMapMany(page -> {
-                    Flux<Branch> items = Flux.fromIterable(page.getItems());
-                    if (page.getLastEvaluatedKey() == null) {
-                        return items;
-                    }
-                    return items.concatWith(fetchBranchPages(franchiseId, page.getLastEvaluatedKey()));
-                });
+    private QueryEnhancedRequest.Builder byFranchiseQuery(String franchiseId, int pageSize) {
+        return QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(franchiseId)))
+                .limit(pageSize)
+                .scanIndexForward(true)
+                .addAttributeToProject("id")
+                .addAttributeToProject("franchiseId")
+                .addAttributeToProject("entityType")
+                .addAttributeToProject("name")
+                .addAttributeToProject("status")
+                .addAttributeToProject("createdAt")
+                .addAttributeToProject("updatedAt")
+                .addAttributeToProject("version");
     }
 
     @Override
-    public Mono<Branch> update(Branch branch) {
-        return Mono.defer(() -> Mono.fromFuture(branchTable.putItem(mapToEntity(branch)))
-                .thenReturn(branch));
+    public Mono<Branch> updateName(String id, String name, Long updatedAt) {
+        return Mono.defer(() -> {
+            Map<String, AttributeValue> values = new HashMap<>();
+            values.put(":name", AttributeValue.fromS(name));
+            values.put(":now", AttributeValue.fromN(String.valueOf(updatedAt)));
+            values.put(":one", AttributeValue.fromN("1"));
+            values.put(":z", AttributeValue.fromN("0"));
+            values.put(":type", AttributeValue.fromS(ENTITY_TYPE));
+
+            UpdateItemRequest request = UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(Map.of("id", AttributeValue.fromS(id)))
+                    .conditionExpression("attribute_exists(id) AND entityType = :type")
+                    .updateExpression("SET #name = :name, updatedAt = :now, version = if_not_exists(version, :z) + :one")
+                    .expressionAttributeNames(Map.of("#name", "name"))
+                    .expressionAttributeValues(values)
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .build();
+
+            return Mono.fromFuture(dynamoDbAsyncClient.updateItem(request))
+                    .map(response -> mapToDomain(branchTable.tableSchema().mapToItem(response.attributes())))
+                    .onErrorMap(DynamoErrors::isConditionalCheckFailed,
+                            ex -> new ResourceNotFoundException(ExceptionMessage.BRANCH_NOT_FOUND))
+                    .flatMap(branch -> topProducts.renameBranch(branch.getId(), branch.getName()).thenReturn(branch));
+        });
     }
 
+    /**
+     * Deletes the branch, decrements the franchise branch counter and drops the branch's own counter
+     * in one transaction; a branch already deleted by a concurrent call leaves the counters untouched.
+     */
     @Override
     public Mono<Void> deleteById(String id) {
         return findById(id)
-                .flatMap(b -> Mono.fromFuture(branchTable.deleteItem(Key.builder().partitionValue(id).build())))
-                .then();
+                .flatMap(b -> Mono.fromFuture(() -> dynamoDbAsyncClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                                        .transactItems(
+                                                TransactWriteItem.builder()
+                                                        .delete(Delete.builder()
+                                                                .tableName(tableName)
+                                                                .key(Map.of("id", AttributeValue.fromS(id)))
+                                                                .conditionExpression("attribute_exists(id)")
+                                                                .build())
+                                                        .build(),
+                                                counters.increment(DynamoItemCounters.franchise(b.getFranchiseId()), DynamoItemCounters.BRANCHES, -1),
+                                                counters.remove(DynamoItemCounters.branch(id)))
+                                        .build()))
+                        .then()
+                        .onErrorResume(ex -> DynamoErrors.isTransactionConditionFailed(ex, 0), ex -> Mono.empty())
+                        .then(topProducts.removeBranch(id)));
     }
 
     private BranchEntity mapToEntity(Branch branch) {
@@ -0,0 +1,197 @@
+package co.com.nequi.dynamodb.adapter;
+
+import co.com.nequi.dynamodb.helper.DynamoErrors;
+import co.com.nequi.dynamodb.helper.ProductEntityMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionCheck;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One-off backfill of the item counters, enabled with {@code app.dynamo.counters.backfill.enabled}.
+ * Branches and franchises created before the counters existed have none trusted, so their listings
+ * carry no {@code X-Total-Count}. On startup this scans the table in parallel segments for branch
+ * and franchise items and, for each one whose counter is not initialized, counts its children
+ * through {@code byBranch} and {@code byFranchise} and seeds the counter with those counts.
+ * <p>
+ * The counter is read before counting and the seed is conditioned on it being unchanged and on the
+ * parent still existing, so a single create or delete that lands meanwhile makes the seed retry with
+ * a fresh count instead of being lost. The count starts {@value #SETTLE_MS} ms after the read, giving
+ * the indexes time to show the children written just before it. Batch imports adjust the counters
+ * right after writing, outside that fence, so the backfill should run while no import is in flight.
+ * Initialized counters are skipped, so it can run on every instance or again later.
+ */
+@Component
+@Profile("!in-memory")
+public class DynamoCounterBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(DynamoCounterBackfill.class);
+    private static final String BRANCH_ENTITY_TYPE = "BRANCH";
+    private static final String FRANCHISE_ENTITY_TYPE = "FRANCHISE";
+    private static final String PRODUCT_ENTITY_TYPE = ProductEntityMapper.ENTITY_TYPE;
+    private static final long SETTLE_MS = 1_000;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final DynamoItemCounters counters;
+    private final String tableName;
+    private final boolean enabled;
+    private final int segments;
+    private final int concurrency;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    public DynamoCounterBackfill(DynamoDbAsyncClient dynamoDbAsyncClient,
+                                 DynamoItemCounters counters,
+                                 @Value("${app.dynamo.core-table}") String tableName,
+                                 @Value("${app.dynamo.counters.backfill.enabled:false}") boolean enabled,
+                                 @Value("${app.dynamo.counters.backfill.segments:4}") int segments,
+                                 @Value("${app.dynamo.counters.backfill.concurrency:8}") int concurrency) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.counters = counters;
+        this.tableName = tableName;
+        this.enabled = enabled;
+        this.segments = Math.max(1, segments);
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        if (!enabled || !started.compareAndSet(false, true)) {
+            return;
+        }
+        run().subscribe(
+                seeded -> log.info("Counter backfill seeded {} counters", seeded),
+                ex -> log.warn("Counter backfill failed; it can be re-run safely", ex));
+    }
+
+    /**
+     * Seeds the counter of every branch and franchise that has none trusted and completes with the
+     * number of counters seeded.
+     */
+    public Mono<Long> run() {
+        return Flux.range(0, segments)
+                .flatMap(this::scanParents, segments)
+                .flatMap(parent -> seed(parent, 1), concurrency)
+                .filter(Boolean::booleanValue)
+                .count();
+    }
+
+    private record Parent(String id, String entityType) {
+    }
+
+    private Flux<Parent> scanParents(int segment) {
+        ScanRequest request = ScanRequest.builder()
+                .tableName(tableName)
+                .segment(segment)
+                .totalSegments(segments)
+                .filterExpression("entityType IN (:branch, :franchise)")
+                .projectionExpression("id, entityType")
+                .expressionAttributeValues(Map.of(
+                        ":branch", AttributeValue.fromS(BRANCH_ENTITY_TYPE),
+                        ":franchise", AttributeValue.fromS(FRANCHISE_ENTITY_TYPE)))
+                .build();
+
+        return Flux.from(dynamoDbAsyncClient.scanPaginator(request).items())
+                .map(item -> new Parent(item.get("id").s(), item.get("entityType").s()));
+    }
+
+    /**
+     * Completes with {@code true} when the counter was seeded, {@code false} when it was already
+     * trusted or its parent is gone.
+     */
+    private Mono<Boolean> seed(Parent parent, int attempt) {
+        boolean branch = BRANCH_ENTITY_TYPE.equals(parent.entityType());
+        String counterId = branch ? DynamoItemCounters.branch(parent.id()) : DynamoItemCounters.franchise(parent.id());
+        return counters.current(counterId).flatMap(observed -> {
+            if (DynamoItemCounters.isInitialized(observed)) {
+                return Mono.just(Boolean.FALSE);
+            }
+            return Mono.delay(Duration.ofMillis(SETTLE_MS))
+                    .then(branch ? branchCounts(parent.id()) : franchiseCounts(parent.id()))
+                    .flatMap(counts -> Mono.fromFuture(() -> dynamoDbAsyncClient.transactWriteItems(
+                            TransactWriteItemsRequest.builder()
+                                    .transactItems(parentExists(parent), counters.seed(counterId, counts, observed))
+                                    .build())))
+                    .thenReturn(Boolean.TRUE)
+                    .onErrorResume(ex -> DynamoErrors.unwrap(ex) instanceof TransactionCanceledException,
+                            ex -> retry(parent, attempt, (TransactionCanceledException) DynamoErrors.unwrap(ex)));
+        });
+    }
+
+    private Mono<Boolean> retry(Parent parent, int attempt, TransactionCanceledException cancelled) {
+        if (DynamoErrors.isTransactionConditionFailed(cancelled, 0)) {
+            return Mono.just(Boolean.FALSE);
+        }
+        if (attempt >= MAX_ATTEMPTS) {
+            log.warn("Counter of {} {} kept changing while being seeded; re-run the backfill",
+                    parent.entityType(), parent.id());
+            return Mono.just(Boolean.FALSE);
+        }
+        return seed(parent, attempt + 1);
+    }
+
+    private TransactWriteItem parentExists(Parent parent) {
+        return TransactWriteItem.builder()
+                .conditionCheck(ConditionCheck.builder()
+                        .tableName(tableName)
+                        .key(Map.of("id", AttributeValue.fromS(parent.id())))
+                        .conditionExpression("entityType = :type")
+                        .expressionAttributeValues(Map.of(":type", AttributeValue.fromS(parent.entityType())))
+                        .build())
+                .build();
+    }
+
+    private Mono<Map<String, Long>> branchCounts(String branchId) {
+        return count("byBranch", "branchId", branchId, PRODUCT_ENTITY_TYPE)
+                .map(products -> Map.of(DynamoItemCounters.PRODUCTS, products));
+    }
+
+    private Mono<Map<String, Long>> franchiseCounts(String franchiseId) {
+        return Mono.zip(count("byFranchise", "franchiseId", franchiseId, PRODUCT_ENTITY_TYPE),
+                        count("byFranchise", "franchiseId", franchiseId, BRANCH_ENTITY_TYPE))
+                .map(tuple -> {
+                    Map<String, Long> counts = new LinkedHashMap<>();
+                    counts.put(DynamoItemCounters.PRODUCTS, tuple.getT1());
+                    counts.put(DynamoItemCounters.BRANCHES, tuple.getT2());
+                    return counts;
+                });
+    }
+
+    private Mono<Long> count(String index, String partitionKey, String value, String entityType) {
+        QueryRequest request = QueryRequest.builder()
+                .tableName(tableName)
+                .indexName(index)
+                .keyConditionExpression("#pk = :pk")
+                .filterExpression("entityType = :type")
+                .expressionAttributeNames(Map.of("#pk", partitionKey))
+                .expressionAttributeValues(Map.of(
+                        ":pk", AttributeValue.fromS(value),
+                        ":type", AttributeValue.fromS(entityType)))
+                .select(Select.COUNT)
+                .build();
+
+        return Flux.from(dynamoDbAsyncClient.queryPaginator(request))
+                .map(QueryResponse::count)
+                .reduce(0L, Long::sum);
+    }
+}
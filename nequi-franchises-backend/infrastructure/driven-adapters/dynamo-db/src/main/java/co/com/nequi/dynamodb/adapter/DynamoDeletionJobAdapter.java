@@ -0,0 +1,193 @@
+package co.com.nequi.dynamodb.adapter;
+
+import co.com.nequi.dynamodb.entity.DeletionJobEntity;
+import co.com.nequi.dynamodb.helper.DynamoErrors;
+import co.com.nequi.dynamodb.helper.DynamoPageStreamer;
+import co.com.nequi.model.deletion.DeletionJob;
+import co.com.nequi.model.deletion.DeletionJobStatus;
+import co.com.nequi.model.deletion.DeletionTarget;
+import co.com.nequi.model.deletion.gateways.DeletionJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deletion jobs live in {@code core_table} under {@code DELETION_JOB#<jobId>} and expire through
+ * the table TTL once they are no longer worth polling. While a job is RUNNING its
+ * {@code franchiseId} is the {@code DELETION_JOB#RUNNING} partition, so stale jobs are found with
+ * one {@code byFranchise} query; finishing the job removes it from that partition.
+ */
+@Repository
+@Profile("!in-memory")
+public class DynamoDeletionJobAdapter implements DeletionJobRepository {
+
+    private static final String ENTITY_TYPE = "DELETION_JOB";
+    private static final String ID_PREFIX = "DELETION_JOB#";
+    private static final String RUNNING_PARTITION = "DELETION_JOB#RUNNING";
+
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final DynamoDbAsyncTable<DeletionJobEntity> jobTable;
+    private final String tableName;
+    private final long ttlSeconds;
+
+    public DynamoDeletionJobAdapter(DynamoDbEnhancedAsyncClient enhanced,
+                                    DynamoDbAsyncClient dynamoDbAsyncClient,
+                                    @Value("${app.dynamo.core-table}") String tableName,
+                                    @Value("${app.cascade-delete.job-ttl-seconds:604800}") long ttlSeconds) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.tableName = tableName;
+        this.ttlSeconds = ttlSeconds;
+        this.jobTable = enhanced.table(tableName, TableSchema.fromBean(DeletionJobEntity.class));
+    }
+
+    @Override
+    public Mono<DeletionJob> save(DeletionJob job) {
+        return Mono.defer(() -> Mono.fromFuture(jobTable.putItem(mapToEntity(job)))
+                .thenReturn(job));
+    }
+
+    @Override
+    public Mono<DeletionJob> findById(String id) {
+        return Mono.defer(() -> Mono.fromFuture(jobTable.getItem(r -> r.key(Key.builder()
+                                .partitionValue(buildId(id))
+                                .build())))
+                .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
+                .map(this::mapToDomain));
+    }
+
+    @Override
+    public Mono<Void> addProgress(String id, long branchesDeleted, long productsDeleted, Long updatedAt) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":b", AttributeValue.fromN(String.valueOf(branchesDeleted)));
+        values.put(":p", AttributeValue.fromN(String.valueOf(productsDeleted)));
+        values.put(":now", AttributeValue.fromN(String.valueOf(updatedAt)));
+        return update(id, "ADD branchesDeleted :b, productsDeleted :p SET updatedAt = :now", Map.of(), values);
+    }
+
+    @Override
+    public Mono<Void> finish(String id, DeletionJobStatus status, String errorCode, Long updatedAt) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":status", AttributeValue.fromS(status.name()));
+        values.put(":now", AttributeValue.fromN(String.valueOf(updatedAt)));
+        if (errorCode == null) {
+            return update(id, "SET #status = :status, updatedAt = :now REMOVE errorCode, franchiseId",
+                    Map.of("#status", "status"), values);
+        }
+        values.put(":error", AttributeValue.fromS(errorCode));
+        return update(id, "SET #status = :status, errorCode = :error, updatedAt = :now REMOVE franchiseId",
+                Map.of("#status", "status"), values);
+    }
+
+    @Override
+    public Flux<DeletionJob> findRunning() {
+        return DynamoPageStreamer.stream((startKey, pageSize) -> jobTable.index("byFranchise")
+                        .query(QueryEnhancedRequest.builder()
+                                .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(RUNNING_PARTITION)))
+                                .limit(pageSize)
+                                .exclusiveStartKey(startKey)
+                                .build()))
+                .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType())
+                        && DeletionJobStatus.RUNNING.name().equals(entity.getStatus()))
+                .map(entity -> DeletionJob.builder()
+                        .id(entity.getId().substring(ID_PREFIX.length()))
+                        .status(DeletionJobStatus.RUNNING)
+                        .updatedAt(entity.getUpdatedAt())
+                        .build());
+    }
+
+    @Override
+    public Mono<DeletionJob> claim(String id, Long seenUpdatedAt, Long updatedAt) {
+        return Mono.defer(() -> {
+            Map<String, AttributeValue> values = new HashMap<>();
+            values.put(":running", AttributeValue.fromS(DeletionJobStatus.RUNNING.name()));
+            values.put(":now", AttributeValue.fromN(String.valueOf(updatedAt)));
+            values.put(":one", AttributeValue.fromN("1"));
+            String condition = "#status = :running AND ";
+            if (seenUpdatedAt == null) {
+                condition += "attribute_not_exists(updatedAt)";
+            } else {
+                values.put(":seen", AttributeValue.fromN(String.valueOf(seenUpdatedAt)));
+                condition += "updatedAt = :seen";
+            }
+            UpdateItemRequest request = UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(Map.of("id", AttributeValue.fromS(buildId(id))))
+                    .conditionExpression(condition)
+                    .updateExpression("SET updatedAt = :now ADD attempts :one")
+                    .expressionAttributeNames(Map.of("#status", "status"))
+                    .expressionAttributeValues(values)
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .build();
+
+            return Mono.fromFuture(dynamoDbAsyncClient.updateItem(request))
+                    .map(response -> mapToDomain(jobTable.tableSchema().mapToItem(response.attributes())))
+                    .onErrorResume(DynamoErrors::isConditionalCheckFailed, ex -> Mono.empty());
+        });
+    }
+
+    private Mono<Void> update(String id, String expression, Map<String, String> names, Map<String, AttributeValue> values) {
+        return Mono.defer(() -> {
+            UpdateItemRequest.Builder request = UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(Map.of("id", AttributeValue.fromS(buildId(id))))
+                    .updateExpression(expression)
+                    .expressionAttributeValues(values);
+            if (!names.isEmpty()) {
+                request.expressionAttributeNames(names);
+            }
+            return Mono.fromFuture(dynamoDbAsyncClient.updateItem(request.build())).then();
+        });
+    }
+
+    private DeletionJobEntity mapToEntity(DeletionJob job) {
+        DeletionJobEntity entity = new DeletionJobEntity();
+        entity.setId(buildId(job.getId()));
+        entity.setEntityType(ENTITY_TYPE);
+        entity.setTargetType(job.getTargetType().name());
+        entity.setTargetId(job.getTargetId());
+        entity.setStatus(job.getStatus().name());
+        entity.setBranchesDeleted(job.getBranchesDeleted());
+        entity.setProductsDeleted(job.getProductsDeleted());
+        entity.setErrorCode(job.getErrorCode());
+        entity.setAttempts((long) job.getAttempts());
+        entity.setFranchiseId(job.getStatus() == DeletionJobStatus.RUNNING ? RUNNING_PARTITION : null);
+        entity.setCreatedAt(job.getCreatedAt());
+        entity.setUpdatedAt(job.getUpdatedAt());
+        entity.setExpiresAt(job.getCreatedAt() + ttlSeconds);
+        return entity;
+    }
+
+    private DeletionJob mapToDomain(DeletionJobEntity entity) {
+        return DeletionJob.builder()
+                .id(entity.getId().substring(ID_PREFIX.length()))
+                .targetType(DeletionTarget.valueOf(entity.getTargetType()))
+                .targetId(entity.getTargetId())
+                .status(DeletionJobStatus.valueOf(entity.getStatus()))
+                .branchesDeleted(entity.getBranchesDeleted() == null ? 0 : entity.getBranchesDeleted())
+                .productsDeleted(entity.getProductsDeleted() == null ? 0 : entity.getProductsDeleted())
+                .errorCode(entity.getErrorCode())
+                .attempts(entity.getAttempts() == null ? 0 : entity.getAttempts().intValue())
+                .createdAt(entity.getCreatedAt())
+                .updatedAt(entity.getUpdatedAt())
+                .build();
+    }
+
+    private String buildId(String jobId) {
+        return ID_PREFIX + jobId;
+    }
+}
@@ -1,7 +1,12 @@
 package co.com.nequi.dynamodb.adapter;
 
 import co.com.nequi.dynamodb.entity.FranchiseEntity;
+import co.com.nequi.dynamodb.helper.DynamoBatchReader;
+import co.com.nequi.dynamodb.helper.DynamoErrors;
+import co.com.nequi.dynamodb.helper.DynamoPageStreamer;
 import co.com.nequi.dynamodb.helper.DynamoPaginationCodec;
+import co.com.nequi.dynamodb.helper.ShardCursor;
+import co.com.nequi.dynamodb.helper.SingleFlight;
 import co.com.nequi.model.franchise.Franchise;
 import co.com.nequi.model.franchise.gateways.FranchiseRepository;
 import co.com.nequi.model.pagination.PageResult;
@@ -9,6 +14,7 @@ import co.com.nequi.usecase.constant.ExceptionMessage;
 import co.com.nequi.usecase.exception.ResourceNotFoundException;
 import org.reactivecommons.utils.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -17,106 +23,264 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
+/**
+ * Franchises are listed from {@code byFranchise} partitions: {@code FRANCHISE#<n>}, the one a
+ * franchise is created in being chosen by hashing its id modulo {@code app.dynamo.franchise-shards},
+ * and the pre-sharding {@code FRANCHISE} partition. A franchise never changes partition on a regular
+ * write, since that would duplicate or skip it in listings being paginated; only
+ * {@link #migratePartitions()}, run explicitly, moves franchises to the shard of the current count.
+ * Listings read every shard up to {@code franchise-listed-shards}, which must stay at the highest
+ * count ever used until that migration has run.
+ */
 @Repository
+@Profile("!in-memory")
 public class DynamoFranchiseAdapter implements FranchiseRepository {
 
     private static final String ENTITY_TYPE = "FRANCHISE";
     private static final String GLOBAL_PARTITION_KEY = "FRANCHISE";
-    private static final int STREAM_PAGE_SIZE = 100;
+    private static final String INDEX_KEY = "franchiseId";
+    private static final int CONCURRENT_SHARD_QUERIES = 8;
+    private static final DynamoPaginationCodec.Scope CURSOR_SCOPE =
+            DynamoPaginationCodec.Scope.of("byFranchise", INDEX_KEY, GLOBAL_PARTITION_KEY);
 
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
     private final DynamoDbAsyncTable<FranchiseEntity> franchiseTable;
     private final ObjectMapper mapper;
+    private final SingleFlight singleFlight;
+    private final DynamoItemCounters counters;
+    private final DynamoPaginationCodec paginationCodec;
+    private final String tableName;
+    private final List<String> shardKeys;
+    private final List<String> listedPartitions;
 
     public DynamoFranchiseAdapter(DynamoDbEnhancedAsyncClient enhanced,
+                                  DynamoDbAsyncClient dynamoDbAsyncClient,
                                   ObjectMapper mapper,
-                                  @Value("${app.dynamo.core-table}") String tableName) {
+                                  SingleFlight singleFlight,
+                                  DynamoItemCounters counters,
+                                  DynamoPaginationCodec paginationCodec,
+                                  @Value("${app.dynamo.core-table}") String tableName,
+                                  @Value("${app.dynamo.franchise-shards:16}") int shardCount,
+                                  @Value("${app.dynamo.franchise-listed-shards:0}") int listedShardCount,
+                                  @Value("${app.dynamo.franchise-legacy-partition:true}") boolean readLegacyPartition) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
         this.mapper = mapper;
+        this.singleFlight = singleFlight;
+        this.counters = counters;
+        this.paginationCodec = paginationCodec;
+        this.tableName = tableName;
         this.franchiseTable = enhanced.table(tableName, TableSchema.fromBean(FranchiseEntity.class));
+        this.shardKeys = shardKeys(Math.max(1, shardCount));
+        List<String> partitions = new ArrayList<>(shardKeys(Math.max(Math.max(1, shardCount), listedShardCount)));
+        if (readLegacyPartition) {
+            partitions.add(GLOBAL_PARTITION_KEY);
+        }
+        this.listedPartitions = List.copyOf(partitions);
     }
 
     @Override
     public Mono<Franchise> save(Franchise franchise) {
-        return Mono.defer(() -> Mono.fromFuture(franchiseTable.putItem(mapToEntity(franchise)))
+        return Mono.defer(() -> Mono.fromFuture(dynamoDbAsyncClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(
+                                TransactWriteItem.builder()
+                                        .put(Put.builder()
+                                                .tableName(tableName)
+                                                .item(franchiseTable.tableSchema().itemToMap(mapToEntity(franchise), true))
+                                                .build())
+                                        .build(),
+                                counters.initialize(DynamoItemCounters.franchise(franchise.getId())))
+                        .build()))
                 .thenReturn(franchise));
     }
 
     @Override
     public Mono<Franchise> findById(String id) {
-        return Mono.defer(() -> Mono.fromFuture(franchiseTable.getItem(r -> r.key(Key.builder()
+        return singleFlight.execute("franchise.findById", id, () -> Mono.defer(() -> Mono.fromFuture(franchiseTable.getItem(r -> r.key(Key.builder()
                                 .partitionValue(id)
                                 .build())))
                         .flatMap(entity -> entity == null || !ENTITY_TYPE.equals(entity.getEntityType())
                                 ? Mono.empty()
                                 : Mono.just(mapToDomain(entity))))
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException(ExceptionMessage.FRANCHISE_NOT_FOUND)));
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.FRANCHISE_NOT_FOUND))));
     }
 
+    @Override
+    public Flux<Franchise> findAllById(Collection<String> ids) {
+        return DynamoBatchReader.getAll(dynamoDbAsyncClient, tableName, ids)
+                .map(item -> franchiseTable.tableSchema().mapToItem(item))
+                .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
+                .map(this::mapToDomain);
+    }
+
+    /**
+     * Scatter-gather over every shard partition (plus the pre-sharding one while it is still read):
+     * each active shard is queried concurrently for its share of the page and the slices are merged
+     * in partition order. Franchises created before sharding stay in the pre-sharding partition until
+     * they are migrated, so it holds most of them; it is read for the whole page
+     * and, merged last, fills whatever the shards leave. The cursor records where each partition
+     * stopped.
+     */
     @Override
     public Mono<PageResult<Franchise>> findAll(int limit, String exclusiveStartKey) {
         final int pageSize = Math.max(1, limit);
         return Mono.defer(() -> {
-            QueryEnhancedRequest.Builder builder = QueryEnhancedRequest.builder()
-                    .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(GLOBAL_PARTITION_KEY)))
-                    .limit(pageSize)
-                    .scanIndexForward(true)
-                    .addAttributeToProject("id")
-                    .addAttributeToProject("name")
-                    .addAttributeToProject("franchiseId")
-                    .addAttributeToProject("entityType")
-                    .addAttributeToProject("createdAt")
-                    .addAttributeToProject("updatedAt")
-                    .addAttributeToProject("version");
-
-            Map<String, AttributeValue> startKey = DynamoPaginationCodec.decode(exclusiveStartKey);
-            if (startKey != null && !startKey.isEmpty()) {
-                builder.exclusiveStartKey(startKey);
+            ShardCursor cursor = ShardCursor.decode(paginationCodec, exclusiveStartKey, CURSOR_SCOPE);
+            List<String> active = listedPartitions.stream()
+                    .filter(partition -> !cursor.isExhausted(partition))
+                    .toList();
+            if (active.isEmpty()) {
+                return Mono.just(PageResult.<Franchise>of(List.of(), null));
             }
+            long activeShards = active.stream().filter(partition -> !GLOBAL_PARTITION_KEY.equals(partition)).count();
+            int perShard = activeShards == 0 ? pageSize : (int) Math.ceilDiv(pageSize, activeShards);
 
-            return Mono.from(franchiseTable.index("byFranchise").query(builder.build()))
-                    .map(page -> {
-                        List<Franchise> items = page.items().stream()
-                                .filter(item -> ENTITY_TYPE.equals(item.getEntityType()))
-                                .map(this::mapToDomain)
-                                .toList();
-                        String nextCursor = DynamoPaginationCodec.encode(page.lastEvaluatedKey());
-                        return PageResult.of(items, nextCursor);
-                    });
+            return Flux.fromIterable(active)
+                    .flatMapSequential(partition -> Mono.from(franchiseTable.index("byFranchise")
+                                    .query(byPartitionQuery(partition,
+                                            GLOBAL_PARTITION_KEY.equals(partition) ? pageSize : perShard,
+                                            cursor.startKey(partition, INDEX_KEY))))
+                                    .map(page -> new PartitionSlice(partition, page)),
+                            CONCURRENT_SHARD_QUERIES)
+                    .collectList()
+                    .map(slices -> merge(slices, cursor, pageSize));
         });
     }
 
     @Override
     public Flux<Franchise> streamAll() {
-        return Flux.defer(() -> fetchPageRecursively(null));
+        return Flux.defer(() -> Flux.fromIterable(listedPartitions)
+                .flatMapSequential(partition -> DynamoPageStreamer.stream((startKey, pageSize) ->
+                                franchiseTable.index("byFranchise").query(byPartitionQuery(partition, pageSize, startKey))),
+                        CONCURRENT_SHARD_QUERIES)
+                .filter(item -> ENTITY_TYPE.equals(item.getEntityType()))
+                .map(this::mapToDomain));
     }
 
-    private Flux<Franchise> fetchPageRecursively(String cursor) {
-        return findAll(STREAM_PAGE_SIZE, cursor)
-                .flatMapMany(page -> {
-                    Flux<Franchise> items = Flux.fromIterable(page.getItems());
-                    if (page.getLastEvaluatedKey() == null) {
-                        return items;
-                    }
-                    return items.concatWith(fetchPageRecursively(page.getLastEvaluatedKey()));
-                });
+    private QueryEnhancedRequest byPartitionQuery(String partition, int limit, Map<String, AttributeValue> startKey) {
+        QueryEnhancedRequest.Builder builder = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(partition)))
+                .limit(limit)
+                .scanIndexForward(true)
+                .addAttributeToProject("id")
+                .addAttributeToProject("name")
+                .addAttributeToProject("franchiseId")
+                .addAttributeToProject("entityType")
+                .addAttributeToProject("createdAt")
+                .addAttributeToProject("updatedAt")
+                .addAttributeToProject("version");
+        if (startKey != null) {
+            builder.exclusiveStartKey(startKey);
+        }
+        return builder.build();
+    }
+
+    private PageResult<Franchise> merge(List<PartitionSlice> slices, ShardCursor cursor, int pageSize) {
+        List<Franchise> items = new ArrayList<>(pageSize);
+        int remaining = pageSize;
+        for (PartitionSlice slice : slices) {
+            List<FranchiseEntity> fetched = slice.page().items();
+            int taken = Math.min(remaining, fetched.size());
+            fetched.subList(0, taken).stream()
+                    .filter(item -> ENTITY_TYPE.equals(item.getEntityType()))
+                    .map(this::mapToDomain)
+                    .forEach(items::add);
+            remaining -= taken;
+
+            if (taken == fetched.size() && slice.page().lastEvaluatedKey() == null) {
+                cursor.exhaust(slice.partition());
+            } else if (taken > 0) {
+                cursor.advance(slice.partition(), fetched.get(taken - 1).getId());
+            }
+        }
+        return PageResult.of(items, cursor.encode(paginationCodec, listedPartitions, CURSOR_SCOPE));
     }
 
     @Override
-    public Mono<Franchise> update(Franchise franchise) {
-        return Mono.defer(() -> Mono.fromFuture(franchiseTable.putItem(mapToEntity(franchise)))
-                .thenReturn(franchise));
+    public Mono<Franchise> updateName(String id, String name, Long updatedAt) {
+        return Mono.defer(() -> {
+            Map<String, AttributeValue> values = new HashMap<>();
+            values.put(":name", AttributeValue.fromS(name));
+            values.put(":now", AttributeValue.fromN(String.valueOf(updatedAt)));
+            values.put(":one", AttributeValue.fromN("1"));
+            values.put(":z", AttributeValue.fromN("0"));
+            values.put(":type", AttributeValue.fromS(ENTITY_TYPE));
+
+            UpdateItemRequest request = UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(Map.of("id", AttributeValue.fromS(id)))
+                    .conditionExpression("attribute_exists(id) AND entityType = :type")
+                    .updateExpression("SET #name = :name, updatedAt = :now, "
+                            + "version = if_not_exists(version, :z) + :one")
+                    .expressionAttributeNames(Map.of("#name", "name"))
+                    .expressionAttributeValues(values)
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .build();
+
+            return Mono.fromFuture(dynamoDbAsyncClient.updateItem(request))
+                    .map(response -> mapToDomain(franchiseTable.tableSchema().mapToItem(response.attributes())))
+                    .onErrorMap(DynamoErrors::isConditionalCheckFailed,
+                            ex -> new ResourceNotFoundException(ExceptionMessage.FRANCHISE_NOT_FOUND));
+        });
+    }
+
+    /**
+     * Moves every listed franchise that is not in the shard of the current count there, partition by
+     * partition, and completes with the number moved. Listings paginated meanwhile may repeat or miss
+     * the franchises being moved, so it only runs as an explicit job; once it completes the legacy
+     * partition and any shard above the current count can stop being listed.
+     */
+    Mono<Long> migratePartitions() {
+        return Flux.fromIterable(listedPartitions)
+                .concatMap(partition -> DynamoPageStreamer.stream((startKey, pageSize) ->
+                                franchiseTable.index("byFranchise").query(byPartitionQuery(partition, pageSize, startKey)))
+                        .filter(item -> ENTITY_TYPE.equals(item.getEntityType()))
+                        .filter(item -> !partition.equals(shardKeyOf(item.getId())))
+                        .flatMap(item -> move(item.getId(), partition), CONCURRENT_SHARD_QUERIES))
+                .count();
+    }
+
+    /**
+     * Moves the franchise unless it was deleted or moved meanwhile, in which case it completes empty.
+     */
+    private Mono<String> move(String id, String from) {
+        UpdateItemRequest request = UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(Map.of("id", AttributeValue.fromS(id)))
+                .conditionExpression("entityType = :type AND franchiseId = :from")
+                .updateExpression("SET franchiseId = :to")
+                .expressionAttributeValues(Map.of(
+                        ":type", AttributeValue.fromS(ENTITY_TYPE),
+                        ":from", AttributeValue.fromS(from),
+                        ":to", AttributeValue.fromS(shardKeyOf(id))))
+                .build();
+
+        return Mono.fromFuture(() -> dynamoDbAsyncClient.updateItem(request))
+                .thenReturn(id)
+                .onErrorResume(DynamoErrors::isConditionalCheckFailed, ex -> Mono.empty());
     }
 
     @Override
     public Mono<Void> deleteById(String id) {
         return findById(id)
                 .flatMap(f -> Mono.fromFuture(franchiseTable.deleteItem(Key.builder().partitionValue(id).build())))
-                .then();
+                .then(counters.delete(DynamoItemCounters.franchise(id)));
     }
 
     private FranchiseEntity mapToEntity(Franchise franchise) {
@@ -127,10 +291,20 @@ public class DynamoFranchiseAdapter implements FranchiseRepository {
         entity.setUpdatedAt(franchise.getUpdatedAt());
         entity.setVersion(null);
         entity.setEntityType(ENTITY_TYPE);
-        entity.setFranchiseId(GLOBAL_PARTITION_KEY);
+        entity.setFranchiseId(shardKeyOf(franchise.getId()));
         return entity;
     }
 
+    private static List<String> shardKeys(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(shard -> GLOBAL_PARTITION_KEY + "#" + shard)
+                .toList();
+    }
+
+    private String shardKeyOf(String id) {
+        return shardKeys.get(Math.floorMod(id.hashCode(), shardKeys.size()));
+    }
+
     private Franchise mapToDomain(FranchiseEntity entity) {
         return Franchise.builder()
                 .id(entity.getId())
@@ -139,4 +313,7 @@ public class DynamoFranchiseAdapter implements FranchiseRepository {
                 .updatedAt(entity.getUpdatedAt())
                 .build();
     }
+
+    private record PartitionSlice(String partition, Page<FranchiseEntity> page) {
+    }
 }
@@ -0,0 +1,45 @@
+package co.com.nequi.dynamodb.adapter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Explicit migration of franchises to the {@code byFranchise} shard of the current
+ * {@code app.dynamo.franchise-shards}, enabled with {@code app.dynamo.franchise-migration.enabled}.
+ * Regular writes never move a franchise, so the pre-sharding partition, and the shards dropped when
+ * the count is lowered, are only emptied by this job. Run it on a single instance; each move is
+ * conditioned on the franchise still being where it was read, so a re-run only moves what is left.
+ */
+@Component
+@Profile("!in-memory")
+public class DynamoFranchisePartitionMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(DynamoFranchisePartitionMigration.class);
+
+    private final DynamoFranchiseAdapter franchises;
+    private final boolean enabled;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    public DynamoFranchisePartitionMigration(DynamoFranchiseAdapter franchises,
+                                             @Value("${app.dynamo.franchise-migration.enabled:false}") boolean enabled) {
+        this.franchises = franchises;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        if (!enabled || !started.compareAndSet(false, true)) {
+            return;
+        }
+        franchises.migratePartitions().subscribe(
+                moved -> log.info("Franchise partition migration moved {} franchises", moved),
+                ex -> log.warn("Franchise partition migration failed; it can be re-run safely", ex));
+    }
+}
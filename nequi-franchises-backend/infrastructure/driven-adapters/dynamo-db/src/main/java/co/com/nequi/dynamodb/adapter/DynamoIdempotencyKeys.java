@@ -0,0 +1,54 @@
+package co.com.nequi.dynamodb.adapter;
+
+import co.com.nequi.dynamodb.entity.IdempotencyEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+
+import java.time.Instant;
+
+/**
+ * Idempotency records of stock changes, {@code IDEMPOTENCY#<productId>#<key>} items that expire
+ * after {@code app.dynamo.idempotency-ttl-seconds}. A record is only ever written as a guard in the
+ * transaction of the change it stands for, so it exists exactly when that change was applied,
+ * whichever path applied it.
+ */
+@Component
+@Profile("!in-memory")
+public class DynamoIdempotencyKeys {
+
+    private static final String ENTITY_TYPE = "IDEMPOTENCY";
+
+    private final TableSchema<IdempotencyEntity> schema = TableSchema.fromBean(IdempotencyEntity.class);
+    private final String tableName;
+    private final long ttlSeconds;
+
+    public DynamoIdempotencyKeys(@Value("${app.dynamo.core-table}") String tableName,
+                                 @Value("${app.dynamo.idempotency-ttl-seconds:600}") long ttlSeconds) {
+        this.tableName = tableName;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    /**
+     * The record of a change, conditioned on the key not being registered yet.
+     */
+    TransactWriteItem guard(String productId, String idempotencyKey) {
+        long now = Instant.now().getEpochSecond();
+        IdempotencyEntity entity = new IdempotencyEntity();
+        entity.setId("IDEMPOTENCY#" + productId + "#" + idempotencyKey);
+        entity.setEntityType(ENTITY_TYPE);
+        entity.setProductId(productId);
+        entity.setCreatedAt(now);
+        entity.setExpiresAt(now + ttlSeconds);
+        return TransactWriteItem.builder()
+                .put(Put.builder()
+                        .tableName(tableName)
+                        .item(schema.itemToMap(entity, true))
+                        .conditionExpression("attribute_not_exists(id)")
+                        .build())
+                .build();
+    }
+}
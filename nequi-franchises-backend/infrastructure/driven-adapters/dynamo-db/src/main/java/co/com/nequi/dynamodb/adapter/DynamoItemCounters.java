@@ -0,0 +1,202 @@
+package co.com.nequi.dynamodb.adapter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Item counters kept in {@code core_table}: {@code COUNTER#BRANCH#<branchId>} counts the products of
+ * a branch and {@code COUNTER#FRANCHISE#<franchiseId>} the products and branches of a franchise.
+ * Single creates and deletes carry the counter updates in their own transaction so totals move
+ * atomically with the items; batch writes, which DynamoDB cannot make transactional, adjust them
+ * right after. Counters are read eventually consistent and never reported below zero.
+ * <p>
+ * A counter is only trusted once it is marked {@code initialized}, which happens in the transaction
+ * that creates its branch or franchise. Parents created before the counters existed get a counter
+ * from their first {@code ADD}, starting at that delta instead of the real count, so their totals
+ * are not reported until {@link DynamoCounterBackfill} seeds them.
+ */
+@Component
+@Profile("!in-memory")
+public class DynamoItemCounters {
+
+    static final String PRODUCTS = "products";
+    static final String BRANCHES = "branches";
+
+    private static final String ENTITY_TYPE = "COUNTER";
+    private static final String BRANCH_PREFIX = "COUNTER#BRANCH#";
+    private static final String FRANCHISE_PREFIX = "COUNTER#FRANCHISE#";
+    private static final String UPDATE_EXPRESSION = "ADD #counter :delta SET entityType = :type";
+    private static final String INITIALIZED = "initialized";
+
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final String tableName;
+
+    public DynamoItemCounters(DynamoDbAsyncClient dynamoDbAsyncClient,
+                              @Value("${app.dynamo.core-table}") String tableName) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.tableName = tableName;
+    }
+
+    static String branch(String branchId) {
+        return BRANCH_PREFIX + branchId;
+    }
+
+    static String franchise(String franchiseId) {
+        return FRANCHISE_PREFIX + franchiseId;
+    }
+
+    TransactWriteItem increment(String counterId, String counter, long delta) {
+        return TransactWriteItem.builder()
+                .update(Update.builder()
+                        .tableName(tableName)
+                        .key(key(counterId))
+                        .updateExpression(UPDATE_EXPRESSION)
+                        .expressionAttributeNames(Map.of("#counter", counter))
+                        .expressionAttributeValues(values(delta))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Marks the counter of a parent that is being created as trusted; it has no children yet, so
+     * every later {@code ADD} keeps it exact.
+     */
+    TransactWriteItem initialize(String counterId) {
+        return TransactWriteItem.builder()
+                .update(Update.builder()
+                        .tableName(tableName)
+                        .key(key(counterId))
+                        .updateExpression("SET #initialized = :initialized, entityType = :type")
+                        .expressionAttributeNames(Map.of("#initialized", INITIALIZED))
+                        .expressionAttributeValues(Map.of(":initialized", AttributeValue.fromBool(true),
+                                ":type", AttributeValue.fromS(ENTITY_TYPE)))
+                        .build())
+                .build();
+    }
+
+    TransactWriteItem remove(String counterId) {
+        return TransactWriteItem.builder()
+                .delete(Delete.builder()
+                        .tableName(tableName)
+                        .key(key(counterId))
+                        .build())
+                .build();
+    }
+
+    Mono<Void> add(String counterId, String counter, long delta) {
+        return Mono.defer(() -> Mono.fromFuture(dynamoDbAsyncClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(tableName)
+                        .key(key(counterId))
+                        .updateExpression(UPDATE_EXPRESSION)
+                        .expressionAttributeNames(Map.of("#counter", counter))
+                        .expressionAttributeValues(values(delta))
+                        .build())))
+                .then();
+    }
+
+    Mono<Void> delete(String counterId) {
+        return Mono.defer(() -> Mono.fromFuture(dynamoDbAsyncClient.deleteItem(DeleteItemRequest.builder()
+                        .tableName(tableName)
+                        .key(key(counterId))
+                        .build())))
+                .then();
+    }
+
+    /**
+     * The counter item as it is now, read consistently, or an empty map when it does not exist yet.
+     */
+    Mono<Map<String, AttributeValue>> current(String counterId) {
+        return Mono.defer(() -> Mono.fromFuture(dynamoDbAsyncClient.getItem(GetItemRequest.builder()
+                        .tableName(tableName)
+                        .key(key(counterId))
+                        .consistentRead(true)
+                        .build())))
+                .map(response -> response.hasItem() ? response.item() : Map.of());
+    }
+
+    /**
+     * Sets the counts of a counter that was not initialized with its parent and marks it trusted,
+     * conditioned on its counters still holding the {@code observed} values, so an {@code ADD} that
+     * landed after they were read makes the seed fail instead of being overwritten.
+     */
+    TransactWriteItem seed(String counterId, Map<String, Long> counts, Map<String, AttributeValue> observed) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        List<String> sets = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        names.put("#initialized", INITIALIZED);
+        values.put(":initialized", AttributeValue.fromBool(true));
+        values.put(":type", AttributeValue.fromS(ENTITY_TYPE));
+        conditions.add("(attribute_not_exists(#initialized) OR #initialized <> :initialized)");
+        counts.forEach((counter, count) -> {
+            int index = sets.size();
+            names.put("#c" + index, counter);
+            values.put(":c" + index, AttributeValue.fromN(String.valueOf(count)));
+            sets.add("#c" + index + " = :c" + index);
+            AttributeValue seen = observed.get(counter);
+            if (seen == null) {
+                conditions.add("attribute_not_exists(#c" + index + ")");
+            } else {
+                values.put(":o" + index, seen);
+                conditions.add("#c" + index + " = :o" + index);
+            }
+        });
+        return TransactWriteItem.builder()
+                .update(Update.builder()
+                        .tableName(tableName)
+                        .key(key(counterId))
+                        .conditionExpression(String.join(" AND ", conditions))
+                        .updateExpression("SET " + String.join(", ", sets)
+                                + ", #initialized = :initialized, entityType = :type")
+                        .expressionAttributeNames(names)
+                        .expressionAttributeValues(values)
+                        .build())
+                .build();
+    }
+
+    static boolean isInitialized(Map<String, AttributeValue> item) {
+        AttributeValue initialized = item.get(INITIALIZED);
+        return initialized != null && Boolean.TRUE.equals(initialized.bool());
+    }
+
+    /**
+     * The counter value, or empty when the counter was not initialized with its parent.
+     */
+    Mono<Long> read(String counterId, String counter) {
+        return Mono.defer(() -> Mono.fromFuture(dynamoDbAsyncClient.getItem(GetItemRequest.builder()
+                        .tableName(tableName)
+                        .key(key(counterId))
+                        .projectionExpression("#counter, #initialized")
+                        .expressionAttributeNames(Map.of("#counter", counter, "#initialized", INITIALIZED))
+                        .build())))
+                .filter(response -> isInitialized(response.item()))
+                .map(response -> {
+                    AttributeValue value = response.item().get(counter);
+                    return value == null ? 0L : Math.max(0L, Long.parseLong(value.n()));
+                });
+    }
+
+    private Map<String, AttributeValue> key(String counterId) {
+        return Map.of("id", AttributeValue.fromS(counterId));
+    }
+
+    private Map<String, AttributeValue> values(long delta) {
+        return Map.of(":delta", AttributeValue.fromN(String.valueOf(delta)),
+                ":type", AttributeValue.fromS(ENTITY_TYPE));
+    }
+}
@@ -1,20 +1,32 @@
 package co.com.nequi.dynamodb.adapter;
 
 import co.com.nequi.dynamodb.entity.ProductEntity;
+import co.com.nequi.dynamodb.helper.DynamoBatchReader;
+import co.com.nequi.dynamodb.helper.DynamoBatchWriter;
+import co.com.nequi.dynamodb.helper.DynamoErrors;
+import co.com.nequi.dynamodb.helper.DynamoPageStreamer;
 import co.com.nequi.dynamodb.helper.DynamoPaginationCodec;
+import co.com.nequi.dynamodb.helper.ProductEntityMapper;
+import co.com.nequi.dynamodb.helper.SingleFlight;
 import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.model.product.BranchTopProduct;
 import co.com.nequi.model.product.Product;
+import co.com.nequi.model.product.StockAdjustment;
+import co.com.nequi.model.product.StockAdjustmentResult;
+import co.com.nequi.model.product.StockAdjustmentStatus;
 import co.com.nequi.model.product.gateways.ProductRepository;
 import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.BusinessException;
 import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import co.com.nequi.usecase.exception.ThrottledException;
 import co.com.nequi.usecase.exception.ValidationException;
 import org.reactivecommons.utils.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import software.amazon.awssdk.core.async.SdkPublisher;
-import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
@@ -24,104 +36,220 @@ import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
 import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
 import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
 import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
 import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.CompletionException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
+@Profile("!in-memory")
 public class DynamoProductAdapter implements ProductRepository {
 
-    private static final String ENTITY_TYPE = "PRODUCT";
-    private static final long TOP_SORT_BASE = 999_999_999_999L;
-    private static final int STREAM_PAGE_SIZE = 100;
+    private static final String ENTITY_TYPE = ProductEntityMapper.ENTITY_TYPE;
+    private static final int MAX_TRANSACT_ITEMS = 100;
+    private static final int MAX_TRANSACT_ATTEMPTS = 3;
+    private static final int ITEMS_PER_DELETE_BATCH = 25;
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+    private static final String STOCK_UPDATE_EXPRESSION =
+            "SET stock = stock + :d, version = if_not_exists(version, :z) + :one, updatedAt = :now";
 
     private final DynamoDbAsyncClient dynamoDbAsyncClient;
     private final DynamoDbAsyncTable<ProductEntity> productTable;
+    private final DynamoTopProductProjection topProducts;
+    private final DynamoItemCounters counters;
+    private final DynamoShardedStock shardedStock;
+    private final DynamoStockWriteBehind writeBehind;
+    private final DynamoIdempotencyKeys idempotencyKeys;
     private final ObjectMapper mapper;
+    private final SingleFlight singleFlight;
+    private final DynamoPaginationCodec paginationCodec;
     private final String tableName;
+    private final int cascadeDeleteConcurrency;
+    private final Duration cascadeDeleteBatchInterval;
 
     public DynamoProductAdapter(DynamoDbEnhancedAsyncClient enhanced,
                                 DynamoDbAsyncClient dynamoDbAsyncClient,
                                 ObjectMapper mapper,
-                                @Value("${app.dynamo.core-table}") String tableName) {
+                                SingleFlight singleFlight,
+                                DynamoTopProductProjection topProducts,
+                                DynamoItemCounters counters,
+                                DynamoShardedStock shardedStock,
+                                DynamoStockWriteBehind writeBehind,
+                                DynamoIdempotencyKeys idempotencyKeys,
+                                DynamoPaginationCodec paginationCodec,
+                                @Value("${app.dynamo.core-table}") String tableName,
+                                @Value("${app.cascade-delete.concurrency:4}") int cascadeDeleteConcurrency,
+                                @Value("${app.cascade-delete.max-wcu-per-second:500}") int cascadeDeleteWcuPerSecond) {
         this.dynamoDbAsyncClient = dynamoDbAsyncClient;
         this.mapper = mapper;
+        this.singleFlight = singleFlight;
+        this.topProducts = topProducts;
+        this.counters = counters;
+        this.shardedStock = shardedStock;
+        this.writeBehind = writeBehind;
+        this.idempotencyKeys = idempotencyKeys;
+        this.paginationCodec = paginationCodec;
         this.tableName = tableName;
+        this.cascadeDeleteConcurrency = cascadeDeleteConcurrency;
+        this.cascadeDeleteBatchInterval = cascadeDeleteWcuPerSecond <= 0
+                ? Duration.ZERO
+                : Duration.ofMillis(Math.max(1, 1000L * ITEMS_PER_DELETE_BATCH / cascadeDeleteWcuPerSecond));
         this.productTable = enhanced.table(tableName, TableSchema.fromBean(ProductEntity.class));
     }
 
     @Override
     public Mono<Product> save(Product product) {
-        return Mono.defer(() -> Mono.fromFuture(productTable.putItem(mapToEntity(product)))
+        return Mono.defer(() -> Mono.fromFuture(dynamoDbAsyncClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(
+                                TransactWriteItem.builder()
+                                        .put(Put.builder()
+                                                .tableName(tableName)
+                                                .item(productTable.tableSchema().itemToMap(ProductEntityMapper.toEntity(product), true))
+                                                .build())
+                                        .build(),
+                                counters.increment(DynamoItemCounters.branch(product.getBranchId()), DynamoItemCounters.PRODUCTS, 1),
+                                counters.increment(DynamoItemCounters.franchise(product.getFranchiseId()), DynamoItemCounters.PRODUCTS, 1))
+                        .build()))
+                .then(topProducts.challenge(product))
                 .thenReturn(product));
     }
 
+    /**
+     * Products still unprocessed after the last BatchWriteItem retry, or in a batch that failed, are
+     * not emitted. The branch leader is challenged once per call with the highest stock written, and
+     * the counters are adjusted once per call with the number of products written; both are best
+     * effort, since the products are already written.
+     */
     @Override
-    public Mono<Product> update(Product product) {
-        return Mono.defer(() -> Mono.fromFuture(productTable.putItem(mapToEntity(product)))
-                .thenReturn(product));
+    public Flux<Product> saveAll(List<Product> products) {
+        return Flux.defer(() -> {
+            Map<String, Product> byId = new HashMap<>();
+            List<Map<String, AttributeValue>> items = new ArrayList<>(products.size());
+            products.forEach(product -> {
+                byId.put(product.getId(), product);
+                items.add(productTable.tableSchema().itemToMap(ProductEntityMapper.toEntity(product), true));
+            });
+            return DynamoBatchWriter.putAll(dynamoDbAsyncClient, tableName, items)
+                    .map(byId::get)
+                    .collectList()
+                    .flatMapMany(saved -> Mono.justOrEmpty(saved.stream().max(Comparator.comparing(Product::getStock)))
+                            .flatMap(topProducts::challenge)
+                            .onErrorResume(ex -> Mono.empty())
+                            .then(countSaved(saved).onErrorResume(ex -> Mono.empty()))
+                            .thenMany(Flux.fromIterable(saved)));
+        });
+    }
+
+    @Override
+    public Mono<Product> updateName(String id, String name, Long updatedAt) {
+        return Mono.defer(() -> {
+            String normalizedName = ProductEntityMapper.normalizeName(name);
+            Map<String, AttributeValue> values = new HashMap<>();
+            values.put(":name", AttributeValue.fromS(name));
+            values.put(":nameLc", AttributeValue.fromS(normalizedName));
+            values.put(":sortKey", AttributeValue.fromS(ProductEntityMapper.nameSortKey(normalizedName, id)));
+            values.put(":now", AttributeValue.fromN(String.valueOf(updatedAt)));
+            values.put(":one", AttributeValue.fromN("1"));
+            values.put(":z", AttributeValue.fromN("0"));
+            values.put(":type", AttributeValue.fromS(ENTITY_TYPE));
+
+            UpdateItemRequest request = UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(Map.of("id", AttributeValue.fromS(id)))
+                    .conditionExpression("attribute_exists(id) AND entityType = :type")
+                    .updateExpression("SET #name = :name, nameLc = :nameLc, nameByBranchSortKey = :sortKey, "
+                            + "updatedAt = :now, version = if_not_exists(version, :z) + :one")
+                    .expressionAttributeNames(Map.of("#name", "name"))
+                    .expressionAttributeValues(values)
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .build();
+
+            return Mono.fromFuture(dynamoDbAsyncClient.updateItem(request))
+                    .map(response -> ProductEntityMapper.toDomain(productTable.tableSchema().mapToItem(response.attributes())))
+                    .onErrorMap(DynamoErrors::isConditionalCheckFailed,
+                            ex -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND))
+                    .flatMap(product -> topProducts.renameProduct(product).thenReturn(product));
+        });
     }
 
     @Override
     public Mono<Product> findById(String id) {
-        return Mono.defer(() -> Mono.fromFuture(productTable.getItem(r -> r.key(Key.builder()
+        return singleFlight.execute("product.findById", id, () -> Mono.defer(() -> Mono.fromFuture(productTable.getItem(r -> r.key(Key.builder()
                                 .partitionValue(id)
                                 .build())))
                         .flatMap(entity -> entity == null || !ENTITY_TYPE.equals(entity.getEntityType())
                                 ? Mono.empty()
-                                : Mono.just(mapToDomain(entity))))
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND)));
+                                : toDomain(entity)))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND))));
+    }
+
+    @Override
+    public Flux<Product> findAllById(Collection<String> ids) {
+        return DynamoBatchReader.getAll(dynamoDbAsyncClient, tableName, ids)
+                .map(item -> productTable.tableSchema().mapToItem(item))
+                .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
+                .flatMap(this::toDomain);
+    }
+
+    /**
+     * Point reads of a sharded product aggregate its shards, so they see every change already applied.
+     */
+    private Mono<Product> toDomain(ProductEntity entity) {
+        return entity.getStockShards() == null
+                ? Mono.just(ProductEntityMapper.toDomain(entity))
+                : shardedStock.read(entity.getId(), entity.getStockShards());
     }
 
     @Override
     public Mono<Product> findByIdAndBranchId(String id, String branchId) {
         return findById(id)
                 .filter(product -> Objects.equals(product.getBranchId(), branchId))
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND)));
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND)));
     }
 
+    /**
+     * Large pages (bulk clients ask for up to 1000 items) are filled across as many queries as the
+     * 1 MB response cap requires, so one call always returns a full page while items remain.
+     */
     @Override
     public Mono<PageResult<Product>> findByBranchId(String branchId, int limit, String exclusiveStartKey) {
         int pageSize = Math.max(1, limit);
         return Mono.defer(() -> {
-            QueryEnhancedRequest.Builder builder = QueryEnhancedRequest.builder()
-                    .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(branchId)))
-                    .limit(pageSize)
-                    .scanIndexForward(true)
-                    .addAttributeToProject("id")
-                    .addAttributeToProject("branchId")
-                    .addAttributeToProject("franchiseId")
-                    .addAttributeToProject("entityType")
-                    .addAttributeToProject("name")
-                    .addAttributeToProject("nameLc")
-                    .addAttributeToProject("stock")
-                    .addAttributeToProject("topSort")
-                    .addAttributeToProject("createdAt")
-                    .addAttributeToProject("updatedAt")
-                    .addAttributeToProject("version");
-
-            Map<String, AttributeValue> startKey = DynamoPaginationCodec.decode(exclusiveStartKey);
-            if (startKey != null && !startKey.isEmpty()) {
-                builder.exclusiveStartKey(startKey);
-            }
+            DynamoPaginationCodec.Scope scope = DynamoPaginationCodec.Scope.of("byBranch", "branchId", branchId);
+            Map<String, AttributeValue> startKey = paginationCodec.decode(exclusiveStartKey, scope);
 
-            return Mono.from(productTable.index("byBranch").query(builder.build()))
+            return DynamoPageStreamer.fill((key, remaining) -> productTable.index("byBranch")
+                                    .query(byBranchQuery(branchId, remaining).exclusiveStartKey(key).build()),
+                            startKey == null || startKey.isEmpty() ? null : startKey,
+                            pageSize)
                     .map(page -> {
                         List<Product> items = page.items().stream()
                                 .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
-                                .map(this::mapToDomain)
+                                .map(ProductEntityMapper::toDomain)
                                 .toList();
-                        String nextCursor = DynamoPaginationCodec.encode(page.lastEvaluatedKey());
+                        String nextCursor = paginationCodec.encode(page.lastEvaluatedKey(), scope);
                         return PageResult.of(items, nextCursor);
                     });
         });
@@ -144,8 +272,9 @@ public class DynamoProductAdapter implements ProductRepository {
                     .addAttributeToProject("createdAt")
                     .addAttributeToProject("updatedAt")
                     .addAttributeToProject("version");
+            DynamoPaginationCodec.Scope scope = DynamoPaginationCodec.Scope.of("byFranchise", "franchiseId", franchiseId);
 
-            Map<String, AttributeValue> startKey = DynamoPaginationCodec.decode(exclusiveStartKey);
+            Map<String, AttributeValue> startKey = paginationCodec.decode(exclusiveStartKey, scope);
             if (startKey != null && !startKey.isEmpty()) {
                 builder.exclusiveStartKey(startKey);
             }
@@ -154,9 +283,9 @@ public class DynamoProductAdapter implements ProductRepository {
                     .map(page -> {
                         List<Product> items = page.items().stream()
                                 .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
-                                .map(this::mapToDomain)
+                                .map(ProductEntityMapper::toDomain)
                                 .toList();
-                        String nextCursor = DynamoPaginationCodec.encode(page.lastEvaluatedKey());
+                        String nextCursor = paginationCodec.encode(page.lastEvaluatedKey(), scope);
                         return PageResult.of(items, nextCursor);
                     });
         });
@@ -165,14 +294,14 @@ public class DynamoProductAdapter implements ProductRepository {
     @Override
     public Mono<PageResult<Product>> searchByName(String branchId, String prefix, int limit, String exclusiveStartKey) {
         int pageSize = Math.max(1, limit);
-        String normalizedPrefix = normalizeName(prefix);
+        String normalizedPrefix = ProductEntityMapper.normalizeName(prefix);
         if (normalizedPrefix.isBlank()) {
-            return Mono.error(new ValidationException(ExceptionMessage.PRODUCT_NAME_REQUIRED));
+            return Mono.error(() -> new ValidationException(ExceptionMessage.PRODUCT_NAME_REQUIRED));
         }
         return Mono.defer(() -> {
             QueryEnhancedRequest.Builder builder = QueryEnhancedRequest.builder()
                     .queryConditional(QueryConditional.sortBeginsWith(k -> k.partitionValue(branchId)
-                            .sortValue(buildNamePrefix(normalizedPrefix))))
+                            .sortValue(ProductEntityMapper.namePrefix(normalizedPrefix))))
                     .limit(pageSize)
                     .addAttributeToProject("id")
                     .addAttributeToProject("branchId")
@@ -184,8 +313,9 @@ public class DynamoProductAdapter implements ProductRepository {
                     .addAttributeToProject("createdAt")
                     .addAttributeToProject("updatedAt")
                     .addAttributeToProject("version");
+            DynamoPaginationCodec.Scope scope = DynamoPaginationCodec.Scope.of("nameByBranch", "branchId", branchId);
 
-            Map<String, AttributeValue> startKey = DynamoPaginationCodec.decode(exclusiveStartKey);
+            Map<String, AttributeValue> startKey = paginationCodec.decode(exclusiveStartKey, scope);
             if (startKey != null && !startKey.isEmpty()) {
                 builder.exclusiveStartKey(startKey);
             }
@@ -194,94 +324,401 @@ public class DynamoProductAdapter implements ProductRepository {
                     .map(page -> {
                         List<Product> items = page.items().stream()
                                 .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
-                                .map(this::mapToDomain)
+                                .map(ProductEntityMapper::toDomain)
                                 .toList();
-                        String nextCursor = DynamoPaginationCodec.encode(page.lastEvaluatedKey());
+                        String nextCursor = paginationCodec.encode(page.lastEvaluatedKey(), scope);
                         return PageResult.of(items, nextCursor);
                     });
         });
     }
 
+    @Override
+    public Mono<Long> countByBranchId(String branchId) {
+        return counters.read(DynamoItemCounters.branch(branchId), DynamoItemCounters.PRODUCTS);
+    }
+
+    @Override
+    public Mono<Long> countByFranchiseId(String franchiseId) {
+        return counters.read(DynamoItemCounters.franchise(franchiseId), DynamoItemCounters.PRODUCTS);
+    }
+
     @Override
     public Flux<Product> streamByBranch(String branchId) {
-        return Flux.defer(() -> fetchProductsByBranch(branchId, null));
+        return DynamoPageStreamer.stream((startKey, pageSize) -> productTable.index("byBranch")
+                        .query(byBranchQuery(branchId, pageSize).exclusiveStartKey(startKey).build()))
+                .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
+                .map(ProductEntityMapper::toDomain));
     }
 
-    private Flux<Product> fetchProductsByBranch(String branchId, String cursor) {
-        return findByBranchId(branchId, STREAM_PAGE_SIZE, cursor)
-                .flatMapMany(page -> {
-                    Flux<Product> items = Flux.fromIterable(page.getItems());
-                    if (page.getLastEvaluatedKey() == null) {
-                        return items;
-                    }
-                    return items.concatWith(fetchProductsByBranch(branchId, page.getLastEvaluatedKey()));
-                });
+    private QueryEnhancedRequest.Builder byBranchQuery(String branchId, int pageSize) {
+        return QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(branchId)))
+                .limit(pageSize)
+                .scanIndexForward(true)
+                .addAttributeToProject("id")
+                .addAttributeToProject("branchId")
+                .addAttributeToProject("franchiseId")
+                .addAttributeToProject("entityType")
+                .addAttributeToProject("name")
+                .addAttributeToProject("nameLc")
+                .addAttributeToProject("stock")
+                .addAttributeToProject("createdAt")
+                .addAttributeToProject("updatedAt")
+                .addAttributeToProject("version");
     }
 
+    /**
+     * The idempotency record is written in the same transaction as the stock change, so a key is
+     * registered exactly when its change is applied and any failure can be retried with the same key.
+     * A change that completes empty was already applied under that key and replays the product.
+     */
     @Override
     public Mono<Product> changeStockAtomic(String productId, int delta, String idempotencyKey) {
+        return Mono.defer(() -> applyStockChange(productId, delta, idempotencyKey))
+                .switchIfEmpty(Mono.defer(() -> findById(productId)));
+    }
+
+    /**
+     * Hot products, and products sharded while they were hot, change through their stock shards and
+     * reach the top-product projection through the shard aggregator instead of on every write. With
+     * the write-behind stage enabled, other restocks are journaled with their idempotency key, which
+     * is registered when the coalesced update is flushed; the restocks the journal cannot take are
+     * applied directly.
+     */
+    private Mono<Product> applyStockChange(String productId, int delta, String idempotencyKey) {
+        if (shardedStock.isHot(productId)) {
+            return shardedStock.change(productId, delta, null, List.of(idempotencyKeys.guard(productId, idempotencyKey)));
+        }
+        if (writeBehind.accepts(productId, delta)) {
+            return writeBehind.add(productId, delta, idempotencyKey, Mono.defer(() -> findById(productId)))
+                    .switchIfEmpty(Mono.defer(() -> applyStockDelta(productId, delta, idempotencyKey, 1)));
+        }
+        return applyStockDelta(productId, delta, idempotencyKey, 1)
+                .doFinally(signal -> writeBehind.forget(productId));
+    }
+
+    /**
+     * Applies the delta and registers its idempotency key in one transaction, then reads the product
+     * back. Transactions return no attributes, hence the consistent read. Completes empty when the
+     * key was already registered.
+     */
+    private Mono<Product> applyStockDelta(String productId, int delta, String idempotencyKey, int attempt) {
+        return Mono.defer(() -> Mono.fromFuture(dynamoDbAsyncClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(
+                                idempotencyKeys.guard(productId, idempotencyKey),
+                                TransactWriteItem.builder()
+                                        .update(buildStockUpdate(productId, delta, null, Instant.now().toEpochMilli()))
+                                        .build())
+                        .build())))
+                .then(Mono.defer(() -> readStock(productId)))
+                .flatMap(product -> (delta > 0 ? topProducts.challenge(product) : topProducts.demote(product))
+                        .thenReturn(product))
+                .onErrorResume(ex -> DynamoErrors.unwrap(ex) instanceof TransactionCanceledException,
+                        ex -> resolveCancelledChange(productId, delta, idempotencyKey,
+                                (TransactionCanceledException) DynamoErrors.unwrap(ex), attempt));
+    }
+
+    private Mono<Product> resolveCancelledChange(String productId,
+                                                 int delta,
+                                                 String idempotencyKey,
+                                                 TransactionCanceledException cancelled,
+                                                 int attempt) {
+        List<CancellationReason> reasons = cancelled.hasCancellationReasons() ? cancelled.cancellationReasons() : List.of();
+        if (isConditionFailure(reasonAt(reasons, 0))) {
+            return Mono.empty();
+        }
+        CancellationReason updateReason = reasonAt(reasons, 1);
+        if (isConditionFailure(updateReason) && DynamoShardedStock.isSharded(updateReason.item())) {
+            return shardedStock.change(productId, delta, null, List.of(idempotencyKeys.guard(productId, idempotencyKey)));
+        }
+        if (isConditionFailure(updateReason)) {
+            return Mono.error(() -> stockRejection(updateReason.item()));
+        }
+        return attempt < MAX_TRANSACT_ATTEMPTS
+                ? applyStockDelta(productId, delta, idempotencyKey, attempt + 1)
+                : Mono.error(() -> new ThrottledException(ExceptionMessage.STOCK_ADJUSTMENT_CONFLICT, 1, cancelled));
+    }
+
+    private Mono<Product> readStock(String productId) {
+        return Mono.fromFuture(() -> productTable.getItem(r -> r
+                        .key(Key.builder().partitionValue(productId).build())
+                        .consistentRead(true)))
+                .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
+                .map(ProductEntityMapper::toDomain)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND)));
+    }
+
+    @Override
+    public Flux<StockAdjustmentResult> changeStockBatch(String branchId, List<StockAdjustment> adjustments) {
+        return Flux.defer(() -> {
+            Map<Boolean, List<StockAdjustment>> byHot = adjustments.stream()
+                    .collect(Collectors.partitioningBy(adjustment -> shardedStock.isHot(adjustment.getProductId())));
+            return Flux.fromIterable(partitionForTransactions(byHot.get(false)))
+                    .concatMap(chunk -> applyStockChunk(branchId, chunk, 1))
+                    .concatWith(Flux.fromIterable(byHot.get(true))
+                            .concatMap(adjustment -> applyShardedAdjustment(branchId, adjustment)))
+                    .concatWith(topProducts.refresh(branchId).then(Mono.empty()));
+        });
+    }
+
+    /**
+     * Sharded products cannot join the chunk transactions, so each of their adjustments goes through
+     * the shards on its own, with its idempotency record written in the shard transaction. Business
+     * errors reject the adjustment; throttling is not a rejection and fails the call with its retry
+     * hint, and since nothing was registered the adjustment can be retried with the same key.
+     */
+    private Mono<StockAdjustmentResult> applyShardedAdjustment(String branchId, StockAdjustment adjustment) {
+        String productId = adjustment.getProductId();
+        return shardedStock.change(productId, adjustment.getDelta(), branchId,
+                        List.of(idempotencyKeys.guard(productId, adjustment.getIdempotencyKey())))
+                .map(product -> StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.APPLIED, null))
+                .defaultIfEmpty(StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.REPLAYED, null))
+                .onErrorResume(BusinessException.class,
+                        ex -> Mono.just(StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.REJECTED, ex.getCode())));
+    }
+
+    private List<List<StockAdjustment>> partitionForTransactions(List<StockAdjustment> adjustments) {
+        int perChunk = MAX_TRANSACT_ITEMS / 2;
+        List<List<StockAdjustment>> chunks = new ArrayList<>();
+        List<StockAdjustment> current = new ArrayList<>();
+        Set<String> productsInChunk = new HashSet<>();
+        for (StockAdjustment adjustment : adjustments) {
+            if (current.size() == perChunk || productsInChunk.contains(adjustment.getProductId())) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                productsInChunk.clear();
+            }
+            current.add(adjustment);
+            productsInChunk.add(adjustment.getProductId());
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private Flux<StockAdjustmentResult> applyStockChunk(String branchId, List<StockAdjustment> chunk, int attempt) {
+        if (chunk.isEmpty()) {
+            return Flux.empty();
+        }
         return Mono.defer(() -> {
-            Map<String, AttributeValue> key = Map.of("id", AttributeValue.builder().s(productId).build());
-            long now = Instant.now().toEpochMilli();
+                    long now = Instant.now().toEpochMilli();
+                    List<TransactWriteItem> items = new ArrayList<>(chunk.size() * 2);
+                    chunk.forEach(adjustment -> {
+                        items.add(idempotencyKeys.guard(adjustment.getProductId(), adjustment.getIdempotencyKey()));
+                        items.add(TransactWriteItem.builder()
+                                .update(buildStockUpdate(adjustment.getProductId(), adjustment.getDelta(), branchId, now))
+                                .build());
+                    });
+                    return Mono.fromFuture(dynamoDbAsyncClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                            .transactItems(items)
+                            .build()));
+                })
+                .thenMany(Flux.fromIterable(chunk)
+                        .map(adjustment -> StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.APPLIED, null)))
+                .onErrorResume(ex -> !(DynamoErrors.unwrap(ex) instanceof TransactionCanceledException),
+                        ex -> Flux.fromIterable(chunk)
+                                .map(adjustment -> StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.REJECTED,
+                                        failedChunkCode(ex))))
+                .onErrorResume(ex -> DynamoErrors.unwrap(ex) instanceof TransactionCanceledException,
+                        ex -> resolveCancelledChunk(branchId, chunk, (TransactionCanceledException) DynamoErrors.unwrap(ex), attempt));
+    }
 
-            Map<String, AttributeValue> values = new HashMap<>();
-            values.put(":d", AttributeValue.fromN(String.valueOf(delta)));
-            values.put(":one", AttributeValue.fromN("1"));
-            values.put(":z", AttributeValue.fromN("0"));
-            values.put(":now", AttributeValue.fromN(String.valueOf(now)));
-            String condition = "attribute_exists(id)";
-            if (delta < 0) {
-                values.put(":requiredStock", AttributeValue.fromN(String.valueOf(Math.abs(delta))));
-                condition = condition + " AND stock >= :requiredStock";
+    /**
+     * A chunk whose transaction failed other than by cancellation is rejected item by item. Its
+     * idempotency keys were written in the same transaction, so if it did commit after all, retrying
+     * the items with the same keys replays them instead of applying them twice.
+     */
+    private static String failedChunkCode(Throwable ex) {
+        return DynamoErrors.unwrap(ex) instanceof ThrottledException throttled
+                ? throttled.getCode()
+                : ExceptionMessage.STOCK_ADJUSTMENT_FAILED.name();
+    }
+
+    private Flux<StockAdjustmentResult> resolveCancelledChunk(String branchId,
+                                                              List<StockAdjustment> chunk,
+                                                              TransactionCanceledException cancelled,
+                                                              int attempt) {
+        List<CancellationReason> reasons = cancelled.hasCancellationReasons() ? cancelled.cancellationReasons() : List.of();
+        List<StockAdjustmentResult> resolved = new ArrayList<>();
+        List<StockAdjustment> retry = new ArrayList<>();
+        List<StockAdjustment> sharded = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            StockAdjustment adjustment = chunk.get(i);
+            CancellationReason idempotencyReason = reasonAt(reasons, i * 2);
+            CancellationReason updateReason = reasonAt(reasons, i * 2 + 1);
+            if (isConditionFailure(idempotencyReason)) {
+                resolved.add(StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.REPLAYED, null));
+            } else if (isConditionFailure(updateReason) && DynamoShardedStock.isSharded(updateReason.item())) {
+                sharded.add(adjustment);
+            } else if (isConditionFailure(updateReason)) {
+                ExceptionMessage error = isProductOfBranch(updateReason.item(), branchId)
+                        ? ExceptionMessage.PRODUCT_STOCK_INVALID
+                        : ExceptionMessage.PRODUCT_NOT_FOUND;
+                resolved.add(StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.REJECTED, error.name()));
+            } else {
+                retry.add(adjustment);
             }
+        }
+        Flux<StockAdjustmentResult> pending = attempt < MAX_TRANSACT_ATTEMPTS
+                ? applyStockChunk(branchId, retry, attempt + 1)
+                : Flux.fromIterable(retry).map(adjustment -> StockAdjustmentResult.of(adjustment,
+                StockAdjustmentStatus.REJECTED, ExceptionMessage.STOCK_ADJUSTMENT_CONFLICT.name()));
+        return Flux.fromIterable(resolved)
+                .concatWith(pending)
+                .concatWith(Flux.fromIterable(sharded).concatMap(adjustment -> applyShardedAdjustment(branchId, adjustment)));
+    }
 
-            Update update = Update.builder()
-                    .tableName(tableName)
-                    .key(key)
-                    .conditionExpression(condition)
-                    .updateExpression("SET stock = stock + :d, version = if_not_exists(version, :z) + :one, updatedAt = :now")
-                    .expressionAttributeValues(values)
-                    .build();
+    private Update buildStockUpdate(String productId, int delta, String branchId, long now) {
+        return Update.builder()
+                .tableName(tableName)
+                .key(Map.of("id", AttributeValue.fromS(productId)))
+                .conditionExpression(buildStockCondition(delta, branchId != null))
+                .updateExpression(STOCK_UPDATE_EXPRESSION)
+                .expressionAttributeValues(buildStockValues(delta, now, branchId))
+                .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                .build();
+    }
 
-            TransactWriteItemsRequest tx = TransactWriteItemsRequest.builder()
-                    .clientRequestToken(idempotencyKey)
-                    .transactItems(TransactWriteItem.builder().update(update).build())
-                    .build();
+    private String buildStockCondition(int delta, boolean scopedToBranch) {
+        String condition = "attribute_exists(id) AND entityType = :type AND attribute_not_exists(stockShards)";
+        if (scopedToBranch) {
+            condition = condition + " AND branchId = :branchId";
+        }
+        if (delta < 0) {
+            condition = condition + " AND stock >= :requiredStock";
+        }
+        return condition;
+    }
 
-            return Mono.fromFuture(dynamoDbAsyncClient.transactWriteItems(tx))
-                    .then(Mono.fromFuture(productTable.getItem(r -> r.key(Key.builder()
-                            .partitionValue(productId)
-                            .build()))))
-                    .switchIfEmpty(Mono.error(new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND)))
-                    .flatMap(entity -> {
-                        if (!ENTITY_TYPE.equals(entity.getEntityType())) {
-                            return Mono.error(new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND));
-                        }
-                        applyDerivedFields(entity);
-                        return Mono.fromFuture(productTable.updateItem(entity))
-                                .thenReturn(mapToDomain(entity));
-                    })
-                    .onErrorMap(this::mapTxErrors);
-        });
+    private Map<String, AttributeValue> buildStockValues(int delta, long now, String branchId) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":d", AttributeValue.fromN(String.valueOf(delta)));
+        values.put(":one", AttributeValue.fromN("1"));
+        values.put(":z", AttributeValue.fromN("0"));
+        values.put(":now", AttributeValue.fromN(String.valueOf(now)));
+        values.put(":type", AttributeValue.fromS(ENTITY_TYPE));
+        if (branchId != null) {
+            values.put(":branchId", AttributeValue.fromS(branchId));
+        }
+        if (delta < 0) {
+            values.put(":requiredStock", AttributeValue.fromN(String.valueOf(Math.abs(delta))));
+        }
+        return values;
+    }
+
+    private CancellationReason reasonAt(List<CancellationReason> reasons, int index) {
+        return index < reasons.size() ? reasons.get(index) : null;
+    }
+
+    private boolean isConditionFailure(CancellationReason reason) {
+        return reason != null && CONDITIONAL_CHECK_FAILED.equals(reason.code());
+    }
+
+    private boolean isProductOfBranch(Map<String, AttributeValue> item, String branchId) {
+        if (item == null) {
+            return false;
+        }
+        AttributeValue entityType = item.get("entityType");
+        AttributeValue owner = item.get("branchId");
+        return entityType != null && ENTITY_TYPE.equals(entityType.s())
+                && owner != null && Objects.equals(branchId, owner.s());
     }
 
     @Override
     public Mono<Void> deleteById(String id) {
         return findById(id)
-                .flatMap(p -> Mono.fromFuture(productTable.deleteItem(Key.builder().partitionValue(id).build())))
-                .then();
+                .flatMap(this::deleteCounted);
     }
 
     @Override
     public Mono<Void> deleteByBranchAndId(String branchId, String productId) {
         return findByIdAndBranchId(productId, branchId)
-                .flatMap(p -> Mono.fromFuture(productTable.deleteItem(Key.builder().partitionValue(productId).build())))
+                .flatMap(this::deleteCounted);
+    }
+
+    /**
+     * Deletes the product and decrements its counters in one transaction. A product already deleted
+     * by a concurrent call fails the condition and leaves the counters untouched.
+     */
+    private Mono<Void> deleteCounted(Product product) {
+        return Mono.fromFuture(() -> dynamoDbAsyncClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(
+                                TransactWriteItem.builder()
+                                        .delete(Delete.builder()
+                                                .tableName(tableName)
+                                                .key(Map.of("id", AttributeValue.fromS(product.getId())))
+                                                .conditionExpression("attribute_exists(id)")
+                                                .build())
+                                        .build(),
+                                counters.increment(DynamoItemCounters.branch(product.getBranchId()), DynamoItemCounters.PRODUCTS, -1),
+                                counters.increment(DynamoItemCounters.franchise(product.getFranchiseId()), DynamoItemCounters.PRODUCTS, -1))
+                        .build()))
+                .then()
+                .onErrorResume(ex -> DynamoErrors.isTransactionConditionFailed(ex, 0), ex -> Mono.empty())
+                .then(topProducts.release(product))
+                .then(shardedStock.release(product.getId()));
+    }
+
+    private Mono<Void> countSaved(List<Product> saved) {
+        Map<String, Long> byBranch = saved.stream()
+                .collect(Collectors.groupingBy(Product::getBranchId, Collectors.counting()));
+        Map<String, Long> byFranchise = saved.stream()
+                .collect(Collectors.groupingBy(Product::getFranchiseId, Collectors.counting()));
+        return Flux.concat(
+                        Flux.fromIterable(byBranch.entrySet()).flatMap(entry -> counters.add(
+                                DynamoItemCounters.branch(entry.getKey()), DynamoItemCounters.PRODUCTS, entry.getValue())),
+                        Flux.fromIterable(byFranchise.entrySet()).flatMap(entry -> counters.add(
+                                DynamoItemCounters.franchise(entry.getKey()), DynamoItemCounters.PRODUCTS, entry.getValue())))
                 .then();
     }
 
+    /**
+     * Reads only the ids through byBranch and deletes them with BatchWriteItem. Product items stay
+     * under 1 KB, so each delete costs one WCU and the batch pacing keeps the job within
+     * {@code app.cascade-delete.max-wcu-per-second}. The branch's top-product entry is left to the
+     * branch deletion, which removes it. The stock shards of sharded products go in the same batches
+     * but are not reported. Once done, the franchise counter drops by the products deleted and the
+     * branch counter goes away.
+     */
+    @Override
+    public Flux<String> deleteAllByBranchId(String branchId) {
+        return Flux.defer(() -> {
+            AtomicReference<String> franchiseId = new AtomicReference<>();
+            AtomicLong deleted = new AtomicLong();
+            Flux<String> ids = DynamoPageStreamer.stream((startKey, pageSize) -> productTable.index("byBranch")
+                            .query(QueryEnhancedRequest.builder()
+                                    .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(branchId)))
+                                    .limit(pageSize)
+                                    .addAttributeToProject("id")
+                                    .addAttributeToProject("franchiseId")
+                                    .addAttributeToProject("entityType")
+                                    .addAttributeToProject("stockShards")
+                                    .exclusiveStartKey(startKey)
+                                    .build()))
+                    .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
+                    .doOnNext(entity -> franchiseId.compareAndSet(null, entity.getFranchiseId()))
+                    .concatMapIterable(entity -> entity.getStockShards() == null
+                            ? List.of(entity.getId())
+                            : Stream.concat(Stream.of(entity.getId()),
+                            DynamoShardedStock.shardIds(entity.getId(), entity.getStockShards()).stream()).toList());
+            return DynamoBatchWriter.deleteAll(dynamoDbAsyncClient, tableName, ids,
+                            cascadeDeleteConcurrency, cascadeDeleteBatchInterval)
+                    .filter(id -> !DynamoShardedStock.isShardId(id))
+                    .doOnNext(id -> deleted.incrementAndGet())
+                    .concatWith(Mono.defer(() -> {
+                        Mono<Void> franchiseCount = franchiseId.get() == null || deleted.get() == 0
+                                ? Mono.empty()
+                                : counters.add(DynamoItemCounters.franchise(franchiseId.get()),
+                                DynamoItemCounters.PRODUCTS, -deleted.get());
+                        return franchiseCount.then(counters.delete(DynamoItemCounters.branch(branchId)));
+                    }).then(Mono.empty()));
+        });
+    }
+
     @Override
     public Mono<Product> findTopByBranchId(String branchId) {
-        return Mono.defer(() -> {
+        return singleFlight.execute("product.findTopByBranchId", branchId, () -> Mono.defer(() -> {
             QueryEnhancedRequest req = QueryEnhancedRequest.builder()
                     .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(branchId)))
                     .limit(1)
@@ -294,84 +731,37 @@ public class DynamoProductAdapter implements ProductRepository {
                     .addAttributeToProject("createdAt")
                     .addAttributeToProject("updatedAt")
                     .addAttributeToProject("version")
-                    .scanIndexForward(true)
+                    .scanIndexForward(false)
                     .build();
 
-            SdkPublisher<Page<ProductEntity>> publisher = productTable.index("topByBranch").query(req);
+            SdkPublisher<Page<ProductEntity>> publisher = productTable.index("topStockByBranch").query(req);
             return Mono.from(publisher)
                     .flatMap(page -> page.items().stream()
                             .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
                             .findFirst()
-                            .map(item -> Mono.just(mapToDomain(item)))
+                            .map(item -> Mono.just(ProductEntityMapper.toDomain(item)))
                             .orElse(Mono.empty()));
-        });
-    }
-
-    private ProductEntity mapToEntity(Product product) {
-        ProductEntity entity = new ProductEntity();
-        entity.setId(product.getId());
-        entity.setFranchiseId(product.getFranchiseId());
-        entity.setBranchId(product.getBranchId());
-        entity.setName(product.getName());
-        entity.setStock(product.getStock());
-        entity.setCreatedAt(product.getCreatedAt());
-        entity.setUpdatedAt(product.getUpdatedAt());
-        entity.setVersion(null);
-        applyDerivedFields(entity);
-        return entity;
-    }
-
-    private void applyDerivedFields(ProductEntity entity) {
-        entity.setEntityType(ENTITY_TYPE);
-        String normalizedName = normalizeName(entity.getName());
-        entity.setNameLc(normalizedName);
-        if (entity.getId() != null && entity.getBranchId() != null && normalizedName != null) {
-            entity.setNameByBranchSortKey(buildNameSortKey(normalizedName, entity.getId()));
-        }
-        entity.setTopSort(computeTopSort(entity.getStock(), entity.getId()));
-    }
-
-    private Product mapToDomain(ProductEntity entity) {
-        return Product.builder()
-                .id(entity.getId())
-                .franchiseId(entity.getFranchiseId())
-                .branchId(entity.getBranchId())
-                .name(entity.getName())
-                .stock(entity.getStock())
-                .createdAt(entity.getCreatedAt())
-                .updatedAt(entity.getUpdatedAt())
-                .build();
+        }));
     }
 
-    private String buildNameSortKey(String normalizedName, String productId) {
-        return "NAME#" + normalizedName + "#PROD#" + productId;
-    }
-
-    private String buildNamePrefix(String normalizedPrefix) {
-        return "NAME#" + normalizedPrefix;
-    }
-
-    private String computeTopSort(Integer stock, String productId) {
-        if (productId == null) {
-            return null;
-        }
-        long safeStock = stock == null ? 0L : Math.max(0, stock.longValue());
-        long score = TOP_SORT_BASE - safeStock;
-        return "RANK#" + String.format("%012d", score) + "#PROD#" + productId;
+    @Override
+    public Mono<PageResult<BranchTopProduct>> findTopByFranchiseId(String franchiseId, int limit, String exclusiveStartKey) {
+        return topProducts.findByFranchiseId(franchiseId, limit, exclusiveStartKey);
     }
 
-    private String normalizeName(String name) {
-        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    @Override
+    public Flux<BranchTopProduct> streamTopByFranchiseId(String franchiseId) {
+        return topProducts.streamByFranchiseId(franchiseId);
     }
 
-    private Throwable mapTxErrors(Throwable t) {
-        Throwable cause = (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
-        if (cause instanceof TransactionCanceledException || cause instanceof ConditionalCheckFailedException) {
-            return new ValidationException(ExceptionMessage.PRODUCT_STOCK_INVALID);
-        }
-        if (cause instanceof SdkException) {
-            return cause;
+    /**
+     * The error for a stock update whose condition failed, given the item it was evaluated against.
+     */
+    private BusinessException stockRejection(Map<String, AttributeValue> current) {
+        AttributeValue entityType = current == null ? null : current.get("entityType");
+        if (entityType == null || !ENTITY_TYPE.equals(entityType.s())) {
+            return new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND);
         }
-        return cause;
+        return new ValidationException(ExceptionMessage.PRODUCT_STOCK_INVALID);
     }
 }
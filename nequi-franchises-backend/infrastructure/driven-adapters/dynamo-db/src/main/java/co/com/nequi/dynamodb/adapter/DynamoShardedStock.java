@@ -0,0 +1,563 @@
+package co.com.nequi.dynamodb.adapter;
+
+import co.com.nequi.dynamodb.entity.ProductEntity;
+import co.com.nequi.dynamodb.helper.DynamoBatchReader;
+import co.com.nequi.dynamodb.helper.DynamoBatchWriter;
+import co.com.nequi.dynamodb.helper.DynamoErrors;
+import co.com.nequi.dynamodb.helper.ProductEntityMapper;
+import co.com.nequi.model.product.Product;
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import co.com.nequi.usecase.exception.ThrottledException;
+import co.com.nequi.usecase.exception.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.Get;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Opt-in sharded stock for the products listed in {@code app.dynamo.hot-products.ids}, whose stock
+ * changes faster than a single item accepts writes. On its first change a hot product is split, in
+ * one transaction, into {@code STOCK_SHARD#<productId>#<n>} items holding its stock and the product
+ * item is marked with {@code stockShards}; from then on the shards are the source of truth.
+ * <p>
+ * Increments land on a random shard. Decrements reserve units on a shard that still holds enough,
+ * conditioned on {@code stock >= quantity}, so no shard and therefore no total ever goes negative;
+ * when the probed shards cannot cover the quantity, every shard is read in one snapshot and, if the
+ * total allows it, rebalanced with the quantity taken out in a transaction conditioned on the values
+ * read. Point reads sum the shards with a plain {@code BatchGetItem}, never a transactional read,
+ * which DynamoDB rejects while any of the shards is being written; listings and top products see
+ * the product item's {@code stock}, which the aggregator refreshes every
+ * {@code app.dynamo.hot-products.aggregate-interval-ms}.
+ * <p>
+ * A change can carry guard items, such as an idempotency record, written in the same transaction as
+ * the shard update so they are registered exactly when the change is applied.
+ */
+@Component
+@Profile("!in-memory")
+public class DynamoShardedStock implements AutoCloseable {
+
+    static final String ENTITY_TYPE = "STOCK_SHARD";
+
+    private static final Logger log = LoggerFactory.getLogger(DynamoShardedStock.class);
+    private static final String PRODUCT_ENTITY_TYPE = ProductEntityMapper.ENTITY_TYPE;
+    private static final String SHARD_PREFIX = "STOCK_SHARD#";
+    private static final String STOCK_SHARDS = "stockShards";
+    private static final int MAX_SHARDS = 96;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int MAX_SHARD_PROBES = 3;
+    private static final int AGGREGATE_CONCURRENCY = 8;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final DynamoTopProductProjection topProducts;
+    private final TableSchema<ProductEntity> productSchema;
+    private final String tableName;
+    private final Set<String> hotProductIds;
+    private final int shards;
+    private final Duration aggregateTimeout;
+    private final Map<String, Active> active = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService aggregator;
+
+    /**
+     * A sharded product as last read from its item, kept as the fallback response of a change
+     * whose read-back fails.
+     */
+    private record Active(Product product, int shards) {
+
+        String branchId() {
+            return product.getBranchId();
+        }
+    }
+
+    /**
+     * How a guarded shard write ended: applied, not applicable to that shard, or refused by a guard.
+     */
+    private enum Outcome {
+        APPLIED, SKIPPED, GUARDED
+    }
+
+    private record Snapshot(Map<String, AttributeValue> product, int[] shardStocks) {
+
+        long total() {
+            return Arrays.stream(shardStocks).asLongStream().sum();
+        }
+    }
+
+    public DynamoShardedStock(DynamoDbAsyncClient dynamoDbAsyncClient,
+                              DynamoTopProductProjection topProducts,
+                              @Value("${app.dynamo.core-table}") String tableName,
+                              @Value("${app.dynamo.hot-products.ids:}") String hotProductIds,
+                              @Value("${app.dynamo.hot-products.shards:8}") int shards,
+                              @Value("${app.dynamo.hot-products.aggregate-interval-ms:1000}") long aggregateIntervalMs) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.topProducts = topProducts;
+        this.tableName = tableName;
+        this.productSchema = TableSchema.fromBean(ProductEntity.class);
+        this.hotProductIds = Arrays.stream(hotProductIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        // Activation writes every shard and the product in one transaction of at most 100 items.
+        this.shards = Math.clamp(shards, 1, MAX_SHARDS);
+        this.aggregateTimeout = Duration.ofMillis(Math.max(aggregateIntervalMs, 1_000) * 5);
+        if (aggregateIntervalMs > 0) {
+            this.aggregator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stock-shard-aggregator");
+                thread.setDaemon(true);
+                return thread;
+            });
+            aggregator.scheduleWithFixedDelay(this::aggregateAll, aggregateIntervalMs, aggregateIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.aggregator = null;
+        }
+    }
+
+    public boolean isHot(String productId) {
+        return hotProductIds.contains(productId);
+    }
+
+    static boolean isSharded(Map<String, AttributeValue> item) {
+        return item != null && item.containsKey(STOCK_SHARDS);
+    }
+
+    static boolean isShardId(String id) {
+        return id.startsWith(SHARD_PREFIX);
+    }
+
+    static List<String> shardIds(String productId, int shards) {
+        return IntStream.range(0, shards).mapToObj(shard -> shardId(productId, shard)).toList();
+    }
+
+    /**
+     * Applies {@code delta} to the shards of the product, sharding it first if needed, and returns
+     * the product with its aggregated stock. A {@code branchId} restricts the change to products of
+     * that branch, checked on the product item before it is sharded. Fails with {@code STOCK_ADJUSTMENT_CONFLICT} when contention keeps the product from
+     * being sharded or rebalanced within {@value #MAX_ATTEMPTS} attempts. Once the delta is written the
+     * change never fails: if the read-back does, the product is returned as last read, with its
+     * aggregated stock.
+     * <p>
+     * {@code guards} are written in the same transaction as the delta and the change completes empty,
+     * with nothing applied, when the condition of any of them fails. A decrement may be rebalanced
+     * across every shard, so it takes at most {@code 100 - shards} guards; an increment up to 99.
+     */
+    public Mono<Product> change(String productId, int delta, String branchId, List<TransactWriteItem> guards) {
+        return Mono.defer(() -> activate(productId, branchId, 1))
+                .flatMap(shard -> (delta >= 0 ? add(productId, shard, delta, guards, 1) : reserve(productId, shard, -delta, guards))
+                        .filter(outcome -> outcome == Outcome.APPLIED)
+                        .flatMap(applied -> read(productId, shard.shards())
+                                .onErrorResume(ex -> Mono.just(shard.product()))));
+    }
+
+    /**
+     * The product with the sum of its shards as stock. The shards are read eventually consistent and
+     * not as one snapshot, so the total may lag a change still in flight.
+     */
+    public Mono<Product> read(String productId, int shards) {
+        List<String> ids = new ArrayList<>(shards + 1);
+        ids.add(productId);
+        ids.addAll(shardIds(productId, shards));
+        return DynamoBatchReader.getAll(dynamoDbAsyncClient, tableName, ids)
+                .collectMap(item -> item.get("id").s())
+                .flatMap(items -> {
+                    Map<String, AttributeValue> product = items.get(productId);
+                    if (!isProduct(product)) {
+                        return Mono.empty();
+                    }
+                    long total = 0;
+                    for (String shardId : shardIds(productId, shards)) {
+                        Map<String, AttributeValue> shard = items.get(shardId);
+                        if (shard != null && shard.containsKey("stock")) {
+                            total += Long.parseLong(shard.get("stock").n());
+                        }
+                    }
+                    return Mono.just(toDomain(product).toBuilder().stock(clamp(total)).build());
+                })
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND)));
+    }
+
+    /**
+     * Best-effort removal of the shards of a deleted product. Shards this instance has not seen are
+     * only known for products still in the hot list; any others are left behind, unreferenced.
+     */
+    public Mono<Void> release(String productId) {
+        Active known = active.remove(productId);
+        int count = known != null ? known.shards() : isHot(productId) ? shards : 0;
+        if (count == 0) {
+            return Mono.empty();
+        }
+        return DynamoBatchWriter.deleteAll(dynamoDbAsyncClient, tableName, Flux.fromIterable(shardIds(productId, count)),
+                        1, Duration.ZERO)
+                .then()
+                .onErrorResume(ex -> Mono.empty());
+    }
+
+    /**
+     * The sharding state of the product, sharding it first if needed. A product outside
+     * {@code branchId} is reported missing as soon as it is read, before anything is written.
+     */
+    private Mono<Active> activate(String productId, String branchId, int attempt) {
+        Active known = active.get(productId);
+        if (known != null) {
+            return isInBranch(known.branchId(), branchId)
+                    ? Mono.just(known)
+                    : Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND));
+        }
+        return Mono.fromFuture(() -> dynamoDbAsyncClient.getItem(GetItemRequest.builder()
+                        .tableName(tableName)
+                        .key(key(productId))
+                        .consistentRead(true)
+                        .build()))
+                .flatMap(response -> {
+                    Map<String, AttributeValue> item = response.item();
+                    Product product = isProduct(item) ? toDomain(item) : null;
+                    if (product == null || !isInBranch(product.getBranchId(), branchId)) {
+                        return Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND));
+                    }
+                    if (isSharded(item)) {
+                        return Mono.just(remember(productId, product, Integer.parseInt(item.get(STOCK_SHARDS).n())));
+                    }
+                    int stock = Integer.parseInt(item.get("stock").n());
+                    return Mono.fromFuture(() -> dynamoDbAsyncClient.transactWriteItems(activation(productId, stock)))
+                            .then(Mono.fromSupplier(() -> remember(productId, product, shards)))
+                            .onErrorResume(ex -> DynamoErrors.unwrap(ex) instanceof TransactionCanceledException,
+                                    ex -> attempt < MAX_ATTEMPTS ? activate(productId, branchId, attempt + 1) : Mono.error(conflict(ex)));
+                });
+    }
+
+    private TransactWriteItemsRequest activation(String productId, int stock) {
+        long now = Instant.now().toEpochMilli();
+        List<TransactWriteItem> items = new ArrayList<>(shards + 1);
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":type", AttributeValue.fromS(PRODUCT_ENTITY_TYPE));
+        values.put(":stock", AttributeValue.fromN(String.valueOf(stock)));
+        values.put(":shards", AttributeValue.fromN(String.valueOf(shards)));
+        values.put(":now", AttributeValue.fromN(String.valueOf(now)));
+        values.put(":one", AttributeValue.fromN("1"));
+        values.put(":z", AttributeValue.fromN("0"));
+        items.add(TransactWriteItem.builder()
+                .update(Update.builder()
+                        .tableName(tableName)
+                        .key(key(productId))
+                        .conditionExpression("entityType = :type AND stock = :stock AND attribute_not_exists(stockShards)")
+                        .updateExpression("SET stockShards = :shards, updatedAt = :now, "
+                                + "version = if_not_exists(version, :z) + :one")
+                        .expressionAttributeValues(values)
+                        .build())
+                .build());
+        int[] split = split(stock, shards);
+        for (int shard = 0; shard < shards; shard++) {
+            // Unconditional: a leftover shard of an earlier activation is simply overwritten.
+            items.add(TransactWriteItem.builder()
+                    .put(Put.builder()
+                            .tableName(tableName)
+                            .item(Map.of(
+                                    "id", AttributeValue.fromS(shardId(productId, shard)),
+                                    "entityType", AttributeValue.fromS(ENTITY_TYPE),
+                                    "productId", AttributeValue.fromS(productId),
+                                    "stock", AttributeValue.fromN(String.valueOf(split[shard]))))
+                            .build())
+                    .build());
+        }
+        return TransactWriteItemsRequest.builder().transactItems(items).build();
+    }
+
+    /**
+     * Adds {@code quantity} to a random shard. Guarded increments are transactions, which conflict
+     * with each other on a busy shard, so a conflict retries on another random shard.
+     */
+    private Mono<Outcome> add(String productId, Active shard, int quantity, List<TransactWriteItem> guards, int attempt) {
+        int target = ThreadLocalRandom.current().nextInt(shard.shards());
+        UpdateItemRequest update = shardUpdate(productId, target, "SET stock = stock + :q", "attribute_exists(id)", quantity);
+        if (guards.isEmpty()) {
+            return Mono.fromFuture(() -> dynamoDbAsyncClient.updateItem(update))
+                    .thenReturn(Outcome.APPLIED)
+                    .onErrorMap(DynamoErrors::isConditionalCheckFailed, ex -> missing(productId));
+        }
+        return Mono.fromFuture(() -> dynamoDbAsyncClient.transactWriteItems(guarded(guards, update)))
+                .thenReturn(Outcome.APPLIED)
+                .onErrorResume(ex -> DynamoErrors.unwrap(ex) instanceof TransactionCanceledException, ex -> {
+                    if (isGuardFailure(ex, guards.size())) {
+                        return Mono.just(Outcome.GUARDED);
+                    }
+                    if (DynamoErrors.isTransactionConditionFailed(ex, guards.size())) {
+                        return Mono.error(missing(productId));
+                    }
+                    return attempt < MAX_ATTEMPTS
+                            ? add(productId, shard, quantity, guards, attempt + 1)
+                            : Mono.error(conflict(ex));
+                });
+    }
+
+    /**
+     * Takes {@code quantity} from the first of a few shards, starting at a random one, that still
+     * holds that much; when none does, falls back to a consolidated reservation across all shards.
+     */
+    private Mono<Outcome> reserve(String productId, Active shard, int quantity, List<TransactWriteItem> guards) {
+        int start = ThreadLocalRandom.current().nextInt(shard.shards());
+        return Flux.range(0, Math.min(shard.shards(), MAX_SHARD_PROBES))
+                .concatMap(probe -> decrement(productId, (start + probe) % shard.shards(), quantity, guards))
+                .filter(outcome -> outcome != Outcome.SKIPPED)
+                .next()
+                .switchIfEmpty(Mono.defer(() -> consolidate(productId, shard.shards(), quantity, guards, 1)));
+    }
+
+    /**
+     * A shard without enough stock, or one a concurrent transaction is writing, is skipped.
+     */
+    private Mono<Outcome> decrement(String productId, int shard, int quantity, List<TransactWriteItem> guards) {
+        UpdateItemRequest update = shardUpdate(productId, shard, "SET stock = stock - :q", "stock >= :q", quantity);
+        if (guards.isEmpty()) {
+            return Mono.fromFuture(() -> dynamoDbAsyncClient.updateItem(update))
+                    .thenReturn(Outcome.APPLIED)
+                    .onErrorResume(DynamoErrors::isConditionalCheckFailed, ex -> Mono.just(Outcome.SKIPPED));
+        }
+        return Mono.fromFuture(() -> dynamoDbAsyncClient.transactWriteItems(guarded(guards, update)))
+                .thenReturn(Outcome.APPLIED)
+                .onErrorResume(ex -> DynamoErrors.unwrap(ex) instanceof TransactionCanceledException,
+                        ex -> Mono.just(isGuardFailure(ex, guards.size()) ? Outcome.GUARDED : Outcome.SKIPPED));
+    }
+
+    private Mono<Outcome> consolidate(String productId, int shards, int quantity, List<TransactWriteItem> guards, int attempt) {
+        return snapshot(productId, shards)
+                .switchIfEmpty(Mono.error(() -> missing(productId)))
+                .flatMap(snapshot -> snapshot.total() < quantity
+                        ? Mono.<Outcome>error(() -> new ValidationException(ExceptionMessage.PRODUCT_STOCK_INVALID))
+                        : Mono.fromFuture(() -> dynamoDbAsyncClient.transactWriteItems(
+                                rebalance(productId, snapshot.shardStocks(), snapshot.total() - quantity, guards)))
+                        .thenReturn(Outcome.APPLIED))
+                .onErrorResume(ex -> DynamoErrors.unwrap(ex) instanceof TransactionCanceledException,
+                        ex -> isGuardFailure(ex, guards.size())
+                                ? Mono.just(Outcome.GUARDED)
+                                : attempt < MAX_ATTEMPTS
+                                ? consolidate(productId, shards, quantity, guards, attempt + 1)
+                                : Mono.error(conflict(ex)));
+    }
+
+    private TransactWriteItemsRequest guarded(List<TransactWriteItem> guards, UpdateItemRequest update) {
+        List<TransactWriteItem> items = new ArrayList<>(guards.size() + 1);
+        items.addAll(guards);
+        items.add(TransactWriteItem.builder()
+                .update(Update.builder()
+                        .tableName(update.tableName())
+                        .key(update.key())
+                        .conditionExpression(update.conditionExpression())
+                        .updateExpression(update.updateExpression())
+                        .expressionAttributeValues(update.expressionAttributeValues())
+                        .build())
+                .build());
+        return TransactWriteItemsRequest.builder().transactItems(items).build();
+    }
+
+    /**
+     * Guards always come first in the transaction, so their cancellation reasons do too.
+     */
+    private static boolean isGuardFailure(Throwable t, int guards) {
+        for (int index = 0; index < guards; index++) {
+            if (DynamoErrors.isTransactionConditionFailed(t, index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TransactWriteItemsRequest rebalance(String productId, int[] current, long remaining, List<TransactWriteItem> guards) {
+        int[] target = split(clamp(remaining), current.length);
+        List<TransactWriteItem> items = new ArrayList<>(guards.size() + current.length);
+        items.addAll(guards);
+        for (int shard = 0; shard < current.length; shard++) {
+            items.add(TransactWriteItem.builder()
+                    .update(Update.builder()
+                            .tableName(tableName)
+                            .key(key(shardId(productId, shard)))
+                            .conditionExpression("stock = :seen")
+                            .updateExpression("SET stock = :stock")
+                            .expressionAttributeValues(Map.of(
+                                    ":seen", AttributeValue.fromN(String.valueOf(current[shard])),
+                                    ":stock", AttributeValue.fromN(String.valueOf(target[shard]))))
+                            .build())
+                    .build());
+        }
+        return TransactWriteItemsRequest.builder().transactItems(items).build();
+    }
+
+    /**
+     * The product item and its shards read with {@code TransactGetItems}, so the total never mixes
+     * values from before and after a rebalance. Empty when the product or any shard is missing.
+     */
+    private Mono<Snapshot> snapshot(String productId, int shards) {
+        List<TransactGetItem> gets = new ArrayList<>(shards + 1);
+        gets.add(get(productId));
+        shardIds(productId, shards).forEach(id -> gets.add(get(id)));
+        return Mono.fromFuture(() -> dynamoDbAsyncClient.transactGetItems(TransactGetItemsRequest.builder()
+                        .transactItems(gets)
+                        .build()))
+                .flatMap(response -> {
+                    List<ItemResponse> responses = response.responses();
+                    Map<String, AttributeValue> product = responses.get(0).item();
+                    if (!isProduct(product)) {
+                        return Mono.empty();
+                    }
+                    int[] stocks = new int[shards];
+                    for (int shard = 0; shard < shards; shard++) {
+                        Map<String, AttributeValue> item = responses.get(shard + 1).item();
+                        if (item == null || !item.containsKey("stock")) {
+                            return Mono.empty();
+                        }
+                        stocks[shard] = Integer.parseInt(item.get("stock").n());
+                    }
+                    return Mono.just(new Snapshot(product, stocks));
+                });
+    }
+
+    private void aggregateAll() {
+        try {
+            Flux.fromIterable(List.copyOf(active.entrySet()))
+                    .flatMap(entry -> aggregate(entry.getKey(), entry.getValue()), AGGREGATE_CONCURRENCY)
+                    .then()
+                    .block(aggregateTimeout);
+        } catch (RuntimeException e) {
+            log.warn("Unable to aggregate sharded stock", e);
+        }
+    }
+
+    /**
+     * Publishes the shard total as the product item's {@code stock} when it moved, then re-elects the
+     * branch's top product so listings and rankings catch up with the shards.
+     */
+    private Mono<Void> aggregate(String productId, Active shard) {
+        return snapshot(productId, shard.shards())
+                .switchIfEmpty(Mono.fromRunnable(() -> active.remove(productId)))
+                .filter(snapshot -> snapshot.total() != Long.parseLong(snapshot.product().get("stock").n()))
+                .flatMap(snapshot -> Mono.fromFuture(() -> dynamoDbAsyncClient.updateItem(UpdateItemRequest.builder()
+                                .tableName(tableName)
+                                .key(key(productId))
+                                .conditionExpression("attribute_exists(stockShards) AND stock = :seen")
+                                .updateExpression("SET stock = :stock, updatedAt = :now, "
+                                        + "version = if_not_exists(version, :z) + :one")
+                                .expressionAttributeValues(Map.of(
+                                        ":seen", snapshot.product().get("stock"),
+                                        ":stock", AttributeValue.fromN(String.valueOf(clamp(snapshot.total()))),
+                                        ":now", AttributeValue.fromN(String.valueOf(Instant.now().toEpochMilli())),
+                                        ":one", AttributeValue.fromN("1"),
+                                        ":z", AttributeValue.fromN("0")))
+                                .build())))
+                .flatMap(updated -> topProducts.refresh(shard.branchId()))
+                .onErrorResume(ex -> {
+                    log.debug("Sharded stock of product {} not aggregated", productId, ex);
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public void close() {
+        if (aggregator == null) {
+            return;
+        }
+        aggregator.shutdown();
+        try {
+            if (!aggregator.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                aggregator.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private UpdateItemRequest shardUpdate(String productId, int shard, String update, String condition, int quantity) {
+        return UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(key(shardId(productId, shard)))
+                .conditionExpression(condition)
+                .updateExpression(update)
+                .expressionAttributeValues(Map.of(":q", AttributeValue.fromN(String.valueOf(quantity))))
+                .build();
+    }
+
+    private Active remember(String productId, Product product, int shards) {
+        return active.computeIfAbsent(productId, id -> new Active(product, shards));
+    }
+
+    private Product toDomain(Map<String, AttributeValue> item) {
+        return ProductEntityMapper.toDomain(productSchema.mapToItem(item));
+    }
+
+    private ResourceNotFoundException missing(String productId) {
+        active.remove(productId);
+        return new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND);
+    }
+
+    private ThrottledException conflict(Throwable cause) {
+        return new ThrottledException(ExceptionMessage.STOCK_ADJUSTMENT_CONFLICT, 1, DynamoErrors.unwrap(cause));
+    }
+
+    private TransactGetItem get(String id) {
+        return TransactGetItem.builder()
+                .get(Get.builder().tableName(tableName).key(key(id)).build())
+                .build();
+    }
+
+    private static boolean isProduct(Map<String, AttributeValue> item) {
+        AttributeValue entityType = item == null ? null : item.get("entityType");
+        return entityType != null && PRODUCT_ENTITY_TYPE.equals(entityType.s());
+    }
+
+    private static boolean isInBranch(String productBranchId, String branchId) {
+        return branchId == null || Objects.equals(branchId, productBranchId);
+    }
+
+    private static int[] split(int total, int parts) {
+        int[] split = new int[parts];
+        for (int part = 0; part < parts; part++) {
+            split[part] = total / parts + (part < total % parts ? 1 : 0);
+        }
+        return split;
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.min(value, Integer.MAX_VALUE);
+    }
+
+    private static String shardId(String productId, int shard) {
+        return SHARD_PREFIX + productId + "#" + shard;
+    }
+
+    private static Map<String, AttributeValue> key(String id) {
+        return Map.of("id", AttributeValue.fromS(id));
+    }
+}
@@ -0,0 +1,579 @@
+package co.com.nequi.dynamodb.adapter;
+
+import co.com.nequi.dynamodb.entity.ProductEntity;
+import co.com.nequi.dynamodb.helper.DynamoErrors;
+import co.com.nequi.dynamodb.helper.ProductEntityMapper;
+import co.com.nequi.dynamodb.helper.StockJournal;
+import co.com.nequi.model.product.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind stage for positive stock deltas, enabled with
+ * {@code app.dynamo.stock-write-behind.enabled}. A restock cannot break the non-negative invariant,
+ * so it is acknowledged once appended to the local {@link StockJournal} with its idempotency key,
+ * without any DynamoDB call; every {@code window-ms} the window is sealed and flushed as one
+ * transaction per product: the update with the sum of its deltas plus the idempotency record of each
+ * delta. A record that already exists means that key was applied by another path or instance, so
+ * its delta is left out of the update. A product takes at most {@value #MAX_KEYS_PER_UPDATE} deltas
+ * per window, so its transaction stays within DynamoDB's limit even when it has to go through the
+ * stock shards; further restocks of it, negative deltas, hot products and everything else stay on
+ * the synchronous path.
+ * <p>
+ * Each flushed update records the journal epoch on the product, in a {@code stockJournals} map keyed by
+ * journal id, and is conditioned on it being older, so re-flushing a window after a failed flush or
+ * a crash never applies it twice. A product sharded after its deltas were journaled gets them through
+ * its shards, with the epoch recorded on the product item in the same transaction. Epochs are
+ * timestamps, so entries of journals that have not
+ * written the product for {@code journal-retention-ms} are pruned after each flushed update and the
+ * map stays bounded by the journals active within that period; a recovered window older than the
+ * retention could have lost its entry, so it is dropped and logged for reconciliation instead of
+ * risking a second application. The journal must live on a persistent volume
+ * ({@code journal-directory}), since its identity and pending windows have to survive the
+ * container. Until its window is flushed a restock is only visible in the product returned
+ * to the caller: the last state of the product this instance read or flushed, kept for
+ * {@code snapshot-ttl-ms} so restocks do not read the product each time, plus the deltas still
+ * pending for it. Flush lag, the time from the first delta
+ * of a window until it is applied, and the coalescing ratio, deltas per product update, are
+ * exported as {@code dynamodb.stock.writebehind.*}.
+ */
+@Component
+@Profile("!in-memory")
+public class DynamoStockWriteBehind implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DynamoStockWriteBehind.class);
+    private static final String PRODUCT_ENTITY_TYPE = ProductEntityMapper.ENTITY_TYPE;
+    private static final String JOURNALS_ATTRIBUTE = "stockJournals";
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+    private static final int MAX_KEYS_PER_UPDATE = 98;
+    private static final int SNAPSHOT_MAX_SIZE = 100_000;
+    private static final int FLUSH_CONCURRENCY = 16;
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(30);
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final DynamoTopProductProjection topProducts;
+    private final DynamoShardedStock shardedStock;
+    private final DynamoIdempotencyKeys idempotencyKeys;
+    private final TableSchema<ProductEntity> productSchema;
+    private final String tableName;
+    private final StockJournal journal;
+    private final String journalId;
+    private final long retentionMs;
+    private final ScheduledExecutorService flusher;
+    private final Deque<Window> sealed = new ArrayDeque<>();
+    private final Counter accepted;
+    private final Counter updates;
+    private final Counter dropped;
+    private final Timer flushLag;
+    private final DistributionSummary coalescingRatio;
+    private final Cache<String, Product> snapshots;
+    private Map<String, Map<String, Integer>> open = new HashMap<>();
+    private long openedAt;
+
+    /**
+     * A sealed journal segment with the time its first delta arrived, or {@code 0} when it was
+     * recovered from a previous process.
+     */
+    private record Window(StockJournal.Sealed deltas, long openedAt) {
+    }
+
+    public DynamoStockWriteBehind(DynamoDbAsyncClient dynamoDbAsyncClient,
+                                  DynamoTopProductProjection topProducts,
+                                  DynamoShardedStock shardedStock,
+                                  DynamoIdempotencyKeys idempotencyKeys,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.dynamo.core-table}") String tableName,
+                                  @Value("${app.dynamo.stock-write-behind.enabled:false}") boolean enabled,
+                                  @Value("${app.dynamo.stock-write-behind.window-ms:200}") long windowMs,
+                                  @Value("${app.dynamo.stock-write-behind.journal-directory:}") String journalDirectory,
+                                  @Value("${app.dynamo.stock-write-behind.segment-bytes:8388608}") int segmentBytes,
+                                  @Value("${app.dynamo.stock-write-behind.journal-retention-ms:604800000}") long retentionMs,
+                                  @Value("${app.dynamo.stock-write-behind.snapshot-ttl-ms:1000}") long snapshotTtlMs) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.topProducts = topProducts;
+        this.shardedStock = shardedStock;
+        this.idempotencyKeys = idempotencyKeys;
+        this.tableName = tableName;
+        this.productSchema = TableSchema.fromBean(ProductEntity.class);
+        this.retentionMs = Math.max(1, retentionMs);
+        this.accepted = Counter.builder("dynamodb.stock.writebehind.deltas")
+                .description("Positive stock deltas acknowledged from the write-behind journal")
+                .register(meterRegistry);
+        this.updates = Counter.builder("dynamodb.stock.writebehind.updates")
+                .description("Product updates issued to flush write-behind stock deltas")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("dynamodb.stock.writebehind.dropped")
+                .description("Write-behind stock deltas discarded because their product no longer exists, their key was already applied or their window outlived the journal retention")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("dynamodb.stock.writebehind.flush.lag")
+                .description("Time from the first delta of a write-behind window until the window is applied")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.coalescingRatio = DistributionSummary.builder("dynamodb.stock.writebehind.coalescing.ratio")
+                .description("Stock deltas per product update in each flushed write-behind window")
+                .register(meterRegistry);
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(SNAPSHOT_MAX_SIZE)
+                .expireAfterWrite(Duration.ofMillis(Math.max(1, snapshotTtlMs)))
+                .build();
+        if (!enabled) {
+            this.journal = null;
+            this.journalId = null;
+            this.flusher = null;
+            return;
+        }
+        this.journal = new StockJournal(persistentDirectory(journalDirectory), segmentBytes);
+        this.journalId = journal.id();
+        journal.recovered().forEach(this::recover);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, windowMs);
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The journal only protects acknowledged restocks if it outlives the container, so the
+     * directory has to be configured explicitly and cannot be the container's temporary storage.
+     */
+    private static Path persistentDirectory(String journalDirectory) {
+        if (journalDirectory == null || journalDirectory.isBlank()) {
+            throw new IllegalStateException("app.dynamo.stock-write-behind.journal-directory must point to a "
+                    + "persistent volume when the stock write-behind stage is enabled");
+        }
+        Path directory = Path.of(journalDirectory).toAbsolutePath().normalize();
+        if (directory.startsWith(Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath().normalize())) {
+            throw new IllegalStateException("app.dynamo.stock-write-behind.journal-directory must not be under "
+                    + "java.io.tmpdir: " + directory);
+        }
+        return directory;
+    }
+
+    private void recover(StockJournal.Sealed recovered) {
+        if (recovered.epoch() >= System.currentTimeMillis() - retentionMs) {
+            sealed.add(new Window(recovered, 0));
+            return;
+        }
+        dropped.increment(recovered.records());
+        log.error("Dropped write-behind window {} recovered after the journal retention; reconcile deltas {}",
+                recovered.epoch(), recovered.deltas());
+        journal.clear(recovered);
+    }
+
+    public boolean accepts(String productId, int delta) {
+        return journal != null && delta > 0 && !shardedStock.isHot(productId);
+    }
+
+    /**
+     * Journals the delta under its idempotency key and returns the product with the stock pending for
+     * it added, or completes empty when the journal cannot take it and the delta must be applied
+     * directly. A key still pending on this instance is not journaled again. {@code current} is only
+     * read when no snapshot of the product is kept, and before anything is journaled, so unknown
+     * products fail.
+     */
+    public Mono<Product> add(String productId, int delta, String idempotencyKey, Mono<Product> current) {
+        return Mono.defer(() -> {
+                    Product known = snapshots.getIfPresent(productId);
+                    return known != null ? Mono.just(known) : current;
+                })
+                .flatMap(product -> Mono.justOrEmpty(append(productId, delta, idempotencyKey, product)));
+    }
+
+    /**
+     * Drops the snapshot of a product changed outside this stage.
+     */
+    public void forget(String productId) {
+        snapshots.invalidate(productId);
+    }
+
+    /**
+     * Appends the delta unless its key is already pending and returns the product's snapshot with
+     * the total still pending for it added, or {@code null} when the journal or the product's share
+     * of the window is full. The snapshot is resolved here, under the same lock that replaces it when
+     * a window is cleared, so the pending total and the snapshot never both count a window.
+     */
+    private synchronized Product append(String productId, int delta, String idempotencyKey, Product read) {
+        Map<String, Integer> keyed = open.get(productId);
+        if (!isPending(productId, idempotencyKey)) {
+            if (keyed != null && keyed.size() >= MAX_KEYS_PER_UPDATE) {
+                return null;
+            }
+            if (!journal.append(productId, delta, idempotencyKey)) {
+                return null;
+            }
+            if (open.isEmpty()) {
+                openedAt = System.nanoTime();
+            }
+            open.computeIfAbsent(productId, id -> new LinkedHashMap<>()).put(idempotencyKey, delta);
+            accepted.increment();
+        }
+        long pending = StockJournal.Sealed.total(open.getOrDefault(productId, Map.of()));
+        for (Window window : sealed) {
+            pending += StockJournal.Sealed.total(window.deltas().deltas().getOrDefault(productId, Map.of()));
+        }
+        Product base = snapshots.asMap().computeIfAbsent(productId, id -> read);
+        return base.toBuilder()
+                .stock((int) Math.min(Integer.MAX_VALUE, base.getStock() + pending))
+                .build();
+    }
+
+    private boolean isPending(String productId, String idempotencyKey) {
+        if (open.getOrDefault(productId, Map.of()).containsKey(idempotencyKey)) {
+            return true;
+        }
+        for (Window window : sealed) {
+            if (window.deltas().deltas().getOrDefault(productId, Map.of()).containsKey(idempotencyKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized Window seal() {
+        if (!sealed.isEmpty()) {
+            return sealed.peek();
+        }
+        StockJournal.Sealed deltas = journal.seal();
+        if (deltas == null) {
+            return null;
+        }
+        Window window = new Window(deltas, openedAt);
+        sealed.add(window);
+        open = new HashMap<>();
+        return window;
+    }
+
+    /**
+     * Clears the window and replaces the snapshots of its products with their flushed state, in one
+     * step so a product's pending total never counts a window its snapshot already includes.
+     */
+    private synchronized void clear(Window window, Map<String, Product> flushed) {
+        journal.clear(window.deltas());
+        sealed.remove(window);
+        window.deltas().deltas().keySet().forEach(productId -> {
+            Product product = flushed.get(productId);
+            if (product == null) {
+                snapshots.invalidate(productId);
+            } else {
+                snapshots.put(productId, product);
+            }
+        });
+    }
+
+    /**
+     * Applies the oldest sealed window, sealing the open one when none is pending. A window with
+     * any failed product stays sealed and is flushed again on the next tick; products it already
+     * reached skip it through their journal epoch.
+     */
+    private void flush() {
+        try {
+            Window window = seal();
+            if (window == null) {
+                return;
+            }
+            StockJournal.Sealed deltas = window.deltas();
+            Map<String, Product> flushed = new ConcurrentHashMap<>();
+            Boolean applied = Flux.fromIterable(deltas.deltas().entrySet())
+                    .flatMap(entry -> apply(entry.getKey(), entry.getValue(), deltas.epoch(), false, flushed),
+                            FLUSH_CONCURRENCY)
+                    .all(Boolean::booleanValue)
+                    .block(FLUSH_TIMEOUT);
+            if (!Boolean.TRUE.equals(applied)) {
+                return;
+            }
+            clear(window, flushed);
+            if (window.openedAt() != 0) {
+                flushLag.record(System.nanoTime() - window.openedAt(), TimeUnit.NANOSECONDS);
+            }
+            if (!deltas.deltas().isEmpty()) {
+                coalescingRatio.record((double) deltas.records() / deltas.deltas().size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to flush write-behind stock deltas", e);
+        }
+    }
+
+    /**
+     * Adds the deltas unless the product already holds this journal's epoch, registering their
+     * idempotency keys in the same transaction. The first journal to reach a product creates the map,
+     * since a nested path cannot be set on a missing map. Keys already registered elsewhere are
+     * dropped and the rest retried at once.
+     */
+    private Mono<Boolean> apply(String productId, Map<String, Integer> keyed, long epoch, boolean firstJournal,
+                                Map<String, Product> flushed) {
+        if (keyed.isEmpty()) {
+            return Mono.just(Boolean.TRUE);
+        }
+        List<String> keys = List.copyOf(keyed.keySet());
+        List<TransactWriteItem> items = new ArrayList<>(keys.size() + 1);
+        items.add(TransactWriteItem.builder()
+                .update(stockUpdate(productId, StockJournal.Sealed.total(keyed), epoch, firstJournal))
+                .build());
+        keys.forEach(key -> items.add(idempotencyKeys.guard(productId, key)));
+
+        return Mono.fromFuture(() -> dynamoDbAsyncClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(items)
+                        .build()))
+                .doOnNext(response -> updates.increment())
+                .then(Mono.defer(() -> flushed(productId, flushed)))
+                .thenReturn(Boolean.TRUE)
+                .onErrorResume(ex -> DynamoErrors.unwrap(ex) instanceof TransactionCanceledException,
+                        ex -> cancelled(productId, keyed, keys, epoch, firstJournal,
+                                (TransactionCanceledException) DynamoErrors.unwrap(ex), flushed))
+                .onErrorResume(ex -> {
+                    log.debug("Write-behind stock delta of product {} not flushed", productId, ex);
+                    return Mono.just(Boolean.FALSE);
+                });
+    }
+
+    private Update stockUpdate(String productId, long delta, long epoch, boolean firstJournal) {
+        JournalMark mark = journalMark(epoch, firstJournal);
+        Map<String, AttributeValue> values = new HashMap<>(mark.values());
+        values.put(":d", AttributeValue.fromN(String.valueOf(delta)));
+        values.put(":now", AttributeValue.fromN(String.valueOf(Instant.now().toEpochMilli())));
+        values.put(":one", AttributeValue.fromN("1"));
+        values.put(":z", AttributeValue.fromN("0"));
+        return Update.builder()
+                .tableName(tableName)
+                .key(Map.of("id", AttributeValue.fromS(productId)))
+                .conditionExpression("attribute_exists(id) AND entityType = :type AND attribute_not_exists(stockShards) "
+                        + "AND " + mark.condition())
+                .updateExpression("SET stock = stock + :d, " + mark.update() + ", updatedAt = :now, "
+                        + "version = if_not_exists(version, :z) + :one")
+                .expressionAttributeNames(mark.names())
+                .expressionAttributeValues(values)
+                .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                .build();
+    }
+
+    /**
+     * Records this journal's epoch on a sharded product in the transaction that writes its deltas to
+     * the shards, so a replayed window skips the product like any other.
+     */
+    private TransactWriteItem journalGuard(String productId, long epoch, boolean firstJournal) {
+        JournalMark mark = journalMark(epoch, firstJournal);
+        return TransactWriteItem.builder()
+                .update(Update.builder()
+                        .tableName(tableName)
+                        .key(Map.of("id", AttributeValue.fromS(productId)))
+                        .conditionExpression("entityType = :type AND " + mark.condition())
+                        .updateExpression("SET " + mark.update())
+                        .expressionAttributeNames(mark.names())
+                        .expressionAttributeValues(mark.values())
+                        .build())
+                .build();
+    }
+
+    private record JournalMark(String condition, String update, Map<String, String> names,
+                               Map<String, AttributeValue> values) {
+    }
+
+    private JournalMark journalMark(long epoch, boolean firstJournal) {
+        AttributeValue epochValue = AttributeValue.fromN(String.valueOf(epoch));
+        Map<String, AttributeValue> values = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+        names.put("#journals", JOURNALS_ATTRIBUTE);
+        values.put(":type", AttributeValue.fromS(PRODUCT_ENTITY_TYPE));
+        if (firstJournal) {
+            values.put(":journals", AttributeValue.fromM(Map.of(journalId, epochValue)));
+            return new JournalMark("attribute_not_exists(#journals)", "#journals = :journals", names, values);
+        }
+        names.put("#journal", journalId);
+        values.put(":epoch", epochValue);
+        return new JournalMark("attribute_exists(#journals) "
+                + "AND (attribute_not_exists(#journals.#journal) OR #journals.#journal < :epoch)",
+                "#journals.#journal = :epoch", names, values);
+    }
+
+    /**
+     * Reads the flushed product back, transactions returning no attributes, to prune its journal
+     * map, refresh its snapshot and challenge the branch leader. Best effort: the deltas are applied.
+     */
+    private Mono<Void> flushed(String productId, Map<String, Product> flushed) {
+        return Mono.fromFuture(() -> dynamoDbAsyncClient.getItem(GetItemRequest.builder()
+                        .tableName(tableName)
+                        .key(Map.of("id", AttributeValue.fromS(productId)))
+                        .consistentRead(true)
+                        .build()))
+                .filter(response -> response.hasItem() && !DynamoShardedStock.isSharded(response.item()))
+                .flatMap(response -> prune(productId, response.item())
+                        .thenReturn(ProductEntityMapper.toDomain(productSchema.mapToItem(response.item()))))
+                .doOnNext(product -> flushed.put(productId, product))
+                .flatMap(topProducts::challenge)
+                .onErrorResume(ex -> Mono.empty());
+    }
+
+    private Mono<Boolean> cancelled(String productId, Map<String, Integer> keyed, List<String> keys, long epoch,
+                                    boolean firstJournal, TransactionCanceledException cancelled,
+                                    Map<String, Product> flushed) {
+        List<CancellationReason> reasons = cancelled.hasCancellationReasons() ? cancelled.cancellationReasons() : List.of();
+        Map<String, Integer> unregistered = new LinkedHashMap<>(keyed);
+        for (int i = 0; i < keys.size(); i++) {
+            if (isConditionFailure(reasons, i + 1)) {
+                unregistered.remove(keys.get(i));
+            }
+        }
+        int registered = keyed.size() - unregistered.size();
+        if (registered > 0) {
+            dropped.increment(registered);
+            log.debug("Skipped {} write-behind stock deltas of product {} already applied under their key",
+                    registered, productId);
+        }
+        if (isConditionFailure(reasons, 0)) {
+            Map<String, AttributeValue> current = reasons.get(0).item();
+            return rejected(productId, unregistered, epoch, current == null ? Map.of() : current, flushed);
+        }
+        return registered > 0
+                ? apply(productId, unregistered, epoch, firstJournal, flushed)
+                : Mono.just(Boolean.FALSE);
+    }
+
+    /**
+     * A rejected flush means the window was already applied to the product, the product has no
+     * journal map yet, the product was sharded after the delta was journaled, or it was deleted.
+     */
+    private Mono<Boolean> rejected(String productId, Map<String, Integer> keyed, long epoch,
+                                   Map<String, AttributeValue> current, Map<String, Product> flushed) {
+        AttributeValue entityType = current.get("entityType");
+        if (entityType == null || !PRODUCT_ENTITY_TYPE.equals(entityType.s())) {
+            dropped.increment(keyed.size());
+            log.warn("Dropped write-behind stock deltas {} of missing product {}", keyed, productId);
+            return Mono.just(Boolean.TRUE);
+        }
+        AttributeValue journals = current.get(JOURNALS_ATTRIBUTE);
+        AttributeValue applied = journals != null && journals.hasM() ? journals.m().get(journalId) : null;
+        if (applied != null && Long.parseLong(applied.n()) >= epoch) {
+            return Mono.just(Boolean.TRUE);
+        }
+        boolean firstJournal = journals == null || !journals.hasM();
+        if (DynamoShardedStock.isSharded(current)) {
+            if (keyed.isEmpty()) {
+                return Mono.just(Boolean.TRUE);
+            }
+            List<TransactWriteItem> guards = new ArrayList<>(keyed.size() + 1);
+            guards.add(journalGuard(productId, epoch, firstJournal));
+            keyed.keySet().forEach(key -> guards.add(idempotencyKeys.guard(productId, key)));
+            // Empty when a guard failed; the next flush sorts out which one from a fresh attempt.
+            return shardedStock.change(productId, (int) Math.min(Integer.MAX_VALUE, StockJournal.Sealed.total(keyed)),
+                            null, guards)
+                    .hasElement();
+        }
+        // Without a map this is the first journal; with one, another journal created it meanwhile.
+        return apply(productId, keyed, epoch, firstJournal, flushed);
+    }
+
+    private static boolean isConditionFailure(List<CancellationReason> reasons, int index) {
+        return index < reasons.size() && CONDITIONAL_CHECK_FAILED.equals(reasons.get(index).code());
+    }
+
+    /**
+     * Removes the entries of journals that have not written the product within the retention,
+     * unless they changed meanwhile. Best effort: a missed prune is retried by the next flush.
+     */
+    private Mono<Void> prune(String productId, Map<String, AttributeValue> item) {
+        AttributeValue journals = item.get(JOURNALS_ATTRIBUTE);
+        if (journals == null || !journals.hasM()) {
+            return Mono.empty();
+        }
+        long expiredBefore = System.currentTimeMillis() - retentionMs;
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        List<String> removals = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        journals.m().forEach((id, epoch) -> {
+            if (!id.equals(journalId) && epoch.n() != null && Long.parseLong(epoch.n()) < expiredBefore) {
+                int index = removals.size();
+                names.put("#j" + index, id);
+                values.put(":j" + index, epoch);
+                removals.add("#journals.#j" + index);
+                conditions.add("#journals.#j" + index + " = :j" + index);
+            }
+        });
+        if (removals.isEmpty()) {
+            return Mono.empty();
+        }
+        names.put("#journals", JOURNALS_ATTRIBUTE);
+        UpdateItemRequest request = UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(Map.of("id", AttributeValue.fromS(productId)))
+                .conditionExpression(String.join(" AND ", conditions))
+                .updateExpression("REMOVE " + String.join(", ", removals))
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .build();
+
+        return Mono.fromFuture(() -> dynamoDbAsyncClient.updateItem(request))
+                .then()
+                .onErrorResume(ex -> Mono.empty());
+    }
+
+    /**
+     * Stops the flusher and flushes what is still journaled, as far as the shutdown allows; whatever
+     * remains is recovered from the journal on the next start.
+     */
+    @Override
+    public void close() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                flusher.shutdownNow();
+            }
+            for (int attempt = 0; attempt < 3 && hasPending(); attempt++) {
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (this) {
+                journal.close();
+            }
+        }
+    }
+
+    private synchronized boolean hasPending() {
+        return !sealed.isEmpty() || !open.isEmpty();
+    }
+}
@@ -0,0 +1,92 @@
+package co.com.nequi.dynamodb.adapter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One-off backfill of the {@code TOP#<branchId>} items, enabled with
+ * {@code app.dynamo.top-products.backfill.enabled}. The projection is only maintained on product
+ * writes, so branches created before it existed, or whose leader item missed a best-effort update,
+ * stay absent from {@code topByFranchise} until their next write. On startup this scans the table
+ * in parallel segments for branch items and re-elects the leader of each one from
+ * {@code topStockByBranch}.
+ * <p>
+ * Elections are conditioned on the leader item being unchanged, so the backfill can run on every
+ * instance of a deployment, or again later, without overwriting leaders installed by live traffic.
+ */
+@Component
+@Profile("!in-memory")
+public class DynamoTopProductBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(DynamoTopProductBackfill.class);
+    private static final String BRANCH_ENTITY_TYPE = "BRANCH";
+
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final DynamoTopProductProjection topProducts;
+    private final String tableName;
+    private final boolean enabled;
+    private final int segments;
+    private final int concurrency;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    public DynamoTopProductBackfill(DynamoDbAsyncClient dynamoDbAsyncClient,
+                                    DynamoTopProductProjection topProducts,
+                                    @Value("${app.dynamo.core-table}") String tableName,
+                                    @Value("${app.dynamo.top-products.backfill.enabled:false}") boolean enabled,
+                                    @Value("${app.dynamo.top-products.backfill.segments:4}") int segments,
+                                    @Value("${app.dynamo.top-products.backfill.concurrency:8}") int concurrency) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.topProducts = topProducts;
+        this.tableName = tableName;
+        this.enabled = enabled;
+        this.segments = Math.max(1, segments);
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        if (!enabled || !started.compareAndSet(false, true)) {
+            return;
+        }
+        run().subscribe(
+                branches -> log.info("Top product backfill re-elected the leader of {} branches", branches),
+                ex -> log.warn("Top product backfill failed; it can be re-run safely", ex));
+    }
+
+    /**
+     * Re-elects the leader of every branch and completes with the number of branches visited.
+     */
+    public Mono<Long> run() {
+        return Flux.range(0, segments)
+                .flatMap(this::scanBranches, segments)
+                .flatMap(branchId -> topProducts.refresh(branchId).thenReturn(branchId), concurrency)
+                .count();
+    }
+
+    private Flux<String> scanBranches(int segment) {
+        ScanRequest request = ScanRequest.builder()
+                .tableName(tableName)
+                .segment(segment)
+                .totalSegments(segments)
+                .filterExpression("entityType = :type")
+                .projectionExpression("id")
+                .expressionAttributeValues(Map.of(":type", AttributeValue.fromS(BRANCH_ENTITY_TYPE)))
+                .build();
+
+        return Flux.from(dynamoDbAsyncClient.scanPaginator(request).items())
+                .map(item -> item.get("id").s());
+    }
+}
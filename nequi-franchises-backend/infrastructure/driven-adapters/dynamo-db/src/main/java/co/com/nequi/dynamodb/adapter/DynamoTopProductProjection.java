@@ -0,0 +1,395 @@
+package co.com.nequi.dynamodb.adapter;
+
+import co.com.nequi.dynamodb.entity.ProductEntity;
+import co.com.nequi.dynamodb.entity.TopProductEntity;
+import co.com.nequi.dynamodb.helper.DynamoErrors;
+import co.com.nequi.dynamodb.helper.DynamoPageStreamer;
+import co.com.nequi.dynamodb.helper.DynamoPaginationCodec;
+import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.model.product.BranchTopProduct;
+import co.com.nequi.model.product.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains one {@code TOP#<branchId>} item per branch holding the product with the highest stock,
+ * indexed by franchise in the sparse {@code topByFranchise} GSI so the top products of a franchise
+ * are read with a single ordered query. Maintenance runs after the product write has been applied,
+ * so it is best effort: a failure here never fails the caller and is corrected by the next write, or
+ * by {@link DynamoTopProductBackfill} for branches that see no further writes.
+ * <p>
+ * Every leader change bumps a {@code revision} on the item. Elections read it before querying the
+ * eventually consistent branch index and only install their result if it is unchanged, so a stale
+ * election never overwrites a leader installed concurrently by {@link #challenge(Product)}.
+ */
+@Component
+@Profile("!in-memory")
+public class DynamoTopProductProjection {
+
+    private static final String ENTITY_TYPE = "TOP_PRODUCT";
+    private static final String PRODUCT_ENTITY_TYPE = "PRODUCT";
+    private static final String BRANCH_ENTITY_TYPE = "BRANCH";
+    private static final int LEADER_CANDIDATES = 2;
+    private static final String REVISION_INCREMENT = "revision = if_not_exists(revision, :zero) + :one";
+    private static final String LEADER_UPDATE_EXPRESSION = "SET entityType = :type, topFranchiseId = :fid, "
+            + "topBranchId = :bid, topProductId = :pid, topProductName = :pname, topStock = :stock, updatedAt = :now, "
+            + REVISION_INCREMENT;
+
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final DynamoDbAsyncTable<TopProductEntity> topTable;
+    private final DynamoDbAsyncTable<ProductEntity> productTable;
+    private final DynamoPaginationCodec paginationCodec;
+    private final String tableName;
+
+    public DynamoTopProductProjection(DynamoDbEnhancedAsyncClient enhanced,
+                                      DynamoDbAsyncClient dynamoDbAsyncClient,
+                                      DynamoPaginationCodec paginationCodec,
+                                      @Value("${app.dynamo.core-table}") String tableName) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.paginationCodec = paginationCodec;
+        this.tableName = tableName;
+        this.topTable = enhanced.table(tableName, TableSchema.fromBean(TopProductEntity.class));
+        this.productTable = enhanced.table(tableName, TableSchema.fromBean(ProductEntity.class));
+    }
+
+    public Mono<PageResult<BranchTopProduct>> findByFranchiseId(String franchiseId, int limit, String exclusiveStartKey) {
+        int pageSize = Math.max(1, limit);
+        return Mono.defer(() -> {
+            QueryEnhancedRequest.Builder builder = byFranchiseQuery(franchiseId, pageSize);
+            DynamoPaginationCodec.Scope scope = DynamoPaginationCodec.Scope.of("topByFranchise", "topFranchiseId", franchiseId);
+
+            Map<String, AttributeValue> startKey = paginationCodec.decode(exclusiveStartKey, scope);
+            if (startKey != null && !startKey.isEmpty()) {
+                builder.exclusiveStartKey(startKey);
+            }
+
+            return Mono.from(topTable.index("topByFranchise").query(builder.build()))
+                    .map(page -> {
+                        List<BranchTopProduct> items = page.items().stream()
+                                .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
+                                .map(this::mapToDomain)
+                                .toList();
+                        String nextCursor = paginationCodec.encode(page.lastEvaluatedKey(), scope);
+                        return PageResult.of(items, nextCursor);
+                    });
+        });
+    }
+
+    public Flux<BranchTopProduct> streamByFranchiseId(String franchiseId) {
+        return DynamoPageStreamer.stream((startKey, pageSize) -> topTable.index("topByFranchise")
+                        .query(byFranchiseQuery(franchiseId, pageSize).exclusiveStartKey(startKey).build()))
+                .filter(entity -> ENTITY_TYPE.equals(entity.getEntityType()))
+                .map(this::mapToDomain));
+    }
+
+    /**
+     * Makes the product the leader of its branch when it outranks the current one. Used after a
+     * product is created or its stock grows.
+     */
+    public Mono<Void> challenge(Product product) {
+        return bestEffort(Mono.defer(() -> {
+            Map<String, AttributeValue> values = buildLeaderValues(product);
+            UpdateItemRequest request = UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(buildKey(product.getBranchId()))
+                    .conditionExpression("attribute_not_exists(topStock) OR topStock < :stock OR topProductId = :pid")
+                    .updateExpression(LEADER_UPDATE_EXPRESSION)
+                    .expressionAttributeValues(values)
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .build();
+
+            return Mono.fromFuture(dynamoDbAsyncClient.updateItem(request))
+                    .flatMap(response -> fillBranchName(product.getBranchId(), response.attributes()))
+                    .onErrorResume(DynamoErrors::isConditionalCheckFailed, ex -> Mono.empty());
+        }));
+    }
+
+    /**
+     * Records the new stock of the product when it is the leader of its branch and re-elects the
+     * leader, since another product may now hold more stock. Used after stock decreases.
+     */
+    public Mono<Void> demote(Product product) {
+        return bestEffort(Mono.defer(() -> {
+            Map<String, AttributeValue> values = new HashMap<>();
+            values.put(":pid", AttributeValue.fromS(product.getId()));
+            values.put(":stock", AttributeValue.fromN(String.valueOf(product.getStock())));
+            values.put(":now", AttributeValue.fromN(String.valueOf(Instant.now().toEpochMilli())));
+            putRevisionIncrement(values);
+            UpdateItemRequest request = UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(buildKey(product.getBranchId()))
+                    .conditionExpression("topProductId = :pid")
+                    .updateExpression("SET topStock = :stock, updatedAt = :now, " + REVISION_INCREMENT)
+                    .expressionAttributeValues(values)
+                    .build();
+
+            return Mono.fromFuture(dynamoDbAsyncClient.updateItem(request))
+                    .then(Mono.defer(() -> elect(product.getBranchId(), product.getId(), product)))
+                    .onErrorResume(DynamoErrors::isConditionalCheckFailed, ex -> Mono.empty());
+        }));
+    }
+
+    /**
+     * Re-elects the leader of the branch when the deleted product was holding it.
+     */
+    public Mono<Void> release(Product product) {
+        return bestEffort(Mono.defer(() -> Mono.fromFuture(topTable.getItem(r -> r
+                        .key(Key.builder().partitionValue(buildId(product.getBranchId())).build())
+                        .consistentRead(true)))
+                .filter(entity -> Objects.equals(entity.getTopProductId(), product.getId()))
+                .flatMap(entity -> elect(product.getBranchId(), product.getId(), null))));
+    }
+
+    /**
+     * Re-elects the leader of the branch from the {@code topStockByBranch} index. Used after writes
+     * whose resulting stock is not known item by item, such as batch adjustments.
+     */
+    public Mono<Void> refresh(String branchId) {
+        return bestEffort(Mono.defer(() -> elect(branchId, null, null)));
+    }
+
+    public Mono<Void> renameProduct(Product product) {
+        return bestEffort(Mono.defer(() -> {
+            Map<String, AttributeValue> values = new HashMap<>();
+            values.put(":pid", AttributeValue.fromS(product.getId()));
+            values.put(":pname", AttributeValue.fromS(product.getName()));
+            return conditionalSet(product.getBranchId(), "topProductId = :pid",
+                    "SET topProductName = :pname", values);
+        }));
+    }
+
+    public Mono<Void> renameBranch(String branchId, String name) {
+        return bestEffort(Mono.defer(() -> conditionalSet(branchId, "attribute_exists(id)",
+                "SET topBranchName = :bname", Map.of(":bname", AttributeValue.fromS(name)))));
+    }
+
+    public Mono<Void> removeBranch(String branchId) {
+        return bestEffort(Mono.defer(() -> Mono.fromFuture(topTable.deleteItem(Key.builder()
+                        .partitionValue(buildId(branchId))
+                        .build()))
+                .then()));
+    }
+
+    /**
+     * Picks the highest stock among the top entries of the branch index. The index is eventually
+     * consistent, so the product that triggered the election is replaced by its known state, or
+     * dropped when it was deleted.
+     */
+    private Mono<Void> elect(String branchId, String changedProductId, Product changedProduct) {
+        return readRevision(branchId).flatMap(revision -> elect(branchId, changedProductId, changedProduct, revision));
+    }
+
+    private Mono<Void> elect(String branchId, String changedProductId, Product changedProduct, long revision) {
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(branchId)))
+                .limit(LEADER_CANDIDATES)
+                .scanIndexForward(false)
+                .addAttributeToProject("id")
+                .addAttributeToProject("branchId")
+                .addAttributeToProject("franchiseId")
+                .addAttributeToProject("entityType")
+                .addAttributeToProject("name")
+                .addAttributeToProject("stock")
+                .build();
+
+        return Mono.from(productTable.index("topStockByBranch").query(request))
+                .flatMapMany(page -> Flux.fromIterable(page.items()))
+                .filter(entity -> PRODUCT_ENTITY_TYPE.equals(entity.getEntityType()))
+                .map(this::mapCandidate)
+                .filter(candidate -> !Objects.equals(candidate.getId(), changedProductId))
+                .concatWith(Mono.justOrEmpty(changedProduct))
+                .reduce((left, right) -> left.getStock() >= right.getStock() ? left : right)
+                .flatMap(leader -> install(leader, revision))
+                .switchIfEmpty(Mono.defer(() -> clear(branchId, revision)));
+    }
+
+    /**
+     * Revision of the leader item, read consistently; {@code 0} when the item does not exist or
+     * predates revisions.
+     */
+    private Mono<Long> readRevision(String branchId) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(tableName)
+                .key(buildKey(branchId))
+                .projectionExpression("revision")
+                .consistentRead(true)
+                .build();
+
+        return Mono.fromFuture(dynamoDbAsyncClient.getItem(request))
+                .map(response -> {
+                    AttributeValue revision = response.hasItem() ? response.item().get("revision") : null;
+                    return revision == null ? 0L : Long.parseLong(revision.n());
+                });
+    }
+
+    private QueryEnhancedRequest.Builder byFranchiseQuery(String franchiseId, int pageSize) {
+        return QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue(franchiseId)))
+                .limit(pageSize)
+                .scanIndexForward(false)
+                .addAttributeToProject("id")
+                .addAttributeToProject("entityType")
+                .addAttributeToProject("topFranchiseId")
+                .addAttributeToProject("topBranchId")
+                .addAttributeToProject("topBranchName")
+                .addAttributeToProject("topProductId")
+                .addAttributeToProject("topProductName")
+                .addAttributeToProject("topStock");
+    }
+
+    /**
+     * Installs the elected leader unless the item changed since {@code revision} was read; the
+     * concurrent writer saw newer state, so its leader is kept.
+     */
+    private Mono<Void> install(Product leader, long revision) {
+        Map<String, AttributeValue> values = buildLeaderValues(leader);
+        String condition = revisionCondition(revision, values);
+        UpdateItemRequest request = UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(buildKey(leader.getBranchId()))
+                .conditionExpression(condition)
+                .updateExpression(LEADER_UPDATE_EXPRESSION)
+                .expressionAttributeValues(values)
+                .returnValues(ReturnValue.ALL_NEW)
+                .build();
+
+        return Mono.fromFuture(dynamoDbAsyncClient.updateItem(request))
+                .flatMap(response -> fillBranchName(leader.getBranchId(), response.attributes()))
+                .onErrorResume(DynamoErrors::isConditionalCheckFailed, ex -> Mono.empty());
+    }
+
+    private Mono<Void> clear(String branchId, long revision) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        putRevisionIncrement(values);
+        String condition = "attribute_exists(id) AND " + revisionCondition(revision, values);
+        return conditionalSet(branchId, condition,
+                "SET " + REVISION_INCREMENT + " REMOVE topFranchiseId, topProductId, topProductName, topStock",
+                values);
+    }
+
+    private String revisionCondition(long revision, Map<String, AttributeValue> values) {
+        if (revision == 0) {
+            return "attribute_not_exists(revision)";
+        }
+        values.put(":seen", AttributeValue.fromN(String.valueOf(revision)));
+        return "revision = :seen";
+    }
+
+    private void putRevisionIncrement(Map<String, AttributeValue> values) {
+        values.put(":zero", AttributeValue.fromN("0"));
+        values.put(":one", AttributeValue.fromN("1"));
+    }
+
+    /**
+     * Leader items created for branches that existed before the projection carry no branch name;
+     * it is copied once from the branch item.
+     */
+    private Mono<Void> fillBranchName(String branchId, Map<String, AttributeValue> leader) {
+        if (leader != null && leader.containsKey("topBranchName")) {
+            return Mono.empty();
+        }
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(tableName)
+                .key(Map.of("id", AttributeValue.fromS(branchId)))
+                .projectionExpression("#name, entityType")
+                .expressionAttributeNames(Map.of("#name", "name"))
+                .build();
+
+        return Mono.fromFuture(dynamoDbAsyncClient.getItem(request))
+                .filter(response -> response.hasItem() && isNamedBranch(response.item()))
+                .flatMap(response -> conditionalSet(branchId, "attribute_exists(id)",
+                        "SET topBranchName = :bname", Map.of(":bname", response.item().get("name"))));
+    }
+
+    private boolean isNamedBranch(Map<String, AttributeValue> item) {
+        AttributeValue entityType = item.get("entityType");
+        return item.containsKey("name") && entityType != null && BRANCH_ENTITY_TYPE.equals(entityType.s());
+    }
+
+    private Mono<Void> conditionalSet(String branchId,
+                                      String condition,
+                                      String updateExpression,
+                                      Map<String, AttributeValue> values) {
+        UpdateItemRequest.Builder builder = UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(buildKey(branchId))
+                .conditionExpression(condition)
+                .updateExpression(updateExpression);
+        if (values != null && !values.isEmpty()) {
+            builder.expressionAttributeValues(values);
+        }
+
+        return Mono.fromFuture(dynamoDbAsyncClient.updateItem(builder.build()))
+                .then()
+                .onErrorResume(DynamoErrors::isConditionalCheckFailed, ex -> Mono.empty());
+    }
+
+    private Map<String, AttributeValue> buildLeaderValues(Product product) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":type", AttributeValue.fromS(ENTITY_TYPE));
+        values.put(":fid", AttributeValue.fromS(product.getFranchiseId()));
+        values.put(":bid", AttributeValue.fromS(product.getBranchId()));
+        values.put(":pid", AttributeValue.fromS(product.getId()));
+        values.put(":pname", AttributeValue.fromS(product.getName()));
+        values.put(":stock", AttributeValue.fromN(String.valueOf(product.getStock())));
+        values.put(":now", AttributeValue.fromN(String.valueOf(Instant.now().toEpochMilli())));
+        putRevisionIncrement(values);
+        return values;
+    }
+
+    private Mono<Void> bestEffort(Mono<Void> maintenance) {
+        return maintenance.onErrorResume(ex -> Mono.empty());
+    }
+
+    private Product mapCandidate(ProductEntity entity) {
+        return Product.builder()
+                .id(entity.getId())
+                .franchiseId(entity.getFranchiseId())
+                .branchId(entity.getBranchId())
+                .name(entity.getName())
+                .stock(entity.getStock())
+                .build();
+    }
+
+    private BranchTopProduct mapToDomain(TopProductEntity entity) {
+        return BranchTopProduct.builder()
+                .branchId(entity.getTopBranchId())
+                .branchName(entity.getTopBranchName())
+                .product(Product.builder()
+                        .id(entity.getTopProductId())
+                        .franchiseId(entity.getTopFranchiseId())
+                        .branchId(entity.getTopBranchId())
+                        .name(entity.getTopProductName())
+                        .stock(entity.getTopStock())
+                        .build())
+                .build();
+    }
+
+    private Map<String, AttributeValue> buildKey(String branchId) {
+        return Map.of("id", AttributeValue.fromS(buildId(branchId)));
+    }
+
+    private String buildId(String branchId) {
+        return "TOP#" + branchId;
+    }
+}
@@ -0,0 +1,89 @@
+package co.com.nequi.dynamodb.cache;
+
+import co.com.nequi.dynamodb.adapter.DynamoBranchAdapter;
+import co.com.nequi.model.branch.Branch;
+import co.com.nequi.model.branch.gateways.BranchRepository;
+import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Objects;
+
+@Primary
+@Repository
+@Profile("!in-memory")
+public class CachedBranchRepository implements BranchRepository {
+
+    private final DynamoBranchAdapter delegate;
+    private final EntityCache<Branch> byId;
+
+    public CachedBranchRepository(DynamoBranchAdapter delegate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.cache.enabled:true}") boolean enabled,
+                                  @Value("${app.cache.branch.ttl-seconds:60}") long ttlSeconds,
+                                  @Value("${app.cache.branch.max-size:50000}") long maxSize) {
+        this.delegate = delegate;
+        this.byId = new EntityCache<>("branches", enabled, ttlSeconds, maxSize, meterRegistry,
+                id -> delegate.findById(id).onErrorResume(ResourceNotFoundException.class, ex -> Mono.empty()),
+                delegate::findAllById, Branch::getId);
+    }
+
+    @Override
+    public Mono<Branch> save(Branch branch) {
+        return delegate.save(branch)
+                .doOnSuccess(saved -> byId.invalidate(branch.getId()));
+    }
+
+    @Override
+    public Flux<Branch> findAllById(Collection<String> ids) {
+        return byId.getAll(ids);
+    }
+
+    @Override
+    public Mono<Branch> findById(String id) {
+        return byId.get(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.BRANCH_NOT_FOUND)));
+    }
+
+    @Override
+    public Mono<Branch> findByIdAndFranchiseId(String id, String franchiseId) {
+        return findById(id)
+                .filter(branch -> Objects.equals(branch.getFranchiseId(), franchiseId))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.BRANCH_NOT_FOUND)));
+    }
+
+    @Override
+    public Mono<PageResult<Branch>> findByFranchiseId(String franchiseId, int limit, String exclusiveStartKey) {
+        return delegate.findByFranchiseId(franchiseId, limit, exclusiveStartKey);
+    }
+
+    @Override
+    public Flux<Branch> streamByFranchiseId(String franchiseId) {
+        return delegate.streamByFranchiseId(franchiseId);
+    }
+
+    @Override
+    public Mono<Long> countByFranchiseId(String franchiseId) {
+        return delegate.countByFranchiseId(franchiseId);
+    }
+
+    @Override
+    public Mono<Branch> updateName(String id, String name, Long updatedAt) {
+        return delegate.updateName(id, name, updatedAt)
+                .doFinally(signal -> byId.invalidate(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return delegate.deleteById(id)
+                .doFinally(signal -> byId.invalidate(id));
+    }
+}
@@ -0,0 +1,76 @@
+package co.com.nequi.dynamodb.cache;
+
+import co.com.nequi.dynamodb.adapter.DynamoFranchiseAdapter;
+import co.com.nequi.model.franchise.Franchise;
+import co.com.nequi.model.franchise.gateways.FranchiseRepository;
+import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Primary
+@Repository
+@Profile("!in-memory")
+public class CachedFranchiseRepository implements FranchiseRepository {
+
+    private final DynamoFranchiseAdapter delegate;
+    private final EntityCache<Franchise> byId;
+
+    public CachedFranchiseRepository(DynamoFranchiseAdapter delegate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.cache.enabled:true}") boolean enabled,
+                                     @Value("${app.cache.franchise.ttl-seconds:60}") long ttlSeconds,
+                                     @Value("${app.cache.franchise.max-size:10000}") long maxSize) {
+        this.delegate = delegate;
+        this.byId = new EntityCache<>("franchises", enabled, ttlSeconds, maxSize, meterRegistry,
+                id -> delegate.findById(id).onErrorResume(ResourceNotFoundException.class, ex -> Mono.empty()),
+                delegate::findAllById, Franchise::getId);
+    }
+
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return delegate.save(franchise)
+                .doOnSuccess(saved -> byId.invalidate(franchise.getId()));
+    }
+
+    @Override
+    public Flux<Franchise> findAllById(Collection<String> ids) {
+        return byId.getAll(ids);
+    }
+
+    @Override
+    public Mono<Franchise> findById(String id) {
+        return byId.get(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.FRANCHISE_NOT_FOUND)));
+    }
+
+    @Override
+    public Mono<PageResult<Franchise>> findAll(int limit, String exclusiveStartKey) {
+        return delegate.findAll(limit, exclusiveStartKey);
+    }
+
+    @Override
+    public Flux<Franchise> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Mono<Franchise> updateName(String id, String name, Long updatedAt) {
+        return delegate.updateName(id, name, updatedAt)
+                .doFinally(signal -> byId.invalidate(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return delegate.deleteById(id)
+                .doFinally(signal -> byId.invalidate(id));
+    }
+}
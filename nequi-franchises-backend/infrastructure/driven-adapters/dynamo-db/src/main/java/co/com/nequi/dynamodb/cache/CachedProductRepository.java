@@ -0,0 +1,156 @@
+package co.com.nequi.dynamodb.cache;
+
+import co.com.nequi.dynamodb.adapter.DynamoProductAdapter;
+import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.model.product.BranchTopProduct;
+import co.com.nequi.model.product.Product;
+import co.com.nequi.model.product.StockAdjustment;
+import co.com.nequi.model.product.StockAdjustmentResult;
+import co.com.nequi.model.product.gateways.ProductRepository;
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Stock changes often, so products use a short TTL by default: invalidation only reaches the
+ * local instance and the TTL bounds how stale other instances can be.
+ */
+@Primary
+@Repository
+@Profile("!in-memory")
+public class CachedProductRepository implements ProductRepository {
+
+    private final DynamoProductAdapter delegate;
+    private final EntityCache<Product> byId;
+
+    public CachedProductRepository(DynamoProductAdapter delegate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.cache.enabled:true}") boolean enabled,
+                                   @Value("${app.cache.product.ttl-seconds:5}") long ttlSeconds,
+                                   @Value("${app.cache.product.max-size:100000}") long maxSize) {
+        this.delegate = delegate;
+        this.byId = new EntityCache<>("products", enabled, ttlSeconds, maxSize, meterRegistry,
+                id -> delegate.findById(id).onErrorResume(ResourceNotFoundException.class, ex -> Mono.empty()),
+                delegate::findAllById, Product::getId);
+    }
+
+    @Override
+    public Mono<Product> save(Product product) {
+        return delegate.save(product)
+                .doOnSuccess(saved -> byId.invalidate(product.getId()));
+    }
+
+    @Override
+    public Flux<Product> saveAll(List<Product> products) {
+        return delegate.saveAll(products);
+    }
+
+    @Override
+    public Flux<Product> findAllById(Collection<String> ids) {
+        return byId.getAll(ids);
+    }
+
+    @Override
+    public Mono<Product> findById(String id) {
+        return byId.get(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND)));
+    }
+
+    @Override
+    public Mono<Product> findByIdAndBranchId(String id, String branchId) {
+        return findById(id)
+                .filter(product -> Objects.equals(product.getBranchId(), branchId))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND)));
+    }
+
+    @Override
+    public Mono<PageResult<Product>> findByBranchId(String branchId, int limit, String exclusiveStartKey) {
+        return delegate.findByBranchId(branchId, limit, exclusiveStartKey);
+    }
+
+    @Override
+    public Mono<PageResult<Product>> findByFranchiseId(String franchiseId, int limit, String exclusiveStartKey) {
+        return delegate.findByFranchiseId(franchiseId, limit, exclusiveStartKey);
+    }
+
+    @Override
+    public Mono<PageResult<Product>> searchByName(String branchId, String prefix, int limit, String exclusiveStartKey) {
+        return delegate.searchByName(branchId, prefix, limit, exclusiveStartKey);
+    }
+
+    @Override
+    public Flux<Product> streamByBranch(String branchId) {
+        return delegate.streamByBranch(branchId);
+    }
+
+    @Override
+    public Mono<Long> countByBranchId(String branchId) {
+        return delegate.countByBranchId(branchId);
+    }
+
+    @Override
+    public Mono<Long> countByFranchiseId(String franchiseId) {
+        return delegate.countByFranchiseId(franchiseId);
+    }
+
+    @Override
+    public Mono<Product> changeStockAtomic(String productId, int delta, String idempotencyKey) {
+        return delegate.changeStockAtomic(productId, delta, idempotencyKey)
+                .doFinally(signal -> byId.invalidate(productId));
+    }
+
+    @Override
+    public Flux<StockAdjustmentResult> changeStockBatch(String branchId, List<StockAdjustment> adjustments) {
+        return delegate.changeStockBatch(branchId, adjustments)
+                .doFinally(signal -> adjustments.forEach(adjustment -> byId.invalidate(adjustment.getProductId())));
+    }
+
+    @Override
+    public Mono<Product> updateName(String id, String name, Long updatedAt) {
+        return delegate.updateName(id, name, updatedAt)
+                .doFinally(signal -> byId.invalidate(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return delegate.deleteById(id)
+                .doFinally(signal -> byId.invalidate(id));
+    }
+
+    @Override
+    public Mono<Void> deleteByBranchAndId(String branchId, String productId) {
+        return delegate.deleteByBranchAndId(branchId, productId)
+                .doFinally(signal -> byId.invalidate(productId));
+    }
+
+    @Override
+    public Flux<String> deleteAllByBranchId(String branchId) {
+        return delegate.deleteAllByBranchId(branchId)
+                .doOnNext(byId::invalidate);
+    }
+
+    @Override
+    public Mono<Product> findTopByBranchId(String branchId) {
+        return delegate.findTopByBranchId(branchId);
+    }
+
+    @Override
+    public Mono<PageResult<BranchTopProduct>> findTopByFranchiseId(String franchiseId, int limit, String exclusiveStartKey) {
+        return delegate.findTopByFranchiseId(franchiseId, limit, exclusiveStartKey);
+    }
+
+    @Override
+    public Flux<BranchTopProduct> streamTopByFranchiseId(String franchiseId) {
+        return delegate.streamTopByFranchiseId(franchiseId);
+    }
+}
@@ -0,0 +1,85 @@
+package co.com.nequi.dynamodb.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, TTL-based read-through cache keyed by entity id. Concurrent lookups of a missing
+ * key share the same load, bulk lookups only load the missing ids in one call, and absent entities
+ * are never cached. When disabled, every lookup goes straight to the loaders.
+ */
+public final class EntityCache<V> {
+
+    private final Function<String, Mono<V>> loader;
+    private final Function<Collection<String>, Flux<V>> bulkLoader;
+    private final AsyncLoadingCache<String, V> cache;
+
+    public EntityCache(String name,
+                       boolean enabled,
+                       long ttlSeconds,
+                       long maxSize,
+                       MeterRegistry meterRegistry,
+                       Function<String, Mono<V>> loader,
+                       Function<Collection<String>, Flux<V>> bulkLoader,
+                       Function<V, String> idOf) {
+        this.loader = loader;
+        this.bulkLoader = bulkLoader;
+        if (!enabled || ttlSeconds <= 0 || maxSize <= 0) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<String, V>() {
+                    @Override
+                    public CompletableFuture<? extends V> asyncLoad(String key, Executor executor) {
+                        return loader.apply(key).toFuture();
+                    }
+
+                    @Override
+                    public CompletableFuture<? extends Map<? extends String, ? extends V>> asyncLoadAll(
+                            Set<? extends String> keys, Executor executor) {
+                        return bulkLoader.apply(Set.copyOf(keys))
+                                .collectMap(idOf)
+                                .toFuture();
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), name);
+    }
+
+    public Mono<V> get(String key) {
+        if (cache == null) {
+            return loader.apply(key);
+        }
+        return Mono.fromFuture(() -> cache.get(key), true);
+    }
+
+    public Flux<V> getAll(Collection<String> keys) {
+        if (cache == null) {
+            return bulkLoader.apply(keys);
+        }
+        return Mono.fromFuture(() -> cache.getAll(keys), true)
+                .flatMapIterable(Map::values);
+    }
+
+    public void invalidate(String key) {
+        if (cache != null && key != null) {
+            cache.synchronous().invalidate(key);
+        }
+    }
+}
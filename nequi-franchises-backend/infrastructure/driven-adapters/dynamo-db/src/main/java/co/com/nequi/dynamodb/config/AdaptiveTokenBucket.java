@@ -0,0 +1,74 @@
+package co.com.nequi.dynamodb.config;
+
+/**
+ * Token bucket whose fill rate follows AIMD: it drops multiplicatively when DynamoDB throttles and
+ * climbs back additively with the time elapsed since, as successful calls confirm the table keeps
+ * up, never above the configured rate. Recovery is paced by time rather than by call count, so a
+ * busy target does not return to full rate within a few hundred calls of being throttled. Holds
+ * one second of burst at the current rate.
+ */
+final class AdaptiveTokenBucket {
+
+    private static final double DECREASE_FACTOR = 0.7;
+    private static final double RECOVERY_PER_SECOND = 0.1;
+    private static final double MIN_RATE_FRACTION = 0.05;
+
+    private final double maxRate;
+    private final double minRate;
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long lastRecoveryNanos;
+
+    AdaptiveTokenBucket(double maxRate) {
+        this.maxRate = maxRate;
+        this.minRate = Math.max(1, maxRate * MIN_RATE_FRACTION);
+        this.rate = maxRate;
+        this.tokens = maxRate;
+        this.lastRefillNanos = System.nanoTime();
+        this.lastRecoveryNanos = lastRefillNanos;
+    }
+
+    synchronized boolean tryAcquire(double cost) {
+        refill();
+        double needed = Math.min(cost, rate);
+        if (tokens < needed) {
+            return false;
+        }
+        tokens -= needed;
+        return true;
+    }
+
+    /**
+     * Whole seconds until {@code cost} tokens are available, at least one.
+     */
+    synchronized long secondsUntilAvailable(double cost) {
+        refill();
+        double missing = Math.min(cost, rate) - tokens;
+        return Math.max(1, (long) Math.ceil(missing / rate));
+    }
+
+    synchronized void onThrottle() {
+        rate = Math.max(minRate, rate * DECREASE_FACTOR);
+        tokens = Math.min(tokens, rate);
+        lastRecoveryNanos = System.nanoTime();
+    }
+
+    /**
+     * Raises the rate by a tenth of the configured rate per second elapsed since the last throttle
+     * or recovery, so a throttled target is back at full rate after about ten seconds of success.
+     */
+    synchronized void onSuccess() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRecoveryNanos) / 1_000_000_000d;
+        lastRecoveryNanos = now;
+        rate = Math.min(maxRate, rate + maxRate * RECOVERY_PER_SECOND * elapsedSeconds);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000d;
+        lastRefillNanos = now;
+        tokens = Math.min(rate, tokens + elapsedSeconds * rate);
+    }
+}
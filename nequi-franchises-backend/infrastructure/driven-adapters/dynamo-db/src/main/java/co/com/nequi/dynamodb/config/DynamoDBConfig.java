@@ -6,36 +6,60 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.WebIdentityTokenFileCredentialsProvider;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
 import software.amazon.awssdk.metrics.MetricPublisher;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 
 import java.net.URI;
+import java.time.Duration;
 
 @Configuration
+@Profile("!in-memory")
 public class DynamoDBConfig {
 
     @Bean
     @Profile({"local"})
     public DynamoDbAsyncClient amazonDynamoDB(@Value("${aws.dynamodb.endpoint}") String endpoint,
                                               @Value("${aws.region}") String region,
-                                              MetricPublisher publisher) {
+                                              MetricPublisher publisher,
+                                              SdkAsyncHttpClient httpClient,
+                                              DynamoHttpPoolMetrics poolMetrics,
+                                              DynamoTimeoutInterceptor timeoutInterceptor,
+                                              DynamoThrottlingInterceptor throttlingInterceptor,
+                                              @Value("${aws.dynamodb.retry.max-attempts:3}") int maxAttempts,
+                                              @Value("${aws.dynamodb.timeouts.api-call-ms:0}") long apiCallTimeoutMs,
+                                              @Value("${aws.dynamodb.timeouts.api-call-attempt-ms:0}") long apiCallAttemptTimeoutMs) {
         return DynamoDbAsyncClient.builder()
                 .credentialsProvider(ProfileCredentialsProvider.create("default"))
                 .region(Region.of(region))
                 .endpointOverride(URI.create(endpoint))
-                .overrideConfiguration(o -> o.addMetricPublisher(publisher))
+                .httpClient(httpClient)
+                .overrideConfiguration(clientOverrides(publisher, poolMetrics, timeoutInterceptor, throttlingInterceptor, maxAttempts,
+                        apiCallTimeoutMs, apiCallAttemptTimeoutMs))
                 .build();
     }
 
     @Bean
     @Profile({"dev", "cer", "pdn"})
-    public DynamoDbAsyncClient amazonDynamoDBAsync(MetricPublisher publisher, @Value("${aws.region}") String region) {
+    public DynamoDbAsyncClient amazonDynamoDBAsync(MetricPublisher publisher,
+                                                   @Value("${aws.region}") String region,
+                                                   SdkAsyncHttpClient httpClient,
+                                                   DynamoHttpPoolMetrics poolMetrics,
+                                                   DynamoTimeoutInterceptor timeoutInterceptor,
+                                                   DynamoThrottlingInterceptor throttlingInterceptor,
+                                                   @Value("${aws.dynamodb.retry.max-attempts:3}") int maxAttempts,
+                                                   @Value("${aws.dynamodb.timeouts.api-call-ms:0}") long apiCallTimeoutMs,
+                                                   @Value("${aws.dynamodb.timeouts.api-call-attempt-ms:0}") long apiCallAttemptTimeoutMs) {
         return DynamoDbAsyncClient.builder()
                 .credentialsProvider(WebIdentityTokenFileCredentialsProvider.create())
                 .region(Region.of(region))
-                .overrideConfiguration(o -> o.addMetricPublisher(publisher))
+                .httpClient(httpClient)
+                .overrideConfiguration(clientOverrides(publisher, poolMetrics, timeoutInterceptor, throttlingInterceptor, maxAttempts,
+                        apiCallTimeoutMs, apiCallAttemptTimeoutMs))
                 .build();
     }
 
@@ -46,4 +70,28 @@ public class DynamoDBConfig {
                 .build();
     }
 
+    private ClientOverrideConfiguration clientOverrides(MetricPublisher publisher,
+                                                        DynamoHttpPoolMetrics poolMetrics,
+                                                        DynamoTimeoutInterceptor timeoutInterceptor,
+                                                        DynamoThrottlingInterceptor throttlingInterceptor,
+                                                        int maxAttempts,
+                                                        long apiCallTimeoutMs,
+                                                        long apiCallAttemptTimeoutMs) {
+        ClientOverrideConfiguration.Builder builder = ClientOverrideConfiguration.builder()
+                .addMetricPublisher(publisher)
+                .addMetricPublisher(poolMetrics)
+                .addExecutionInterceptor(timeoutInterceptor)
+                .addExecutionInterceptor(throttlingInterceptor)
+                .retryStrategy(AwsRetryStrategy.adaptiveRetryStrategy().toBuilder()
+                        .maxAttempts(maxAttempts)
+                        .build());
+        if (apiCallTimeoutMs > 0) {
+            builder.apiCallTimeout(Duration.ofMillis(apiCallTimeoutMs));
+        }
+        if (apiCallAttemptTimeoutMs > 0) {
+            builder.apiCallAttemptTimeout(Duration.ofMillis(apiCallAttemptTimeoutMs));
+        }
+        return builder.build();
+    }
+
 }
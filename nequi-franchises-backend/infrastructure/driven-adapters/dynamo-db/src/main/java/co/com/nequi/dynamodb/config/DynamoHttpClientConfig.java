@@ -0,0 +1,82 @@
+package co.com.nequi.dynamodb.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import reactor.netty.http.HttpResources;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Connection pool of the DynamoDB async client. SDK defaults (50 connections, short acquisition
+ * timeout) make requests queue on connection acquisition well before DynamoDB throttles, so every
+ * knob is exposed under {@code aws.dynamodb.http.*}. Durations of {@code 0} keep the SDK default.
+ */
+@Configuration
+@Profile("!in-memory")
+public class DynamoHttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public SdkAsyncHttpClient dynamoDbHttpClient(
+            @Value("${aws.dynamodb.http.max-concurrency:200}") int maxConcurrency,
+            @Value("${aws.dynamodb.http.max-pending-acquires:10000}") int maxPendingAcquires,
+            @Value("${aws.dynamodb.http.acquisition-timeout-ms:2000}") long acquisitionTimeoutMs,
+            @Value("${aws.dynamodb.http.connection-timeout-ms:2000}") long connectionTimeoutMs,
+            @Value("${aws.dynamodb.http.connection-ttl-ms:60000}") long connectionTtlMs,
+            @Value("${aws.dynamodb.http.connection-max-idle-ms:30000}") long connectionMaxIdleMs,
+            @Value("${aws.dynamodb.http.tcp-keep-alive:true}") boolean tcpKeepAlive,
+            @Value("${aws.dynamodb.http.event-loop-threads:0}") int eventLoopThreads,
+            @Value("${aws.dynamodb.http.share-reactor-event-loop:false}") boolean shareReactorEventLoop) {
+        NettyNioAsyncHttpClient.Builder builder = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxConcurrency)
+                .maxPendingConnectionAcquires(maxPendingAcquires)
+                .tcpKeepAlive(tcpKeepAlive)
+                .useIdleConnectionReaper(true);
+        ifPositive(acquisitionTimeoutMs, builder::connectionAcquisitionTimeout);
+        ifPositive(connectionTimeoutMs, builder::connectionTimeout);
+        ifPositive(connectionTtlMs, builder::connectionTimeToLive);
+        ifPositive(connectionMaxIdleMs, builder::connectionMaxIdleTime);
+
+        if (shareReactorEventLoop) {
+            builder.eventLoopGroup(SdkEventLoopGroup.create(HttpResources.get().onClient(true)));
+        } else if (eventLoopThreads > 0) {
+            builder.eventLoopGroupBuilder(SdkEventLoopGroup.builder().numberOfThreads(eventLoopThreads));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public DynamoHttpPoolMetrics dynamoHttpPoolMetrics(MeterRegistry registry) {
+        return new DynamoHttpPoolMetrics(registry);
+    }
+
+    @Bean
+    public DynamoTimeoutInterceptor dynamoTimeoutInterceptor(
+            @Value("${aws.dynamodb.timeouts.operations:}") String operationTimeouts) {
+        return DynamoTimeoutInterceptor.parse(operationTimeouts);
+    }
+
+    @Bean
+    public DynamoThrottlingInterceptor dynamoThrottlingInterceptor(
+            MeterRegistry registry,
+            @Value("${aws.dynamodb.rate-limit.enabled:false}") boolean enabled,
+            @Value("${aws.dynamodb.rate-limit.read-per-second:3000}") double readPerSecond,
+            @Value("${aws.dynamodb.rate-limit.write-per-second:1000}") double writePerSecond,
+            @Value("${aws.dynamodb.rate-limit.server-retry-after-seconds:1}") long serverRetryAfterSeconds,
+            @Value("${aws.dynamodb.rate-limit.overrides:}") String overrides) {
+        return new DynamoThrottlingInterceptor(registry, enabled, readPerSecond, writePerSecond,
+                serverRetryAfterSeconds, overrides);
+    }
+
+    private static void ifPositive(long millis, Consumer<Duration> setter) {
+        if (millis > 0) {
+            setter.accept(Duration.ofMillis(millis));
+        }
+    }
+}
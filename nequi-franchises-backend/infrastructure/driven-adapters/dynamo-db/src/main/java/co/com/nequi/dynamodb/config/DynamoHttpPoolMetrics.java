@@ -0,0 +1,57 @@
+package co.com.nequi.dynamodb.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exposes the connection pool state the SDK reports on every HTTP attempt as gauges, keeping the
+ * latest observation: {@code dynamodb.http.pool.leased}, {@code .pending}, {@code .available} and
+ * {@code .max}. Registered as an additional {@link MetricPublisher} on the client.
+ */
+public class DynamoHttpPoolMetrics implements MetricPublisher {
+
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger available = new AtomicInteger();
+    private final AtomicInteger max = new AtomicInteger();
+
+    public DynamoHttpPoolMetrics(MeterRegistry registry) {
+        register(registry, "dynamodb.http.pool.leased", leased, "Connections in use");
+        register(registry, "dynamodb.http.pool.pending", pending, "Requests waiting for a connection");
+        register(registry, "dynamodb.http.pool.available", available, "Idle connections ready to be leased");
+        register(registry, "dynamodb.http.pool.max", max, "Configured maximum concurrency");
+    }
+
+    @Override
+    public void publish(MetricCollection metricCollection) {
+        record(metricCollection);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void record(MetricCollection collection) {
+        update(collection, HttpMetric.LEASED_CONCURRENCY, leased);
+        update(collection, HttpMetric.PENDING_CONCURRENCY_ACQUIRES, pending);
+        update(collection, HttpMetric.AVAILABLE_CONCURRENCY, available);
+        update(collection, HttpMetric.MAX_CONCURRENCY, max);
+        collection.children().forEach(this::record);
+    }
+
+    private static void update(MetricCollection collection, SdkMetric<Integer> metric, AtomicInteger target) {
+        collection.metricValues(metric).forEach(target::set);
+    }
+
+    private static void register(MeterRegistry registry, String name, AtomicInteger value, String description) {
+        Gauge.builder(name, value, AtomicInteger::get)
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,221 @@
+package co.com.nequi.dynamodb.config;
+
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.ThrottledException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Client-side rate limiting in front of DynamoDB. Every table and every index has its own read and
+ * write budget ({@code aws.dynamodb.rate-limit.*}), each an {@link AdaptiveTokenBucket} that slows
+ * down when DynamoDB throttles that target and recovers as calls succeed, so pods back off instead
+ * of amplifying a throttling storm. Batch and transactional calls cost one token per item.
+ * <p>
+ * A call that finds its budget empty fails before it is sent, and a call still throttled after the
+ * SDK's adaptive retries is replaced, both with {@link ThrottledException} carrying a
+ * {@code Retry-After} hint. Emits {@code dynamodb.throttle.events} (source {@code client} or
+ * {@code server}) and {@code dynamodb.retries}.
+ * <p>
+ * Off by default: the budgets are per pod, so they only protect the table once sized from its
+ * capacity divided by the number of pods, as described in the README.
+ */
+public class DynamoThrottlingInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<String> TARGET = new ExecutionAttribute<>("RateLimitTarget");
+    private static final ExecutionAttribute<String> KIND = new ExecutionAttribute<>("RateLimitKind");
+    private static final ExecutionAttribute<Integer> ATTEMPTS = new ExecutionAttribute<>("RateLimitAttempts");
+    private static final String READ = "read";
+    private static final String WRITE = "write";
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final double readPerSecond;
+    private final double writePerSecond;
+    private final long serverRetryAfterSeconds;
+    private final Map<String, Double> overrides;
+    private final Map<String, AdaptiveTokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public DynamoThrottlingInterceptor(MeterRegistry registry,
+                                       boolean enabled,
+                                       double readPerSecond,
+                                       double writePerSecond,
+                                       long serverRetryAfterSeconds,
+                                       String overrides) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.readPerSecond = readPerSecond;
+        this.writePerSecond = writePerSecond;
+        this.serverRetryAfterSeconds = serverRetryAfterSeconds;
+        this.overrides = parseOverrides(overrides);
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes attributes) {
+        String operation = attributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        String kind = isRead(operation) ? READ : WRITE;
+        String target = targetOf(context.request());
+        attributes.putAttribute(TARGET, target);
+        attributes.putAttribute(KIND, kind);
+        attributes.putAttribute(ATTEMPTS, 0);
+        if (!enabled || target == null) {
+            return;
+        }
+        AdaptiveTokenBucket bucket = bucket(target, kind);
+        int cost = costOf(context.request());
+        if (!bucket.tryAcquire(cost)) {
+            countThrottle(target, kind, "client");
+            throw new ThrottledException(ExceptionMessage.CAPACITY_EXCEEDED, bucket.secondsUntilAvailable(cost));
+        }
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes attributes) {
+        int attempt = attributes.getAttribute(ATTEMPTS) + 1;
+        attributes.putAttribute(ATTEMPTS, attempt);
+        if (attempt > 1) {
+            registry.counter("dynamodb.retries",
+                    Tags.of("operation", attributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME))).increment();
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes attributes) {
+        AdaptiveTokenBucket bucket = existingBucket(attributes);
+        if (bucket != null) {
+            bucket.onSuccess();
+        }
+    }
+
+    @Override
+    public Throwable modifyException(Context.FailedExecution context, ExecutionAttributes attributes) {
+        Throwable failure = context.exception();
+        if (!(failure instanceof AwsServiceException serviceException) || !serviceException.isThrottlingException()) {
+            return failure;
+        }
+        String target = attributes.getAttribute(TARGET);
+        String kind = attributes.getAttribute(KIND);
+        AdaptiveTokenBucket bucket = existingBucket(attributes);
+        if (bucket != null) {
+            bucket.onThrottle();
+        }
+        countThrottle(target, kind, "server");
+        return new ThrottledException(ExceptionMessage.CAPACITY_EXCEEDED, serverRetryAfterSeconds, failure);
+    }
+
+    private AdaptiveTokenBucket existingBucket(ExecutionAttributes attributes) {
+        String target = attributes.getAttribute(TARGET);
+        String kind = attributes.getAttribute(KIND);
+        if (!enabled || target == null || kind == null) {
+            return null;
+        }
+        return bucket(target, kind);
+    }
+
+    private AdaptiveTokenBucket bucket(String target, String kind) {
+        String key = target + "." + kind;
+        return buckets.computeIfAbsent(key, ignored -> new AdaptiveTokenBucket(
+                overrides.getOrDefault(key, READ.equals(kind) ? readPerSecond : writePerSecond)));
+    }
+
+    private void countThrottle(String target, String kind, String source) {
+        registry.counter("dynamodb.throttle.events",
+                Tags.of("target", String.valueOf(target), "kind", String.valueOf(kind), "source", source)).increment();
+    }
+
+    private static boolean isRead(String operation) {
+        return "GetItem".equals(operation) || "BatchGetItem".equals(operation) || "Query".equals(operation)
+                || "Scan".equals(operation) || "TransactGetItems".equals(operation);
+    }
+
+    /**
+     * The table, or {@code table#index} for index reads. The single-table design means batch and
+     * transactional calls always address one table, so the first one names the budget.
+     */
+    private static String targetOf(SdkRequest request) {
+        return switch (request) {
+            case QueryRequest query -> withIndex(query.tableName(), query.indexName());
+            case ScanRequest scan -> withIndex(scan.tableName(), scan.indexName());
+            case GetItemRequest get -> get.tableName();
+            case PutItemRequest put -> put.tableName();
+            case UpdateItemRequest update -> update.tableName();
+            case DeleteItemRequest delete -> delete.tableName();
+            case BatchGetItemRequest batch -> batch.requestItems().keySet().stream().findFirst().orElse(null);
+            case BatchWriteItemRequest batch -> batch.requestItems().keySet().stream().findFirst().orElse(null);
+            case TransactWriteItemsRequest transact -> transact.transactItems().stream()
+                    .findFirst().map(DynamoThrottlingInterceptor::tableOf).orElse(null);
+            case TransactGetItemsRequest transact -> transact.transactItems().stream()
+                    .findFirst().map(item -> item.get().tableName()).orElse(null);
+            default -> null;
+        };
+    }
+
+    private static int costOf(SdkRequest request) {
+        return switch (request) {
+            case BatchGetItemRequest batch -> Math.max(1, batch.requestItems().values().stream()
+                    .map(KeysAndAttributes::keys).mapToInt(List::size).sum());
+            case BatchWriteItemRequest batch -> Math.max(1, batch.requestItems().values().stream()
+                    .mapToInt(List::size).sum());
+            case TransactWriteItemsRequest transact -> Math.max(1, transact.transactItems().size());
+            case TransactGetItemsRequest transact -> Math.max(1, transact.transactItems().size());
+            default -> 1;
+        };
+    }
+
+    private static String tableOf(TransactWriteItem item) {
+        if (item.put() != null) {
+            return item.put().tableName();
+        }
+        if (item.update() != null) {
+            return item.update().tableName();
+        }
+        if (item.delete() != null) {
+            return item.delete().tableName();
+        }
+        return item.conditionCheck() != null ? item.conditionCheck().tableName() : null;
+    }
+
+    private static String withIndex(String table, String index) {
+        return index == null ? table : table + "#" + index;
+    }
+
+    /**
+     * Parses {@code core_table.write=800,core_table#byBranch.read=1500}.
+     */
+    private static Map<String, Double> parseOverrides(String spec) {
+        Map<String, Double> parsed = new HashMap<>();
+        if (spec == null) {
+            return parsed;
+        }
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.split("=");
+            if (pair.length == 2 && !pair[0].isBlank()) {
+                parsed.put(pair[0].strip(), Double.parseDouble(pair[1].strip()));
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,65 @@
+package co.com.nequi.dynamodb.config;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies an API call timeout per DynamoDB operation, configured as
+ * {@code aws.dynamodb.timeouts.operations=Query=3000,BatchWriteItem=10000} (milliseconds).
+ * Requests that already carry their own timeout keep it; unlisted operations use the client-wide
+ * {@code aws.dynamodb.timeouts.api-call-ms}.
+ */
+public class DynamoTimeoutInterceptor implements ExecutionInterceptor {
+
+    private final Map<String, Duration> timeouts;
+
+    DynamoTimeoutInterceptor(Map<String, Duration> timeouts) {
+        this.timeouts = Map.copyOf(timeouts);
+    }
+
+    static DynamoTimeoutInterceptor parse(String spec) {
+        Map<String, Duration> timeouts = new HashMap<>();
+        if (spec != null) {
+            for (String entry : spec.split(",")) {
+                String[] pair = entry.split("=");
+                if (pair.length != 2 || pair[0].isBlank()) {
+                    continue;
+                }
+                long millis = Long.parseLong(pair[1].strip());
+                if (millis > 0) {
+                    timeouts.put(pair[0].strip(), Duration.ofMillis(millis));
+                }
+            }
+        }
+        return new DynamoTimeoutInterceptor(timeouts);
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        Duration timeout = timeouts.get(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME));
+        if (timeout == null || !(context.request() instanceof AwsRequest request)) {
+            return context.request();
+        }
+        boolean alreadySet = request.overrideConfiguration()
+                .flatMap(AwsRequestOverrideConfiguration::apiCallTimeout)
+                .isPresent();
+        if (alreadySet) {
+            return request;
+        }
+        AwsRequestOverrideConfiguration override = request.overrideConfiguration()
+                .map(AwsRequestOverrideConfiguration::toBuilder)
+                .orElseGet(AwsRequestOverrideConfiguration::builder)
+                .apiCallTimeout(timeout)
+                .build();
+        return request.toBuilder().overrideConfiguration(override).build();
+    }
+}
@@ -0,0 +1,147 @@
+package co.com.nequi.dynamodb.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+@DynamoDbBean
+public class DeletionJobEntity {
+
+    private String id;
+    private String entityType;
+    private String targetType;
+    private String targetId;
+    private String status;
+    private Long branchesDeleted;
+    private Long productsDeleted;
+    private String errorCode;
+    private Long attempts;
+    private String franchiseId;
+    private Long createdAt;
+    private Long updatedAt;
+    private Long expiresAt;
+
+    public DeletionJobEntity() {
+    }
+
+    @DynamoDbPartitionKey
+    @DynamoDbAttribute("id")
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    @DynamoDbAttribute("entityType")
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    @DynamoDbAttribute("targetType")
+    public String getTargetType() {
+        return targetType;
+    }
+
+    public void setTargetType(String targetType) {
+        this.targetType = targetType;
+    }
+
+    @DynamoDbAttribute("targetId")
+    public String getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(String targetId) {
+        this.targetId = targetId;
+    }
+
+    @DynamoDbAttribute("status")
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @DynamoDbAttribute("branchesDeleted")
+    public Long getBranchesDeleted() {
+        return branchesDeleted;
+    }
+
+    public void setBranchesDeleted(Long branchesDeleted) {
+        this.branchesDeleted = branchesDeleted;
+    }
+
+    @DynamoDbAttribute("productsDeleted")
+    public Long getProductsDeleted() {
+        return productsDeleted;
+    }
+
+    public void setProductsDeleted(Long productsDeleted) {
+        this.productsDeleted = productsDeleted;
+    }
+
+    @DynamoDbAttribute("errorCode")
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(String errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    @DynamoDbAttribute("attempts")
+    public Long getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Long attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Set only while the job is RUNNING, so running jobs can be listed from the byFranchise index.
+     */
+    @DynamoDbAttribute("franchiseId")
+    public String getFranchiseId() {
+        return franchiseId;
+    }
+
+    public void setFranchiseId(String franchiseId) {
+        this.franchiseId = franchiseId;
+    }
+
+    @DynamoDbAttribute("createdAt")
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @DynamoDbAttribute("updatedAt")
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @DynamoDbAttribute("expiresAt")
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -17,7 +17,7 @@ public class ProductEntity {
     private String nameLc;
     private String nameByBranchSortKey;
     private Integer stock;
-    private String topSort;
+    private Integer stockShards;
     private Long version;
     private Long createdAt;
     private Long updatedAt;
@@ -54,7 +54,7 @@ public class ProductEntity {
         this.franchiseId = franchiseId;
     }
 
-    @DynamoDbSecondaryPartitionKey(indexNames = {"byBranch", "topByBranch", "nameByBranch"})
+    @DynamoDbSecondaryPartitionKey(indexNames = {"byBranch", "topStockByBranch", "nameByBranch"})
     @DynamoDbAttribute("branchId")
     public String getBranchId() {
         return branchId;
@@ -92,6 +92,7 @@ public class ProductEntity {
         this.nameByBranchSortKey = nameByBranchSortKey;
     }
 
+    @DynamoDbSecondarySortKey(indexNames = {"topStockByBranch"})
     @DynamoDbAttribute("stock")
     public Integer getStock() {
         return stock;
@@ -101,14 +102,17 @@ public class ProductEntity {
         this.stock = stock;
     }
 
-    @DynamoDbSecondarySortKey(indexNames = {"topByBranch"})
-    @DynamoDbAttribute("topSort")
-    public String getTopSort() {
-        return topSort;
+    /**
+     * Number of {@code STOCK_SHARD} items holding the stock of a hot product, absent otherwise. When
+     * present, {@link #getStock()} is the last aggregated total rather than the live value.
+     */
+    @DynamoDbAttribute("stockShards")
+    public Integer getStockShards() {
+        return stockShards;
     }
 
-    public void setTopSort(String topSort) {
-        this.topSort = topSort;
+    public void setStockShards(Integer stockShards) {
+        this.stockShards = stockShards;
     }
 
     @DynamoDbAttribute("version")
@@ -0,0 +1,108 @@
+package co.com.nequi.dynamodb.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
+
+@DynamoDbBean
+public class TopProductEntity {
+
+    private String id;
+    private String entityType;
+    private String topFranchiseId;
+    private String topBranchId;
+    private String topBranchName;
+    private String topProductId;
+    private String topProductName;
+    private Integer topStock;
+    private Long updatedAt;
+
+    public TopProductEntity() {
+    }
+
+    @DynamoDbPartitionKey
+    @DynamoDbAttribute("id")
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    @DynamoDbAttribute("entityType")
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    @DynamoDbSecondaryPartitionKey(indexNames = {"topByFranchise"})
+    @DynamoDbAttribute("topFranchiseId")
+    public String getTopFranchiseId() {
+        return topFranchiseId;
+    }
+
+    public void setTopFranchiseId(String topFranchiseId) {
+        this.topFranchiseId = topFranchiseId;
+    }
+
+    @DynamoDbAttribute("topBranchId")
+    public String getTopBranchId() {
+        return topBranchId;
+    }
+
+    public void setTopBranchId(String topBranchId) {
+        this.topBranchId = topBranchId;
+    }
+
+    @DynamoDbAttribute("topBranchName")
+    public String getTopBranchName() {
+        return topBranchName;
+    }
+
+    public void setTopBranchName(String topBranchName) {
+        this.topBranchName = topBranchName;
+    }
+
+    @DynamoDbAttribute("topProductId")
+    public String getTopProductId() {
+        return topProductId;
+    }
+
+    public void setTopProductId(String topProductId) {
+        this.topProductId = topProductId;
+    }
+
+    @DynamoDbAttribute("topProductName")
+    public String getTopProductName() {
+        return topProductName;
+    }
+
+    public void setTopProductName(String topProductName) {
+        this.topProductName = topProductName;
+    }
+
+    @DynamoDbSecondarySortKey(indexNames = {"topByFranchise"})
+    @DynamoDbAttribute("topStock")
+    public Integer getTopStock() {
+        return topStock;
+    }
+
+    public void setTopStock(Integer topStock) {
+        this.topStock = topStock;
+    }
+
+    @DynamoDbAttribute("updatedAt")
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,66 @@
+package co.com.nequi.dynamodb.helper;
+
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.BusinessException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads items by id with {@code BatchGetItem}: ids are de-duplicated, sent in chunks of 100 and
+ * {@code UnprocessedKeys} are retried with exponential backoff and full jitter.
+ */
+public final class DynamoBatchReader {
+
+    private static final int MAX_KEYS_PER_BATCH = 100;
+    private static final int CONCURRENT_BATCHES = 4;
+
+    private DynamoBatchReader() {
+    }
+
+    public static Flux<Map<String, AttributeValue>> getAll(DynamoDbAsyncClient client,
+                                                           String tableName,
+                                                           Collection<String> ids) {
+        return Flux.defer(() -> {
+            List<Map<String, AttributeValue>> keys = ids == null ? List.of() : ids.stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .map(id -> Map.of("id", AttributeValue.fromS(id)))
+                    .toList();
+            return Flux.fromIterable(DynamoBatching.partition(keys, MAX_KEYS_PER_BATCH))
+                    .flatMap(chunk -> fetch(client, tableName, chunk, 1), CONCURRENT_BATCHES);
+        });
+    }
+
+    private static Flux<Map<String, AttributeValue>> fetch(DynamoDbAsyncClient client,
+                                                           String tableName,
+                                                           List<Map<String, AttributeValue>> keys,
+                                                           int attempt) {
+        BatchGetItemRequest request = BatchGetItemRequest.builder()
+                .requestItems(Map.of(tableName, KeysAndAttributes.builder().keys(keys).build()))
+                .build();
+
+        return Mono.fromFuture(() -> client.batchGetItem(request))
+                .flatMapMany(response -> {
+                    Flux<Map<String, AttributeValue>> items =
+                            Flux.fromIterable(response.responses().getOrDefault(tableName, List.of()));
+                    KeysAndAttributes unprocessed = response.unprocessedKeys().get(tableName);
+                    if (unprocessed == null || !unprocessed.hasKeys() || unprocessed.keys().isEmpty()) {
+                        return items;
+                    }
+                    if (attempt >= DynamoBatching.MAX_ATTEMPTS) {
+                        return items.concatWith(Mono.error(() -> new BusinessException(ExceptionMessage.BATCH_READ_INCOMPLETE)));
+                    }
+                    return items.concatWith(Mono.delay(DynamoBatching.backoff(attempt))
+                            .thenMany(fetch(client, tableName, unprocessed.keys(), attempt + 1)));
+                });
+    }
+}
@@ -0,0 +1,105 @@
+package co.com.nequi.dynamodb.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Puts or deletes items with {@code BatchWriteItem} in chunks of 25 with bounded concurrency,
+ * retrying {@code UnprocessedItems} with exponential backoff and full jitter. Emits the id of every
+ * item that was written; ids still unprocessed after the last attempt are simply not emitted.
+ */
+public final class DynamoBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(DynamoBatchWriter.class);
+    private static final int MAX_ITEMS_PER_BATCH = 25;
+    private static final int CONCURRENT_BATCHES = 4;
+
+    private DynamoBatchWriter() {
+    }
+
+    /**
+     * A batch that fails, throttled client side included, only loses the ids it had not written yet:
+     * the other batches go on and the caller sees the missing ids as not written.
+     */
+    public static Flux<String> putAll(DynamoDbAsyncClient client,
+                                      String tableName,
+                                      List<Map<String, AttributeValue>> items) {
+        return Flux.defer(() -> Flux.fromIterable(DynamoBatching.partition(items, MAX_ITEMS_PER_BATCH))
+                .flatMap(chunk -> write(client, tableName, chunk.stream()
+                        .map(item -> WriteRequest.builder()
+                                .putRequest(PutRequest.builder().item(item).build())
+                                .build())
+                        .toList(), 1)
+                        .onErrorResume(ex -> {
+                            log.warn("Batch of {} puts to {} failed", chunk.size(), tableName, ex);
+                            return Flux.empty();
+                        }), CONCURRENT_BATCHES));
+    }
+
+    /**
+     * Deletes the ids as they arrive, starting at most one batch every {@code batchInterval} and
+     * keeping at most {@code concurrency} batches in flight, which caps the write capacity used.
+     */
+    public static Flux<String> deleteAll(DynamoDbAsyncClient client,
+                                         String tableName,
+                                         Flux<String> ids,
+                                         int concurrency,
+                                         Duration batchInterval) {
+        Flux<List<String>> batches = ids.buffer(MAX_ITEMS_PER_BATCH);
+        if (!batchInterval.isZero()) {
+            batches = batches.delayElements(batchInterval);
+        }
+        return batches
+                .flatMap(chunk -> write(client, tableName, chunk.stream()
+                        .map(id -> WriteRequest.builder()
+                                .deleteRequest(DeleteRequest.builder()
+                                        .key(Map.of("id", AttributeValue.fromS(id)))
+                                        .build())
+                                .build())
+                        .toList(), 1), Math.max(1, concurrency));
+    }
+
+    private static Flux<String> write(DynamoDbAsyncClient client,
+                                      String tableName,
+                                      List<WriteRequest> writes,
+                                      int attempt) {
+        BatchWriteItemRequest request = BatchWriteItemRequest.builder()
+                .requestItems(Map.of(tableName, writes))
+                .build();
+
+        return Mono.fromFuture(() -> client.batchWriteItem(request))
+                .flatMapMany(response -> {
+                    List<WriteRequest> unprocessed = response.unprocessedItems().getOrDefault(tableName, List.of());
+                    Set<String> pendingIds = new HashSet<>();
+                    unprocessed.forEach(write -> pendingIds.add(idOf(write)));
+                    Flux<String> written = Flux.fromIterable(writes)
+                            .map(DynamoBatchWriter::idOf)
+                            .filter(id -> !pendingIds.contains(id));
+                    if (unprocessed.isEmpty() || attempt >= DynamoBatching.MAX_ATTEMPTS) {
+                        return written;
+                    }
+                    return written.concatWith(Mono.delay(DynamoBatching.backoff(attempt))
+                            .thenMany(write(client, tableName, unprocessed, attempt + 1)));
+                });
+    }
+
+    private static String idOf(WriteRequest write) {
+        return write.putRequest() != null
+                ? write.putRequest().item().get("id").s()
+                : write.deleteRequest().key().get("id").s();
+    }
+}
@@ -0,0 +1,30 @@
+package co.com.nequi.dynamodb.helper;
+
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.concurrent.CompletionException;
+
+public final class DynamoErrors {
+
+    private DynamoErrors() {
+    }
+
+    public static Throwable unwrap(Throwable t) {
+        return (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+    }
+
+    public static boolean isConditionalCheckFailed(Throwable t) {
+        return unwrap(t) instanceof ConditionalCheckFailedException;
+    }
+
+    /**
+     * Whether a transaction was cancelled because the condition on its item at {@code index} failed.
+     */
+    public static boolean isTransactionConditionFailed(Throwable t, int index) {
+        return unwrap(t) instanceof TransactionCanceledException cancelled
+                && cancelled.hasCancellationReasons()
+                && cancelled.cancellationReasons().size() > index
+                && "ConditionalCheckFailed".equals(cancelled.cancellationReasons().get(index).code());
+    }
+}
@@ -0,0 +1,91 @@
+package co.com.nequi.dynamodb.helper;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Streams every item of a query by following {@code LastEvaluatedKey}. Pages are chained with
+ * {@link Flux#expand}, which is iterative, so a long walk does not build a deep operator chain.
+ * <p>
+ * The next page is requested as soon as the current one arrives and is read while the current
+ * items drain, which hides one round trip per page. Page size starts small so the first items
+ * arrive quickly and a consumer that stops early reads little; it doubles for every further page
+ * the consumer asks for, up to {@link #MAX_PAGE_SIZE}.
+ */
+public final class DynamoPageStreamer {
+
+    private static final int INITIAL_PAGE_SIZE = 25;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int PREFETCH_PAGES = 2;
+
+    private DynamoPageStreamer() {
+    }
+
+    /**
+     * @param query issues one query starting after {@code startKey} ({@code null} for the first
+     *              page) with the given {@code limit}; only its first page is consumed
+     */
+    public static <T> Flux<T> stream(BiFunction<Map<String, AttributeValue>, Integer, Publisher<Page<T>>> query) {
+        return Flux.defer(() -> fetch(query, null, INITIAL_PAGE_SIZE)
+                .expand(fetched -> hasMore(fetched.page())
+                        ? fetch(query, fetched.page().lastEvaluatedKey(), grow(fetched.pageSize()))
+                        : Mono.empty())
+                .concatMapIterable(fetched -> fetched.page().items(), PREFETCH_PAGES));
+    }
+
+    /**
+     * Reads one logical page of up to {@code limit} items starting after {@code startKey}. DynamoDB
+     * stops a query at 1 MB, so large limits may need several queries, each asking only for the
+     * items still missing; the returned key resumes right after the last item collected.
+     */
+    public static <T> Mono<FilledPage<T>> fill(BiFunction<Map<String, AttributeValue>, Integer, Publisher<Page<T>>> query,
+                                               Map<String, AttributeValue> startKey,
+                                               int limit) {
+        return Mono.defer(() -> fill(query, startKey, limit, new ArrayList<>()));
+    }
+
+    private static <T> Mono<FilledPage<T>> fill(BiFunction<Map<String, AttributeValue>, Integer, Publisher<Page<T>>> query,
+                                                Map<String, AttributeValue> startKey,
+                                                int limit,
+                                                List<T> collected) {
+        return Mono.from(query.apply(startKey, limit - collected.size()))
+                .flatMap(page -> {
+                    collected.addAll(page.items());
+                    if (!hasMore(page)) {
+                        return Mono.just(new FilledPage<>(collected, null));
+                    }
+                    return collected.size() >= limit
+                            ? Mono.just(new FilledPage<>(collected, page.lastEvaluatedKey()))
+                            : fill(query, page.lastEvaluatedKey(), limit, collected);
+                });
+    }
+
+    private static <T> Mono<FetchedPage<T>> fetch(BiFunction<Map<String, AttributeValue>, Integer, Publisher<Page<T>>> query,
+                                                  Map<String, AttributeValue> startKey,
+                                                  int pageSize) {
+        return Mono.from(query.apply(startKey, pageSize))
+                .map(page -> new FetchedPage<>(page, pageSize));
+    }
+
+    private static boolean hasMore(Page<?> page) {
+        return page.lastEvaluatedKey() != null && !page.lastEvaluatedKey().isEmpty();
+    }
+
+    private static int grow(int pageSize) {
+        return Math.min(MAX_PAGE_SIZE, pageSize * 2);
+    }
+
+    private record FetchedPage<T>(Page<T> page, int pageSize) {
+    }
+
+    public record FilledPage<T>(List<T> items, Map<String, AttributeValue> lastEvaluatedKey) {
+    }
+}
@@ -2,74 +2,252 @@ package co.com.nequi.dynamodb.helper;
 
 import co.com.nequi.usecase.constant.ExceptionMessage;
 import co.com.nequi.usecase.exception.ValidationException;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 
-public final class DynamoPaginationCodec {
+/**
+ * Opaque pagination cursors. A cursor is the URL-safe Base64 of
+ * <pre>
+ * version(1) | count(1) | count * [ nameLen(1) name | type(1) | valueLen(2) value ] | tag(12)
+ * </pre>
+ * where {@code type} is {@code S} or {@code N} and {@code tag} is a truncated HMAC-SHA256 over the
+ * {@link Scope} (index and partition value) and the payload, so a cursor cannot be forged nor
+ * replayed against another partition. The signing key comes from {@code app.pagination.cursor-secret}
+ * and must be shared by every instance, so startup fails without it unless the application runs
+ * with no profile or the {@code local} profile, where a random per-process key is used.
+ * <p>
+ * Unsigned JSON cursors issued before this format can be forged, so they are only accepted while
+ * {@code app.pagination.accept-legacy-cursors} is explicitly turned on during a migration, and only
+ * when their partition value matches.
+ */
+@Component
+@Profile("!in-memory")
+public class DynamoPaginationCodec {
 
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Logger log = LoggerFactory.getLogger(DynamoPaginationCodec.class);
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper();
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final byte TYPE_S = 'S';
+    private static final byte TYPE_N = 'N';
+    private static final byte LEGACY_JSON_START = '{';
+    private static final int TAG_LENGTH = 12;
+    private static final int MAX_ATTRIBUTES = 255;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_VALUE_LENGTH = 0xFFFF;
+    private static final Profiles LOCAL_PROFILES = Profiles.of("local");
 
-    private DynamoPaginationCodec() {
+    private final SecretKeySpec key;
+    private final boolean acceptLegacy;
+    private final ThreadLocal<Mac> macs;
+
+    @Autowired
+    public DynamoPaginationCodec(@Value("${app.pagination.cursor-secret:}") String secret,
+                                 @Value("${app.pagination.accept-legacy-cursors:false}") boolean acceptLegacy,
+                                 Environment environment) {
+        this(secret, acceptLegacy, environment.getActiveProfiles().length == 0 || environment.acceptsProfiles(LOCAL_PROFILES));
+    }
+
+    public DynamoPaginationCodec(String secret, boolean acceptLegacy, boolean ephemeralKeyAllowed) {
+        this.key = new SecretKeySpec(secretBytes(secret, ephemeralKeyAllowed), HMAC_ALGORITHM);
+        this.acceptLegacy = acceptLegacy;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Index and partition value a cursor is bound to. {@code partitionKey} is the index hash
+     * attribute, used to check legacy cursors that carry no signature.
+     */
+    public record Scope(String index, String partitionKey, String partitionValue) {
+
+        public static Scope of(String index, String partitionKey, String partitionValue) {
+            return new Scope(index, partitionKey, partitionValue);
+        }
     }
 
-    public static String encode(Map<String, AttributeValue> key) {
-        if (key == null || key.isEmpty()) {
+    public String encode(Map<String, AttributeValue> lastKey, Scope scope) {
+        if (lastKey == null || lastKey.isEmpty()) {
             return null;
         }
-        Map<String, Map<String, String>> serializable = new HashMap<>();
-        key.forEach((attr, value) -> {
-            Map<String, String> data = new HashMap<>();
-            if (value.s() != null) {
-                data.put("S", value.s());
-            }
-            if (value.n() != null) {
-                data.put("N", value.n());
+        int count = 0;
+        int size = 2 + TAG_LENGTH;
+        byte[][] names = new byte[lastKey.size()][];
+        byte[][] values = new byte[lastKey.size()][];
+        byte[] types = new byte[lastKey.size()];
+        for (Map.Entry<String, AttributeValue> entry : lastKey.entrySet()) {
+            AttributeValue value = entry.getValue();
+            String raw = value.s() != null ? value.s() : value.n();
+            if (raw == null) {
+                continue;
             }
-            if (!data.isEmpty()) {
-                serializable.put(attr, data);
+            names[count] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            values[count] = raw.getBytes(StandardCharsets.UTF_8);
+            types[count] = value.s() != null ? TYPE_S : TYPE_N;
+            if (names[count].length > MAX_NAME_LENGTH || values[count].length > MAX_VALUE_LENGTH) {
+                throw new IllegalStateException("Pagination key too large to encode: " + entry.getKey());
             }
-        });
-        if (serializable.isEmpty()) {
+            size += 4 + names[count].length + values[count].length;
+            count++;
+        }
+        if (count == 0) {
             return null;
         }
-        try {
-            String json = OBJECT_MAPPER.writeValueAsString(serializable);
-            return Base64.getUrlEncoder().withoutPadding()
-                    .encodeToString(json.getBytes(StandardCharsets.UTF_8));
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Unable to encode pagination key", e);
+        if (count > MAX_ATTRIBUTES) {
+            throw new IllegalStateException("Pagination key has too many attributes: " + count);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION).put((byte) count);
+        for (int i = 0; i < count; i++) {
+            buffer.put((byte) names[i].length).put(names[i])
+                    .put(types[i])
+                    .putShort((short) values[i].length).put(values[i]);
         }
+        int payloadLength = buffer.position();
+        buffer.put(tag(scope, buffer.array(), payloadLength));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
     }
 
-    public static Map<String, AttributeValue> decode(String cursor) {
+    public Map<String, AttributeValue> decode(String cursor, Scope scope) {
         if (cursor == null) {
             return null;
         }
+        byte[] bytes;
         try {
-            byte[] decoded = Base64.getUrlDecoder().decode(cursor);
-            String json = new String(decoded, StandardCharsets.UTF_8);
-            Map<String, Map<String, String>> data = OBJECT_MAPPER.readValue(json, new TypeReference<>() {
-            });
-            Map<String, AttributeValue> result = new HashMap<>();
-            data.forEach((attr, valueMap) -> {
-                AttributeValue.Builder builder = AttributeValue.builder();
-                if (valueMap.containsKey("S")) {
-                    builder.s(valueMap.get("S"));
-                } else if (valueMap.containsKey("N")) {
-                    builder.n(valueMap.get("N"));
-                }
-                result.put(attr, builder.build());
-            });
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+        if (bytes.length > 0 && bytes[0] == LEGACY_JSON_START && acceptLegacy) {
+            return decodeLegacy(bytes, scope);
+        }
+        if (bytes.length < 2 + TAG_LENGTH || bytes[0] != VERSION) {
+            throw invalidCursor();
+        }
+        int payloadLength = bytes.length - TAG_LENGTH;
+        byte[] expected = tag(scope, bytes, payloadLength);
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(bytes, payloadLength, bytes.length))) {
+            throw invalidCursor();
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, payloadLength - 1);
+            int count = Byte.toUnsignedInt(buffer.get());
+            Map<String, AttributeValue> result = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String name = readString(buffer, Byte.toUnsignedInt(buffer.get()));
+                byte type = buffer.get();
+                String value = readString(buffer, Short.toUnsignedInt(buffer.getShort()));
+                result.put(name, switch (type) {
+                    case TYPE_S -> AttributeValue.fromS(value);
+                    case TYPE_N -> AttributeValue.fromN(value);
+                    default -> throw invalidCursor();
+                });
+            }
+            if (buffer.hasRemaining()) {
+                throw invalidCursor();
+            }
             return result;
-        } catch (IllegalArgumentException | JsonProcessingException e) {
-            throw new ValidationException(ExceptionMessage.INVALID_PAGINATION_CURSOR);
+        } catch (BufferUnderflowException e) {
+            throw invalidCursor();
         }
     }
+
+    private Map<String, AttributeValue> decodeLegacy(byte[] json, Scope scope) {
+        Map<String, Map<String, String>> data;
+        try {
+            data = LEGACY_MAPPER.readValue(json, new TypeReference<>() {
+            });
+        } catch (IOException e) {
+            throw invalidCursor();
+        }
+        Map<String, AttributeValue> result = new HashMap<>();
+        data.forEach((attr, valueMap) -> {
+            if (valueMap == null) {
+                throw invalidCursor();
+            }
+            AttributeValue.Builder builder = AttributeValue.builder();
+            if (valueMap.containsKey("S")) {
+                builder.s(valueMap.get("S"));
+            } else if (valueMap.containsKey("N")) {
+                builder.n(valueMap.get("N"));
+            }
+            result.put(attr, builder.build());
+        });
+        AttributeValue partition = result.get(scope.partitionKey());
+        if (partition != null && !scope.partitionValue().equals(partition.s())) {
+            throw invalidCursor();
+        }
+        return result;
+    }
+
+    private byte[] tag(Scope scope, byte[] payload, int payloadLength) {
+        Mac mac = macs.get();
+        mac.update(scope.index().getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(scope.partitionValue().getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(payload, 0, payloadLength);
+        return Arrays.copyOf(mac.doFinal(), TAG_LENGTH);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize pagination cursor signing", e);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        if (length > buffer.remaining()) {
+            throw invalidCursor();
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static byte[] secretBytes(String secret, boolean ephemeralKeyAllowed) {
+        if (secret != null && !secret.isBlank()) {
+            return secret.getBytes(StandardCharsets.UTF_8);
+        }
+        if (!ephemeralKeyAllowed) {
+            throw new IllegalStateException("app.pagination.cursor-secret must be set: cursors signed with a "
+                    + "per-process key fail on every other instance and after every restart");
+        }
+        log.warn("app.pagination.cursor-secret is not set; cursors will only be valid on this instance");
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+
+    private static ValidationException invalidCursor() {
+        return new ValidationException(ExceptionMessage.INVALID_PAGINATION_CURSOR);
+    }
 }
@@ -0,0 +1,61 @@
+package co.com.nequi.dynamodb.helper;
+
+import co.com.nequi.dynamodb.entity.ProductEntity;
+import co.com.nequi.model.product.Product;
+
+import java.util.Locale;
+
+/**
+ * Conversion between {@link Product} and its item, including the derived attributes that feed the
+ * {@code nameByBranch} index.
+ */
+public final class ProductEntityMapper {
+
+    public static final String ENTITY_TYPE = "PRODUCT";
+
+    private ProductEntityMapper() {
+    }
+
+    public static ProductEntity toEntity(Product product) {
+        ProductEntity entity = new ProductEntity();
+        entity.setId(product.getId());
+        entity.setFranchiseId(product.getFranchiseId());
+        entity.setBranchId(product.getBranchId());
+        entity.setName(product.getName());
+        entity.setStock(product.getStock());
+        entity.setCreatedAt(product.getCreatedAt());
+        entity.setUpdatedAt(product.getUpdatedAt());
+        entity.setVersion(null);
+        entity.setEntityType(ENTITY_TYPE);
+        String normalizedName = normalizeName(entity.getName());
+        entity.setNameLc(normalizedName);
+        if (entity.getId() != null && entity.getBranchId() != null && normalizedName != null) {
+            entity.setNameByBranchSortKey(nameSortKey(normalizedName, entity.getId()));
+        }
+        return entity;
+    }
+
+    public static Product toDomain(ProductEntity entity) {
+        return Product.builder()
+                .id(entity.getId())
+                .franchiseId(entity.getFranchiseId())
+                .branchId(entity.getBranchId())
+                .name(entity.getName())
+                .stock(entity.getStock())
+                .createdAt(entity.getCreatedAt())
+                .updatedAt(entity.getUpdatedAt())
+                .build();
+    }
+
+    public static String normalizeName(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String nameSortKey(String normalizedName, String productId) {
+        return "NAME#" + normalizedName + "#PROD#" + productId;
+    }
+
+    public static String namePrefix(String normalizedPrefix) {
+        return "NAME#" + normalizedPrefix;
+    }
+}
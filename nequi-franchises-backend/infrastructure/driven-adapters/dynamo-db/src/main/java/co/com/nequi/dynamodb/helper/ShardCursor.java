@@ -0,0 +1,92 @@
+package co.com.nequi.dynamodb.helper;
+
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.ValidationException;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Composite cursor for scatter-gather listings over several GSI partitions. Each partition maps to
+ * the id of the last item returned from it, or to {@link #EXHAUSTED} once it has been read to the
+ * end; partitions missing from the cursor have not been started. Serialized through
+ * {@link DynamoPaginationCodec} so it has the same opaque, signed shape as every other cursor.
+ */
+public final class ShardCursor {
+
+    private static final AttributeValue EXHAUSTED = AttributeValue.fromN("0");
+    private static final String ID = "id";
+
+    private final Map<String, AttributeValue> positions;
+
+    private ShardCursor(Map<String, AttributeValue> positions) {
+        this.positions = positions;
+    }
+
+    public static ShardCursor start() {
+        return new ShardCursor(new HashMap<>());
+    }
+
+    /**
+     * Decodes a composite cursor. A plain {@code LastEvaluatedKey} issued before sharding (it carries
+     * the scope's partition key) is read as a position inside the scope's legacy partition value.
+     */
+    public static ShardCursor decode(DynamoPaginationCodec codec, String cursor, DynamoPaginationCodec.Scope scope) {
+        Map<String, AttributeValue> decoded = codec.decode(cursor, scope);
+        if (decoded == null || decoded.isEmpty()) {
+            return start();
+        }
+        if (decoded.containsKey(scope.partitionKey())) {
+            AttributeValue id = decoded.get(ID);
+            if (id == null || id.s() == null) {
+                throw new ValidationException(ExceptionMessage.INVALID_PAGINATION_CURSOR);
+            }
+            ShardCursor legacy = start();
+            legacy.positions.put(scope.partitionValue(), id);
+            return legacy;
+        }
+        decoded.values().forEach(value -> {
+            if (value.s() == null && !EXHAUSTED.equals(value)) {
+                throw new ValidationException(ExceptionMessage.INVALID_PAGINATION_CURSOR);
+            }
+        });
+        return new ShardCursor(new HashMap<>(decoded));
+    }
+
+    public boolean isExhausted(String partition) {
+        return EXHAUSTED.equals(positions.get(partition));
+    }
+
+    /**
+     * The {@code ExclusiveStartKey} to resume {@code partition} on a hash-only index, or
+     * {@code null} when it has not been started.
+     */
+    public Map<String, AttributeValue> startKey(String partition, String indexKey) {
+        AttributeValue id = positions.get(partition);
+        if (id == null || EXHAUSTED.equals(id)) {
+            return null;
+        }
+        return Map.of(ID, id, indexKey, AttributeValue.fromS(partition));
+    }
+
+    public void advance(String partition, String lastId) {
+        positions.put(partition, AttributeValue.fromS(lastId));
+    }
+
+    public void exhaust(String partition) {
+        positions.put(partition, EXHAUSTED);
+    }
+
+    /**
+     * Encodes the cursor, or returns {@code null} when every listed partition has been exhausted.
+     */
+    public String encode(DynamoPaginationCodec codec, Iterable<String> partitions, DynamoPaginationCodec.Scope scope) {
+        for (String partition : partitions) {
+            if (!isExhausted(partition)) {
+                return codec.encode(positions, scope);
+            }
+        }
+        return null;
+    }
+}
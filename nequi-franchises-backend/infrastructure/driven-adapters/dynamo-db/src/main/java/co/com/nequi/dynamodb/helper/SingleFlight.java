@@ -0,0 +1,58 @@
+package co.com.nequi.dynamodb.helper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: while a call for an operation and key is in flight, later
+ * subscribers join it instead of issuing their own request. Nothing is kept once the call
+ * completes, so results are never staler than the read itself. Joined calls are counted in
+ * {@code dynamodb.singleflight.saved}, tagged by operation.
+ */
+@Component
+@Profile("!in-memory")
+public class SingleFlight {
+
+    private static final String SAVED_METRIC = "dynamodb.singleflight.saved";
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> savedCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String operation, String key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            String flightKey = operation + "#" + key;
+            AtomicBoolean leader = new AtomicBoolean(false);
+            Mono<?> flight = inFlight.computeIfAbsent(flightKey, k -> {
+                leader.set(true);
+                return call.get()
+                        .doFinally(signal -> inFlight.remove(k))
+                        .cache();
+            });
+            if (!leader.get()) {
+                savedCounter(operation).increment();
+            }
+            return (Mono<T>) flight;
+        });
+    }
+
+    private Counter savedCounter(String operation) {
+        return savedCounters.computeIfAbsent(operation, op -> Counter.builder(SAVED_METRIC)
+                .description("DynamoDB calls avoided by joining an identical in-flight call")
+                .tag("operation", op)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,240 @@
+package co.com.nequi.dynamodb.helper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Crash-recovery journal for write-behind stock deltas, kept in two memory-mapped segment files
+ * used in turn. Each delta is appended to the open segment with its product and idempotency key;
+ * sealing the segment moves appends to the other one and returns the sealed segment's deltas grouped
+ * per product and keyed by idempotency key, a repeated key keeping its first delta. They stay on
+ * disk until {@link #clear(Sealed)} is called once they have been applied. Segments left sealed or open by a
+ * previous process are returned by {@link #recovered()}.
+ * <p>
+ * A record is committed by writing its length last, so a process killed mid-append leaves a
+ * readable segment. The mapping is forced to disk when a segment is sealed: a process crash loses
+ * nothing, a host crash at most the open window. Every segment carries an epoch that identifies its
+ * deltas when they are applied: the wall-clock millisecond of its first append, raised past the
+ * previous epoch so it keeps growing across restarts and clock steps. Not thread-safe; callers
+ * synchronize.
+ */
+public final class StockJournal implements AutoCloseable {
+
+    private static final int MAGIC = 0x53544b32;
+    private static final int EPOCH_OFFSET = Integer.BYTES;
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+    private static final int RECORD_OVERHEAD = Integer.BYTES * 2 + Short.BYTES;
+    private static final int MAX_PRODUCT_ID_BYTES = 0xFFFF;
+
+    private final String id;
+    private final LongSupplier clock;
+    private final Segment[] segments = new Segment[2];
+    private int open;
+    private long lastEpoch;
+
+    /**
+     * Deltas of a sealed segment: {@code records} appended, grouped in {@code deltas} per product and
+     * then per idempotency key, in append order.
+     */
+    public record Sealed(int segment, long epoch, int records, Map<String, Map<String, Integer>> deltas) {
+
+        public static long total(Map<String, Integer> keyed) {
+            return keyed.values().stream().mapToLong(Integer::longValue).sum();
+        }
+    }
+
+    private static final class Segment {
+
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private long epoch;
+        private int position = HEADER_BYTES;
+        private boolean sealed;
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private boolean inUse() {
+            return buffer.getInt(0) == MAGIC;
+        }
+    }
+
+    public StockJournal(Path directory, int segmentBytes) {
+        this(directory, segmentBytes, System::currentTimeMillis);
+    }
+
+    StockJournal(Path directory, int segmentBytes, LongSupplier clock) {
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+            this.id = readOrCreateId(directory.resolve("journal.id"));
+            for (int i = 0; i < segments.length; i++) {
+                FileChannel channel = FileChannel.open(directory.resolve("stock-" + i + ".journal"),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                int size = (int) Math.max(channel.size(), Math.max(segmentBytes, HEADER_BYTES + RECORD_OVERHEAD));
+                Segment segment = new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+                // Cleared segments keep their epoch so epochs keep growing across restarts.
+                segment.epoch = segment.buffer.getLong(EPOCH_OFFSET);
+                segment.sealed = segment.inUse();
+                lastEpoch = Math.max(lastEpoch, segment.epoch);
+                segments[i] = segment;
+            }
+            this.open = segments[0].sealed ? 1 : 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stable identity of this journal, persisted next to its segments.
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Segments a previous process left with deltas, oldest first. They stay sealed until cleared.
+     */
+    public List<Sealed> recovered() {
+        List<Sealed> recovered = new ArrayList<>();
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i].sealed) {
+                recovered.add(decode(i));
+            }
+        }
+        recovered.sort(Comparator.comparingLong(Sealed::epoch));
+        return recovered;
+    }
+
+    /**
+     * Appends a delta to the open segment. Returns {@code false} when it is full or no segment is
+     * free, in which case the caller applies the delta some other way.
+     */
+    public boolean append(String productId, int delta, String idempotencyKey) {
+        Segment segment = segments[open];
+        if (segment.sealed) {
+            return false;
+        }
+        byte[] product = productId.getBytes(StandardCharsets.UTF_8);
+        byte[] key = idempotencyKey.getBytes(StandardCharsets.UTF_8);
+        if (product.length > MAX_PRODUCT_ID_BYTES) {
+            return false;
+        }
+        int length = Integer.BYTES + Short.BYTES + product.length + key.length;
+        if (segment.position + Integer.BYTES + length + Integer.BYTES > segment.buffer.capacity()) {
+            return false;
+        }
+        if (!segment.inUse()) {
+            lastEpoch = Math.max(lastEpoch + 1, clock.getAsLong());
+            segment.epoch = lastEpoch;
+            segment.buffer.putLong(EPOCH_OFFSET, segment.epoch);
+            segment.buffer.putInt(HEADER_BYTES, 0);
+            segment.buffer.putInt(0, MAGIC);
+        }
+        int position = segment.position;
+        segment.buffer.putInt(position + Integer.BYTES + length, 0);
+        segment.buffer.putInt(position + Integer.BYTES, delta);
+        segment.buffer.putShort(position + Integer.BYTES * 2, (short) product.length);
+        segment.buffer.put(position + RECORD_OVERHEAD, product);
+        segment.buffer.put(position + RECORD_OVERHEAD + product.length, key);
+        segment.buffer.putInt(position, length);
+        segment.position = position + Integer.BYTES + length;
+        return true;
+    }
+
+    /**
+     * Seals the open segment and opens the other one, or returns {@code null} when nothing was
+     * appended since the last seal.
+     */
+    public Sealed seal() {
+        Segment segment = segments[open];
+        if (segment.sealed || !segment.inUse()) {
+            return null;
+        }
+        segment.sealed = true;
+        segment.buffer.force();
+        Sealed sealed = decode(open);
+        open = 1 - open;
+        return sealed;
+    }
+
+    /**
+     * Discards a sealed segment whose deltas have been applied, making it available for appends.
+     */
+    public void clear(Sealed sealed) {
+        Segment segment = segments[sealed.segment()];
+        segment.buffer.putInt(0, 0);
+        segment.buffer.putInt(HEADER_BYTES, 0);
+        segment.buffer.force();
+        segment.position = HEADER_BYTES;
+        segment.sealed = false;
+        if (segments[open].sealed) {
+            open = sealed.segment();
+        }
+    }
+
+    private Sealed decode(int index) {
+        MappedByteBuffer buffer = segments[index].buffer;
+        Map<String, Map<String, Integer>> deltas = new HashMap<>();
+        int records = 0;
+        int position = HEADER_BYTES;
+        while (position + Integer.BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= Integer.BYTES + Short.BYTES || position + Integer.BYTES + length > buffer.capacity()) {
+                break;
+            }
+            int delta = buffer.getInt(position + Integer.BYTES);
+            int productLength = Short.toUnsignedInt(buffer.getShort(position + Integer.BYTES * 2));
+            int keyLength = length - Integer.BYTES - Short.BYTES - productLength;
+            if (keyLength < 0) {
+                break;
+            }
+            byte[] product = new byte[productLength];
+            byte[] key = new byte[keyLength];
+            buffer.get(position + RECORD_OVERHEAD, product);
+            buffer.get(position + RECORD_OVERHEAD + productLength, key);
+            deltas.computeIfAbsent(new String(product, StandardCharsets.UTF_8), p -> new LinkedHashMap<>())
+                    .putIfAbsent(new String(key, StandardCharsets.UTF_8), delta);
+            records++;
+            position += Integer.BYTES + length;
+        }
+        return new Sealed(index, segments[index].epoch, records, deltas);
+    }
+
+    private static String readOrCreateId(Path file) throws IOException {
+        if (Files.exists(file)) {
+            return Files.readString(file, StandardCharsets.UTF_8).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(file, id, StandardCharsets.UTF_8);
+        return id;
+    }
+
+    @Override
+    public void close() {
+        for (Segment segment : segments) {
+            try {
+                segment.buffer.force();
+                segment.channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package co.com.nequi.dynamodb.cache;
+
+import co.com.nequi.dynamodb.adapter.DynamoProductAdapter;
+import co.com.nequi.model.product.Product;
+import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachedProductRepositoryTest {
+
+    @Mock
+    private DynamoProductAdapter delegate;
+
+    private CachedProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachedProductRepository(delegate, new SimpleMeterRegistry(), true, 60, 100);
+    }
+
+    @Test
+    void findById_servesRepeatedReadsFromCache() {
+        when(delegate.findById("p1")).thenReturn(Mono.just(product(5)));
+
+        StepVerifier.create(repository.findById("p1")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.findById("p1")).expectNextCount(1).verifyComplete();
+
+        verify(delegate, times(1)).findById("p1");
+    }
+
+    @Test
+    void changeStockAtomic_invalidatesCachedProduct() {
+        AtomicInteger stock = new AtomicInteger(5);
+        when(delegate.findById("p1")).thenAnswer(invocation -> Mono.fromSupplier(() -> product(stock.get())));
+        when(delegate.changeStockAtomic("p1", 3, "k1")).thenAnswer(invocation ->
+                Mono.fromSupplier(() -> product(stock.addAndGet(3))));
+
+        StepVerifier.create(repository.findById("p1"))
+                .expectNextMatches(product -> product.getStock() == 5)
+                .verifyComplete();
+        StepVerifier.create(repository.changeStockAtomic("p1", 3, "k1")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.findById("p1"))
+                .expectNextMatches(product -> product.getStock() == 8)
+                .verifyComplete();
+
+        verify(delegate, times(2)).findById("p1");
+    }
+
+    @Test
+    void deleteById_invalidatesEvenWhenTheDeleteFails() {
+        when(delegate.findById("p1")).thenReturn(Mono.just(product(5)));
+        when(delegate.deleteById("p1")).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(repository.findById("p1")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.deleteById("p1")).verifyError(IllegalStateException.class);
+        StepVerifier.create(repository.findById("p1")).expectNextCount(1).verifyComplete();
+
+        verify(delegate, times(2)).findById("p1");
+    }
+
+    @Test
+    void findById_doesNotCacheAbsentProducts() {
+        when(delegate.findById("p1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(repository.findById("p1")).verifyError(ResourceNotFoundException.class);
+        StepVerifier.create(repository.findById("p1")).verifyError(ResourceNotFoundException.class);
+
+        verify(delegate, times(2)).findById("p1");
+    }
+
+    private static Product product(int stock) {
+        return Product.builder().id("p1").branchId("b1").name("Product").stock(stock).build();
+    }
+}
@@ -0,0 +1,61 @@
+package co.com.nequi.dynamodb.helper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DynamoBatchWriterTest {
+
+    private static final String TABLE = "core_table";
+
+    @Mock
+    private DynamoDbAsyncClient client;
+
+    @Test
+    void putAll_emitsTheIdsOfTheBatchesThatSucceedWhenAnotherFails() {
+        List<Map<String, AttributeValue>> items = IntStream.range(0, 30)
+                .mapToObj(i -> Map.of("id", AttributeValue.fromS("p" + i)))
+                .toList();
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(invocation -> {
+            BatchWriteItemRequest request = invocation.getArgument(0);
+            return request.requestItems().get(TABLE).size() == 25
+                    ? CompletableFuture.failedFuture(ProvisionedThroughputExceededException.builder().build())
+                    : CompletableFuture.completedFuture(BatchWriteItemResponse.builder().build());
+        });
+
+        StepVerifier.create(DynamoBatchWriter.putAll(client, TABLE, items).collect(Collectors.toSet()))
+                .assertNext(written -> assertEquals(
+                        IntStream.range(25, 30).mapToObj(i -> "p" + i).collect(Collectors.toSet()), written))
+                .verifyComplete();
+    }
+
+    @Test
+    void putAll_completesEmptyWhenEveryBatchFails() {
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("throttled")));
+
+        StepVerifier.create(DynamoBatchWriter.putAll(client, TABLE,
+                        List.of(Map.of("id", AttributeValue.fromS("p1")))).collect(Collectors.toSet()))
+                .assertNext(written -> assertEquals(Set.of(), written))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,93 @@
+package co.com.nequi.dynamodb.helper;
+
+import co.com.nequi.usecase.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DynamoPaginationCodecTest {
+
+    private static final String SECRET = "test-secret";
+    private static final DynamoPaginationCodec.Scope SCOPE =
+            DynamoPaginationCodec.Scope.of("byBranch", "branchId", "b1");
+    private static final Map<String, AttributeValue> LAST_KEY = Map.of(
+            "id", AttributeValue.fromS("p1"),
+            "branchId", AttributeValue.fromS("b1"),
+            "stock", AttributeValue.fromN("42"));
+
+    private final DynamoPaginationCodec codec = new DynamoPaginationCodec(SECRET, false, false);
+
+    @Test
+    void decode_returnsTheEncodedKey() {
+        String cursor = codec.encode(LAST_KEY, SCOPE);
+
+        assertEquals(LAST_KEY, codec.decode(cursor, SCOPE));
+        assertEquals(LAST_KEY, new DynamoPaginationCodec(SECRET, false, false).decode(cursor, SCOPE));
+    }
+
+    @Test
+    void encode_returnsNullWithoutLastKey() {
+        assertNull(codec.encode(Map.of(), SCOPE));
+        assertNull(codec.decode(null, SCOPE));
+    }
+
+    @Test
+    void decode_rejectsCursorOfAnotherPartitionOrIndex() {
+        String cursor = codec.encode(LAST_KEY, SCOPE);
+
+        assertThrows(ValidationException.class,
+                () -> codec.decode(cursor, DynamoPaginationCodec.Scope.of("byBranch", "branchId", "b2")));
+        assertThrows(ValidationException.class,
+                () -> codec.decode(cursor, DynamoPaginationCodec.Scope.of("nameByBranch", "branchId", "b1")));
+    }
+
+    @Test
+    void decode_rejectsTamperedOrForeignCursors() {
+        byte[] bytes = Base64.getUrlDecoder().decode(codec.encode(LAST_KEY, SCOPE));
+        bytes[bytes.length / 2] ^= 1;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String foreign = new DynamoPaginationCodec("other-secret", false, false).encode(LAST_KEY, SCOPE);
+
+        assertThrows(ValidationException.class, () -> codec.decode(tampered, SCOPE));
+        assertThrows(ValidationException.class, () -> codec.decode(foreign, SCOPE));
+        assertThrows(ValidationException.class, () -> codec.decode("not base64!", SCOPE));
+        assertThrows(ValidationException.class, () -> codec.decode("AQ", SCOPE));
+    }
+
+    @Test
+    void decode_acceptsLegacyCursorsOnlyWhenEnabled() {
+        String legacy = legacy("{\"id\":{\"S\":\"p1\"},\"branchId\":{\"S\":\"b1\"},\"stock\":{\"N\":\"42\"}}");
+        DynamoPaginationCodec migrating = new DynamoPaginationCodec(SECRET, true, false);
+
+        assertThrows(ValidationException.class, () -> codec.decode(legacy, SCOPE));
+        assertEquals(LAST_KEY, migrating.decode(legacy, SCOPE));
+    }
+
+    @Test
+    void decode_rejectsLegacyCursorOfAnotherPartition() {
+        String legacy = legacy("{\"id\":{\"S\":\"p1\"},\"branchId\":{\"S\":\"b2\"}}");
+        DynamoPaginationCodec migrating = new DynamoPaginationCodec(SECRET, true, false);
+
+        assertThrows(ValidationException.class, () -> migrating.decode(legacy, SCOPE));
+        assertThrows(ValidationException.class, () -> migrating.decode(legacy("{not json"), SCOPE));
+    }
+
+    @Test
+    void constructor_requiresSecretUnlessEphemeralKeyAllowed() {
+        assertThrows(IllegalStateException.class, () -> new DynamoPaginationCodec("", false, false));
+
+        DynamoPaginationCodec local = new DynamoPaginationCodec(null, false, true);
+        assertEquals(LAST_KEY, local.decode(local.encode(LAST_KEY, SCOPE), SCOPE));
+    }
+
+    private static String legacy(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,89 @@
+package co.com.nequi.dynamodb.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    void execute_coalescesConcurrentCallsForTheSameKey() {
+        Sinks.One<String> source = Sinks.one();
+
+        Mono<String> first = singleFlight.execute("getItem", "p1", () -> counted(source.asMono()));
+        Mono<String> second = singleFlight.execute("getItem", "p1", () -> counted(source.asMono()));
+        Mono<String> other = singleFlight.execute("getItem", "p2", () -> counted(Mono.just("other")));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> source.tryEmitValue("value"))
+                .expectNextMatches(both -> both.getT1().equals("value") && both.getT2().equals("value"))
+                .verifyComplete();
+        StepVerifier.create(other).expectNext("other").verifyComplete();
+
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.counter("dynamodb.singleflight.saved", "operation", "getItem").count());
+    }
+
+    @Test
+    void execute_runsAgainOnceTheCallCompletes() {
+        StepVerifier.create(singleFlight.execute("getItem", "p1", () -> counted(Mono.just("a"))))
+                .expectNext("a")
+                .verifyComplete();
+        StepVerifier.create(singleFlight.execute("getItem", "p1", () -> counted(Mono.just("b"))))
+                .expectNext("b")
+                .verifyComplete();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_doesNotKeepFailedCalls() {
+        StepVerifier.create(singleFlight.execute("getItem", "p1",
+                        () -> counted(Mono.<String>error(new IllegalStateException("boom")))))
+                .verifyError(IllegalStateException.class);
+        StepVerifier.create(singleFlight.execute("getItem", "p1", () -> counted(Mono.just("value"))))
+                .expectNext("value")
+                .verifyComplete();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_releasesTheKeyWhenACancelledCallTerminates() {
+        Sinks.One<String> source = Sinks.one();
+
+        Disposable cancelled = singleFlight.execute("getItem", "p1", () -> counted(source.asMono())).subscribe();
+        cancelled.dispose();
+        source.tryEmitValue("late");
+
+        StepVerifier.create(singleFlight.execute("getItem", "p1", () -> counted(Mono.just("fresh"))))
+                .expectNext("fresh")
+                .verifyComplete();
+
+        assertEquals(2, calls.get());
+    }
+
+    private <T> Mono<T> counted(Mono<T> mono) {
+        calls.incrementAndGet();
+        return mono;
+    }
+}
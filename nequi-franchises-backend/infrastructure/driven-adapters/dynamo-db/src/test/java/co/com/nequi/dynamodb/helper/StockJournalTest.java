@@ -0,0 +1,134 @@
+package co.com.nequi.dynamodb.helper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockJournalTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void seal_groupsDeltasPerProductAndKey() {
+        try (StockJournal journal = new StockJournal(directory, SEGMENT_BYTES)) {
+            assertTrue(journal.append("p1", 3, "k1"));
+            assertTrue(journal.append("p2", 1, "k2"));
+            assertTrue(journal.append("p1", 4, "k3"));
+
+            StockJournal.Sealed sealed = journal.seal();
+
+            assertEquals(3, sealed.records());
+            assertEquals(Map.of("p1", Map.of("k1", 3, "k3", 4), "p2", Map.of("k2", 1)), sealed.deltas());
+            assertEquals(7L, StockJournal.Sealed.total(sealed.deltas().get("p1")));
+            assertNull(journal.seal());
+            journal.clear(sealed);
+            assertTrue(journal.recovered().isEmpty());
+        }
+    }
+
+    @Test
+    void seal_keepsTheFirstDeltaOfARepeatedKey() {
+        try (StockJournal journal = new StockJournal(directory, SEGMENT_BYTES)) {
+            journal.append("p1", 3, "k1");
+            journal.append("p1", 5, "k1");
+
+            StockJournal.Sealed sealed = journal.seal();
+
+            assertEquals(2, sealed.records());
+            assertEquals(Map.of("p1", Map.of("k1", 3)), sealed.deltas());
+        }
+    }
+
+    @Test
+    void recovered_returnsUnclearedSegmentsOldestFirst() {
+        String id;
+        try (StockJournal journal = new StockJournal(directory, SEGMENT_BYTES)) {
+            id = journal.id();
+            journal.append("p1", 2, "k1");
+            journal.seal();
+            journal.append("p2", 5, "k2");
+        }
+
+        try (StockJournal journal = new StockJournal(directory, SEGMENT_BYTES)) {
+            List<StockJournal.Sealed> recovered = journal.recovered();
+
+            assertEquals(id, journal.id());
+            assertEquals(2, recovered.size());
+            assertEquals(Map.of("p1", Map.of("k1", 2)), recovered.get(0).deltas());
+            assertEquals(Map.of("p2", Map.of("k2", 5)), recovered.get(1).deltas());
+            assertTrue(recovered.get(0).epoch() < recovered.get(1).epoch());
+            assertFalse(journal.append("p3", 1, "k3"));
+
+            journal.clear(recovered.get(0));
+            assertTrue(journal.append("p3", 1, "k3"));
+        }
+    }
+
+    @Test
+    void recovered_ignoresTornRecord() throws IOException {
+        try (StockJournal journal = new StockJournal(directory, SEGMENT_BYTES)) {
+            journal.append("p1", 2, "k1");
+            journal.append("p2", 5, "k2");
+        }
+        // The length is written last, so an append interrupted before it leaves a zero length.
+        int secondRecord = Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES + Short.BYTES
+                + "p1".length() + "k1".length();
+        try (FileChannel channel = FileChannel.open(directory.resolve("stock-0.journal"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 0), secondRecord);
+        }
+
+        try (StockJournal journal = new StockJournal(directory, SEGMENT_BYTES)) {
+            List<StockJournal.Sealed> recovered = journal.recovered();
+
+            assertEquals(1, recovered.size());
+            assertEquals(1, recovered.get(0).records());
+            assertEquals(Map.of("p1", Map.of("k1", 2)), recovered.get(0).deltas());
+        }
+    }
+
+    @Test
+    void epoch_keepsGrowingAcrossRestartsWhenTheClockGoesBack() {
+        long first;
+        try (StockJournal journal = new StockJournal(directory, SEGMENT_BYTES, () -> 1_000L)) {
+            journal.append("p1", 1, "k1");
+            StockJournal.Sealed sealed = journal.seal();
+            journal.clear(sealed);
+            journal.append("p1", 1, "k1");
+            StockJournal.Sealed next = journal.seal();
+            journal.clear(next);
+
+            assertEquals(1_000L, sealed.epoch());
+            assertEquals(1_001L, next.epoch());
+            first = next.epoch();
+        }
+
+        try (StockJournal journal = new StockJournal(directory, SEGMENT_BYTES, () -> 5L)) {
+            journal.append("p1", 1, "k1");
+
+            assertTrue(journal.seal().epoch() > first);
+        }
+    }
+
+    @Test
+    void append_rejectsWhenSegmentIsFull() {
+        try (StockJournal journal = new StockJournal(directory, 32)) {
+            assertTrue(journal.append("p1", 1, "k1"));
+            assertFalse(journal.append("product-with-a-long-id", 1, "k2"));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package co.com.nequi.inmemory.adapter;
+
+import co.com.nequi.inmemory.helper.InMemoryCursorCodec;
+import co.com.nequi.inmemory.helper.SortedIndex;
+import co.com.nequi.model.branch.Branch;
+import co.com.nequi.model.branch.gateways.BranchRepository;
+import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+@Profile("in-memory")
+public class InMemoryBranchAdapter implements BranchRepository {
+
+    private static final String INDEX = "byFranchise";
+
+    private final Map<String, Branch> branches = new ConcurrentHashMap<>();
+    private final SortedIndex byFranchise = new SortedIndex();
+    private final InMemoryTopProducts topProducts;
+    private final InMemoryCursorCodec cursorCodec;
+
+    public InMemoryBranchAdapter(InMemoryTopProducts topProducts, InMemoryCursorCodec cursorCodec) {
+        this.topProducts = topProducts;
+        this.cursorCodec = cursorCodec;
+    }
+
+    @Override
+    public Mono<Branch> save(Branch branch) {
+        return Mono.fromSupplier(() -> {
+            branches.compute(branch.getId(), (id, previous) -> {
+                if (previous != null) {
+                    byFranchise.remove(previous.getFranchiseId(), id);
+                }
+                byFranchise.put(branch.getFranchiseId(), id, id);
+                return branch;
+            });
+            topProducts.nameBranch(branch.getId(), branch.getName());
+            return branch;
+        });
+    }
+
+    @Override
+    public Mono<Branch> findById(String id) {
+        return Mono.defer(() -> Mono.justOrEmpty(branches.get(id)))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.BRANCH_NOT_FOUND)));
+    }
+
+    @Override
+    public Flux<Branch> findAllById(Collection<String> ids) {
+        return Flux.defer(() -> Flux.fromStream(ids.stream()
+                .distinct()
+                .map(branches::get)
+                .filter(Objects::nonNull)));
+    }
+
+    @Override
+    public Mono<Branch> findByIdAndFranchiseId(String id, String franchiseId) {
+        return Mono.defer(() -> Mono.justOrEmpty(branches.get(id)))
+                .filter(branch -> Objects.equals(branch.getFranchiseId(), franchiseId))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.BRANCH_NOT_FOUND)));
+    }
+
+    @Override
+    public Mono<PageResult<Branch>> findByFranchiseId(String franchiseId, int limit, String exclusiveStartKey) {
+        return Mono.fromSupplier(() -> {
+            String startAfter = cursorCodec.decode(exclusiveStartKey, INDEX, franchiseId);
+            SortedIndex.Slice slice = byFranchise.page(franchiseId, null, startAfter, Math.max(1, limit), false);
+            return PageResult.of(slice.ids().stream()
+                            .map(branches::get)
+                            .filter(Objects::nonNull)
+                            .toList(),
+                    cursorCodec.encode(slice.lastSortKey(), INDEX, franchiseId));
+        });
+    }
+
+    @Override
+    public Flux<Branch> streamByFranchiseId(String franchiseId) {
+        return Flux.defer(() -> Flux.fromIterable(byFranchise.ids(franchiseId)))
+                .mapNotNull(branches::get);
+    }
+
+    @Override
+    public Mono<Long> countByFranchiseId(String franchiseId) {
+        return Mono.fromSupplier(() -> byFranchise.size(franchiseId));
+    }
+
+    @Override
+    public Mono<Branch> updateName(String id, String name, Long updatedAt) {
+        return Mono.defer(() -> Mono.justOrEmpty(branches.computeIfPresent(id, (key, current) -> current.toBuilder()
+                        .name(name)
+                        .updatedAt(updatedAt)
+                        .build())))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.BRANCH_NOT_FOUND)))
+                .doOnNext(branch -> topProducts.nameBranch(branch.getId(), branch.getName()));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return findById(id)
+                .doOnNext(branch -> {
+                    if (branches.remove(id) != null) {
+                        byFranchise.remove(branch.getFranchiseId(), id);
+                    }
+                    topProducts.removeBranch(id);
+                })
+                .then();
+    }
+}
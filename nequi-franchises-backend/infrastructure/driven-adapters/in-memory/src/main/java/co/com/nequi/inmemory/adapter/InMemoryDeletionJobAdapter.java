@@ -0,0 +1,72 @@
+package co.com.nequi.inmemory.adapter;
+
+import co.com.nequi.model.deletion.DeletionJob;
+import co.com.nequi.model.deletion.DeletionJobStatus;
+import co.com.nequi.model.deletion.gateways.DeletionJobRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+@Profile("in-memory")
+public class InMemoryDeletionJobAdapter implements DeletionJobRepository {
+
+    private final Map<String, DeletionJob> jobs = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<DeletionJob> save(DeletionJob job) {
+        return Mono.fromSupplier(() -> {
+            jobs.put(job.getId(), job);
+            return job;
+        });
+    }
+
+    @Override
+    public Mono<DeletionJob> findById(String id) {
+        return Mono.fromSupplier(() -> jobs.get(id));
+    }
+
+    @Override
+    public Mono<Void> addProgress(String id, long branchesDeleted, long productsDeleted, Long updatedAt) {
+        return Mono.fromRunnable(() -> jobs.computeIfPresent(id, (key, job) -> job.toBuilder()
+                .branchesDeleted(job.getBranchesDeleted() + branchesDeleted)
+                .productsDeleted(job.getProductsDeleted() + productsDeleted)
+                .updatedAt(updatedAt)
+                .build()));
+    }
+
+    @Override
+    public Mono<Void> finish(String id, DeletionJobStatus status, String errorCode, Long updatedAt) {
+        return Mono.fromRunnable(() -> jobs.computeIfPresent(id, (key, job) -> job.toBuilder()
+                .status(status)
+                .errorCode(errorCode)
+                .updatedAt(updatedAt)
+                .build()));
+    }
+
+    @Override
+    public Flux<DeletionJob> findRunning() {
+        return Flux.defer(() -> Flux.fromIterable(jobs.values())
+                .filter(job -> job.getStatus() == DeletionJobStatus.RUNNING));
+    }
+
+    @Override
+    public Mono<DeletionJob> claim(String id, Long seenUpdatedAt, Long updatedAt) {
+        return Mono.fromSupplier(() -> {
+            DeletionJob[] claimed = new DeletionJob[1];
+            jobs.computeIfPresent(id, (key, job) -> {
+                if (job.getStatus() != DeletionJobStatus.RUNNING || !Objects.equals(job.getUpdatedAt(), seenUpdatedAt)) {
+                    return job;
+                }
+                claimed[0] = job.toBuilder().attempts(job.getAttempts() + 1).updatedAt(updatedAt).build();
+                return claimed[0];
+            });
+            return claimed[0];
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package co.com.nequi.inmemory.adapter;
+
+import co.com.nequi.inmemory.helper.InMemoryCursorCodec;
+import co.com.nequi.inmemory.helper.SortedIndex;
+import co.com.nequi.model.franchise.Franchise;
+import co.com.nequi.model.franchise.gateways.FranchiseRepository;
+import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Franchises share a single partition of {@code byFranchise} here: the write sharding of the
+ * DynamoDB adapter only spreads load, and listing them in id order keeps pages stable.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryFranchiseAdapter implements FranchiseRepository {
+
+    private static final String INDEX = "byFranchise";
+    private static final String PARTITION = "FRANCHISE";
+
+    private final Map<String, Franchise> franchises = new ConcurrentHashMap<>();
+    private final SortedIndex byFranchise = new SortedIndex();
+    private final InMemoryCursorCodec cursorCodec;
+
+    public InMemoryFranchiseAdapter(InMemoryCursorCodec cursorCodec) {
+        this.cursorCodec = cursorCodec;
+    }
+
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return Mono.fromSupplier(() -> {
+            franchises.put(franchise.getId(), franchise);
+            byFranchise.put(PARTITION, franchise.getId(), franchise.getId());
+            return franchise;
+        });
+    }
+
+    @Override
+    public Mono<Franchise> findById(String id) {
+        return Mono.defer(() -> Mono.justOrEmpty(franchises.get(id)))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.FRANCHISE_NOT_FOUND)));
+    }
+
+    @Override
+    public Flux<Franchise> findAllById(Collection<String> ids) {
+        return Flux.defer(() -> Flux.fromStream(ids.stream()
+                .distinct()
+                .map(franchises::get)
+                .filter(Objects::nonNull)));
+    }
+
+    @Override
+    public Mono<PageResult<Franchise>> findAll(int limit, String exclusiveStartKey) {
+        return Mono.fromSupplier(() -> {
+            String startAfter = cursorCodec.decode(exclusiveStartKey, INDEX, PARTITION);
+            SortedIndex.Slice slice = byFranchise.page(PARTITION, null, startAfter, Math.max(1, limit), false);
+            return PageResult.of(slice.ids().stream()
+                            .map(franchises::get)
+                            .filter(Objects::nonNull)
+                            .toList(),
+                    cursorCodec.encode(slice.lastSortKey(), INDEX, PARTITION));
+        });
+    }
+
+    @Override
+    public Flux<Franchise> streamAll() {
+        return Flux.defer(() -> Flux.fromIterable(byFranchise.ids(PARTITION)))
+                .mapNotNull(franchises::get);
+    }
+
+    @Override
+    public Mono<Franchise> updateName(String id, String name, Long updatedAt) {
+        return Mono.defer(() -> Mono.justOrEmpty(franchises.computeIfPresent(id, (key, current) -> current.toBuilder()
+                        .name(name)
+                        .updatedAt(updatedAt)
+                        .build())))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.FRANCHISE_NOT_FOUND)));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return findById(id)
+                .doOnNext(franchise -> {
+                    franchises.remove(id);
+                    byFranchise.remove(PARTITION, id);
+                })
+                .then();
+    }
+}
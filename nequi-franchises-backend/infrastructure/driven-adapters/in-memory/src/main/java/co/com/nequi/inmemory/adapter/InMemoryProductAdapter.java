@@ -0,0 +1,333 @@
+package co.com.nequi.inmemory.adapter;
+
+import co.com.nequi.inmemory.helper.IdempotencyKeys;
+import co.com.nequi.inmemory.helper.InMemoryCursorCodec;
+import co.com.nequi.inmemory.helper.InMemoryKeys;
+import co.com.nequi.inmemory.helper.SortedIndex;
+import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.model.product.BranchTopProduct;
+import co.com.nequi.model.product.Product;
+import co.com.nequi.model.product.StockAdjustment;
+import co.com.nequi.model.product.StockAdjustmentResult;
+import co.com.nequi.model.product.StockAdjustmentStatus;
+import co.com.nequi.model.product.gateways.ProductRepository;
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.BusinessException;
+import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import co.com.nequi.usecase.exception.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Products kept in a map by id, with one {@link SortedIndex} per DynamoDB index the queries use:
+ * {@code byBranch} and {@code byFranchise} by id, {@code topStockByBranch} by stock and
+ * {@code nameByBranch} by normalized name. Every write to a product and its index entries happens
+ * inside the map's per-key {@code compute}, so a stock change is atomic with its condition and a
+ * reader never sees an index pointing at a different version than the one that made it.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryProductAdapter implements ProductRepository {
+
+    private static final String BY_BRANCH = "byBranch";
+    private static final String BY_FRANCHISE = "byFranchise";
+    private static final String NAME_BY_BRANCH = "nameByBranch";
+
+    private final Map<String, Product> products = new ConcurrentHashMap<>();
+    private final SortedIndex byBranch = new SortedIndex();
+    private final SortedIndex byFranchise = new SortedIndex();
+    private final SortedIndex topStockByBranch = new SortedIndex();
+    private final SortedIndex nameByBranch = new SortedIndex();
+    private final IdempotencyKeys idempotencyKeys;
+    private final InMemoryTopProducts topProducts;
+    private final InMemoryCursorCodec cursorCodec;
+
+    public InMemoryProductAdapter(InMemoryTopProducts topProducts,
+                                  InMemoryCursorCodec cursorCodec,
+                                  @Value("${app.in-memory.idempotency-ttl-seconds:600}") long idempotencyTtlSeconds) {
+        this.topProducts = topProducts;
+        this.cursorCodec = cursorCodec;
+        this.idempotencyKeys = new IdempotencyKeys(idempotencyTtlSeconds);
+    }
+
+    @Override
+    public Mono<Product> save(Product product) {
+        return Mono.fromSupplier(() -> store(product));
+    }
+
+    @Override
+    public Flux<Product> saveAll(List<Product> products) {
+        return Flux.defer(() -> Flux.fromIterable(products).map(this::store));
+    }
+
+    @Override
+    public Mono<Product> findById(String id) {
+        return Mono.defer(() -> Mono.justOrEmpty(products.get(id)))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND)));
+    }
+
+    @Override
+    public Flux<Product> findAllById(Collection<String> ids) {
+        return Flux.defer(() -> Flux.fromStream(ids.stream()
+                .distinct()
+                .map(products::get)
+                .filter(Objects::nonNull)));
+    }
+
+    @Override
+    public Mono<Product> findByIdAndBranchId(String id, String branchId) {
+        return Mono.defer(() -> Mono.justOrEmpty(products.get(id)))
+                .filter(product -> Objects.equals(product.getBranchId(), branchId))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND)));
+    }
+
+    @Override
+    public Mono<PageResult<Product>> findByBranchId(String branchId, int limit, String exclusiveStartKey) {
+        return Mono.fromSupplier(() -> page(byBranch, BY_BRANCH, branchId, null, limit, exclusiveStartKey));
+    }
+
+    @Override
+    public Mono<PageResult<Product>> findByFranchiseId(String franchiseId, int limit, String exclusiveStartKey) {
+        return Mono.fromSupplier(() -> page(byFranchise, BY_FRANCHISE, franchiseId, null, limit, exclusiveStartKey));
+    }
+
+    /**
+     * Cursors are bound to the prefix as well as the branch, since a sort key from another prefix
+     * would fall outside the range being listed.
+     */
+    @Override
+    public Mono<PageResult<Product>> searchByName(String branchId, String prefix, int limit, String exclusiveStartKey) {
+        String normalizedPrefix = InMemoryKeys.normalizeName(prefix);
+        if (normalizedPrefix == null || normalizedPrefix.isBlank()) {
+            return Mono.error(() -> new ValidationException(ExceptionMessage.PRODUCT_NAME_REQUIRED));
+        }
+        return Mono.fromSupplier(() -> page(nameByBranch, NAME_BY_BRANCH, branchId,
+                InMemoryKeys.namePrefix(normalizedPrefix), limit, exclusiveStartKey));
+    }
+
+    @Override
+    public Flux<Product> streamByBranch(String branchId) {
+        return Flux.defer(() -> Flux.fromIterable(byBranch.ids(branchId)))
+                .mapNotNull(products::get);
+    }
+
+    @Override
+    public Mono<Long> countByBranchId(String branchId) {
+        return Mono.fromSupplier(() -> byBranch.size(branchId));
+    }
+
+    @Override
+    public Mono<Long> countByFranchiseId(String franchiseId) {
+        return Mono.fromSupplier(() -> byFranchise.size(franchiseId));
+    }
+
+    @Override
+    public Mono<Product> changeStockAtomic(String productId, int delta, String idempotencyKey) {
+        return Mono.defer(() -> {
+            String key = buildIdempotencyId(productId, idempotencyKey);
+            if (!idempotencyKeys.register(key)) {
+                return findById(productId);
+            }
+            try {
+                Product product = applyStockDelta(productId, null, delta);
+                elect(product.getBranchId());
+                return Mono.just(product);
+            } catch (BusinessException ex) {
+                idempotencyKeys.release(key);
+                return Mono.error(ex);
+            }
+        });
+    }
+
+    /**
+     * Applies each adjustment on its own, in order. Unlike the DynamoDB transactions there is no
+     * contention to retry, so an adjustment is only rejected for the reason it names.
+     */
+    @Override
+    public Flux<StockAdjustmentResult> changeStockBatch(String branchId, List<StockAdjustment> adjustments) {
+        return Flux.defer(() -> Flux.fromIterable(adjustments)
+                .map(adjustment -> adjust(branchId, adjustment))
+                .concatWith(Mono.fromRunnable(() -> elect(branchId))));
+    }
+
+    private StockAdjustmentResult adjust(String branchId, StockAdjustment adjustment) {
+        String key = buildIdempotencyId(adjustment.getProductId(), adjustment.getIdempotencyKey());
+        if (!idempotencyKeys.register(key)) {
+            return StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.REPLAYED, null);
+        }
+        try {
+            applyStockDelta(adjustment.getProductId(), branchId, adjustment.getDelta());
+            return StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.APPLIED, null);
+        } catch (BusinessException ex) {
+            idempotencyKeys.release(key);
+            return StockAdjustmentResult.of(adjustment, StockAdjustmentStatus.REJECTED, ex.getCode());
+        }
+    }
+
+    /**
+     * Same condition as the DynamoDB update: the product must exist, belong to the branch when one
+     * is given, and keep a stock of zero or more.
+     */
+    private Product applyStockDelta(String productId, String branchId, int delta) {
+        long now = Instant.now().toEpochMilli();
+        Product updated = products.computeIfPresent(productId, (id, current) -> {
+            if (branchId != null && !branchId.equals(current.getBranchId())) {
+                throw new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND);
+            }
+            long stock = (long) current.getStock() + delta;
+            if (stock < 0 || stock > Integer.MAX_VALUE) {
+                throw new ValidationException(ExceptionMessage.PRODUCT_STOCK_INVALID);
+            }
+            Product next = current.toBuilder()
+                    .stock((int) stock)
+                    .updatedAt(now)
+                    .build();
+            topStockByBranch.remove(current.getBranchId(), InMemoryKeys.stock(current.getStock(), id));
+            topStockByBranch.put(next.getBranchId(), InMemoryKeys.stock(next.getStock(), id), id);
+            return next;
+        });
+        if (updated == null) {
+            throw new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND);
+        }
+        return updated;
+    }
+
+    @Override
+    public Mono<Product> updateName(String id, String name, Long updatedAt) {
+        return Mono.defer(() -> Mono.justOrEmpty(products.computeIfPresent(id, (key, current) -> {
+                    Product next = current.toBuilder()
+                            .name(name)
+                            .updatedAt(updatedAt)
+                            .build();
+                    nameByBranch.remove(current.getBranchId(), InMemoryKeys.nameSortKey(current.getName(), id));
+                    nameByBranch.put(next.getBranchId(), InMemoryKeys.nameSortKey(next.getName(), id), id);
+                    return next;
+                })))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(ExceptionMessage.PRODUCT_NOT_FOUND)))
+                .doOnNext(product -> elect(product.getBranchId()));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return findById(id)
+                .doOnNext(this::remove)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteByBranchAndId(String branchId, String productId) {
+        return findByIdAndBranchId(productId, branchId)
+                .doOnNext(this::remove)
+                .then();
+    }
+
+    @Override
+    public Flux<String> deleteAllByBranchId(String branchId) {
+        return Flux.defer(() -> Flux.fromIterable(byBranch.ids(branchId)))
+                .filter(this::delete)
+                .concatWith(Mono.fromRunnable(() -> {
+                    byBranch.drop(branchId);
+                    topStockByBranch.drop(branchId);
+                    nameByBranch.drop(branchId);
+                    elect(branchId);
+                }));
+    }
+
+    @Override
+    public Mono<Product> findTopByBranchId(String branchId) {
+        return Mono.fromSupplier(() -> leaderOf(branchId));
+    }
+
+    @Override
+    public Mono<PageResult<BranchTopProduct>> findTopByFranchiseId(String franchiseId, int limit, String exclusiveStartKey) {
+        return topProducts.findByFranchiseId(franchiseId, limit, exclusiveStartKey);
+    }
+
+    @Override
+    public Flux<BranchTopProduct> streamTopByFranchiseId(String franchiseId) {
+        return topProducts.streamByFranchiseId(franchiseId);
+    }
+
+    private Product store(Product product) {
+        Product[] previous = new Product[1];
+        products.compute(product.getId(), (id, current) -> {
+            if (current != null) {
+                unindex(current);
+            }
+            index(product);
+            previous[0] = current;
+            return product;
+        });
+        if (previous[0] != null && !previous[0].getBranchId().equals(product.getBranchId())) {
+            elect(previous[0].getBranchId());
+        }
+        elect(product.getBranchId());
+        return product;
+    }
+
+    private void remove(Product product) {
+        delete(product.getId());
+        elect(product.getBranchId());
+    }
+
+    private boolean delete(String id) {
+        boolean[] deleted = {false};
+        products.computeIfPresent(id, (key, current) -> {
+            unindex(current);
+            deleted[0] = true;
+            return null;
+        });
+        return deleted[0];
+    }
+
+    private void index(Product product) {
+        String id = product.getId();
+        byBranch.put(product.getBranchId(), id, id);
+        byFranchise.put(product.getFranchiseId(), id, id);
+        topStockByBranch.put(product.getBranchId(), InMemoryKeys.stock(product.getStock(), id), id);
+        nameByBranch.put(product.getBranchId(), InMemoryKeys.nameSortKey(product.getName(), id), id);
+    }
+
+    private void unindex(Product product) {
+        String id = product.getId();
+        byBranch.remove(product.getBranchId(), id);
+        byFranchise.remove(product.getFranchiseId(), id);
+        topStockByBranch.remove(product.getBranchId(), InMemoryKeys.stock(product.getStock(), id));
+        nameByBranch.remove(product.getBranchId(), InMemoryKeys.nameSortKey(product.getName(), id));
+    }
+
+    private void elect(String branchId) {
+        topProducts.elect(branchId, () -> leaderOf(branchId));
+    }
+
+    private Product leaderOf(String branchId) {
+        String id = topStockByBranch.last(branchId);
+        return id == null ? null : products.get(id);
+    }
+
+    private PageResult<Product> page(SortedIndex index, String indexName, String partition, String prefix,
+                                     int limit, String exclusiveStartKey) {
+        String scope = prefix == null ? partition : partition + "#" + prefix;
+        String startAfter = cursorCodec.decode(exclusiveStartKey, indexName, scope);
+        SortedIndex.Slice slice = index.page(partition, prefix, startAfter, Math.max(1, limit), false);
+        return PageResult.of(slice.ids().stream()
+                        .map(products::get)
+                        .filter(Objects::nonNull)
+                        .toList(),
+                cursorCodec.encode(slice.lastSortKey(), indexName, scope));
+    }
+
+    private String buildIdempotencyId(String productId, String idempotencyKey) {
+        return productId + "#" + idempotencyKey;
+    }
+}
@@ -0,0 +1,92 @@
+package co.com.nequi.inmemory.adapter;
+
+import co.com.nequi.inmemory.helper.InMemoryCursorCodec;
+import co.com.nequi.inmemory.helper.InMemoryKeys;
+import co.com.nequi.inmemory.helper.SortedIndex;
+import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.model.product.BranchTopProduct;
+import co.com.nequi.model.product.Product;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Leader of every branch, indexed by franchise and stock like the {@code topByFranchise} index.
+ * Elections for a branch are serialized, and each one reads the branch's current leader, so the
+ * projection converges to the products even when writes race.
+ */
+@Component
+@Profile("in-memory")
+public class InMemoryTopProducts {
+
+    private static final String INDEX = "topByFranchise";
+
+    private final Map<String, Leader> leaders = new ConcurrentHashMap<>();
+    private final Map<String, String> branchNames = new ConcurrentHashMap<>();
+    private final SortedIndex byFranchise = new SortedIndex();
+    private final InMemoryCursorCodec cursorCodec;
+
+    public InMemoryTopProducts(InMemoryCursorCodec cursorCodec) {
+        this.cursorCodec = cursorCodec;
+    }
+
+    private record Leader(String franchiseId, String sortKey, Product product) {
+    }
+
+    public void elect(String branchId, Supplier<Product> currentLeader) {
+        leaders.compute(branchId, (id, previous) -> {
+            if (previous != null) {
+                byFranchise.remove(previous.franchiseId(), previous.sortKey());
+            }
+            Product leader = currentLeader.get();
+            if (leader == null) {
+                return null;
+            }
+            String sortKey = InMemoryKeys.stock(leader.getStock(), branchId);
+            byFranchise.put(leader.getFranchiseId(), sortKey, branchId);
+            return new Leader(leader.getFranchiseId(), sortKey, leader);
+        });
+    }
+
+    public void nameBranch(String branchId, String name) {
+        branchNames.put(branchId, name);
+    }
+
+    public void removeBranch(String branchId) {
+        elect(branchId, () -> null);
+        branchNames.remove(branchId);
+    }
+
+    public Mono<PageResult<BranchTopProduct>> findByFranchiseId(String franchiseId, int limit, String exclusiveStartKey) {
+        return Mono.fromSupplier(() -> {
+            String startAfter = cursorCodec.decode(exclusiveStartKey, INDEX, franchiseId);
+            SortedIndex.Slice slice = byFranchise.page(franchiseId, null, startAfter, Math.max(1, limit), true);
+            return PageResult.of(toTopProducts(slice.ids()),
+                    cursorCodec.encode(slice.lastSortKey(), INDEX, franchiseId));
+        });
+    }
+
+    public Flux<BranchTopProduct> streamByFranchiseId(String franchiseId) {
+        return Flux.defer(() -> Flux.fromIterable(toTopProducts(
+                byFranchise.page(franchiseId, null, null, Integer.MAX_VALUE, true).ids())));
+    }
+
+    private List<BranchTopProduct> toTopProducts(List<String> branchIds) {
+        return branchIds.stream()
+                .map(leaders::get)
+                .filter(Objects::nonNull)
+                .map(leader -> BranchTopProduct.builder()
+                        .branchId(leader.product().getBranchId())
+                        .branchName(branchNames.get(leader.product().getBranchId()))
+                        .product(leader.product())
+                        .build())
+                .toList();
+    }
+}
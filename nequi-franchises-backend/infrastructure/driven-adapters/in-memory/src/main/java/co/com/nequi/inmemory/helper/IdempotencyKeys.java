@@ -0,0 +1,46 @@
+package co.com.nequi.inmemory.helper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idempotency keys of stock changes, held until they expire like the {@code IDEMPOTENCY#} items
+ * do through the table TTL. Expired keys are dropped every {@value #PURGE_EVERY} registrations
+ * rather than on a timer.
+ */
+public final class IdempotencyKeys {
+
+    private static final int PURGE_EVERY = 4096;
+
+    private final Map<String, Long> expirations = new ConcurrentHashMap<>();
+    private final AtomicLong registrations = new AtomicLong();
+    private final long ttlMillis;
+
+    public IdempotencyKeys(long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Claims the key, returning {@code false} when an unexpired claim already holds it.
+     */
+    public boolean register(String key) {
+        long now = System.currentTimeMillis();
+        boolean[] registered = {false};
+        expirations.compute(key, (k, expiresAt) -> {
+            if (expiresAt != null && expiresAt > now) {
+                return expiresAt;
+            }
+            registered[0] = true;
+            return now + ttlMillis;
+        });
+        if (registrations.incrementAndGet() % PURGE_EVERY == 0) {
+            expirations.values().removeIf(expiresAt -> expiresAt <= now);
+        }
+        return registered[0];
+    }
+
+    public void release(String key) {
+        expirations.remove(key);
+    }
+}
@@ -0,0 +1,110 @@
+package co.com.nequi.inmemory.helper;
+
+import co.com.nequi.usecase.constant.ExceptionMessage;
+import co.com.nequi.usecase.exception.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Opaque cursors over a {@link SortedIndex}, with the same guarantees as the DynamoDB ones: the
+ * URL-safe Base64 of
+ * <pre>
+ * version(1) | sortKey | tag(12)
+ * </pre>
+ * where {@code tag} is a truncated HMAC-SHA256 over the index, the partition value and the payload,
+ * so a cursor cannot be forged nor replayed against another listing. Cursors are only valid on the
+ * instance that issued them, since the store itself is.
+ */
+@Component
+@Profile("in-memory")
+public class InMemoryCursorCodec {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int TAG_LENGTH = 12;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public InMemoryCursorCodec(@Value("${app.pagination.cursor-secret:}") String secret) {
+        this.key = new SecretKeySpec(secretBytes(secret), HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String encode(String lastSortKey, String index, String partition) {
+        if (lastSortKey == null) {
+            return null;
+        }
+        byte[] sortKey = lastSortKey.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[1 + sortKey.length + TAG_LENGTH];
+        bytes[0] = VERSION;
+        System.arraycopy(sortKey, 0, bytes, 1, sortKey.length);
+        int payloadLength = 1 + sortKey.length;
+        System.arraycopy(tag(index, partition, bytes, payloadLength), 0, bytes, payloadLength, TAG_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public String decode(String cursor, String index, String partition) {
+        if (cursor == null) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+        if (bytes.length < 1 + TAG_LENGTH || bytes[0] != VERSION) {
+            throw invalidCursor();
+        }
+        int payloadLength = bytes.length - TAG_LENGTH;
+        byte[] expected = tag(index, partition, bytes, payloadLength);
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(bytes, payloadLength, bytes.length))) {
+            throw invalidCursor();
+        }
+        return new String(bytes, 1, payloadLength - 1, StandardCharsets.UTF_8);
+    }
+
+    private byte[] tag(String index, String partition, byte[] payload, int payloadLength) {
+        Mac mac = macs.get();
+        mac.update(index.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(partition.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(payload, 0, payloadLength);
+        return Arrays.copyOf(mac.doFinal(), TAG_LENGTH);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize pagination cursor signing", e);
+        }
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret != null && !secret.isBlank()) {
+            return secret.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+
+    private static ValidationException invalidCursor() {
+        return new ValidationException(ExceptionMessage.INVALID_PAGINATION_CURSOR);
+    }
+}
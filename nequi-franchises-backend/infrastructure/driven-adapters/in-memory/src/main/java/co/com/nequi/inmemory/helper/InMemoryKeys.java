@@ -0,0 +1,32 @@
+package co.com.nequi.inmemory.helper;
+
+import java.util.Locale;
+
+/**
+ * Sort keys of the in-memory indexes, laid out so that string order matches the DynamoDB ones:
+ * names as in {@code nameByBranch}, stock zero-padded so it sorts numerically.
+ */
+public final class InMemoryKeys {
+
+    private static final int STOCK_DIGITS = 10;
+
+    private InMemoryKeys() {
+    }
+
+    public static String stock(int stock, String id) {
+        String digits = Integer.toString(stock);
+        return "0".repeat(Math.max(0, STOCK_DIGITS - digits.length())) + digits + "#" + id;
+    }
+
+    public static String normalizeName(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String nameSortKey(String name, String productId) {
+        return "NAME#" + normalizeName(name) + "#PROD#" + productId;
+    }
+
+    public static String namePrefix(String normalizedPrefix) {
+        return "NAME#" + normalizedPrefix;
+    }
+}
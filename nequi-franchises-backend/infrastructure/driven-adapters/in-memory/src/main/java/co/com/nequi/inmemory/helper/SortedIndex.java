@@ -0,0 +1,101 @@
+package co.com.nequi.inmemory.helper;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory counterpart of a DynamoDB index: entries are grouped by partition value and kept in
+ * sort-key order, each pointing at the id of the item it indexes. Partitions keep their own size,
+ * so counting a partition does not walk it.
+ */
+public final class SortedIndex {
+
+    private static final char PREFIX_END = Character.MAX_VALUE;
+
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * Ids of one page and the sort key to resume after, {@code null} once the partition is exhausted.
+     */
+    public record Slice(List<String> ids, String lastSortKey) {
+    }
+
+    public void put(String partition, String sortKey, String id) {
+        Partition target = partitions.computeIfAbsent(partition, key -> new Partition());
+        if (target.entries.put(sortKey, id) == null) {
+            target.size.incrementAndGet();
+        }
+    }
+
+    public void remove(String partition, String sortKey) {
+        Partition target = partitions.get(partition);
+        if (target != null && target.entries.remove(sortKey) != null) {
+            target.size.decrementAndGet();
+        }
+    }
+
+    public void drop(String partition) {
+        partitions.remove(partition);
+    }
+
+    public long size(String partition) {
+        Partition target = partitions.get(partition);
+        return target == null ? 0 : target.size.get();
+    }
+
+    /**
+     * Id under the highest sort key of the partition, or {@code null} when it is empty.
+     */
+    public String last(String partition) {
+        Partition target = partitions.get(partition);
+        Map.Entry<String, String> last = target == null ? null : target.entries.lastEntry();
+        return last == null ? null : last.getValue();
+    }
+
+    public List<String> ids(String partition) {
+        Partition target = partitions.get(partition);
+        return target == null ? List.of() : List.copyOf(target.entries.values());
+    }
+
+    /**
+     * Up to {@code limit} ids after {@code startAfter}, restricted to sort keys beginning with
+     * {@code prefix} when one is given. {@code startAfter} must come from a previous slice of the
+     * same partition and prefix.
+     */
+    public Slice page(String partition, String prefix, String startAfter, int limit, boolean descending) {
+        Partition target = partitions.get(partition);
+        if (target == null) {
+            return new Slice(List.of(), null);
+        }
+        NavigableMap<String, String> view = prefix == null
+                ? target.entries
+                : target.entries.subMap(prefix, true, prefix + PREFIX_END, false);
+        if (descending) {
+            view = view.descendingMap();
+        }
+        if (startAfter != null) {
+            view = view.tailMap(startAfter, false);
+        }
+
+        List<String> ids = new ArrayList<>(Math.min(limit, 64));
+        String lastSortKey = null;
+        Iterator<Map.Entry<String, String>> iterator = view.entrySet().iterator();
+        while (ids.size() < limit && iterator.hasNext()) {
+            Map.Entry<String, String> entry = iterator.next();
+            ids.add(entry.getValue());
+            lastSortKey = entry.getKey();
+        }
+        return new Slice(ids, iterator.hasNext() ? lastSortKey : null);
+    }
+
+    private static final class Partition {
+        private final ConcurrentSkipListMap<String, String> entries = new ConcurrentSkipListMap<>();
+        private final AtomicLong size = new AtomicLong();
+    }
+}
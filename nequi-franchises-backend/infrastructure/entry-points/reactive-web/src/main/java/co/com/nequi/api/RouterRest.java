@@ -1,8 +1,10 @@
 package co.com.nequi.api;
 
 import co.com.nequi.api.handler.BranchHandler;
+import co.com.nequi.api.handler.DeletionJobHandler;
 import co.com.nequi.api.handler.FranchiseHandler;
 import co.com.nequi.api.handler.ProductHandler;
+import co.com.nequi.api.handler.StreamingResponses;
 import org.springdoc.core.annotations.RouterOperation;
 import org.springdoc.core.annotations.RouterOperations;
 import org.springframework.context.annotation.Bean;
@@ -33,6 +35,9 @@ public class RouterRest {
                     beanClass = BranchHandler.class, beanMethod = "create"),
             @RouterOperation(path = "/v1/franchises/{fid}/branches", method = RequestMethod.GET,
                     beanClass = BranchHandler.class, beanMethod = "getByFranchise"),
+            @RouterOperation(path = "/v1/franchises/{fid}/branches", method = RequestMethod.GET,
+                    produces = {"application/x-ndjson", "text/event-stream"},
+                    beanClass = BranchHandler.class, beanMethod = "streamByFranchise"),
             @RouterOperation(path = "/v1/branches/{bid}", method = RequestMethod.GET,
                     beanClass = BranchHandler.class, beanMethod = "getById"),
             @RouterOperation(path = "/v1/franchises/{fid}/branches/{bid}/name", method = RequestMethod.PATCH,
@@ -40,24 +45,41 @@ public class RouterRest {
             @RouterOperation(path = "/v1/franchises/{fid}/branches/{bid}", method = RequestMethod.DELETE,
                     beanClass = BranchHandler.class, beanMethod = "delete"),
 
+            @RouterOperation(path = "/v1/products", method = RequestMethod.GET,
+                    beanClass = ProductHandler.class, beanMethod = "getByIds"),
             @RouterOperation(path = "/v1/franchises/{fid}/branches/{bid}/products", method = RequestMethod.POST,
                     beanClass = ProductHandler.class, beanMethod = "create"),
             @RouterOperation(path = "/v1/franchises/{fid}/branches/{bid}/products", method = RequestMethod.GET,
                     beanClass = ProductHandler.class, beanMethod = "listByBranch"),
+            @RouterOperation(path = "/v1/franchises/{fid}/branches/{bid}/products", method = RequestMethod.GET,
+                    produces = {"application/x-ndjson", "text/event-stream"},
+                    beanClass = ProductHandler.class, beanMethod = "streamByBranch"),
             @RouterOperation(path = "/v1/franchises/{fid}/branches/{bid}/products/search", method = RequestMethod.GET,
                     beanClass = ProductHandler.class, beanMethod = "searchByName"),
             @RouterOperation(path = "/v1/franchises/{fid}/branches/{bid}/products/{pid}/name", method = RequestMethod.PATCH,
                     beanClass = ProductHandler.class, beanMethod = "updateName"),
             @RouterOperation(path = "/v1/franchises/{fid}/branches/{bid}/products/{pid}/stock", method = RequestMethod.PATCH,
                     beanClass = ProductHandler.class, beanMethod = "changeStock"),
+            @RouterOperation(path = "/v1/franchises/{fid}/branches/{bid}/products/stock:batch", method = RequestMethod.POST,
+                    beanClass = ProductHandler.class, beanMethod = "changeStockBatch"),
+            @RouterOperation(path = "/v1/franchises/{fid}/branches/{bid}/products:import", method = RequestMethod.POST,
+                    consumes = {"application/x-ndjson", "text/csv"}, produces = "application/x-ndjson",
+                    beanClass = ProductHandler.class, beanMethod = "importProducts"),
             @RouterOperation(path = "/v1/franchises/{fid}/branches/{bid}/products/{pid}", method = RequestMethod.DELETE,
                     beanClass = ProductHandler.class, beanMethod = "deleteByBranch"),
             @RouterOperation(path = "/v1/franchises/{fid}/branches/top-products", method = RequestMethod.GET,
-                    beanClass = ProductHandler.class, beanMethod = "topByFranchise")
+                    beanClass = ProductHandler.class, beanMethod = "topByFranchise"),
+            @RouterOperation(path = "/v1/franchises/{fid}/branches/top-products", method = RequestMethod.GET,
+                    produces = {"application/x-ndjson", "text/event-stream"},
+                    beanClass = ProductHandler.class, beanMethod = "streamTopByFranchise"),
+
+            @RouterOperation(path = "/v1/deletion-jobs/{jid}", method = RequestMethod.GET,
+                    beanClass = DeletionJobHandler.class, beanMethod = "getById")
     })
     public RouterFunction<ServerResponse> routerFunction(FranchiseHandler franchiseHandler,
                                                          BranchHandler branchHandler,
                                                          ProductHandler productHandler,
+                                                         DeletionJobHandler deletionJobHandler,
                                                          HandlerFilterFunction<ServerResponse, ServerResponse> errorFilter) {
         return route().filter(errorFilter).path("/v1", builder -> builder
                 .POST("/franchises", franchiseHandler::create)
@@ -67,19 +89,27 @@ public class RouterRest {
                 .DELETE("/franchises/{fid}", franchiseHandler::delete)
 
                 .POST("/franchises/{fid}/branches", branchHandler::create)
+                .GET("/franchises/{fid}/branches", StreamingResponses.ACCEPTS_STREAM, branchHandler::streamByFranchise)
                 .GET("/franchises/{fid}/branches", branchHandler::getByFranchise)
                 .GET("/branches/{bid}", branchHandler::getById)
                 .PATCH("/franchises/{fid}/branches/{bid}/name", branchHandler::updateName)
                 .DELETE("/franchises/{fid}/branches/{bid}", branchHandler::delete)
 
+                .GET("/products", productHandler::getByIds)
                 .POST("/franchises/{fid}/branches/{bid}/products", productHandler::create)
+                .GET("/franchises/{fid}/branches/{bid}/products", StreamingResponses.ACCEPTS_STREAM, productHandler::streamByBranch)
                 .GET("/franchises/{fid}/branches/{bid}/products", productHandler::listByBranch)
                 .GET("/franchises/{fid}/branches/{bid}/products/search", productHandler::searchByName)
                 .PATCH("/franchises/{fid}/branches/{bid}/products/{pid}/name", productHandler::updateName)
                 .PATCH("/franchises/{fid}/branches/{bid}/products/{pid}/stock", productHandler::changeStock)
+                .POST("/franchises/{fid}/branches/{bid}/products/stock:batch", productHandler::changeStockBatch)
+                .POST("/franchises/{fid}/branches/{bid}/products:import", productHandler::importProducts)
                 .DELETE("/franchises/{fid}/branches/{bid}/products/{pid}", productHandler::deleteByBranch)
 
+                .GET("/franchises/{fid}/branches/top-products", StreamingResponses.ACCEPTS_STREAM, productHandler::streamTopByFranchise)
                 .GET("/franchises/{fid}/branches/top-products", productHandler::topByFranchise)
+
+                .GET("/deletion-jobs/{jid}", deletionJobHandler::getById)
         ).build();
     }
 }
@@ -0,0 +1,123 @@
+package co.com.nequi.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One access-log line per request on the {@code co.com.nequi.api.access} logger. Responses with a
+ * 4xx status are always logged at WARN and 5xx or failed exchanges at ERROR; successful ones are
+ * sampled at {@code app.access-log.success-sample-rate} and logged at the level configured for the
+ * route in {@code app.access-log.route-levels} ({@code OFF} silences it), INFO otherwise.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger("co.com.nequi.api.access");
+    private static final String OFF = "OFF";
+    private static final String NO_ROUTE = "-";
+
+    private final boolean enabled;
+    private final double successSampleRate;
+    private final Map<PathPattern, Level> routeLevels;
+
+    public AccessLogFilter(@Value("${app.access-log.enabled:true}") boolean enabled,
+                           @Value("${app.access-log.success-sample-rate:0.01}") double successSampleRate,
+                           @Value("${app.access-log.route-levels:}") String routeLevels) {
+        this.enabled = enabled;
+        this.successSampleRate = successSampleRate;
+        this.routeLevels = parseRouteLevels(routeLevels);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> logCompleted(exchange, start))
+                .doOnCancel(() -> logCompleted(exchange, start))
+                .doOnError(ex -> logFailed(exchange, start, ex));
+    }
+
+    private void logCompleted(ServerWebExchange exchange, long start) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        int code = status == null ? 200 : status.value();
+        if (code >= 500) {
+            write(Level.ERROR, exchange, code, start);
+        } else if (code >= 400) {
+            write(Level.WARN, exchange, code, start);
+        } else if (ThreadLocalRandom.current().nextDouble() < successSampleRate) {
+            Level level = levelFor(exchange);
+            if (level != null && log.isEnabledForLevel(level)) {
+                write(level, exchange, code, start);
+            }
+        }
+    }
+
+    private void logFailed(ServerWebExchange exchange, long start, Throwable ex) {
+        int code = ex instanceof ResponseStatusException statusException ? statusException.getStatusCode().value() : 500;
+        write(code >= 500 ? Level.ERROR : Level.WARN, exchange, code, start);
+    }
+
+    private void write(Level level, ServerWebExchange exchange, int status, long start) {
+        PathPattern route = exchange.getAttribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE);
+        log.atLevel(level).log("method={} route={} path={} status={} durationMs={}",
+                exchange.getRequest().getMethod(),
+                route == null ? NO_ROUTE : route.getPatternString(),
+                exchange.getRequest().getPath().value(),
+                status,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * The level of the first configured pattern matching the request path; {@code null} for OFF.
+     */
+    private Level levelFor(ServerWebExchange exchange) {
+        for (Map.Entry<PathPattern, Level> entry : routeLevels.entrySet()) {
+            if (entry.getKey().matches(exchange.getRequest().getPath().pathWithinApplication())) {
+                return entry.getValue();
+            }
+        }
+        return Level.INFO;
+    }
+
+    /**
+     * Parses {@code /actuator/**=OFF,/v1/franchises/{fid}/branches/{bid}/products=DEBUG}.
+     */
+    private static Map<PathPattern, Level> parseRouteLevels(String spec) {
+        Map<PathPattern, Level> parsed = new LinkedHashMap<>();
+        if (spec == null) {
+            return parsed;
+        }
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.split("=");
+            if (pair.length == 2 && !pair[0].isBlank()) {
+                String level = pair[1].strip().toUpperCase(Locale.ROOT);
+                parsed.put(PathPatternParser.defaultInstance.parse(pair[0].strip()),
+                        OFF.equals(level) ? null : Level.valueOf(level));
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,39 @@
+package co.com.nequi.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Recognizes bulk clients (exports, integrations) by the {@code X-Bulk-Client-Key} header, checked
+ * against {@code app.pagination.bulk-client-keys}. Bulk clients may request larger pages.
+ */
+@Component
+public class BulkClients {
+
+    public static final String KEY_HEADER = "X-Bulk-Client-Key";
+
+    private final List<byte[]> keys;
+
+    public BulkClients(@Value("${app.pagination.bulk-client-keys:}") String keys) {
+        this.keys = Arrays.stream(keys.split(","))
+                .map(String::strip)
+                .filter(key -> !key.isEmpty())
+                .map(key -> key.getBytes(StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    public boolean isBulk(ServerRequest req) {
+        String presented = req.headers().firstHeader(KEY_HEADER);
+        if (presented == null || keys.isEmpty()) {
+            return false;
+        }
+        byte[] candidate = presented.getBytes(StandardCharsets.UTF_8);
+        return keys.stream().anyMatch(key -> MessageDigest.isEqual(key, candidate));
+    }
+}
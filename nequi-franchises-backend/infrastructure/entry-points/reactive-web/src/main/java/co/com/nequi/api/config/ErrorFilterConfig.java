@@ -16,15 +16,14 @@ public class ErrorFilterConfig {
     @Bean
     public HandlerFilterFunction<ServerResponse, ServerResponse> errorFilter(ErrorHttpMapper mapper) {
         return (request, next) -> next.handle(request)
-                .doOnSubscribe(ignored ->
-                        log.debug("Handling {} {}", request.methodName(), request.path()))
-                .doOnNext(response ->
-                        log.debug("Completed {} {} -> {}", request.methodName(), request.path(), response.statusCode()))
-                .onErrorResume(ex -> {
-                    log.error("Unhandled exception processing {} {}: {}", request.methodName(), request.path(), ex.getMessage(), ex);
-                    return mapper.toResponse(ex)
-                            .doOnNext(errorResponse ->
-                                    log.debug("Mapped error response for {} {} -> {}", request.methodName(), request.path(), errorResponse.statusCode()));
-                });
+                .onErrorResume(ex -> mapper.toResponse(ex)
+                        .doOnNext(errorResponse -> {
+                            if (errorResponse.statusCode().is4xxClientError()) {
+                                log.debug("Rejected {} {} -> {}: {}", request.methodName(), request.path(),
+                                        errorResponse.statusCode(), ex.getMessage());
+                            } else {
+                                log.error("Unhandled exception processing {} {}: {}", request.methodName(), request.path(), ex.getMessage(), ex);
+                            }
+                        }));
     }
 }
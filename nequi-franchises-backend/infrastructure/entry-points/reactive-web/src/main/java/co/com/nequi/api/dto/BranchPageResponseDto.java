@@ -20,4 +20,13 @@ public class BranchPageResponseDto {
 
     @Schema(description = "Cursor para la siguiente página", nullable = true)
     private String lastEvaluatedKey;
+
+    @Schema(description = "Total de elementos del listado según su contador (también en el header X-Total-Count)", nullable = true)
+    private Long totalCount;
+
+    @Schema(description = "Indica que existe una siguiente página, que puede solicitarse con lastEvaluatedKey mientras se procesa la actual")
+    private boolean hasMore;
+
+    @Schema(description = "Páginas del tamaño solicitado que ocupa el listado completo, según su contador", nullable = true)
+    private Long pageCount;
 }
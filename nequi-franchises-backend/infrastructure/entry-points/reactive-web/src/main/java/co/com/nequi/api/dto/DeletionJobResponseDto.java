@@ -0,0 +1,33 @@
+package co.com.nequi.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "DeletionJobResponse", description = "Estado de una eliminación en cascada")
+public class DeletionJobResponseDto {
+    @Schema(example = "j123")
+    private String id;
+    @Schema(description = "BRANCH o FRANCHISE", example = "FRANCHISE")
+    private String targetType;
+    @Schema(example = "f123")
+    private String targetId;
+    @Schema(description = "RUNNING, COMPLETED o FAILED", example = "RUNNING")
+    private String status;
+    @Schema(example = "3")
+    private long branchesDeleted;
+    @Schema(example = "1500")
+    private long productsDeleted;
+    @Schema(example = "DELETION_FAILED", nullable = true)
+    private String errorCode;
+    @Schema(example = "1730409600000")
+    private Long createdAt;
+    @Schema(example = "1730409600000")
+    private Long updatedAt;
+}
@@ -0,0 +1,25 @@
+package co.com.nequi.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "ProductImportResultResponse", description = "Resultado de una fila de la importación masiva")
+public class ProductImportResultResponseDto {
+    @Schema(description = "Línea del archivo de entrada", example = "3")
+    private long line;
+    @Schema(example = "p789", nullable = true)
+    private String productId;
+    @Schema(example = "Big Mac", nullable = true)
+    private String name;
+    @Schema(description = "CREATED o REJECTED", example = "CREATED")
+    private String status;
+    @Schema(example = "PRODUCT_STOCK_INVALID", nullable = true)
+    private String errorCode;
+}
@@ -0,0 +1,20 @@
+package co.com.nequi.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "ProductListResponse", description = "Productos encontrados para los ids solicitados")
+public class ProductListResponseDto {
+
+    @Schema(description = "Productos existentes; los ids inexistentes se omiten")
+    private List<ProductResponseDto> items;
+}
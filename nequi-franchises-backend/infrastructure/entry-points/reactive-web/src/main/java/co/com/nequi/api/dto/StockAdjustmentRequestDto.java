@@ -0,0 +1,21 @@
+package co.com.nequi.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "StockAdjustmentRequest", description = "Ajuste de stock de un producto dentro de un lote")
+public class StockAdjustmentRequestDto {
+    @Schema(example = "p789", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String productId;
+    @Schema(description = "Delta de stock distinto de cero, puede ser negativo", example = "-5", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer delta;
+    @Schema(description = "Clave de idempotencia del ajuste", example = "pos-42-000123", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String idempotencyKey;
+}
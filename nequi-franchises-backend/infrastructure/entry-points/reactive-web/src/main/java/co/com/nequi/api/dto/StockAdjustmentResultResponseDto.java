@@ -0,0 +1,23 @@
+package co.com.nequi.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "StockAdjustmentResultResponse", description = "Resultado de un ajuste de stock dentro de un lote")
+public class StockAdjustmentResultResponseDto {
+    @Schema(example = "p789")
+    private String productId;
+    @Schema(example = "pos-42-000123")
+    private String idempotencyKey;
+    @Schema(description = "APPLIED, REPLAYED o REJECTED", example = "APPLIED")
+    private String status;
+    @Schema(example = "PRODUCT_STOCK_INVALID", nullable = true)
+    private String errorCode;
+}
@@ -0,0 +1,20 @@
+package co.com.nequi.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "StockBatchRequest", description = "Lote de ajustes de stock de una sucursal")
+public class StockBatchRequestDto {
+
+    @Schema(description = "Ajustes a aplicar (máximo 500)")
+    private List<StockAdjustmentRequestDto> items;
+}
@@ -0,0 +1,20 @@
+package co.com.nequi.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "StockBatchResponse", description = "Resultados por ajuste de un lote de stock")
+public class StockBatchResponseDto {
+
+    @Schema(description = "Resultado de cada ajuste")
+    private List<StockAdjustmentResultResponseDto> items;
+}
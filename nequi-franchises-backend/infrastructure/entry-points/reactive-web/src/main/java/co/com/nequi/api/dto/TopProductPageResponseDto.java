@@ -0,0 +1,32 @@
+package co.com.nequi.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(name = "TopProductPageResponse", description = "Página de top productos por sucursal, ordenada por stock descendente")
+public class TopProductPageResponseDto {
+
+    @Schema(description = "Listado paginado")
+    private List<TopProductItemResponseDto> items;
+
+    @Schema(description = "Cursor para la siguiente página", nullable = true)
+    private String lastEvaluatedKey;
+
+    @Schema(description = "Total de elementos del listado según su contador (también en el header X-Total-Count)", nullable = true)
+    private Long totalCount;
+
+    @Schema(description = "Indica que existe una siguiente página, que puede solicitarse con lastEvaluatedKey mientras se procesa la actual")
+    private boolean hasMore;
+
+    @Schema(description = "Páginas del tamaño solicitado que ocupa el listado completo, según su contador", nullable = true)
+    private Long pageCount;
+}
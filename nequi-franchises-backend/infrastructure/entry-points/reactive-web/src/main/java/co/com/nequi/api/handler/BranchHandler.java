@@ -3,11 +3,12 @@ package co.com.nequi.api.handler;
 import co.com.nequi.api.dto.BranchCreateRequestDto;
 import co.com.nequi.api.dto.BranchPageResponseDto;
 import co.com.nequi.api.dto.BranchResponseDto;
+import co.com.nequi.api.dto.DeletionJobResponseDto;
 import co.com.nequi.api.dto.ErrorDto;
-import co.com.nequi.api.dto.PagedResponseDto;
 import co.com.nequi.api.dto.RenameRequestDto;
 import co.com.nequi.api.mapper.DtoMappers;
 import co.com.nequi.usecase.branch.BranchUseCase;
+import co.com.nequi.usecase.deletion.CascadeDeleteUseCase;
 import co.com.nequi.usecase.exception.ValidationException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -35,6 +36,7 @@ public class BranchHandler {
     private static final Logger log = LoggerFactory.getLogger(BranchHandler.class);
 
     private final BranchUseCase useCase;
+    private final CascadeDeleteUseCase cascadeDeleteUseCase;
 
     @Operation(
             summary = "Crear sucursal",
@@ -50,7 +52,7 @@ public class BranchHandler {
     )
     public Mono<ServerResponse> create(ServerRequest req) {
         String fid = req.pathVariable("fid");
-        log.info("[Branches] create request franchiseId={}", fid);
+        log.debug("[Branches] create request franchiseId={}", fid);
         return req.bodyToMono(BranchCreateRequestDto.class)
                 .flatMap(b -> useCase.createBranch(fid,
                         co.com.nequi.model.branch.Branch.builder().name(b.getName()).build()))
@@ -67,15 +69,26 @@ public class BranchHandler {
         String fid = req.pathVariable("fid");
         Integer limit = extractLimit(req);
         String cursor = extractCursor(req);
-        log.info("[Branches] list request franchiseId={} limit={} cursor={}", fid, limit, cursor);
+        log.debug("[Branches] list request franchiseId={} limit={} cursor={}", fid, limit, cursor);
         return useCase.getByFranchiseId(fid, limit, cursor)
-                .map(page -> PagedResponseDto.<BranchResponseDto>builder()
-                        .items(page.getItems().stream().map(DtoMappers::toRes).toList())
-                        .lastEvaluatedKey(page.getLastEvaluatedKey())
-                        .build())
-                .flatMap(res -> ServerResponse.ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .bodyValue(res));
+                .flatMap(page -> PagedResponses.ok(page, DtoMappers::toRes));
+    }
+
+    @Operation(
+            summary = "Transmitir todas las sucursales de una franquicia",
+            description = "Se activa con Accept: application/x-ndjson o text/event-stream; cada sucursal se envía apenas se lee",
+            responses = @ApiResponse(responseCode = "200", description = "OK",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = BranchResponseDto.class)),
+                            @Content(mediaType = "text/event-stream", schema = @Schema(implementation = BranchResponseDto.class))
+                    })
+    )
+    public Mono<ServerResponse> streamByFranchise(ServerRequest req) {
+        String fid = req.pathVariable("fid");
+        log.debug("[Branches] stream request franchiseId={}", fid);
+        return StreamingResponses.ok(req,
+                useCase.streamByFranchiseId(fid).map(DtoMappers::toRes),
+                BranchResponseDto.class);
     }
 
     @Operation(
@@ -89,7 +102,7 @@ public class BranchHandler {
     )
     public Mono<ServerResponse> getById(ServerRequest req) {
         String bid = req.pathVariable("bid");
-        log.info("[Branches] getById branchId={}", bid);
+        log.debug("[Branches] getById branchId={}", bid);
         return useCase.getById(bid)
                 .map(DtoMappers::toRes)
                 .flatMap(res -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res));
@@ -109,18 +122,28 @@ public class BranchHandler {
     )
     public Mono<ServerResponse> updateName(ServerRequest req) {
         String bid = req.pathVariable("bid");
-        log.info("[Branches] updateName branchId={}", bid);
+        log.debug("[Branches] updateName branchId={}", bid);
         return req.bodyToMono(RenameRequestDto.class)
                 .flatMap(b -> useCase.updateName(bid, b.getName()))
                 .map(DtoMappers::toRes)
                 .flatMap(res -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res));
     }
 
-    @Operation(summary = "Eliminar sucursal", responses = @ApiResponse(responseCode = "204", description = "Eliminada"))
+    @Operation(summary = "Eliminar sucursal y todo su contenido",
+            description = "La eliminación continúa en segundo plano; el progreso se consulta en Location",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Eliminación iniciada",
+                            content = @Content(schema = @Schema(implementation = DeletionJobResponseDto.class))),
+                    @ApiResponse(responseCode = "404", description = "No encontrada",
+                            content = @Content(schema = @Schema(implementation = ErrorDto.class)))
+            }
+    )
     public Mono<ServerResponse> delete(ServerRequest req) {
         String bid = req.pathVariable("bid");
-        log.info("[Branches] delete branchId={}", bid);
-        return useCase.delete(bid).then(ServerResponse.noContent().build());
+        log.debug("[Branches] delete branchId={}", bid);
+        return cascadeDeleteUseCase.deleteBranch(bid)
+                .map(DtoMappers::toRes)
+                .flatMap(DeletionJobHandler::accepted);
     }
 
     private Integer extractLimit(ServerRequest req) {
@@ -0,0 +1,54 @@
+package co.com.nequi.api.handler;
+
+import co.com.nequi.api.dto.DeletionJobResponseDto;
+import co.com.nequi.api.dto.ErrorDto;
+import co.com.nequi.api.mapper.DtoMappers;
+import co.com.nequi.usecase.deletion.CascadeDeleteUseCase;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+@Tag(name = "Deletion jobs")
+public class DeletionJobHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(DeletionJobHandler.class);
+
+    private final CascadeDeleteUseCase useCase;
+
+    @Operation(
+            summary = "Consultar el estado de una eliminación en cascada",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(schema = @Schema(implementation = DeletionJobResponseDto.class))),
+                    @ApiResponse(responseCode = "404", description = "No encontrado",
+                            content = @Content(schema = @Schema(implementation = ErrorDto.class)))
+            }
+    )
+    public Mono<ServerResponse> getById(ServerRequest req) {
+        String jid = req.pathVariable("jid");
+        log.debug("[DeletionJobs] getById jobId={}", jid);
+        return useCase.getJob(jid)
+                .map(DtoMappers::toRes)
+                .flatMap(res -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res));
+    }
+
+    static Mono<ServerResponse> accepted(DeletionJobResponseDto job) {
+        return ServerResponse.accepted()
+                .location(UriComponentsBuilder.fromPath("/v1/deletion-jobs/{jid}").build(job.getId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(job);
+    }
+}
@@ -1,12 +1,13 @@
 package co.com.nequi.api.handler;
 
+import co.com.nequi.api.dto.DeletionJobResponseDto;
 import co.com.nequi.api.dto.ErrorDto;
 import co.com.nequi.api.dto.FranchiseCreateRequestDto;
 import co.com.nequi.api.dto.FranchisePageResponseDto;
 import co.com.nequi.api.dto.FranchiseResponseDto;
-import co.com.nequi.api.dto.PagedResponseDto;
 import co.com.nequi.api.dto.RenameRequestDto;
 import co.com.nequi.api.mapper.DtoMappers;
+import co.com.nequi.usecase.deletion.CascadeDeleteUseCase;
 import co.com.nequi.usecase.exception.ValidationException;
 import co.com.nequi.usecase.franchise.FranchiseUseCase;
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,6 +36,7 @@ public class FranchiseHandler {
     private static final Logger log = LoggerFactory.getLogger(FranchiseHandler.class);
 
     private final FranchiseUseCase useCase;
+    private final CascadeDeleteUseCase cascadeDeleteUseCase;
 
     @Operation(
             summary = "Crear franquicia",
@@ -50,7 +52,7 @@ public class FranchiseHandler {
             }
     )
     public Mono<ServerResponse> create(ServerRequest req) {
-        log.info("[Franchises] create request received");
+        log.debug("[Franchises] create request received");
         return req.bodyToMono(FranchiseCreateRequestDto.class)
                 .flatMap(body -> useCase.createFranchise(
                         co.com.nequi.model.franchise.Franchise.builder().name(body.getName()).build()))
@@ -70,7 +72,7 @@ public class FranchiseHandler {
     )
     public Mono<ServerResponse> getById(ServerRequest req) {
         String fid = req.pathVariable("fid");
-        log.info("[Franchises] getById fid={}", fid);
+        log.debug("[Franchises] getById fid={}", fid);
         return useCase.getById(fid)
                 .map(DtoMappers::toRes)
                 .flatMap(res -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res));
@@ -84,15 +86,9 @@ public class FranchiseHandler {
     public Mono<ServerResponse> getAll(ServerRequest req) {
         Integer limit = extractLimit(req);
         String cursor = extractCursor(req);
-        log.info("[Franchises] list request limit={} cursor={}", limit, cursor);
+        log.debug("[Franchises] list request limit={} cursor={}", limit, cursor);
         return useCase.getAll(limit, cursor)
-                .map(page -> PagedResponseDto.<FranchiseResponseDto>builder()
-                        .items(page.getItems().stream().map(DtoMappers::toRes).toList())
-                        .lastEvaluatedKey(page.getLastEvaluatedKey())
-                        .build())
-                .flatMap(res -> ServerResponse.ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .bodyValue(res));
+                .flatMap(page -> PagedResponses.ok(page, DtoMappers::toRes));
     }
 
     @Operation(
@@ -109,18 +105,28 @@ public class FranchiseHandler {
     )
     public Mono<ServerResponse> updateName(ServerRequest req) {
         String fid = req.pathVariable("fid");
-        log.info("[Franchises] updateName fid={}", fid);
+        log.debug("[Franchises] updateName fid={}", fid);
         return req.bodyToMono(RenameRequestDto.class)
                 .flatMap(b -> useCase.updateName(fid, b.getName()))
                 .map(DtoMappers::toRes)
                 .flatMap(res -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res));
     }
 
-    @Operation(summary = "Eliminar franquicia", responses = @ApiResponse(responseCode = "204", description = "Eliminada"))
+    @Operation(summary = "Eliminar franquicia y todo su contenido",
+            description = "La eliminación continúa en segundo plano; el progreso se consulta en Location",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Eliminación iniciada",
+                            content = @Content(schema = @Schema(implementation = DeletionJobResponseDto.class))),
+                    @ApiResponse(responseCode = "404", description = "No encontrada",
+                            content = @Content(schema = @Schema(implementation = ErrorDto.class)))
+            }
+    )
     public Mono<ServerResponse> delete(ServerRequest req) {
         String fid = req.pathVariable("fid");
-        log.info("[Franchises] delete fid={}", fid);
-        return useCase.delete(fid).then(ServerResponse.noContent().build());
+        log.debug("[Franchises] delete fid={}", fid);
+        return cascadeDeleteUseCase.deleteFranchise(fid)
+                .map(DtoMappers::toRes)
+                .flatMap(DeletionJobHandler::accepted);
     }
 
     private Integer extractLimit(ServerRequest req) {
@@ -0,0 +1,36 @@
+package co.com.nequi.api.handler;
+
+import co.com.nequi.api.dto.PagedResponseDto;
+import co.com.nequi.model.pagination.PageResult;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Writes a page of a listing. When the listing is counted the total also goes out as
+ * {@code X-Total-Count}.
+ */
+public final class PagedResponses {
+
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private PagedResponses() {
+    }
+
+    public static <T, R> Mono<ServerResponse> ok(PageResult<T> page, Function<T, R> mapper) {
+        PagedResponseDto<R> body = PagedResponseDto.<R>builder()
+                .items(page.getItems().stream().map(mapper).toList())
+                .lastEvaluatedKey(page.getLastEvaluatedKey())
+                .totalCount(page.getTotalCount())
+                .hasMore(page.hasMore())
+                .pageCount(page.getPageCount())
+                .build();
+        ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(MediaType.APPLICATION_JSON);
+        if (page.getTotalCount() != null) {
+            response.header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalCount()));
+        }
+        return response.bodyValue(body);
+    }
+}
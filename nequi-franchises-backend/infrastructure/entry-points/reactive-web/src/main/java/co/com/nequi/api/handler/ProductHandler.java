@@ -1,13 +1,18 @@
 package co.com.nequi.api.handler;
 
+import co.com.nequi.api.config.BulkClients;
 import co.com.nequi.api.dto.ChangeStockRequestDto;
 import co.com.nequi.api.dto.ErrorDto;
-import co.com.nequi.api.dto.PagedResponseDto;
 import co.com.nequi.api.dto.ProductCreateRequestDto;
+import co.com.nequi.api.dto.ProductImportResultResponseDto;
+import co.com.nequi.api.dto.ProductListResponseDto;
 import co.com.nequi.api.dto.ProductPageResponseDto;
 import co.com.nequi.api.dto.ProductResponseDto;
 import co.com.nequi.api.dto.RenameRequestDto;
+import co.com.nequi.api.dto.StockBatchRequestDto;
+import co.com.nequi.api.dto.StockBatchResponseDto;
 import co.com.nequi.api.dto.TopProductItemResponseDto;
+import co.com.nequi.api.dto.TopProductPageResponseDto;
 import co.com.nequi.api.mapper.DtoMappers;
 import co.com.nequi.usecase.branch.BranchUseCase;
 import co.com.nequi.usecase.exception.ValidationException;
@@ -15,7 +20,6 @@ import co.com.nequi.usecase.product.ProductUseCase;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
@@ -28,10 +32,11 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import static co.com.nequi.api.mapper.DtoMappers.toSummary;
+import java.util.Arrays;
+import java.util.List;
+
 import static co.com.nequi.usecase.constant.ExceptionMessage.INVALID_PAGINATION_CURSOR;
 import static co.com.nequi.usecase.constant.ExceptionMessage.INVALID_PAGINATION_LIMIT;
 
@@ -44,6 +49,7 @@ public class ProductHandler {
 
     private final ProductUseCase productUseCase;
     private final BranchUseCase branchUseCase;
+    private final BulkClients bulkClients;
 
     @Operation(
             summary = "Crear producto en sucursal",
@@ -60,7 +66,7 @@ public class ProductHandler {
     public Mono<ServerResponse> create(ServerRequest req) {
         String bid = req.pathVariable("bid");
         return req.bodyToMono(ProductCreateRequestDto.class)
-                .doOnNext(body -> log.info("[Products] create request branchId={} name={} stock={}", bid, body.getName(), body.getStock()))
+                .doOnNext(body -> log.debug("[Products] create request branchId={} name={} stock={}", bid, body.getName(), body.getStock()))
                 .flatMap(b -> productUseCase.createProduct(bid,
                         co.com.nequi.model.product.Product.builder()
                                 .name(b.getName()).stock(b.getStock()).build()))
@@ -68,8 +74,61 @@ public class ProductHandler {
                 .flatMap(res -> ServerResponse.created(req.uri()).contentType(MediaType.APPLICATION_JSON).bodyValue(res));
     }
 
+    @Operation(
+            summary = "Importar productos masivamente en una sucursal",
+            description = "Cuerpo NDJSON ({\"name\",\"stock\"} por línea) o text/csv (name,stock). "
+                    + "Se procesa a medida que llega y se responde un resultado NDJSON por fila",
+            requestBody = @RequestBody(content = {
+                    @Content(mediaType = "application/x-ndjson"),
+                    @Content(mediaType = "text/csv")
+            }),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resultado por fila",
+                            content = @Content(mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = ProductImportResultResponseDto.class))),
+                    @ApiResponse(responseCode = "404", description = "Sucursal no encontrada",
+                            content = @Content(schema = @Schema(implementation = ErrorDto.class)))
+            }
+    )
+    public Mono<ServerResponse> importProducts(ServerRequest req) {
+        String bid = req.pathVariable("bid");
+        log.debug("[Products] import request branchId={} contentType={}", bid, req.headers().contentType().orElse(null));
+        return branchUseCase.getById(bid)
+                .flatMap(branch -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(productUseCase.importProducts(branch, ProductImportParser.parse(req))
+                                        .map(DtoMappers::toRes),
+                                ProductImportResultResponseDto.class));
+    }
+
+    @Operation(
+            summary = "Consultar varios productos por id",
+            parameters = @Parameter(name = "ids", in = ParameterIn.QUERY, required = true,
+                    description = "Ids separados por coma o repetidos (máximo 200)"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(schema = @Schema(implementation = ProductListResponseDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Solicitud inválida",
+                            content = @Content(schema = @Schema(implementation = ErrorDto.class)))
+            }
+    )
+    public Mono<ServerResponse> getByIds(ServerRequest req) {
+        List<String> ids = req.queryParams().getOrDefault("ids", List.of()).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .toList();
+        log.debug("[Products] getByIds request ids={}", ids.size());
+        return productUseCase.getAllByIds(ids)
+                .map(DtoMappers::toRes)
+                .collectList()
+                .map(items -> ProductListResponseDto.builder().items(items).build())
+                .flatMap(res -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res));
+    }
+
     @Operation(
             summary = "Listar productos por sucursal",
+            description = "El total del listado se envía en X-Total-Count. Con un X-Bulk-Client-Key válido el límite sube de 100 a 1000",
+            parameters = @Parameter(name = BulkClients.KEY_HEADER, in = ParameterIn.HEADER, required = false,
+                    description = "Llave de cliente masivo"),
             responses = @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(schema = @Schema(implementation = ProductPageResponseDto.class)))
     )
@@ -77,15 +136,27 @@ public class ProductHandler {
         String bid = req.pathVariable("bid");
         Integer limit = extractLimit(req);
         String cursor = extractCursor(req);
-        log.info("[Products] list request branchId={} limit={} cursor={}", bid, limit, cursor);
-        return productUseCase.getByBranchId(bid, limit, cursor)
-                .map(page -> PagedResponseDto.<ProductResponseDto>builder()
-                        .items(page.getItems().stream().map(DtoMappers::toRes).toList())
-                        .lastEvaluatedKey(page.getLastEvaluatedKey())
-                        .build())
-                .flatMap(res -> ServerResponse.ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .bodyValue(res));
+        boolean bulk = bulkClients.isBulk(req);
+        log.debug("[Products] list request branchId={} limit={} cursor={} bulk={}", bid, limit, cursor, bulk);
+        return (bulk ? productUseCase.getBulkByBranchId(bid, limit, cursor) : productUseCase.getByBranchId(bid, limit, cursor))
+                .flatMap(page -> PagedResponses.ok(page, DtoMappers::toRes));
+    }
+
+    @Operation(
+            summary = "Transmitir todos los productos de una sucursal",
+            description = "Se activa con Accept: application/x-ndjson o text/event-stream; cada producto se envía apenas se lee",
+            responses = @ApiResponse(responseCode = "200", description = "OK",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = ProductResponseDto.class)),
+                            @Content(mediaType = "text/event-stream", schema = @Schema(implementation = ProductResponseDto.class))
+                    })
+    )
+    public Mono<ServerResponse> streamByBranch(ServerRequest req) {
+        String bid = req.pathVariable("bid");
+        log.debug("[Products] stream request branchId={}", bid);
+        return StreamingResponses.ok(req,
+                productUseCase.streamByBranch(bid).map(DtoMappers::toRes),
+                ProductResponseDto.class);
     }
 
     @Operation(
@@ -100,15 +171,9 @@ public class ProductHandler {
         Integer limit = extractLimit(req);
         String cursor = extractCursor(req);
         String prefix = req.queryParam("prefix").orElse("");
-        log.info("[Products] search request branchId={} prefix='{}' limit={} cursor={}", bid, prefix, limit, cursor);
+        log.debug("[Products] search request branchId={} prefix='{}' limit={} cursor={}", bid, prefix, limit, cursor);
         return productUseCase.searchByName(bid, prefix, limit, cursor)
-                .map(page -> PagedResponseDto.<ProductResponseDto>builder()
-                        .items(page.getItems().stream().map(DtoMappers::toRes).toList())
-                        .lastEvaluatedKey(page.getLastEvaluatedKey())
-                        .build())
-                .flatMap(res -> ServerResponse.ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .bodyValue(res));
+                .flatMap(page -> PagedResponses.ok(page, DtoMappers::toRes));
     }
 
     @Operation(
@@ -126,7 +191,7 @@ public class ProductHandler {
     public Mono<ServerResponse> updateName(ServerRequest req) {
         String pid = req.pathVariable("pid");
         return req.bodyToMono(RenameRequestDto.class)
-                .doOnNext(body -> log.info("[Products] updateName productId={} newName={}", pid, body.getName()))
+                .doOnNext(body -> log.debug("[Products] updateName productId={} newName={}", pid, body.getName()))
                 .flatMap(b -> productUseCase.updateName(pid, b.getName()))
                 .map(DtoMappers::toRes)
                 .flatMap(res -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res));
@@ -150,12 +215,38 @@ public class ProductHandler {
         String pid = req.pathVariable("pid");
         String idem = req.headers().firstHeader("Idempotency-Key");
         return req.bodyToMono(ChangeStockRequestDto.class)
-                .doOnNext(body -> log.info("[Products] changeStock productId={} delta={} idempotencyKey={}", pid, body.getDelta(), idem))
+                .doOnNext(body -> log.debug("[Products] changeStock productId={} delta={} idempotencyKey={}", pid, body.getDelta(), idem))
                 .flatMap(b -> productUseCase.changeStock(pid, b.getDelta(), idem))
                 .map(DtoMappers::toRes)
                 .flatMap(res -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res));
     }
 
+    @Operation(
+            summary = "Ajustar stock de varios productos de una sucursal en lote",
+            requestBody = @RequestBody(content = @Content(schema = @Schema(implementation = StockBatchRequestDto.class))),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resultado por ajuste",
+                            content = @Content(schema = @Schema(implementation = StockBatchResponseDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Solicitud inválida",
+                            content = @Content(schema = @Schema(implementation = ErrorDto.class))),
+                    @ApiResponse(responseCode = "404", description = "Sucursal no encontrada",
+                            content = @Content(schema = @Schema(implementation = ErrorDto.class)))
+            }
+    )
+    public Mono<ServerResponse> changeStockBatch(ServerRequest req) {
+        String bid = req.pathVariable("bid");
+        return req.bodyToMono(StockBatchRequestDto.class)
+                .doOnNext(body -> log.debug("[Products] changeStockBatch branchId={} items={}", bid,
+                        body.getItems() == null ? 0 : body.getItems().size()))
+                .flatMap(b -> productUseCase.changeStockBatch(bid, b.getItems() == null
+                                ? List.of()
+                                : b.getItems().stream().map(DtoMappers::toDomain).toList())
+                        .map(DtoMappers::toRes)
+                        .collectList())
+                .map(results -> StockBatchResponseDto.builder().items(results).build())
+                .flatMap(res -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(res));
+    }
+
     @Operation(summary = "Eliminar producto de una sucursal",
             responses = {
                     @ApiResponse(responseCode = "204", description = "Eliminado"),
@@ -166,33 +257,41 @@ public class ProductHandler {
     public Mono<ServerResponse> deleteByBranch(ServerRequest req) {
         String bid = req.pathVariable("bid");
         String pid = req.pathVariable("pid");
-        log.info("[Products] delete productId={} branchId={}", pid, bid);
+        log.debug("[Products] delete productId={} branchId={}", pid, bid);
         return productUseCase.deleteByBranch(bid, pid)
                 .then(ServerResponse.noContent().build());
     }
 
     @Operation(
             summary = "Top producto por sucursal de una franquicia",
+            description = "Sucursales con productos, ordenadas por el stock de su producto líder (descendente)",
             responses = @ApiResponse(responseCode = "200", description = "OK",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TopProductItemResponseDto.class))))
+                    content = @Content(schema = @Schema(implementation = TopProductPageResponseDto.class)))
     )
     public Mono<ServerResponse> topByFranchise(ServerRequest req) {
         String fid = req.pathVariable("fid");
-        log.info("[Products] top products request franchiseId={}", fid);
-        Flux<TopProductItemResponseDto> items =
-                branchUseCase.streamByFranchiseId(fid)
-                        .flatMap(branch ->
-                                        productUseCase.getMaxStockByBranch(branch.getId())
-                                                .map(p -> TopProductItemResponseDto.builder()
-                                                        .branchId(branch.getId())
-                                                        .branchName(branch.getName())
-                                                        .product(toSummary(p))
-                                                        .build())
-                                                .onErrorResume(ex -> Mono.empty()) // si una sucursal no tiene productos, la omitimos
-                                , 16);
-
-        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
-                .body(items.collectList(), TopProductItemResponseDto.class);
+        Integer limit = extractLimit(req);
+        String cursor = extractCursor(req);
+        log.debug("[Products] top products request franchiseId={} limit={} cursor={}", fid, limit, cursor);
+        return productUseCase.getTopByFranchiseId(fid, limit, cursor)
+                .flatMap(page -> PagedResponses.ok(page, DtoMappers::toRes));
+    }
+
+    @Operation(
+            summary = "Transmitir el top producto por sucursal de una franquicia",
+            description = "Se activa con Accept: application/x-ndjson o text/event-stream; mismo orden que la versión paginada",
+            responses = @ApiResponse(responseCode = "200", description = "OK",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = TopProductItemResponseDto.class)),
+                            @Content(mediaType = "text/event-stream", schema = @Schema(implementation = TopProductItemResponseDto.class))
+                    })
+    )
+    public Mono<ServerResponse> streamTopByFranchise(ServerRequest req) {
+        String fid = req.pathVariable("fid");
+        log.debug("[Products] top products stream request franchiseId={}", fid);
+        return StreamingResponses.ok(req,
+                productUseCase.streamTopByFranchiseId(fid).map(DtoMappers::toRes),
+                TopProductItemResponseDto.class);
     }
 
     private Integer extractLimit(ServerRequest req) {
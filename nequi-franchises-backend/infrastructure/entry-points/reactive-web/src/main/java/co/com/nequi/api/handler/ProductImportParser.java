@@ -0,0 +1,138 @@
+package co.com.nequi.api.handler;
+
+import co.com.nequi.model.product.ProductImportItem;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static co.com.nequi.usecase.constant.ExceptionMessage.IMPORT_ROW_INVALID;
+
+/**
+ * Turns an import body into one {@link ProductImportItem} per non-blank line while it is still
+ * arriving, so the request is never buffered whole. Rows that cannot be parsed are emitted with an
+ * error code instead of failing the stream.
+ */
+final class ProductImportParser {
+
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final StringDecoder LINES = StringDecoder.allMimeTypes();
+
+    private ProductImportParser() {
+    }
+
+    static Flux<ProductImportItem> parse(ServerRequest req) {
+        boolean csv = req.headers().contentType()
+                .map(type -> type.equalsTypeAndSubtype(TEXT_CSV))
+                .orElse(false);
+        AtomicLong lineNumber = new AtomicLong();
+        return LINES.decode(req.body(BodyExtractors.toDataBuffers()),
+                        ResolvableType.forClass(String.class), null, Map.of())
+                .map(line -> new NumberedLine(lineNumber.incrementAndGet(), line.strip()))
+                .filter(line -> !line.text().isEmpty())
+                .filter(line -> !(csv && line.number() == 1 && isCsvHeader(line.text())))
+                .map(line -> csv ? parseCsv(line) : parseJson(line));
+    }
+
+    private static ProductImportItem parseJson(NumberedLine line) {
+        try {
+            JsonNode node = JSON.readTree(line.text());
+            JsonNode name = node.get("name");
+            JsonNode stock = node.get("stock");
+            if (stock != null && !stock.isNull() && !(stock.isIntegralNumber() && stock.canConvertToInt())) {
+                return invalid(line);
+            }
+            return ProductImportItem.builder()
+                    .line(line.number())
+                    .name(name == null || name.isNull() ? null : name.asText())
+                    .stock(stock == null || stock.isNull() ? null : stock.intValue())
+                    .build();
+        } catch (Exception ex) {
+            return invalid(line);
+        }
+    }
+
+    private static ProductImportItem parseCsv(NumberedLine line) {
+        List<String> fields = splitCsv(line.text());
+        if (fields == null || fields.size() != 2) {
+            return invalid(line);
+        }
+        String stock = fields.get(1).strip();
+        try {
+            return ProductImportItem.builder()
+                    .line(line.number())
+                    .name(fields.get(0).strip())
+                    .stock(stock.isEmpty() ? null : Integer.valueOf(stock))
+                    .build();
+        } catch (NumberFormatException ex) {
+            return invalid(line);
+        }
+    }
+
+    /**
+     * Splits one RFC 4180 record; quoted fields may contain commas and doubled quotes but not line
+     * breaks. Returns {@code null} when a quote is left open.
+     */
+    private static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    /**
+     * Only the exact {@code name,stock} header is skipped, so a first row for a product whose name
+     * merely starts with "name" is still imported.
+     */
+    private static boolean isCsvHeader(String text) {
+        List<String> fields = splitCsv(text);
+        return fields != null && fields.size() == 2
+                && fields.get(0).strip().equalsIgnoreCase("name")
+                && fields.get(1).strip().equalsIgnoreCase("stock");
+    }
+
+    private static ProductImportItem invalid(NumberedLine line) {
+        return ProductImportItem.builder()
+                .line(line.number())
+                .errorCode(IMPORT_ROW_INVALID.name())
+                .build();
+    }
+
+    private record NumberedLine(long number, String text) {
+    }
+}
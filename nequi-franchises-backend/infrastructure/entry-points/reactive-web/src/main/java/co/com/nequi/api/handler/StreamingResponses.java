@@ -0,0 +1,43 @@
+package co.com.nequi.api.handler;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Writes listings element by element as {@code application/x-ndjson} or {@code text/event-stream}.
+ * Each element is flushed as soon as it is produced and the socket demand is propagated back to the
+ * source, so memory stays constant per request.
+ */
+public final class StreamingResponses {
+
+    /**
+     * Matches only when the client names a streaming type explicitly; wildcard {@code Accept}
+     * headers keep getting the paged JSON representation.
+     */
+    public static final RequestPredicate ACCEPTS_STREAM = req -> streamingType(req).isPresent();
+
+    private StreamingResponses() {
+    }
+
+    public static <T> Mono<ServerResponse> ok(ServerRequest req, Flux<T> items, Class<T> type) {
+        return ServerResponse.ok()
+                .contentType(streamingType(req).orElse(MediaType.APPLICATION_NDJSON))
+                .body(items, type);
+    }
+
+    private static Optional<MediaType> streamingType(ServerRequest req) {
+        return req.headers().accept().stream()
+                .filter(mediaType -> mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)
+                        || mediaType.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM))
+                .findFirst()
+                .map(mediaType -> mediaType.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM)
+                        ? MediaType.TEXT_EVENT_STREAM
+                        : MediaType.APPLICATION_NDJSON);
+    }
+}
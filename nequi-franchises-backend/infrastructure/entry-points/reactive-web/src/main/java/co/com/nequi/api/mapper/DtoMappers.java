@@ -1,12 +1,22 @@
 package co.com.nequi.api.mapper;
 
 import co.com.nequi.api.dto.BranchResponseDto;
+import co.com.nequi.api.dto.DeletionJobResponseDto;
 import co.com.nequi.api.dto.FranchiseResponseDto;
+import co.com.nequi.api.dto.ProductImportResultResponseDto;
 import co.com.nequi.api.dto.ProductResponseDto;
 import co.com.nequi.api.dto.ProductSummaryResponseDto;
+import co.com.nequi.api.dto.StockAdjustmentRequestDto;
+import co.com.nequi.api.dto.StockAdjustmentResultResponseDto;
+import co.com.nequi.api.dto.TopProductItemResponseDto;
 import co.com.nequi.model.branch.Branch;
+import co.com.nequi.model.deletion.DeletionJob;
 import co.com.nequi.model.franchise.Franchise;
+import co.com.nequi.model.product.BranchTopProduct;
 import co.com.nequi.model.product.Product;
+import co.com.nequi.model.product.ProductImportResult;
+import co.com.nequi.model.product.StockAdjustment;
+import co.com.nequi.model.product.StockAdjustmentResult;
 
 public class DtoMappers {
 
@@ -39,4 +49,41 @@ public class DtoMappers {
         return new ProductSummaryResponseDto(p.getId(), p.getName(), p.getStock());
     }
 
+    public static TopProductItemResponseDto toRes(BranchTopProduct t) {
+        return TopProductItemResponseDto.builder()
+                .branchId(t.getBranchId()).branchName(t.getBranchName())
+                .product(toSummary(t.getProduct()))
+                .build();
+    }
+
+    public static StockAdjustment toDomain(StockAdjustmentRequestDto dto) {
+        return StockAdjustment.builder()
+                .productId(dto.getProductId()).delta(dto.getDelta()).idempotencyKey(dto.getIdempotencyKey())
+                .build();
+    }
+
+    public static StockAdjustmentResultResponseDto toRes(StockAdjustmentResult r) {
+        return StockAdjustmentResultResponseDto.builder()
+                .productId(r.getProductId()).idempotencyKey(r.getIdempotencyKey())
+                .status(r.getStatus().name()).errorCode(r.getErrorCode())
+                .build();
+    }
+
+    public static ProductImportResultResponseDto toRes(ProductImportResult r) {
+        return ProductImportResultResponseDto.builder()
+                .line(r.getLine()).productId(r.getProductId()).name(r.getName())
+                .status(r.getStatus().name()).errorCode(r.getErrorCode())
+                .build();
+    }
+
+    public static DeletionJobResponseDto toRes(DeletionJob j) {
+        return DeletionJobResponseDto.builder()
+                .id(j.getId()).targetType(j.getTargetType().name()).targetId(j.getTargetId())
+                .status(j.getStatus().name())
+                .branchesDeleted(j.getBranchesDeleted()).productsDeleted(j.getProductsDeleted())
+                .errorCode(j.getErrorCode())
+                .createdAt(j.getCreatedAt()).updatedAt(j.getUpdatedAt())
+                .build();
+    }
+
 }
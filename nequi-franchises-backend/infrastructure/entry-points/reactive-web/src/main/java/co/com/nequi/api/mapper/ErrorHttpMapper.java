@@ -3,9 +3,11 @@ package co.com.nequi.api.mapper;
 import co.com.nequi.api.dto.ErrorDto;
 import co.com.nequi.usecase.exception.BusinessException;
 import co.com.nequi.usecase.exception.ResourceNotFoundException;
+import co.com.nequi.usecase.exception.ThrottledException;
 import co.com.nequi.usecase.exception.ValidationException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
@@ -20,7 +22,17 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class ErrorHttpMapper {
 
+    private static final int MAX_CAUSE_DEPTH = 5;
+
     public Mono<ServerResponse> toResponse(Throwable ex) {
+        ThrottledException throttled = findThrottled(ex);
+        if (throttled != null) {
+            return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(throttled.getRetryAfterSeconds()))
+                    .bodyValue(errorDto(throttled.getCode(), throttled.getMessage()));
+        }
+
         HttpStatus status;
         String code;
         String message;
@@ -52,15 +64,31 @@ public class ErrorHttpMapper {
             message = "Ocurrió un error inesperado. Intenta nuevamente.";
         }
 
-        var dto = ErrorDto.builder()
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(errorDto(code, message));
+    }
+
+    private ErrorDto errorDto(String code, String message) {
+        return ErrorDto.builder()
                 .code(code)
                 .message(message)
                 .timestamp(Instant.now().toEpochMilli())
                 .build();
+    }
 
-        return ServerResponse.status(status)
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(dto);
+    /**
+     * The SDK wraps failures raised by its interceptors, so throttling is looked up along the cause chain.
+     */
+    private static ThrottledException findThrottled(Throwable ex) {
+        Throwable current = ex;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (current instanceof ThrottledException throttled) {
+                return throttled;
+            }
+            current = current.getCause();
+        }
+        return null;
     }
 
 }
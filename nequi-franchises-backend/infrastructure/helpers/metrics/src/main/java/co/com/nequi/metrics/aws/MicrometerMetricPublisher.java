@@ -1,49 +1,211 @@
 package co.com.nequi.metrics.aws;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Tag;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.metrics.MetricCollection;
 import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.MetricRecord;
 
 import java.time.Duration;
-import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Publishes AWS SDK call metrics to Micrometer off the calling thread. {@link #publish} only
+ * enqueues the collection on a bounded lock-free queue; a single background thread drains it in
+ * batches, so a full queue drops the collection and counts it in {@code aws.sdk.metrics.dropped}
+ * instead of blocking the SDK.
+ * <p>
+ * Only the {@code ServiceId}, {@code OperationName} and {@code ApiCallSuccessful} values become
+ * tags; any other string value (request ids, endpoints) is discarded to keep cardinality bounded.
+ * Meters are cached per metric and tag values, so the registry is not looked up per record.
+ * <p>
+ * There is no table dimension: the SDK never reports the table name in a {@link MetricCollection},
+ * and the publisher only sees the collection, not the request. The application keeps everything in
+ * {@code app.dynamo.core-table}, so the meters are effectively per table today; once a second table
+ * is added its calls share these meters, and per-table figures must come from
+ * {@code app.gateway.latency} or CloudWatch.
+ */
 @Component
-@AllArgsConstructor
 public class MicrometerMetricPublisher implements MetricPublisher {
-    private final ExecutorService service = Executors.newFixedThreadPool(10);
+
+    private static final Logger log = LoggerFactory.getLogger(MicrometerMetricPublisher.class);
+    private static final String SERVICE_ID = "ServiceId";
+    private static final String OPERATION_NAME = "OperationName";
+    private static final String API_CALL_SUCCESSFUL = "ApiCallSuccessful";
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final int DEFAULT_BATCH_SIZE = 512;
+    private static final long DEFAULT_FLUSH_INTERVAL_MS = 100;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
     private final MeterRegistry registry;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final Queue<MetricCollection> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Map<MeterKey, Meter> meters = new HashMap<>();
+    private final Counter dropped;
+    private final ScheduledExecutorService drainer;
+
+    public MicrometerMetricPublisher(MeterRegistry registry) {
+        this(registry, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    @Autowired
+    public MicrometerMetricPublisher(MeterRegistry registry,
+                                     @Value("${aws.metrics.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${aws.metrics.batch-size:512}") int batchSize,
+                                     @Value("${aws.metrics.flush-interval-ms:100}") long flushIntervalMs) {
+        this.registry = registry;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.dropped = Counter.builder("aws.sdk.metrics.dropped")
+                .description("SDK metric collections discarded because the publish queue was full")
+                .register(registry);
+        Gauge.builder("aws.sdk.metrics.queue.size", queued, AtomicInteger::get)
+                .description("SDK metric collections waiting to be recorded")
+                .register(registry);
+        this.drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aws-sdk-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.scheduleWithFixedDelay(this::drain, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
 
     @Override
     public void publish(MetricCollection metricCollection) {
-        service.submit(() -> {
-            List<Tag> tags = buildTags(metricCollection);
-            metricCollection.stream()
-                    .filter(record -> record.value() instanceof Duration || record.value() instanceof Integer)
-                    .forEach(record -> {
-                        if (record.value() instanceof Duration) {
-                            registry.timer(record.metric().name(), tags).record((Duration) record.value());
-                        } else if (record.value() instanceof Integer) {
-                            registry.counter(record.metric().name(), tags).increment((Integer) record.value());
-                        }
-                    });
-        });
+        if (closed.get()) {
+            dropped.increment();
+            return;
+        }
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(metricCollection);
     }
 
+    /**
+     * Stops accepting collections and records whatever is still queued. Idempotent.
+     */
     @Override
     public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        drainer.shutdown();
+        try {
+            if (!drainer.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                log.warn("SDK metrics drainer did not stop in {} ms", SHUTDOWN_TIMEOUT_MS);
+                drainer.shutdownNow();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        while (!queue.isEmpty()) {
+            drainBatch();
+        }
+    }
 
+    private void drain() {
+        try {
+            while (drainBatch() == batchSize) {
+                // keep draining full batches until the queue catches up
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to record SDK metrics", e);
+        }
     }
 
-    private List<Tag> buildTags(MetricCollection metricCollection) {
-        return metricCollection.stream()
-                .filter(record -> record.value() instanceof String || record.value() instanceof Boolean)
-                .map(record -> Tag.of(record.metric().name(), record.value().toString()))
-                .collect(Collectors.toList());
+    private int drainBatch() {
+        int drained = 0;
+        MetricCollection collection;
+        while (drained < batchSize && (collection = queue.poll()) != null) {
+            queued.decrementAndGet();
+            record(collection);
+            drained++;
+        }
+        return drained;
+    }
+
+    private void record(MetricCollection collection) {
+        String service = null;
+        String operation = null;
+        String successful = null;
+        for (MetricRecord<?> metric : collection) {
+            switch (metric.metric().name()) {
+                case SERVICE_ID -> service = String.valueOf(metric.value());
+                case OPERATION_NAME -> operation = String.valueOf(metric.value());
+                case API_CALL_SUCCESSFUL -> successful = String.valueOf(metric.value());
+                default -> {
+                    // not a tag
+                }
+            }
+        }
+        for (MetricRecord<?> metric : collection) {
+            Object value = metric.value();
+            if (value instanceof Duration duration) {
+                ((Timer) meter(MeterKey.timer(metric.metric().name(), service, operation, successful))).record(duration);
+            } else if (value instanceof Integer count) {
+                ((Counter) meter(MeterKey.counter(metric.metric().name(), service, operation, successful))).increment(count);
+            }
+        }
+    }
+
+    private Meter meter(MeterKey key) {
+        Meter meter = meters.get(key);
+        if (meter == null) {
+            meter = key.timer()
+                    ? registry.timer(key.name(), key.tags())
+                    : registry.counter(key.name(), key.tags());
+            meters.put(key, meter);
+        }
+        return meter;
+    }
+
+    private record MeterKey(String name, boolean timer, String service, String operation, String successful) {
+
+        static MeterKey timer(String name, String service, String operation, String successful) {
+            return new MeterKey(name, true, service, operation, successful);
+        }
+
+        static MeterKey counter(String name, String service, String operation, String successful) {
+            return new MeterKey(name, false, service, operation, successful);
+        }
+
+        Tags tags() {
+            Tags tags = Tags.empty();
+            if (service != null) {
+                tags = tags.and(SERVICE_ID, service);
+            }
+            if (operation != null) {
+                tags = tags.and(OPERATION_NAME, operation);
+            }
+            if (successful != null) {
+                tags = tags.and(API_CALL_SUCCESSFUL, successful);
+            }
+            return tags;
+        }
     }
 }
@@ -0,0 +1,40 @@
+package co.com.nequi.metrics.latency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Latency timers per hop. Routes are already timed by Spring as {@code http.server.requests};
+ * use cases ({@code app.usecase.latency}) and gateway implementations ({@code app.gateway.latency})
+ * are selected by class and interface name so no call site has to be instrumented by hand.
+ */
+@Configuration
+public class LatencyMetricsConfig {
+
+    @Bean
+    public static LatencyTimingPostProcessor latencyTimingPostProcessor(
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${app.metrics.latency.enabled:true}") boolean enabled,
+            @Value("${app.metrics.latency.usecase-pattern:^co\\.com\\.nequi\\.usecase\\..+UseCase$}") String useCasePattern,
+            @Value("${app.metrics.latency.gateway-pattern:^co\\.com\\.nequi\\.model\\..+\\.gateways\\..+$}") String gatewayPattern) {
+        List<LatencyTimingPostProcessor.Layer> layers = new ArrayList<>();
+        if (enabled) {
+            Pattern useCases = Pattern.compile(useCasePattern);
+            Pattern gateways = Pattern.compile(gatewayPattern);
+            layers.add(new LatencyTimingPostProcessor.Layer("app.usecase.latency",
+                    type -> useCases.matcher(type.getName()).matches()));
+            layers.add(new LatencyTimingPostProcessor.Layer("app.gateway.latency",
+                    type -> ClassUtils.getAllInterfacesForClassAsSet(type).stream()
+                            .anyMatch(contract -> gateways.matcher(contract.getName()).matches())));
+        }
+        return new LatencyTimingPostProcessor(registry, layers);
+    }
+}
@@ -0,0 +1,83 @@
+package co.com.nequi.metrics.latency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Wraps every bean selected by a {@link Layer} in a class-based proxy that times the {@link Mono}
+ * and {@link Flux} its public methods return with a {@link ReactiveTimer}, tagged with the bean's
+ * class ({@code component}) and the method name. Methods returning anything else are not touched.
+ */
+public class LatencyTimingPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final List<Layer> layers;
+
+    public LatencyTimingPostProcessor(ObjectProvider<MeterRegistry> registry, List<Layer> layers) {
+        this.registry = registry;
+        this.layers = layers;
+    }
+
+    /**
+     * Timer name for the beans whose class matches {@code selector}.
+     */
+    public record Layer(String metric, Predicate<Class<?>> selector) {
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> type = AopUtils.getTargetClass(bean);
+        for (Layer layer : layers) {
+            if (layer.selector().test(type)) {
+                ProxyFactory factory = new ProxyFactory(bean);
+                factory.setProxyTargetClass(true);
+                factory.addAdvice(new TimingInterceptor(layer.metric(), type.getSimpleName()));
+                return factory.getProxy(type.getClassLoader());
+            }
+        }
+        return bean;
+    }
+
+    private final class TimingInterceptor implements MethodInterceptor {
+
+        private final String metric;
+        private final String component;
+        private final Map<Method, ReactiveTimer> timers = new ConcurrentHashMap<>();
+
+        private TimingInterceptor(String metric, String component) {
+            this.metric = metric;
+            this.component = component;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            if (result instanceof Mono<?> mono) {
+                return timer(invocation.getMethod()).mono(mono);
+            }
+            if (result instanceof Flux<?> flux) {
+                return timer(invocation.getMethod()).flux(flux);
+            }
+            return result;
+        }
+
+        private ReactiveTimer timer(Method method) {
+            return timers.computeIfAbsent(method, key -> new ReactiveTimer(registry.getObject(), metric,
+                    Tags.of("component", component, "method", key.getName())));
+        }
+    }
+}
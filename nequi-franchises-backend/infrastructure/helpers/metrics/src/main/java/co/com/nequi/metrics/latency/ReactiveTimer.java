@@ -0,0 +1,89 @@
+package co.com.nequi.metrics.latency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a {@link Mono} or {@link Flux} from subscription to its terminal signal, as a reusable
+ * operator: {@code mono.transform(timer::mono)}. Every recording carries an {@code outcome} tag
+ * ({@code success}, {@code error} or {@code cancelled}) and, for errors, the exception class.
+ * <p>
+ * Histogram buckets and percentiles are not set here but through
+ * {@code management.metrics.distribution.*}, so every timer of a given name shares them.
+ */
+public final class ReactiveTimer {
+
+    private static final String OUTCOME = "outcome";
+    private static final String EXCEPTION = "exception";
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+    private final String name;
+    private final Tags tags;
+    private final Map<String, Timer> errorTimers = new ConcurrentHashMap<>();
+    private volatile Timer success;
+    private volatile Timer cancelled;
+
+    public ReactiveTimer(MeterRegistry registry, String name, Tags tags) {
+        this.registry = registry;
+        this.name = name;
+        this.tags = tags;
+    }
+
+    public <T> Mono<T> mono(Mono<T> source) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return source
+                    .doOnSuccess(value -> success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(error -> error(error).record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnCancel(() -> cancelled().record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    public <T> Flux<T> flux(Flux<T> source) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return source
+                    .doOnComplete(() -> success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(error -> error(error).record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnCancel(() -> cancelled().record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private Timer success() {
+        Timer timer = success;
+        if (timer == null) {
+            timer = register("success", NONE);
+            success = timer;
+        }
+        return timer;
+    }
+
+    private Timer cancelled() {
+        Timer timer = cancelled;
+        if (timer == null) {
+            timer = register("cancelled", NONE);
+            cancelled = timer;
+        }
+        return timer;
+    }
+
+    private Timer error(Throwable error) {
+        return errorTimers.computeIfAbsent(error.getClass().getSimpleName(), exception -> register("error", exception));
+    }
+
+    private Timer register(String outcome, String exception) {
+        return Timer.builder(name)
+                .tags(tags)
+                .tag(OUTCOME, outcome)
+                .tag(EXCEPTION, exception)
+                .register(registry);
+    }
+}
@@ -1,14 +1,39 @@
 package co.com.nequi.metrics.aws;
 
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.logging.LoggingMeterRegistry;
 import io.micrometer.core.instrument.logging.LoggingRegistryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.metrics.MetricCategory;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricCollector;
+import software.amazon.awssdk.metrics.MetricLevel;
+import software.amazon.awssdk.metrics.SdkMetric;
 import software.amazon.awssdk.metrics.internal.EmptyMetricCollection;
 
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 class MicrometerMetricPublisherTest {
 
+    private static final SdkMetric<String> OPERATION =
+            SdkMetric.create("OperationName", String.class, MetricLevel.ERROR, MetricCategory.CORE);
+    private static final SdkMetric<Boolean> SUCCESSFUL =
+            SdkMetric.create("ApiCallSuccessful", Boolean.class, MetricLevel.ERROR, MetricCategory.CORE);
+    private static final SdkMetric<String> REQUEST_ID =
+            SdkMetric.create("AwsRequestId", String.class, MetricLevel.INFO, MetricCategory.CORE);
+    private static final SdkMetric<Duration> DURATION =
+            SdkMetric.create("ApiCallDuration", Duration.class, MetricLevel.INFO, MetricCategory.CORE);
+    private static final SdkMetric<Integer> RETRIES =
+            SdkMetric.create("RetryCount", Integer.class, MetricLevel.INFO, MetricCategory.CORE);
+
+    private static final long NEVER = Duration.ofHours(1).toMillis();
+
     @Test
     void metricTest() {
         LoggingMeterRegistry loggingMeterRegistry = LoggingMeterRegistry
@@ -23,4 +48,50 @@ class MicrometerMetricPublisherTest {
         assertNotNull(micrometerMetricPublisher);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void recordsTimersAndCountersWithoutRequestIds() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMetricPublisher publisher = new MicrometerMetricPublisher(registry, 100, 10, NEVER);
+
+        publisher.publish(apiCall("req-1", 2));
+        publisher.publish(apiCall("req-2", 1));
+        publisher.close();
+
+        Timer timer = registry.get("ApiCallDuration")
+                .tags("OperationName", "Query", "ApiCallSuccessful", "true")
+                .timer();
+        assertEquals(2, timer.count());
+        assertEquals(3, registry.get("RetryCount").counter().count());
+        for (Meter meter : registry.getMeters()) {
+            assertNotNull(meter.getId());
+            assertFalse(meter.getId().getTags().stream().anyMatch(tag -> "AwsRequestId".equals(tag.getKey())));
+        }
+    }
+
+    @Test
+    void fullQueue_dropsAndCounts() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerMetricPublisher publisher = new MicrometerMetricPublisher(registry, 1, 10, NEVER);
+
+        publisher.publish(apiCall("req-1", 0));
+        publisher.publish(apiCall("req-2", 0));
+        publisher.publish(apiCall("req-3", 0));
+        publisher.close();
+        publisher.publish(apiCall("req-4", 0));
+
+        assertEquals(3, registry.get("aws.sdk.metrics.dropped").counter().count());
+        assertEquals(1, registry.get("ApiCallDuration").timer().count());
+        assertEquals(0, registry.get("aws.sdk.metrics.queue.size").gauge().value());
+    }
+
+    private static MetricCollection apiCall(String requestId, int retries) {
+        MetricCollector collector = MetricCollector.create("ApiCall");
+        collector.reportMetric(OPERATION, "Query");
+        collector.reportMetric(SUCCESSFUL, true);
+        collector.reportMetric(REQUEST_ID, requestId);
+        collector.reportMetric(DURATION, Duration.ofMillis(5));
+        collector.reportMetric(RETRIES, retries);
+        return collector.collect();
+    }
+}
@@ -0,0 +1,72 @@
+package co.com.nequi.metrics.latency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class ReactiveTimerTest {
+
+    @Test
+    void mono_recordsOutcomeAndException() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReactiveTimer timer = new ReactiveTimer(registry, "hop.latency", Tags.of("method", "find"));
+
+        StepVerifier.create(timer.mono(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        StepVerifier.create(timer.mono(Mono.empty())).verifyComplete();
+        StepVerifier.create(timer.mono(Mono.error(new IllegalStateException("boom")))).verifyError();
+
+        assertEquals(2, registry.get("hop.latency").tags("outcome", "success", "method", "find").timer().count());
+        assertEquals(1, registry.get("hop.latency")
+                .tags("outcome", "error", "exception", "IllegalStateException").timer().count());
+    }
+
+    @Test
+    void flux_cancelled() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReactiveTimer timer = new ReactiveTimer(registry, "hop.latency", Tags.empty());
+
+        StepVerifier.create(timer.flux(Flux.just(1, 2, 3)), 1).expectNext(1).thenCancel().verify();
+
+        assertEquals(1, registry.get("hop.latency").tags("outcome", "cancelled").timer().count());
+    }
+
+    @Test
+    void postProcessor_timesSelectedBeans() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("registry", registry));
+        LatencyTimingPostProcessor processor = new LatencyTimingPostProcessor(beans.getBeanProvider(MeterRegistry.class),
+                List.of(new LatencyTimingPostProcessor.Layer("app.usecase.latency", type -> type == SampleUseCase.class)));
+        SampleUseCase target = new SampleUseCase();
+
+        SampleUseCase proxied = (SampleUseCase) processor.postProcessAfterInitialization(target, "sampleUseCase");
+        StepVerifier.create(proxied.items()).expectNextCount(2).verifyComplete();
+
+        assertNotSame(target, proxied);
+        assertEquals("plain", proxied.plain());
+        assertEquals(1, registry.get("app.usecase.latency")
+                .tags("component", "SampleUseCase", "method", "items", "outcome", "success").timer().count());
+        assertEquals(1, registry.getMeters().size());
+    }
+
+    static class SampleUseCase {
+
+        public Flux<String> items() {
+            return Flux.just("a", "b");
+        }
+
+        public String plain() {
+            return "plain";
+        }
+    }
+}
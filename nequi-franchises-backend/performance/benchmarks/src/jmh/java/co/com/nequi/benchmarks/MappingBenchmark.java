@@ -0,0 +1,56 @@
+package co.com.nequi.benchmarks;
+
+import co.com.nequi.api.dto.ProductResponseDto;
+import co.com.nequi.api.mapper.DtoMappers;
+import co.com.nequi.dynamodb.entity.ProductEntity;
+import co.com.nequi.dynamodb.helper.ProductEntityMapper;
+import co.com.nequi.model.product.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+/**
+ * Per-item mapping on the read and write paths: domain to response DTO, and domain to item
+ * attributes and back through the bean table schema the adapter uses.
+ */
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private final TableSchema<ProductEntity> schema = TableSchema.fromBean(ProductEntity.class);
+    private Product product;
+    private Map<String, AttributeValue> item;
+
+    @Setup
+    public void setUp() {
+        product = Product.builder()
+                .id("5d0f2c1e-8c8b-4d67-b2f5-1f8a0c3e9b21")
+                .franchiseId("a3c9e7d2-1b4f-4c8e-9d0a-6e2f1b3c5d7e")
+                .branchId("0b6f6a4e-3f7d-4a8e-9a57-3a9a2f1c6d10")
+                .name("Coffee Beans 500g")
+                .stock(120)
+                .createdAt(1_760_000_000_000L)
+                .updatedAt(1_760_000_500_000L)
+                .build();
+        item = schema.itemToMap(ProductEntityMapper.toEntity(product), true);
+    }
+
+    @Benchmark
+    public ProductResponseDto toResponse() {
+        return DtoMappers.toRes(product);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> toItem() {
+        return schema.itemToMap(ProductEntityMapper.toEntity(product), true);
+    }
+
+    @Benchmark
+    public Product fromItem() {
+        return ProductEntityMapper.toDomain(schema.mapToItem(item));
+    }
+}
@@ -0,0 +1,49 @@
+package co.com.nequi.benchmarks;
+
+import co.com.nequi.metrics.aws.MicrometerMetricPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+import java.time.Duration;
+
+/**
+ * Cost the SDK pays on its own threads for every call, with several callers publishing at once.
+ */
+@State(Scope.Benchmark)
+public class MetricPublisherBenchmark {
+
+    private MicrometerMetricPublisher publisher;
+    private MetricCollection collection;
+
+    @Setup
+    public void setUp() {
+        publisher = new MicrometerMetricPublisher(new SimpleMeterRegistry());
+        MetricCollector collector = MetricCollector.create("ApiCall");
+        collector.reportMetric(CoreMetric.SERVICE_ID, "DynamoDB");
+        collector.reportMetric(CoreMetric.OPERATION_NAME, "Query");
+        collector.reportMetric(CoreMetric.API_CALL_SUCCESSFUL, true);
+        collector.reportMetric(CoreMetric.API_CALL_DURATION, Duration.ofMillis(7));
+        collector.reportMetric(CoreMetric.MARSHALLING_DURATION, Duration.ofNanos(42_000));
+        collector.reportMetric(CoreMetric.RETRY_COUNT, 0);
+        collection = collector.collect();
+    }
+
+    @TearDown
+    public void tearDown() {
+        publisher.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void publish() {
+        publisher.publish(collection);
+    }
+}
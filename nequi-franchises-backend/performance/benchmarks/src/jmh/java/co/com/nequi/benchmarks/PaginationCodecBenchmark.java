@@ -0,0 +1,40 @@
+package co.com.nequi.benchmarks;
+
+import co.com.nequi.dynamodb.helper.DynamoPaginationCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+@State(Scope.Benchmark)
+public class PaginationCodecBenchmark {
+
+    private DynamoPaginationCodec codec;
+    private DynamoPaginationCodec.Scope scope;
+    private Map<String, AttributeValue> lastKey;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        codec = new DynamoPaginationCodec("benchmark-secret", false, false);
+        scope = DynamoPaginationCodec.Scope.of("nameByBranch", "branchId", "0b6f6a4e-3f7d-4a8e-9a57-3a9a2f1c6d10");
+        lastKey = Map.of(
+                "id", AttributeValue.fromS("5d0f2c1e-8c8b-4d67-b2f5-1f8a0c3e9b21"),
+                "branchId", AttributeValue.fromS(scope.partitionValue()),
+                "nameByBranchSortKey", AttributeValue.fromS("NAME#coffee beans#PROD#5d0f2c1e-8c8b-4d67-b2f5-1f8a0c3e9b21"));
+        cursor = codec.encode(lastKey, scope);
+    }
+
+    @Benchmark
+    public String encode() {
+        return codec.encode(lastKey, scope);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> decode() {
+        return codec.decode(cursor, scope);
+    }
+}
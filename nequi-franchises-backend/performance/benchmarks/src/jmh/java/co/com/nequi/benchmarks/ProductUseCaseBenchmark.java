@@ -0,0 +1,82 @@
+package co.com.nequi.benchmarks;
+
+import co.com.nequi.api.dto.ProductResponseDto;
+import co.com.nequi.api.mapper.DtoMappers;
+import co.com.nequi.inmemory.adapter.InMemoryBranchAdapter;
+import co.com.nequi.inmemory.adapter.InMemoryProductAdapter;
+import co.com.nequi.inmemory.adapter.InMemoryTopProducts;
+import co.com.nequi.inmemory.helper.InMemoryCursorCodec;
+import co.com.nequi.model.branch.Branch;
+import co.com.nequi.model.pagination.PageResult;
+import co.com.nequi.model.product.BranchTopProduct;
+import co.com.nequi.model.product.Product;
+import co.com.nequi.usecase.product.ProductUseCase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Use-case pipelines end to end against the in-memory adapters: what a request costs in this
+ * service, without the network. Idempotency keys expire at once, so {@code changeStock} applies
+ * its delta on every call instead of replaying the first one.
+ */
+@State(Scope.Benchmark)
+public class ProductUseCaseBenchmark {
+
+    private static final String FRANCHISE_ID = "F1";
+
+    @Param({"10", "100"})
+    public int branches;
+
+    @Param({"50"})
+    public int productsPerBranch;
+
+    private ProductUseCase useCase;
+    private Product draft;
+
+    @Setup
+    public void setUp() {
+        InMemoryCursorCodec cursorCodec = new InMemoryCursorCodec("benchmark");
+        InMemoryTopProducts topProducts = new InMemoryTopProducts(cursorCodec);
+        InMemoryProductAdapter products = new InMemoryProductAdapter(topProducts, cursorCodec, 0);
+        InMemoryBranchAdapter branchRepository = new InMemoryBranchAdapter(topProducts, cursorCodec);
+        for (int b = 0; b < branches; b++) {
+            String branchId = "B" + b;
+            branchRepository.save(Branch.builder().id(branchId).franchiseId(FRANCHISE_ID).name("Branch " + b).build()).block();
+            for (int p = 0; p < productsPerBranch; p++) {
+                products.save(Product.builder()
+                        .id(branchId + "-P" + p).franchiseId(FRANCHISE_ID).branchId(branchId)
+                        .name("Product " + p).stock((b * 31 + p * 17) % 1000)
+                        .createdAt(0L).updatedAt(0L)
+                        .build()).block();
+            }
+        }
+        useCase = new ProductUseCase(products, branchRepository);
+        draft = Product.builder().name("Benchmark product").stock(10).build();
+    }
+
+    @Benchmark
+    public List<ProductResponseDto> listByBranch() {
+        PageResult<Product> page = useCase.getByBranchId("B0", 20, null).block();
+        return page.getItems().stream().map(DtoMappers::toRes).toList();
+    }
+
+    @Benchmark
+    public PageResult<BranchTopProduct> topByFranchise() {
+        return useCase.getTopByFranchiseId(FRANCHISE_ID, 20, null).block();
+    }
+
+    @Benchmark
+    public Product changeStock() {
+        return useCase.changeStock("B0-P0", 1, "key").block();
+    }
+
+    @Benchmark
+    public Product createProduct() {
+        return useCase.createProduct("B0", draft).block();
+    }
+}
@@ -0,0 +1,122 @@
+package co.com.nequi.loadtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Non-blocking HTTP client for the API, on a pool sized to the profile's in-flight cap so the
+ * client itself never queues what the generator meant to send.
+ */
+public final class ApiClient implements AutoCloseable {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ConnectionProvider connections;
+    private final HttpClient client;
+
+    public ApiClient(String baseUrl, int maxConnections) {
+        this.connections = ConnectionProvider.builder("load-tests")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(-1)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        this.client = HttpClient.create(connections)
+                .baseUrl(baseUrl)
+                .responseTimeout(Duration.ofSeconds(10))
+                .headers(headers -> headers.set(HttpHeaderNames.ACCEPT, "application/json"));
+    }
+
+    public record Request(HttpMethod method, String uri, String body, Map<String, String> headers) {
+
+        public static Request get(String uri) {
+            return new Request(HttpMethod.GET, uri, null, Map.of());
+        }
+
+        public static Request post(String uri, String body) {
+            return new Request(HttpMethod.POST, uri, body, Map.of());
+        }
+    }
+
+    public record Response(int status, String body) {
+
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    /**
+     * Sends the request and completes with the status code once the body has been read.
+     */
+    public Mono<Integer> send(Request request) {
+        return prepare(request)
+                .responseSingle((response, content) -> content.asByteArray()
+                        .then(Mono.just(response.status().code())));
+    }
+
+    public Mono<Response> exchange(Request request) {
+        return prepare(request)
+                .responseSingle((response, content) -> content.asString()
+                        .defaultIfEmpty("")
+                        .map(body -> new Response(response.status().code(), body)));
+    }
+
+    /**
+     * Sends the request and parses a successful JSON response; any other status fails with the
+     * response body, so seeding stops at the first rejected write.
+     */
+    public Mono<JsonNode> json(Request request) {
+        return exchange(request).map(response -> {
+            if (!response.isSuccess()) {
+                throw new IllegalStateException(request.method() + " " + request.uri()
+                        + " answered " + response.status() + ": " + response.body());
+            }
+            try {
+                return mapper.readTree(response.body());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public static String queryValue(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    public String toJson(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpClient.ResponseReceiver<?> prepare(Request request) {
+        HttpClient.RequestSender sender = client
+                .headers(headers -> {
+                    request.headers().forEach(headers::set);
+                    if (request.body() != null) {
+                        headers.set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+                    }
+                })
+                .request(request.method())
+                .uri(request.uri());
+        return request.body() == null ? sender : sender.send(ByteBufFlux.fromString(Mono.just(request.body())));
+    }
+
+    @Override
+    public void close() {
+        connections.disposeLater().block(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,109 @@
+package co.com.nequi.loadtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Creates the data set of a profile through the public API, so it works the same against the
+ * DynamoDB and the in-memory adapters. The first franchise is the big one: it holds the hot
+ * products and the branches whose listings are walked for deep cursors.
+ */
+public final class DataSeeder {
+
+    static final String[] NAME_WORDS = {
+            "arroz", "azucar", "cafe", "chocolate", "galletas", "harina", "leche", "mantequilla",
+            "pan", "queso", "salsa", "te", "yogur", "aceite", "atun", "frijol"
+    };
+    private static final String[] NAME_SIZES = {"250g", "500g", "1kg", "1L", "2L", "x6", "x12"};
+
+    private final ApiClient client;
+    private final WorkloadProfile profile;
+
+    public DataSeeder(ApiClient client, WorkloadProfile profile) {
+        this.client = client;
+        this.profile = profile;
+    }
+
+    public Dataset seed() {
+        SplittableRandom random = new SplittableRandom(profile.seed());
+        int concurrency = profile.getInt("seed-concurrency");
+        int branchesPerFranchise = profile.getInt("branches-per-franchise");
+        int productsPerBranch = profile.getInt("products-per-branch");
+        int hotProducts = profile.getInt("hot-products");
+        long hotStock = profile.getLong("hot-stock");
+
+        List<String> franchiseIds = Flux.range(0, profile.getInt("franchises"))
+                .concatMap(i -> create("/v1/franchises", Map.of("name", "Load franchise " + i)))
+                .collectList()
+                .block();
+
+        List<Dataset.Branch> branches = Flux.fromIterable(franchiseIds)
+                .concatMap(fid -> Flux.range(0, branchesPerFranchise)
+                        .flatMapSequential(i -> create("/v1/franchises/" + fid + "/branches",
+                                Map.of("name", "Load branch " + i))
+                                .map(bid -> new Dataset.Branch(fid, bid)), concurrency))
+                .collectList()
+                .block();
+
+        List<Integer> stocks = new ArrayList<>();
+        for (int i = 0; i < branches.size() * productsPerBranch; i++) {
+            stocks.add(random.nextInt(1000));
+        }
+        Flux.range(0, branches.size() * productsPerBranch)
+                .flatMap(i -> create(branches.get(i / productsPerBranch).productsUri(),
+                        Map.of("name", productName(i % productsPerBranch), "stock", stocks.get(i))), concurrency)
+                .blockLast();
+
+        List<Dataset.Product> hot = Flux.range(0, hotProducts)
+                .concatMap(i -> {
+                    Dataset.Branch branch = branches.get(i % branchesPerFranchise);
+                    return create(branch.productsUri(), Map.of("name", "hot product " + i, "stock", hotStock))
+                            .map(pid -> new Dataset.Product(branch.franchiseId(), branch.branchId(), pid));
+                })
+                .collectList()
+                .block();
+
+        int pageSize = profile.scenarioInt("deep-listing", "page-size");
+        List<Dataset.Page> deepPages = Flux.fromIterable(branches.subList(0,
+                        Math.min(branchesPerFranchise, profile.scenarioInt("deep-listing", "branches"))))
+                .flatMapSequential(branch -> walk(branch, pageSize), concurrency)
+                .collectList()
+                .block();
+
+        return new Dataset(franchiseIds, branches, hot, deepPages);
+    }
+
+    /**
+     * Names are drawn from a small vocabulary so that every search prefix matches many products.
+     */
+    static String productName(int index) {
+        return NAME_WORDS[index % NAME_WORDS.length] + " "
+                + NAME_SIZES[(index / NAME_WORDS.length) % NAME_SIZES.length] + " " + index;
+    }
+
+    private Flux<Dataset.Page> walk(Dataset.Branch branch, int pageSize) {
+        String first = branch.productsUri() + "?limit=" + pageSize;
+        return client.json(ApiClient.Request.get(first))
+                .expand(page -> nextCursor(page) == null
+                        ? Mono.empty()
+                        : client.json(ApiClient.Request.get(first + "&cursor=" + ApiClient.queryValue(nextCursor(page)))))
+                .mapNotNull(DataSeeder::nextCursor)
+                .index((depth, cursor) -> new Dataset.Page(branch, depth.intValue() + 1, cursor));
+    }
+
+    private Mono<String> create(String uri, Map<String, Object> body) {
+        return client.json(ApiClient.Request.post(uri, client.toJson(body)))
+                .map(node -> node.get("id").asText());
+    }
+
+    private static String nextCursor(JsonNode page) {
+        JsonNode cursor = page.get("lastEvaluatedKey");
+        return cursor == null || cursor.isNull() ? null : cursor.asText();
+    }
+}
@@ -0,0 +1,29 @@
+package co.com.nequi.loadtests;
+
+import java.util.List;
+
+/**
+ * What the seeder created and the scenarios draw their requests from. Lists keep creation order,
+ * so index-based picks map to the same logical items on every run with the same profile.
+ */
+public record Dataset(List<String> franchiseIds,
+                      List<Branch> branches,
+                      List<Product> hotProducts,
+                      List<Page> deepPages) {
+
+    public record Branch(String franchiseId, String branchId) {
+
+        public String productsUri() {
+            return "/v1/franchises/" + franchiseId + "/branches/" + branchId + "/products";
+        }
+    }
+
+    public record Product(String franchiseId, String branchId, String productId) {
+    }
+
+    /**
+     * Cursor of a page past the first one in a branch listing, with its depth (1 for the second page).
+     */
+    public record Page(Branch branch, int depth, String cursor) {
+    }
+}
@@ -0,0 +1,89 @@
+package co.com.nequi.loadtests;
+
+import co.com.nequi.loadtests.scenario.DeepListingScenario;
+import co.com.nequi.loadtests.scenario.PrefixSearchScenario;
+import co.com.nequi.loadtests.scenario.Scenario;
+import co.com.nequi.loadtests.scenario.StockStormScenario;
+import co.com.nequi.loadtests.scenario.TopProductsScenario;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeds the data set of a workload profile through the API of a running app-service, runs every
+ * scenario of the profile at once for its duration and exits non-zero when an SLO is missed.
+ * <p>
+ * Arguments: profile name or path, base URL, reports directory. Each run writes its interval
+ * logs ({@code .hlog}, nanoseconds), percentile distributions and summary under
+ * {@code <reports>/<profile>-<timestamp>}.
+ */
+public final class LoadTestRunner {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Usage: LoadTestRunner <profile> <base-url> <reports-dir>");
+        }
+        WorkloadProfile profile = WorkloadProfile.load(args[0]);
+        String runId = profile.name() + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path reports = Files.createDirectories(Path.of(args[2], runId));
+
+        SloReport report;
+        try (ApiClient client = new ApiClient(args[1], profile.getInt("max-in-flight"))) {
+            System.out.printf("Seeding %s data set at %s%n", profile.name(), args[1]);
+            Dataset dataset = new DataSeeder(client, profile).seed();
+
+            List<ScenarioRunner> runners = new ArrayList<>();
+            for (Scenario scenario : scenarios(profile, dataset, runId)) {
+                double rate = profile.rate(scenario.name());
+                if (rate > 0) {
+                    runners.add(new ScenarioRunner(scenario, rate, client, profile.getInt("max-in-flight"),
+                            profile.seed(), reports.resolve(scenario.name() + ".hlog")));
+                }
+            }
+
+            System.out.printf("Running %d scenarios for %s after a %s warmup%n",
+                    runners.size(), profile.duration(), profile.warmup());
+            ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+            runners.forEach(runner -> runner.start(profile.warmup(), profile.duration()));
+            ticker.scheduleAtFixedRate(() -> runners.forEach(ScenarioRunner::collectInterval), 1, 1, TimeUnit.SECONDS);
+
+            Duration timeout = profile.warmup().plus(profile.duration()).plus(DRAIN_TIMEOUT);
+            List<ScenarioRunner.Result> results = new ArrayList<>();
+            for (ScenarioRunner runner : runners) {
+                results.add(runner.awaitResult(profile.duration(), timeout));
+            }
+            ticker.shutdownNow();
+
+            report = SloReport.evaluate(profile, results);
+            report.write(reports);
+        }
+
+        System.out.println(report.render());
+        System.out.println("Reports in " + reports);
+        System.exit(report.passed() ? 0 : 1);
+    }
+
+    private static List<Scenario> scenarios(WorkloadProfile profile, Dataset dataset, String runId) {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new StockStormScenario(dataset, runId));
+        scenarios.add(new DeepListingScenario(dataset, profile.scenarioInt(DeepListingScenario.NAME, "page-size")));
+        scenarios.add(new PrefixSearchScenario(dataset, List.of(DataSeeder.NAME_WORDS),
+                profile.scenarioInt(PrefixSearchScenario.NAME, "page-size")));
+        scenarios.add(new TopProductsScenario(dataset, profile.scenarioInt(TopProductsScenario.NAME, "page-size")));
+        return scenarios;
+    }
+}
@@ -0,0 +1,171 @@
+package co.com.nequi.loadtests;
+
+import co.com.nequi.loadtests.scenario.Scenario;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load for one scenario: requests are due at a constant rate whether or not earlier
+ * ones have answered, and each latency is measured from the moment the request was due rather
+ * than from when it went out, so a stalled server shows up in the tail instead of silently
+ * lowering the offered load (coordinated omission). Requests due during the warmup are sent but
+ * not recorded. When {@code max-in-flight} requests are pending a due request is dropped and
+ * counted as an error.
+ */
+public final class ScenarioRunner {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Scenario scenario;
+    private final double rate;
+    private final ApiClient client;
+    private final int maxInFlight;
+    private final SplittableRandom random;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final CountDownLatch drained = new CountDownLatch(1);
+    private final HistogramLogWriter log;
+    private final PrintStream logStream;
+    private Histogram interval;
+
+    public ScenarioRunner(Scenario scenario, double rate, ApiClient client, int maxInFlight, long seed, Path logFile) {
+        this.scenario = scenario;
+        this.rate = rate;
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+        this.random = new SplittableRandom(seed ^ scenario.name().hashCode());
+        try {
+            this.logStream = new PrintStream(logFile.toFile());
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.log = new HistogramLogWriter(logStream);
+    }
+
+    public record Result(String scenario,
+                         double targetRate,
+                         Duration measured,
+                         Histogram latencies,
+                         long errors,
+                         long dropped,
+                         Map<Integer, Long> statuses) {
+
+        public long requests() {
+            return latencies.getTotalCount() + dropped;
+        }
+
+        public double errorRate() {
+            return requests() == 0 ? 0 : (double) (errors + dropped) / requests();
+        }
+
+        public double throughput() {
+            return latencies.getTotalCount() / Math.max(1e-9, measured.toNanos() / 1e9);
+        }
+
+        public double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+
+    public String name() {
+        return scenario.name();
+    }
+
+    public void start(Duration warmup, Duration duration) {
+        long startMillis = System.currentTimeMillis();
+        log.outputLogFormatVersion();
+        log.outputStartTime(startMillis);
+        log.setBaseTime(startMillis);
+        log.outputLegend();
+        Thread.ofPlatform().name("load-" + scenario.name()).start(() -> generate(warmup, duration));
+    }
+
+    /**
+     * Moves what was recorded since the previous call into the total and the interval log.
+     */
+    public synchronized void collectInterval() {
+        interval = recorder.getIntervalHistogram(interval);
+        if (interval.getTotalCount() > 0) {
+            total.add(interval);
+            log.outputIntervalHistogram(interval);
+        }
+    }
+
+    /**
+     * Waits for the generator to finish and its pending requests to answer, at most {@code timeout}.
+     */
+    public Result awaitResult(Duration duration, Duration timeout) throws InterruptedException {
+        drained.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        collectInterval();
+        logStream.close();
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        statuses.forEach((status, count) -> byStatus.put(status, count.sum()));
+        return new Result(scenario.name(), rate, duration, total.copy(), errors.sum(), dropped.sum(), byStatus);
+    }
+
+    private void generate(Duration warmup, Duration duration) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long due = start + i * intervalNanos;
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            ApiClient.Request request = scenario.next(random);
+            boolean measured = due >= measureFrom;
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    dropped.increment();
+                }
+                continue;
+            }
+            client.send(request).subscribe(
+                    status -> complete(due, measured, status),
+                    error -> complete(due, measured, -1));
+        }
+        while (inFlight.get() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        drained.countDown();
+    }
+
+    private void complete(long due, boolean measured, int status) {
+        if (measured) {
+            recorder.recordValue(Math.min(System.nanoTime() - due, HIGHEST_TRACKABLE_NANOS));
+            if (status < 200 || status >= 300) {
+                errors.increment();
+            }
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+        inFlight.decrementAndGet();
+    }
+}
@@ -0,0 +1,125 @@
+package co.com.nequi.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * Checks every scenario against the SLOs of the profile and writes the run's reports: one HDR
+ * percentile distribution ({@code .hgrm}, in milliseconds) per scenario and a {@code summary.json}
+ * with the verdicts. Supported SLOs are {@code p50-ms}, {@code p99-ms}, {@code p999-ms} and
+ * {@code max-error-rate}; the ones a profile leaves out are not checked.
+ */
+public final class SloReport {
+
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final Map<String, Double> PERCENTILES = Map.of("p50-ms", 50.0, "p99-ms", 99.0, "p999-ms", 99.9);
+
+    private final String profile;
+    private final List<ScenarioRunner.Result> results;
+    private final List<Check> checks;
+
+    public record Check(String scenario, String slo, double limit, double actual, boolean passed) {
+    }
+
+    private SloReport(String profile, List<ScenarioRunner.Result> results, List<Check> checks) {
+        this.profile = profile;
+        this.results = results;
+        this.checks = checks;
+    }
+
+    public static SloReport evaluate(WorkloadProfile profile, List<ScenarioRunner.Result> results) {
+        List<Check> checks = new ArrayList<>();
+        for (ScenarioRunner.Result result : results) {
+            for (String slo : List.of("p50-ms", "p99-ms", "p999-ms")) {
+                OptionalDouble limit = profile.slo(result.scenario(), slo);
+                if (limit.isPresent()) {
+                    double actual = result.percentileMillis(PERCENTILES.get(slo));
+                    checks.add(new Check(result.scenario(), slo, limit.getAsDouble(), actual, actual <= limit.getAsDouble()));
+                }
+            }
+            OptionalDouble maxErrorRate = profile.slo(result.scenario(), "max-error-rate");
+            if (maxErrorRate.isPresent()) {
+                double actual = result.errorRate();
+                checks.add(new Check(result.scenario(), "max-error-rate", maxErrorRate.getAsDouble(), actual,
+                        actual <= maxErrorRate.getAsDouble()));
+            }
+        }
+        return new SloReport(profile.name(), results, checks);
+    }
+
+    public boolean passed() {
+        return checks.stream().allMatch(Check::passed);
+    }
+
+    public void write(Path directory) {
+        try {
+            for (ScenarioRunner.Result result : results) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(result.scenario() + ".hgrm")))) {
+                    result.latencies().outputPercentileDistribution(out, NANOS_PER_MILLI);
+                }
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(directory.resolve("summary.json").toFile(), summary());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String render() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%nProfile %s%n%-14s %9s %9s %8s %8s %8s %8s %8s%n", profile,
+                "scenario", "target/s", "actual/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors"));
+        for (ScenarioRunner.Result result : results) {
+            out.append(String.format(Locale.ROOT, "%-14s %9.1f %9.1f %8.2f %8.2f %8.2f %8.2f %7.3f%%%n",
+                    result.scenario(), result.targetRate(), result.throughput(),
+                    result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(99.9),
+                    result.latencies().getMaxValue() / NANOS_PER_MILLI, result.errorRate() * 100));
+        }
+        out.append(System.lineSeparator());
+        for (Check check : checks) {
+            out.append(String.format(Locale.ROOT, "%-4s %-14s %-15s limit %-10s actual %.4f%n",
+                    check.passed() ? "PASS" : "FAIL", check.scenario(), check.slo(),
+                    String.format(Locale.ROOT, "%.4f", check.limit()), check.actual()));
+        }
+        out.append(passed() ? "All SLOs met" : "SLOs missed").append(System.lineSeparator());
+        return out.toString();
+    }
+
+    private Map<String, Object> summary() {
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        for (ScenarioRunner.Result result : results) {
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("targetRate", result.targetRate());
+            scenario.put("throughput", result.throughput());
+            scenario.put("requests", result.requests());
+            scenario.put("errors", result.errors());
+            scenario.put("dropped", result.dropped());
+            scenario.put("errorRate", result.errorRate());
+            scenario.put("statuses", result.statuses());
+            scenario.put("p50Ms", result.percentileMillis(50));
+            scenario.put("p90Ms", result.percentileMillis(90));
+            scenario.put("p99Ms", result.percentileMillis(99));
+            scenario.put("p999Ms", result.percentileMillis(99.9));
+            scenario.put("maxMs", result.latencies().getMaxValue() / NANOS_PER_MILLI);
+            scenarios.put(result.scenario(), scenario);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("profile", profile);
+        summary.put("passed", passed());
+        summary.put("scenarios", scenarios);
+        summary.put("checks", checks);
+        return summary;
+    }
+}
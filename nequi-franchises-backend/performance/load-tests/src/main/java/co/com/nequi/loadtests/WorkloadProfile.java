@@ -0,0 +1,92 @@
+package co.com.nequi.loadtests;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.OptionalDouble;
+import java.util.Properties;
+
+/**
+ * A workload profile: the data set to seed, how long to run, the arrival rate of every scenario and
+ * the SLOs it must meet. Profiles are properties files, either bundled under {@code profiles/} and
+ * selected by name, or given as a path. The same profile and seed always produce the same data
+ * set and the same request sequence.
+ */
+public final class WorkloadProfile {
+
+    private final String name;
+    private final Properties properties;
+
+    private WorkloadProfile(String name, Properties properties) {
+        this.name = name;
+        this.properties = properties;
+    }
+
+    public static WorkloadProfile load(String nameOrPath) {
+        Properties properties = new Properties();
+        Path path = Path.of(nameOrPath);
+        try (InputStream in = Files.isRegularFile(path)
+                ? Files.newInputStream(path)
+                : WorkloadProfile.class.getResourceAsStream("/profiles/" + nameOrPath + ".properties")) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown workload profile: " + nameOrPath);
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read workload profile " + nameOrPath, e);
+        }
+        String name = path.getFileName().toString().replaceFirst("\\.properties$", "");
+        return new WorkloadProfile(name, properties);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long seed() {
+        return Long.parseLong(required("seed"));
+    }
+
+    public int getInt(String key) {
+        return Integer.parseInt(required(key));
+    }
+
+    public long getLong(String key) {
+        return Long.parseLong(required(key));
+    }
+
+    public Duration warmup() {
+        return Duration.ofSeconds(getLong("warmup-seconds"));
+    }
+
+    public Duration duration() {
+        return Duration.ofSeconds(getLong("duration-seconds"));
+    }
+
+    /**
+     * Requests per second for the scenario; {@code 0} or absent leaves it out of the run.
+     */
+    public double rate(String scenario) {
+        return Double.parseDouble(properties.getProperty(scenario + ".rate", "0"));
+    }
+
+    public int scenarioInt(String scenario, String key) {
+        return getInt(scenario + "." + key);
+    }
+
+    public OptionalDouble slo(String scenario, String key) {
+        String value = properties.getProperty(scenario + ".slo." + key);
+        return value == null ? OptionalDouble.empty() : OptionalDouble.of(Double.parseDouble(value));
+    }
+
+    private String required(String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Workload profile " + name + " is missing " + key);
+        }
+        return value.strip();
+    }
+}
@@ -0,0 +1,36 @@
+package co.com.nequi.loadtests.scenario;
+
+import co.com.nequi.loadtests.ApiClient;
+import co.com.nequi.loadtests.Dataset;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Branch listings resumed from cursors collected while seeding, so every request reads a page
+ * past the first one, as clients paging through a large branch do.
+ */
+public final class DeepListingScenario implements Scenario {
+
+    public static final String NAME = "deep-listing";
+
+    private final List<Dataset.Page> pages;
+    private final int pageSize;
+
+    public DeepListingScenario(Dataset dataset, int pageSize) {
+        this.pages = dataset.deepPages();
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public ApiClient.Request next(SplittableRandom random) {
+        Dataset.Page page = pages.get(random.nextInt(pages.size()));
+        return ApiClient.Request.get(page.branch().productsUri() + "?limit=" + pageSize
+                + "&cursor=" + ApiClient.queryValue(page.cursor()));
+    }
+}
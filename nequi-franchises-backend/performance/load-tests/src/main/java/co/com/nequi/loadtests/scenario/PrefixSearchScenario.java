@@ -0,0 +1,40 @@
+package co.com.nequi.loadtests.scenario;
+
+import co.com.nequi.loadtests.ApiClient;
+import co.com.nequi.loadtests.Dataset;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Name search in a random branch with a two to four letter prefix of the seeded vocabulary, the
+ * way a search box sends it while the user types.
+ */
+public final class PrefixSearchScenario implements Scenario {
+
+    public static final String NAME = "prefix-search";
+
+    private final List<Dataset.Branch> branches;
+    private final List<String> words;
+    private final int pageSize;
+
+    public PrefixSearchScenario(Dataset dataset, List<String> words, int pageSize) {
+        this.branches = dataset.branches();
+        this.words = words;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public ApiClient.Request next(SplittableRandom random) {
+        Dataset.Branch branch = branches.get(random.nextInt(branches.size()));
+        String word = words.get(random.nextInt(words.size()));
+        String prefix = word.substring(0, Math.min(word.length(), 2 + random.nextInt(3)));
+        return ApiClient.Request.get(branch.productsUri() + "/search?prefix="
+                + ApiClient.queryValue(prefix) + "&limit=" + pageSize);
+    }
+}
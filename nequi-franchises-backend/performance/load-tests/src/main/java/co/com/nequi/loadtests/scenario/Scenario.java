@@ -0,0 +1,16 @@
+package co.com.nequi.loadtests.scenario;
+
+import co.com.nequi.loadtests.ApiClient;
+
+import java.util.SplittableRandom;
+
+/**
+ * One kind of request in the workload mix. The generator asks for the next request from a single
+ * thread with a random seeded per scenario, so a profile always replays the same sequence.
+ */
+public interface Scenario {
+
+    String name();
+
+    ApiClient.Request next(SplittableRandom random);
+}
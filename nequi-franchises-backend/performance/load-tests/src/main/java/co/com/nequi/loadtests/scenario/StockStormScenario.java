@@ -0,0 +1,44 @@
+package co.com.nequi.loadtests.scenario;
+
+import co.com.nequi.loadtests.ApiClient;
+import co.com.nequi.loadtests.Dataset;
+import io.netty.handler.codec.http.HttpMethod;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Single stock changes of one unit, up or down, on the hot products. Picks are skewed so the first
+ * hot product takes the largest share, as a flash sale does. Every request carries a fresh
+ * idempotency key; the run id keeps keys from colliding with an earlier run against the same app.
+ */
+public final class StockStormScenario implements Scenario {
+
+    public static final String NAME = "stock-storm";
+
+    private final List<Dataset.Product> hotProducts;
+    private final String runId;
+    private long sequence;
+
+    public StockStormScenario(Dataset dataset, String runId) {
+        this.hotProducts = dataset.hotProducts();
+        this.runId = runId;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public ApiClient.Request next(SplittableRandom random) {
+        double skew = random.nextDouble();
+        Dataset.Product product = hotProducts.get((int) (hotProducts.size() * skew * skew));
+        int delta = random.nextBoolean() ? 1 : -1;
+        String uri = "/v1/franchises/" + product.franchiseId() + "/branches/" + product.branchId()
+                + "/products/" + product.productId() + "/stock";
+        return new ApiClient.Request(HttpMethod.PATCH, uri, "{\"delta\":" + delta + "}",
+                Map.of("Idempotency-Key", runId + "-" + sequence++));
+    }
+}
@@ -0,0 +1,33 @@
+package co.com.nequi.loadtests.scenario;
+
+import co.com.nequi.loadtests.ApiClient;
+import co.com.nequi.loadtests.Dataset;
+
+import java.util.SplittableRandom;
+
+/**
+ * First page of the top products per branch of the big franchise, the one with most branches and
+ * the hot products, so its leaders keep changing under the stock storm.
+ */
+public final class TopProductsScenario implements Scenario {
+
+    public static final String NAME = "top-products";
+
+    private final String franchiseId;
+    private final int pageSize;
+
+    public TopProductsScenario(Dataset dataset, int pageSize) {
+        this.franchiseId = dataset.franchiseIds().get(0);
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public ApiClient.Request next(SplittableRandom random) {
+        return ApiClient.Request.get("/v1/franchises/" + franchiseId + "/branches/top-products?limit=" + pageSize);
+    }
+}
@@ -121,6 +121,28 @@ module "load_balancer" {
   tags                = local.tags
 }
 
+# Pagination cursors are signed with this key; every task must share it or cursors issued by one
+# replica are rejected by the others and after each deployment.
+data "aws_secretsmanager_random_password" "cursor_secret" {
+  password_length     = 48
+  exclude_punctuation = true
+}
+
+resource "aws_secretsmanager_secret" "cursor_secret" {
+  name        = "${local.name_prefix}/pagination-cursor-secret"
+  description = "HMAC key used to sign pagination cursors"
+  tags        = local.tags
+}
+
+resource "aws_secretsmanager_secret_version" "cursor_secret" {
+  secret_id     = aws_secretsmanager_secret.cursor_secret.id
+  secret_string = data.aws_secretsmanager_random_password.cursor_secret.random_password
+
+  lifecycle {
+    ignore_changes = [secret_string]
+  }
+}
+
 locals {
   container_image = "${module.container_registry.repository_url}:${var.container_image_tag}"
   container_environment = merge(
@@ -148,6 +170,9 @@ module "ecs_service" {
   cpu                              = var.task_cpu
   memory                           = var.task_memory
   environment                      = local.container_environment
+  secrets = {
+    APP_PAGINATION_CURSOR_SECRET = aws_secretsmanager_secret_version.cursor_secret.arn
+  }
   cloudwatch_log_retention_in_days = var.log_retention_in_days
   enable_execute_command           = var.enable_execute_command
   allowed_security_group_ids       = [module.load_balancer.security_group_id]
@@ -160,7 +185,9 @@ module "ecs_service" {
       effect = "Allow"
       actions = [
         "dynamodb:GetItem",
+        "dynamodb:BatchGetItem",
         "dynamodb:PutItem",
+        "dynamodb:BatchWriteItem",
         "dynamodb:UpdateItem",
         "dynamodb:DeleteItem",
         "dynamodb:Query",
@@ -17,6 +17,13 @@ locals {
       value = value
     }
   ]
+  secrets = [
+    for key, arn in var.secrets :
+    {
+      name      = key
+      valueFrom = arn
+    }
+  ]
 }
 
 resource "aws_security_group" "service" {
@@ -98,6 +105,25 @@ resource "aws_iam_role_policy_attachment" "execution_default" {
   policy_arn = "arn:aws:iam::aws:policy/service-role/AmazonECSTaskExecutionRolePolicy"
 }
 
+data "aws_iam_policy_document" "execution_secrets" {
+  count = length(var.secrets) > 0 ? 1 : 0
+
+  statement {
+    sid       = "ReadContainerSecrets"
+    effect    = "Allow"
+    actions   = ["secretsmanager:GetSecretValue"]
+    resources = distinct(values(var.secrets))
+  }
+}
+
+resource "aws_iam_role_policy" "execution_secrets" {
+  count = length(var.secrets) > 0 ? 1 : 0
+
+  name   = "${var.name}-execution-secrets"
+  role   = aws_iam_role.execution.id
+  policy = data.aws_iam_policy_document.execution_secrets[0].json
+}
+
 resource "aws_iam_role" "task" {
   name               = "${var.name}-task-role"
   assume_role_policy = data.aws_iam_policy_document.execution_assume_role.json
@@ -186,6 +212,7 @@ resource "aws_ecs_task_definition" "this" {
         }
       ]
       environment = local.environment
+      secrets     = length(local.secrets) > 0 ? local.secrets : null
       logConfiguration = {
         logDriver = "awslogs"
         options = {
@@ -254,6 +281,7 @@ resource "aws_ecs_service" "this" {
     aws_security_group_rule.from_sg,
     aws_security_group_rule.from_cidr,
     aws_iam_role_policy_attachment.execution_default,
+    aws_iam_role_policy.execution_secrets,
     aws_ecs_cluster_capacity_providers.this,
   ]
 }
@@ -59,6 +59,12 @@ variable "environment" {
   default     = {}
 }
 
+variable "secrets" {
+  description = "Environment variables injected from Secrets Manager, as variable name => secret ARN"
+  type        = map(string)
+  default     = {}
+}
+
 variable "assign_public_ip" {
   description = "Assign a public IP to Fargate tasks"
   type        = bool